@@ -1,16 +1,17 @@
 package com.splitwise.analytics.consumer;
 
-import com.splitwise.analytics.event.ExpenseEvent;
-import com.splitwise.analytics.event.GroupEvent;
-import com.splitwise.analytics.event.SettlementEvent;
+import com.splitwise.events.ExpenseEvent;
+import com.splitwise.events.GroupEvent;
 import com.splitwise.analytics.model.AnalyticsEvent;
 import com.splitwise.analytics.repository.AnalyticsEventRepository;
+import com.splitwise.events.SettlementEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Component
@@ -28,12 +29,7 @@ public class AnalyticsEventConsumer {
                 .source("expense-service")
                 .userId(event.getPaidByUserId())
                 .groupId(event.getGroupId())
-                .data(Map.of(
-                        "expenseId", event.getExpenseId(),
-                        "amount", event.getAmount(),
-                        "description", event.getDescription(),
-                        "category", event.getCategory() != null ? event.getCategory() : "uncategorized"
-                ))
+                .data(expenseData(event))
                 .timestamp(event.getTimestamp())
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -76,4 +72,22 @@ public class AnalyticsEventConsumer {
                 .build();
         repository.save(analyticsEvent);
     }
+
+    /**
+     * Batch import events carry a count instead of a single expense, so nullable fields
+     * are only copied when present (Map.of rejects nulls).
+     */
+    private Map<String, Object> expenseData(ExpenseEvent event) {
+        Map<String, Object> data = new HashMap<>();
+        if (event.getExpenseId() != null) {
+            data.put("expenseId", event.getExpenseId());
+        }
+        if (event.getExpenseCount() != null) {
+            data.put("expenseCount", event.getExpenseCount());
+        }
+        data.put("amount", event.getAmount());
+        data.put("description", event.getDescription() != null ? event.getDescription() : "");
+        data.put("category", event.getCategory() != null ? event.getCategory() : "uncategorized");
+        return data;
+    }
 }
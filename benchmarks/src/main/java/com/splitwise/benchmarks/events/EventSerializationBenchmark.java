@@ -0,0 +1,103 @@
+package com.splitwise.benchmarks.events;
+
+import com.splitwise.events.AvroEventDeserializer;
+import com.splitwise.events.AvroEventSerializer;
+import com.splitwise.events.ExpenseEvent;
+import com.splitwise.events.ExpenseEventAvroMapper;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of an expense event on the wire: the Spring Kafka JSON serde the services used before
+ * against {@link AvroEventSerializer}. The encoded sizes, including the JSON type header,
+ * are printed once per fork; run with {@code -prof gc} to compare allocation per event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class EventSerializationBenchmark {
+
+    private static final String TOPIC = "expense-events";
+
+    private final JsonSerializer<ExpenseEvent> jsonSerializer = new JsonSerializer<>();
+    private final JsonDeserializer<ExpenseEvent> jsonDeserializer = new JsonDeserializer<>(ExpenseEvent.class);
+    private final AvroEventSerializer<ExpenseEvent> avroSerializer = new AvroEventSerializer<>();
+    private final AvroEventDeserializer<ExpenseEvent> avroDeserializer = new AvroEventDeserializer<>();
+
+    private ExpenseEvent event;
+    private Headers jsonHeaders;
+    private byte[] json;
+    private byte[] avro;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, String> avroConfig = Map.of("splitwise.avro.mappers", TOPIC + "=" + ExpenseEventAvroMapper.class.getName());
+        avroSerializer.configure(avroConfig, false);
+        avroDeserializer.configure(avroConfig, false);
+        jsonDeserializer.addTrustedPackages("com.splitwise.expense.event");
+
+        event = ExpenseEvent.builder()
+                .eventType("EXPENSE_CREATED")
+                .expenseId(1_234_567L)
+                .description("Dinner at the airport")
+                .amount(new BigDecimal("86.40"))
+                .paidByUserId("6f1c2d9e-4b7a-4e0f-9a43-8d2b1c5e7f90")
+                .groupId(4_821L)
+                .category("FOOD")
+                .timestamp(LocalDateTime.of(2024, 3, 1, 19, 42, 7))
+                .build();
+
+        jsonHeaders = new RecordHeaders();
+        json = jsonSerializer.serialize(TOPIC, jsonHeaders, event);
+        avro = avroSerializer.serialize(TOPIC, event);
+
+        int headerBytes = 0;
+        for (var header : jsonHeaders) {
+            headerBytes += header.key().getBytes(StandardCharsets.UTF_8).length + header.value().length;
+        }
+        System.out.printf("%nExpenseEvent size: JSON %d bytes + %d bytes of type header, Avro %d bytes%n",
+                json.length, headerBytes, avro.length);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public byte[] serializeAvro() {
+        return avroSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public ExpenseEvent deserializeJson() {
+        return jsonDeserializer.deserialize(TOPIC, jsonHeaders, json);
+    }
+
+    @Benchmark
+    public ExpenseEvent deserializeAvro() {
+        return avroDeserializer.deserialize(TOPIC, avro);
+    }
+}
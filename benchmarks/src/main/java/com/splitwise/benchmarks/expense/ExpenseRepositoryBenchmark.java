@@ -0,0 +1,227 @@
+package com.splitwise.benchmarks.expense;
+
+import com.splitwise.benchmarks.expense.data.DatasetSpec;
+import com.splitwise.benchmarks.expense.data.ExpenseDataGenerator;
+import com.splitwise.expense.model.Expense;
+import com.splitwise.expense.model.ExpenseSplit;
+import com.splitwise.expense.repository.CounterpartyBalance;
+import com.splitwise.expense.repository.ExpenseRepository;
+import com.splitwise.expense.repository.ExpenseSplitRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of every {@link ExpenseRepository} and {@link ExpenseSplitRepository} query against a
+ * PostgreSQL database seeded by {@link ExpenseDataGenerator}. Each invocation picks a random
+ * expense, group or user from a sample of the data set, so results are not one warm cache line.
+ * <p>
+ * The schema is migrated up to {@code -Dbenchmark.flyway.target} (default: latest), which is how
+ * the same data is measured with and without a migration's indexes; see the module README.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseRepositoryBenchmark {
+
+    private static final int SAMPLE_SIZE = 4_096;
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 51);
+
+    private ConfigurableApplicationContext context;
+    private ExpenseRepository expenseRepository;
+    private ExpenseSplitRepository splitRepository;
+
+    // Parallel arrays describing sampled active expenses
+    private long[] expenseIds;
+    private long[] groupIds;
+    private String[] payers;
+    private LocalDateTime[] dates;
+    private String[][] friendPairs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DataSource seedSource = ExpenseDataGenerator.dataSource();
+        ExpenseDataGenerator.migrate(seedSource, System.getProperty("benchmark.flyway.target", "latest"));
+        new ExpenseDataGenerator(seedSource, DatasetSpec.fromSystemProperties()).ensureLoaded();
+
+        // Command-line arguments, so they win over the service's own application.yml
+        context = new SpringApplicationBuilder(RepositoryContext.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + System.getProperty("benchmark.db.url",
+                                "jdbc:postgresql://localhost:5432/splitwise_bench?reWriteBatchedInserts=true"),
+                        "--spring.datasource.username=" + System.getProperty("benchmark.db.user", "admin"),
+                        "--spring.datasource.password=" + System.getProperty("benchmark.db.password",
+                                String.valueOf(System.getenv("POSTGRES_PASSWORD"))),
+                        // Already migrated above, possibly to an older target
+                        "--spring.flyway.enabled=false",
+                        "--eureka.client.enabled=false",
+                        "--spring.main.banner-mode=off");
+        expenseRepository = context.getBean(ExpenseRepository.class);
+        splitRepository = context.getBean(ExpenseSplitRepository.class);
+
+        loadSamples(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // ==================== ExpenseRepository ====================
+
+    @Benchmark
+    public Optional<Expense> findByIdAndIsActiveTrue() {
+        return expenseRepository.findByIdAndIsActiveTrue(expenseIds[pick()]);
+    }
+
+    @Benchmark
+    public List<Expense> findByUserIdOrderByDateDesc() {
+        return expenseRepository.findByUserIdOrderByDateDesc(payers[pick()]);
+    }
+
+    @Benchmark
+    public List<Expense> findByGroupIdAndPaidBy() {
+        int i = pick();
+        return expenseRepository.findByGroupIdAndPaidBy(groupIds[i], payers[i]);
+    }
+
+    @Benchmark
+    public int countByGroupId() {
+        return expenseRepository.countByGroupId(groupIds[pick()]);
+    }
+
+    @Benchmark
+    public List<Expense> findFriendExpenses() {
+        String[] pair = friendPairs[ThreadLocalRandom.current().nextInt(friendPairs.length)];
+        return expenseRepository.findFriendExpenses(pair[0], pair[1]);
+    }
+
+    @Benchmark
+    public List<Expense> findGroupPage() {
+        return expenseRepository.findGroupPage(groupIds[pick()], FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<Expense> findGroupPageAfter() {
+        int i = pick();
+        return expenseRepository.findGroupPageAfter(groupIds[i], dates[i], expenseIds[i], FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<Expense> findUserPage() {
+        return expenseRepository.findUserPage(payers[pick()], FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<Expense> findUserPageAfter() {
+        int i = pick();
+        return expenseRepository.findUserPageAfter(payers[i], dates[i], expenseIds[i], FIRST_PAGE);
+    }
+
+    // ==================== ExpenseSplitRepository ====================
+
+    @Benchmark
+    public List<ExpenseSplit> findByExpenseId() {
+        return splitRepository.findByExpenseId(expenseIds[pick()]);
+    }
+
+    @Benchmark
+    public List<ExpenseSplit> findSplitsByUserId() {
+        return splitRepository.findByUserId(payers[pick()]);
+    }
+
+    @Benchmark
+    public BigDecimal getTotalOwedByUser() {
+        return splitRepository.getTotalOwedByUser(payers[pick()]);
+    }
+
+    @Benchmark
+    public BigDecimal getTotalOwedToUser() {
+        return splitRepository.getTotalOwedToUser(payers[pick()]);
+    }
+
+    @Benchmark
+    public List<CounterpartyBalance> getBalanceBreakdown() {
+        return splitRepository.getBalanceBreakdown(payers[pick()]);
+    }
+
+    private int pick() {
+        return ThreadLocalRandom.current().nextInt(expenseIds.length);
+    }
+
+    /**
+     * Evenly spaced active group expenses and friend pairs, so every run samples the same keys
+     */
+    private void loadSamples(JdbcTemplate jdbc) {
+        Long groupExpenses = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM expenses WHERE is_active = TRUE AND group_id IS NOT NULL", Long.class);
+        long stride = Math.max(1, groupExpenses / SAMPLE_SIZE);
+
+        List<Object[]> rows = jdbc.query(
+                "SELECT id, group_id, paid_by, date FROM expenses " +
+                        "WHERE is_active = TRUE AND group_id IS NOT NULL AND id % ? = 0 ORDER BY id",
+                (rs, n) -> new Object[]{rs.getLong(1), rs.getLong(2), rs.getString(3),
+                        rs.getTimestamp(4).toLocalDateTime()},
+                stride);
+        expenseIds = new long[rows.size()];
+        groupIds = new long[rows.size()];
+        payers = new String[rows.size()];
+        dates = new LocalDateTime[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            expenseIds[i] = (Long) rows.get(i)[0];
+            groupIds[i] = (Long) rows.get(i)[1];
+            payers[i] = (String) rows.get(i)[2];
+            dates[i] = (LocalDateTime) rows.get(i)[3];
+        }
+
+        friendPairs = jdbc.query(
+                "SELECT paid_by, friend_user_id FROM expenses " +
+                        "WHERE is_active = TRUE AND expense_type = 'FRIEND' ORDER BY id LIMIT ?",
+                (rs, n) -> new String[]{rs.getString(1), rs.getString(2)},
+                SAMPLE_SIZE).toArray(new String[0][]);
+
+        if (expenseIds.length == 0 || friendPairs.length == 0) {
+            throw new IllegalStateException("Data set has no active group or friend expenses to sample");
+        }
+    }
+
+    /**
+     * Only the JPA layer of expense-service: entities, repositories and a DataSource
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = KafkaAutoConfiguration.class)
+    @EntityScan(basePackageClasses = Expense.class)
+    @EnableJpaRepositories(basePackageClasses = ExpenseRepository.class)
+    static class RepositoryContext {
+    }
+}
@@ -0,0 +1,111 @@
+package com.splitwise.benchmarks.expense;
+
+import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.model.ExpenseSplit;
+import com.splitwise.expense.model.SplitType;
+import com.splitwise.expense.service.SplitCalculatorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link SplitCalculatorService#calculateSplits} per split type and participant count.
+ * Run with {@code -prof gc} to see bytes allocated per expense.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SplitCalculatorBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1234.56");
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Param({"EQUAL", "EXACT", "PERCENTAGE", "SHARES", "ADJUSTMENT"})
+    private SplitType splitType;
+
+    @Param({"2", "10", "100", "1000"})
+    private int participants;
+
+    private final SplitCalculatorService calculator = new SplitCalculatorService();
+
+    private CreateExpenseRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> userIds = new ArrayList<>(participants);
+        for (int i = 0; i < participants; i++) {
+            userIds.add("user-" + i);
+        }
+
+        request = CreateExpenseRequest.builder()
+                .description("benchmark")
+                .amount(AMOUNT)
+                .groupId(1L)
+                .paidBy(userIds.get(0))
+                .splitType(splitType)
+                .build();
+
+        switch (splitType) {
+            case EQUAL -> request.setParticipantIds(userIds);
+            case EXACT -> request.setExactAmounts(evenShares(userIds, AMOUNT, 2));
+            case PERCENTAGE -> request.setPercentages(evenShares(userIds, HUNDRED, 4));
+            case SHARES -> request.setShares(weights(userIds));
+            case ADJUSTMENT -> {
+                request.setParticipantIds(userIds);
+                request.setAdjustments(Map.of(userIds.get(0), BigDecimal.ONE));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<ExpenseSplit> calculateSplits() {
+        return calculator.calculateSplits(request);
+    }
+
+    /**
+     * Weights 1, 2, 3, 1, 2, 3, ... so the shares leave remainders to round
+     */
+    private static Map<String, BigDecimal> weights(List<String> userIds) {
+        Map<String, BigDecimal> weights = new LinkedHashMap<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            weights.put(userIds.get(i), BigDecimal.valueOf(1 + i % 3));
+        }
+        return weights;
+    }
+
+    /**
+     * Divide total into per-user shares that sum back to total exactly,
+     * as the calculator validates EXACT and PERCENTAGE inputs against it.
+     */
+    private static Map<String, BigDecimal> evenShares(List<String> userIds, BigDecimal total, int scale) {
+        BigDecimal share = total.divide(BigDecimal.valueOf(userIds.size()), scale, RoundingMode.DOWN);
+        Map<String, BigDecimal> shares = new LinkedHashMap<>();
+        BigDecimal allocated = BigDecimal.ZERO;
+        for (int i = 0; i < userIds.size() - 1; i++) {
+            shares.put(userIds.get(i), share);
+            allocated = allocated.add(share);
+        }
+        shares.put(userIds.get(userIds.size() - 1), total.subtract(allocated));
+        return shares;
+    }
+}
@@ -0,0 +1,63 @@
+package com.splitwise.benchmarks.expense.data;
+
+/**
+ * Shape of a generated expense data set. The same spec and seed always produce the same rows.
+ * Every field can be overridden with a {@code -Ddataset.<name>=<value>} system property.
+ *
+ * @param seed             seed of the random generator
+ * @param users            distinct user IDs ({@code user-0 .. user-(n-1)})
+ * @param groups           groups, numbered from 1
+ * @param membersPerGroup  users drawn into each group
+ * @param expensesPerGroup group expenses per group
+ * @param splitFanOut      participants per group expense (payer included), at most membersPerGroup
+ * @param friendExpenses   direct expenses between two users, outside any group
+ * @param inactivePercent  share of expenses that are soft-deleted
+ */
+public record DatasetSpec(long seed,
+                          int users,
+                          int groups,
+                          int membersPerGroup,
+                          int expensesPerGroup,
+                          int splitFanOut,
+                          int friendExpenses,
+                          int inactivePercent) {
+
+    public DatasetSpec {
+        if (users < 2 || groups < 1 || expensesPerGroup < 1) {
+            throw new IllegalArgumentException("Need at least 2 users, 1 group and 1 expense per group");
+        }
+        if (membersPerGroup < 2 || membersPerGroup > users) {
+            throw new IllegalArgumentException("membersPerGroup must be between 2 and users (" + users + ")");
+        }
+        if (splitFanOut < 1 || splitFanOut > membersPerGroup) {
+            throw new IllegalArgumentException("splitFanOut must be between 1 and membersPerGroup (" + membersPerGroup + ")");
+        }
+        if (inactivePercent < 0 || inactivePercent > 100) {
+            throw new IllegalArgumentException("inactivePercent must be between 0 and 100");
+        }
+    }
+
+    /**
+     * 10,000 users in 1,000 groups of 8, 200 expenses per group split 4 ways:
+     * 200,000 group expenses and 800,000 splits, plus 20,000 friend expenses
+     */
+    public static DatasetSpec fromSystemProperties() {
+        return new DatasetSpec(
+                Long.getLong("dataset.seed", 42L),
+                Integer.getInteger("dataset.users", 10_000),
+                Integer.getInteger("dataset.groups", 1_000),
+                Integer.getInteger("dataset.membersPerGroup", 8),
+                Integer.getInteger("dataset.expensesPerGroup", 200),
+                Integer.getInteger("dataset.splitFanOut", 4),
+                Integer.getInteger("dataset.friendExpenses", 20_000),
+                Integer.getInteger("dataset.inactivePercent", 5));
+    }
+
+    public long totalExpenses() {
+        return (long) groups * expensesPerGroup + friendExpenses;
+    }
+
+    public long totalSplits() {
+        return (long) groups * expensesPerGroup * splitFanOut + 2L * friendExpenses;
+    }
+}
@@ -0,0 +1,198 @@
+package com.splitwise.benchmarks.expense.data;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the expense-service tables with a reproducible synthetic data set described by a
+ * {@link DatasetSpec}. Rows are written with batched JDBC inserts and explicit IDs, after which
+ * the ID sequences are moved past them so the service can keep inserting on top.
+ * <p>
+ * Group expenses are split EQUAL between the payer and {@code splitFanOut - 1} other members;
+ * friend expenses are split between the two friends. Dates are spread over the two years before
+ * {@link #EPOCH}, which keeps the data independent of when it was generated.
+ * <p>
+ * Run standalone to migrate and seed a database:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar -Dbenchmark.db.url=... \
+ *      com.splitwise.benchmarks.expense.data.ExpenseDataGenerator
+ * </pre>
+ */
+public final class ExpenseDataGenerator {
+
+    static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int DATE_RANGE_MINUTES = 2 * 365 * 24 * 60;
+    private static final String[] CATEGORIES = {"FOOD", "TRANSPORT", "ACCOMMODATION", "ENTERTAINMENT", "OTHER"};
+
+    private static final String INSERT_EXPENSE = "INSERT INTO expenses (id, description, amount, currency, group_id, " +
+            "friend_user_id, expense_type, paid_by, created_by, category, split_type, date, created_at, updated_at, " +
+            "is_active) VALUES (?, ?, ?, 'USD', ?, ?, ?, ?, ?, ?, 'EQUAL', ?, ?, ?, ?)";
+    private static final String INSERT_SPLIT = "INSERT INTO expense_splits (id, user_id, amount, is_paid, expense_id) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final DatasetSpec spec;
+
+    private final List<Object[]> expenseRows = new ArrayList<>(BATCH_SIZE);
+    private final List<Object[]> splitRows = new ArrayList<>(BATCH_SIZE * 4);
+    private long expenseId;
+    private long splitId;
+
+    public ExpenseDataGenerator(DataSource dataSource, DatasetSpec spec) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.spec = spec;
+    }
+
+    public static void main(String[] args) {
+        DataSource dataSource = dataSource();
+        migrate(dataSource, System.getProperty("benchmark.flyway.target", "latest"));
+        new ExpenseDataGenerator(dataSource, DatasetSpec.fromSystemProperties()).ensureLoaded();
+    }
+
+    /**
+     * Generate the data set unless the expense tables already hold rows.
+     *
+     * @return true if rows were generated, false if existing data was kept
+     */
+    public boolean ensureLoaded() {
+        Long existing = jdbc.queryForObject("SELECT COUNT(*) FROM expenses", Long.class);
+        if (existing != null && existing > 0) {
+            System.out.printf("Keeping %,d existing expenses; drop the schema to regenerate%n", existing);
+            return false;
+        }
+        long started = System.nanoTime();
+        generate();
+        System.out.printf("Generated %,d expenses and %,d splits in %,d ms%n",
+                expenseId, splitId, (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+
+    private void generate() {
+        SplittableRandom random = new SplittableRandom(spec.seed());
+
+        for (long groupId = 1; groupId <= spec.groups(); groupId++) {
+            String[] members = drawUsers(random, spec.membersPerGroup());
+            for (int i = 0; i < spec.expensesPerGroup(); i++) {
+                shuffle(random, members);
+                // members[0] pays; the first splitFanOut members take part
+                String[] participants = new String[spec.splitFanOut()];
+                System.arraycopy(members, 0, participants, 0, participants.length);
+                addExpense(random, groupId, null, participants);
+            }
+        }
+
+        for (int i = 0; i < spec.friendExpenses(); i++) {
+            String[] friends = drawUsers(random, 2);
+            addExpense(random, null, friends[1], friends);
+        }
+        flush();
+
+        jdbc.execute("SELECT setval('expenses_id_seq', " + expenseId + ")");
+        jdbc.execute("SELECT setval('expense_splits_id_seq', " + splitId + ")");
+        jdbc.execute("ANALYZE expenses");
+        jdbc.execute("ANALYZE expense_splits");
+    }
+
+    /**
+     * Queue one expense paid by participants[0] and its EQUAL splits
+     */
+    private void addExpense(SplittableRandom random, Long groupId, String friendUserId, String[] participants) {
+        long id = ++expenseId;
+        long cents = 100 + random.nextLong(50_000);
+        String payer = participants[0];
+        Timestamp date = Timestamp.valueOf(EPOCH.minusMinutes(random.nextInt(DATE_RANGE_MINUTES)));
+        boolean active = random.nextInt(100) >= spec.inactivePercent();
+
+        expenseRows.add(new Object[]{
+                id, "Expense " + id, BigDecimal.valueOf(cents, 2), groupId, friendUserId,
+                groupId != null ? "GROUP" : "FRIEND", payer, payer,
+                CATEGORIES[random.nextInt(CATEGORIES.length)], date, date, date, active});
+
+        // Even share, the last participant absorbs the remainder
+        long share = cents / participants.length;
+        for (int p = 0; p < participants.length; p++) {
+            long amount = p == participants.length - 1 ? cents - share * (participants.length - 1) : share;
+            splitRows.add(new Object[]{
+                    ++splitId, participants[p], BigDecimal.valueOf(amount, 2), participants[p].equals(payer), id});
+        }
+
+        if (expenseRows.size() >= BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (!expenseRows.isEmpty()) {
+            jdbc.batchUpdate(INSERT_EXPENSE, expenseRows);
+            jdbc.batchUpdate(INSERT_SPLIT, splitRows);
+            expenseRows.clear();
+            splitRows.clear();
+        }
+    }
+
+    /**
+     * count distinct user IDs, drawn uniformly
+     */
+    private String[] drawUsers(SplittableRandom random, int count) {
+        String[] users = new String[count];
+        int drawn = 0;
+        while (drawn < count) {
+            String candidate = "user-" + random.nextInt(spec.users());
+            boolean duplicate = false;
+            for (int i = 0; i < drawn && !duplicate; i++) {
+                duplicate = users[i].equals(candidate);
+            }
+            if (!duplicate) {
+                users[drawn++] = candidate;
+            }
+        }
+        return users;
+    }
+
+    private static void shuffle(SplittableRandom random, String[] values) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    /**
+     * Connection from -Dbenchmark.db.url / .user / .password, defaulting to a local
+     * splitwise_bench database with the credentials of the compose stack
+     */
+    public static DataSource dataSource() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("benchmark.db.url",
+                        "jdbc:postgresql://localhost:5432/splitwise_bench?reWriteBatchedInserts=true"),
+                System.getProperty("benchmark.db.user", "admin"),
+                System.getProperty("benchmark.db.password", System.getenv("POSTGRES_PASSWORD")));
+        dataSource.setDriverClassName("org.postgresql.Driver");
+        return dataSource;
+    }
+
+    /**
+     * Apply the expense-service migrations up to the given version ("latest" for all)
+     */
+    public static void migrate(DataSource dataSource, String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .table("flyway_schema_history_expense")
+                .baselineOnMigrate(true)
+                .target(target)
+                .load()
+                .migrate();
+    }
+}
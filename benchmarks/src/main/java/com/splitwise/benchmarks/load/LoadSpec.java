@@ -0,0 +1,56 @@
+package com.splitwise.benchmarks.load;
+
+import java.time.Duration;
+
+/**
+ * Shape of a closed-loop load run. Every field can be overridden with a
+ * {@code -Dload.<name>=<value>} system property.
+ *
+ * @param concurrency       client connections, each sending its next request when the previous one returns
+ * @param downstreamDelay   time the stub downstream takes to answer each call
+ * @param warmup            load applied before measuring, not recorded
+ * @param duration          measured load
+ * @param url               drive this URL instead of the embedded service (for a running service)
+ * @param userId            X-User-Id header sent with every request, as the gateway would; may be null
+ * @param maxConnections    pooled connections of the embedded service's RestTemplate, as {@code rest-client.max-connections}
+ */
+public record LoadSpec(int concurrency,
+                       Duration downstreamDelay,
+                       Duration warmup,
+                       Duration duration,
+                       String url,
+                       String userId,
+                       int maxConnections) {
+
+    public LoadSpec {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be at least 1");
+        }
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("duration must be positive");
+        }
+    }
+
+    /**
+     * 2,000 connections against a downstream that answers in 100 ms, 10 s warmup and 30 s measured:
+     * ten times Tomcat's default of 200 request threads. The RestTemplate pools 500 connections,
+     * the services' default.
+     */
+    public static LoadSpec fromSystemProperties() {
+        return new LoadSpec(
+                Integer.getInteger("load.concurrency", 2_000),
+                Duration.ofMillis(Long.getLong("load.downstreamDelayMs", 100L)),
+                Duration.ofSeconds(Long.getLong("load.warmupSeconds", 10L)),
+                Duration.ofSeconds(Long.getLong("load.durationSeconds", 30L)),
+                System.getProperty("load.url"),
+                System.getProperty("load.userId"),
+                Integer.getInteger("load.maxConnections", 500));
+    }
+
+    public boolean external() {
+        return url != null && !url.isBlank();
+    }
+}
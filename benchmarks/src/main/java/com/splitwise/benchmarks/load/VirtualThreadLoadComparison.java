@@ -0,0 +1,304 @@
+package com.splitwise.benchmarks.load;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Closed-loop HTTP load against a blocking Tomcat handler whose only work is a {@link RestTemplate}
+ * call to a slow downstream, the shape of most endpoints in the servlet services. The same handler
+ * is started twice, on Tomcat's platform thread pool and with {@code spring.threads.virtual.enabled},
+ * and driven with the same number of connections; throughput and latency percentiles of both runs
+ * are printed side by side.
+ * <p>
+ * The downstream is an in-process stub that sleeps {@code load.downstreamDelayMs} on a virtual
+ * thread, so it is never the bottleneck. With {@code -Dload.url=...} the harness drives a running
+ * service instead, for comparing a deployment started with and without {@code VIRTUAL_THREADS_ENABLED}.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.splitwise.benchmarks.load.VirtualThreadLoadComparison
+ * </pre>
+ */
+public final class VirtualThreadLoadComparison {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private VirtualThreadLoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSpec spec = LoadSpec.fromSystemProperties();
+
+        System.out.printf("JDK %s, %d cores, %,d connections, downstream %d ms, %,d pooled, %d s measured%n",
+                Runtime.version(), Runtime.getRuntime().availableProcessors(), spec.concurrency(),
+                spec.downstreamDelay().toMillis(), spec.maxConnections(), spec.duration().toSeconds());
+
+        List<Result> results = new ArrayList<>();
+        if (spec.external()) {
+            results.add(drive("external", URI.create(spec.url()), spec));
+        } else {
+            try (SlowDownstream downstream = new SlowDownstream(spec.downstreamDelay())) {
+                for (boolean virtual : new boolean[]{false, true}) {
+                    try (ConfigurableApplicationContext service =
+                                 startService(virtual, downstream.url(), spec.maxConnections())) {
+                        int port = ((ServletWebServerApplicationContext) service).getWebServer().getPort();
+                        results.add(drive(virtual ? "virtual" : "platform",
+                                URI.create("http://localhost:" + port + "/balance"), spec));
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%n%-10s %10s %8s %10s %9s %9s %9s%n",
+                "threads", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Result result : results) {
+            System.out.printf("%-10s %,10d %,8d %,10.0f %9.1f %9.1f %9.1f%n",
+                    result.label(), result.requests(), result.errors(), result.throughput(),
+                    result.percentileMillis(0.50), result.percentileMillis(0.99), result.percentileMillis(1.0));
+        }
+    }
+
+    private static ConfigurableApplicationContext startService(boolean virtual, String downstreamUrl,
+                                                               int maxConnections) {
+        // No application.yml of its own, so only these arguments configure the service
+        return new SpringApplicationBuilder(BalanceService.class)
+                .run("--spring.config.name=virtual-thread-load-comparison",
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--load.downstream-url=" + downstreamUrl,
+                        "--rest-client.max-connections=" + maxConnections,
+                        "--spring.main.banner-mode=off");
+    }
+
+    /**
+     * Warm up, then keep {@code concurrency} requests in flight for the measured duration
+     */
+    private static Result drive(String label, URI uri, LoadSpec spec) throws InterruptedException {
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(clients)
+                     .build()) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET();
+            if (spec.userId() != null) {
+                request.header("X-User-Id", spec.userId());
+            }
+
+            run("warmup", http, request.build(), spec.concurrency(), spec.warmup());
+            return run(label, http, request.build(), spec.concurrency(), spec.duration());
+        }
+    }
+
+    private static Result run(String label, HttpClient http, HttpRequest request, int concurrency,
+                              Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        Worker[] workers = new Worker[concurrency];
+        Thread[] threads = new Thread[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            workers[i] = new Worker(http, request, deadline);
+            threads[i] = Thread.ofVirtual().name("load-" + i).start(workers[i]);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = 0;
+        long errors = 0;
+        for (Worker worker : workers) {
+            total += worker.size;
+            errors += worker.errors;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.size);
+            offset += worker.size;
+        }
+        Arrays.sort(latencies);
+        return new Result(label, latencies, errors, duration);
+    }
+
+    /**
+     * One connection's worth of load: send, wait, record, repeat until the deadline
+     */
+    private static final class Worker implements Runnable {
+
+        private final HttpClient http;
+        private final HttpRequest request;
+        private final long deadline;
+
+        private long[] latencies = new long[256];
+        private int size;
+        private long errors;
+
+        Worker(HttpClient http, HttpRequest request, long deadline) {
+            this.http = http;
+            this.request = request;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            long started;
+            while ((started = System.nanoTime()) < deadline) {
+                try {
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        errors++;
+                        continue;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (size == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, size * 2);
+                }
+                latencies[size++] = System.nanoTime() - started;
+            }
+        }
+    }
+
+    private record Result(String label, long[] sortedLatencies, long errors, Duration duration) {
+
+        long requests() {
+            return sortedLatencies.length;
+        }
+
+        double throughput() {
+            return sortedLatencies.length / (duration.toNanos() / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    /**
+     * A downstream that answers every call after a fixed delay, on a virtual thread per request
+     */
+    private static final class SlowDownstream implements AutoCloseable {
+
+        private static final byte[] BODY = "{\"balance\":\"0.00\"}".getBytes(StandardCharsets.UTF_8);
+
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        SlowDownstream(Duration delay) throws IOException {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 8_192);
+            server.setExecutor(executor);
+            server.createContext("/", exchange -> {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, BODY.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(BODY);
+                }
+            });
+            server.start();
+        }
+
+        String url() {
+            return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.close();
+        }
+    }
+
+    /**
+     * A servlet endpoint that blocks on one downstream call, through the pooled client with the
+     * timeouts the services configure in their {@code RestTemplateConfig}
+     */
+    @SpringBootConfiguration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+            PropertyPlaceholderAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            RestTemplateAutoConfiguration.class})
+    @RestController
+    static class BalanceService {
+
+        private final RestTemplate restTemplate;
+        private final String downstreamUrl;
+
+        BalanceService(RestTemplateBuilder builder, @Value("${load.downstream-url}") String downstreamUrl,
+                       @Value("${rest-client.max-connections}") int maxConnections) {
+            this.restTemplate = builder
+                    .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                            .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                                    .setMaxConnTotal(maxConnections)
+                                    .setMaxConnPerRoute(maxConnections)
+                                    .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                            .setConnectTimeout(Timeout.ofSeconds(3))
+                                            .setSocketTimeout(Timeout.ofSeconds(5))
+                                            .build())
+                                    .build())
+                            .setDefaultRequestConfig(RequestConfig.custom()
+                                    .setConnectionRequestTimeout(Timeout.ofSeconds(3))
+                                    .build())
+                            .build()))
+                    .build();
+            this.downstreamUrl = downstreamUrl;
+        }
+
+        @GetMapping("/balance")
+        String balance() {
+            return restTemplate.getForObject(downstreamUrl, String.class);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.splitwise.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which users committed a write recently, so their reads can stay on the primary until
+ * the replica has caught up. The user of the current thread is bound per request by
+ * {@link ReadYourWritesFilter}; threads without a user (Kafka listeners, schedulers) are never pinned.
+ * <p>
+ * State is per instance: a user whose next request lands on another instance of the service
+ * may read from the replica straight away.
+ */
+public class ReadYourWritesTracker {
+
+    // Expired entries are normally dropped when their user reads; sweep when many users never come back
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Long> primaryUntil = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentUser = new ThreadLocal<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    ReadYourWritesTracker(Duration window, LongSupplier nanoClock) {
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Attribute the current thread's transactions to a user until {@link #unbind()}
+     */
+    public void bind(String userId) {
+        currentUser.set(userId);
+    }
+
+    public void unbind() {
+        currentUser.remove();
+    }
+
+    public String currentUser() {
+        return currentUser.get();
+    }
+
+    /**
+     * Record that a user's write committed just now
+     */
+    public void recordWrite(String userId) {
+        if (primaryUntil.size() > SWEEP_THRESHOLD) {
+            long now = nanoClock.getAsLong();
+            primaryUntil.values().removeIf(until -> until - now <= 0);
+        }
+        primaryUntil.put(userId, nanoClock.getAsLong() + windowNanos);
+    }
+
+    /**
+     * Whether the current thread's user committed a write within the window
+     */
+    public boolean mustReadPrimary() {
+        String userId = currentUser.get();
+        if (userId == null) {
+            return false;
+        }
+        Long until = primaryUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - nanoClock.getAsLong() > 0) {
+            return true;
+        }
+        primaryUntil.remove(userId, until);
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.splitwise.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection settings of the read replica. Pool settings bind from {@code spring.datasource.replica.hikari},
+ * like the primary's from {@code spring.datasource.hikari}.
+ */
+@Data
+@ConfigurationProperties("spring.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * JDBC URL of the replica; routing is off while this is empty
+     */
+    private String url;
+
+    /**
+     * Defaults to the primary's username
+     */
+    private String username;
+
+    /**
+     * Defaults to the primary's password
+     */
+    private String password;
+
+    /**
+     * How long a user's read-only transactions stay on the primary after they committed a write.
+     * Should exceed the replica's usual replication lag.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
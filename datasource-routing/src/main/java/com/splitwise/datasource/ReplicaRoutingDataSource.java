@@ -0,0 +1,92 @@
+package com.splitwise.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ * A user who committed a write within the read-your-writes window keeps reading from the primary,
+ * so they see their own change even while the replica lags.
+ * <p>
+ * The decision is made when a connection is fetched, so this must sit behind a
+ * {@link LazyConnectionDataSourceProxy}: transaction managers fetch the connection when the
+ * transaction begins, before its read-only flag is visible here, and the proxy defers the real
+ * fetch to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    enum Reason {
+        WRITE, READ, READ_YOUR_WRITES
+    }
+
+    private final ReadYourWritesTracker tracker;
+    private final Map<Reason, Counter> routed = new EnumMap<>(Reason.class);
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker tracker,
+                                    MeterRegistry meterRegistry) {
+        this.tracker = tracker;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        if (meterRegistry != null) {
+            for (Reason reason : Reason.values()) {
+                routed.put(reason, Counter.builder("datasource.routing")
+                        .description("Connections handed out by the routing data source")
+                        .tag("target", targetOf(reason).name().toLowerCase())
+                        .tag("reason", reason.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Reason reason;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            reason = Reason.WRITE;
+            trackWrite();
+        } else if (tracker.mustReadPrimary()) {
+            reason = Reason.READ_YOUR_WRITES;
+        } else {
+            reason = Reason.READ;
+        }
+
+        Counter counter = routed.get(reason);
+        if (counter != null) {
+            counter.increment();
+        }
+        return targetOf(reason);
+    }
+
+    /**
+     * Start the current user's read-your-writes window once the surrounding transaction commits
+     */
+    private void trackWrite() {
+        String userId = tracker.currentUser();
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tracker.recordWrite(userId);
+            }
+        });
+    }
+
+    private static Target targetOf(Reason reason) {
+        return reason == Reason.READ ? Target.REPLICA : Target.PRIMARY;
+    }
+}
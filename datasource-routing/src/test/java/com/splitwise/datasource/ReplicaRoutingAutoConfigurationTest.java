@@ -0,0 +1,58 @@
+package com.splitwise.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ReplicaRoutingAutoConfiguration.class,
+                    DataSourceAutoConfiguration.class))
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.hikari.maximum-pool-size=7");
+
+    @Test
+    void withoutAReplicaUrl_theSinglePoolIsLeftAlone() {
+        runner.withPropertyValues("spring.datasource.replica.url=")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(DataSource.class);
+                    assertThat(context).getBean(DataSource.class).isInstanceOf(HikariDataSource.class);
+                    assertThat(context).doesNotHaveBean(ReadYourWritesTracker.class);
+                });
+    }
+
+    @Test
+    void withAReplicaUrl_readsAreRoutedOverTwoNamedPools() {
+        runner.withPropertyValues(
+                        "spring.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.replica.hikari.maximum-pool-size=20",
+                        "spring.datasource.replica.read-your-writes-window=2s")
+                .run(context -> {
+                    assertThat(context).getBean(DataSource.class).isInstanceOf(LazyConnectionDataSourceProxy.class);
+
+                    HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+                    assertThat(primary.getPoolName()).isEqualTo("primary");
+                    assertThat(primary.getMaximumPoolSize()).isEqualTo(7);
+
+                    HikariDataSource replica = context.getBean("replicaDataSource", HikariDataSource.class);
+                    assertThat(replica.getPoolName()).isEqualTo("replica");
+                    assertThat(replica.getMaximumPoolSize()).isEqualTo(20);
+                    assertThat(replica.getUsername()).isEqualTo("sa");
+                    assertThat(replica.isReadOnly()).isTrue();
+
+                    assertThat(context.getBean(ReplicaDataSourceProperties.class).getReadYourWritesWindow())
+                            .isEqualTo(Duration.ofSeconds(2));
+                });
+    }
+}
@@ -0,0 +1,132 @@
+package com.splitwise.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two embedded databases stand in for the primary and the replica; each one names itself
+ * in a {@code source} table, so every read shows where it was routed
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(WINDOW, clock::get);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, tracker, meterRegistry);
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.unbind();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactions_goToTheReplica() {
+        // The proxy already fetched one connection to read the driver's defaults
+        double writes = routed("primary", "write");
+
+        assertEquals("replica", readOnlyTransaction.execute(status -> source()));
+        assertEquals("primary", writeTransaction.execute(status -> source()));
+        assertEquals("primary", source(), "statements outside a transaction");
+
+        assertEquals(1.0, routed("replica", "read"));
+        assertEquals(writes + 2, routed("primary", "write"));
+    }
+
+    @Test
+    void committedWrite_keepsThatUsersReadsOnThePrimaryForTheWindow() {
+        tracker.bind("alice");
+        write();
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> source()));
+        assertEquals(1.0, routed("primary", "read_your_writes"));
+
+        tracker.bind("bob");
+        assertEquals("replica", readOnlyTransaction.execute(status -> source()), "other users are not pinned");
+
+        tracker.bind("alice");
+        clock.addAndGet(WINDOW.toNanos());
+        assertEquals("replica", readOnlyTransaction.execute(status -> source()), "window has passed");
+    }
+
+    @Test
+    void rolledBackWrite_doesNotPinTheUser() {
+        tracker.bind("alice");
+        writeTransaction.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO notes (text) VALUES ('draft')");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnlyTransaction.execute(status -> source()));
+    }
+
+    @Test
+    void writesWithoutAUser_doNotPinAnyone() {
+        write();
+
+        tracker.bind("alice");
+        assertEquals("replica", readOnlyTransaction.execute(status -> source()));
+    }
+
+    private void write() {
+        writeTransaction.executeWithoutResult(status -> jdbc.update("INSERT INTO notes (text) VALUES ('hello')"));
+    }
+
+    private String source() {
+        return jdbc.queryForObject("SELECT name FROM source", String.class);
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get("datasource.routing").tag("target", target).tag("reason", reason).counter().count();
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE source (name VARCHAR(16))");
+        jdbc.execute("CREATE TABLE notes (text VARCHAR(64))");
+        jdbc.update("INSERT INTO source (name) VALUES (?)", name);
+        return database;
+    }
+}
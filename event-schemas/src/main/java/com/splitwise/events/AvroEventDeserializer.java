@@ -0,0 +1,46 @@
+package com.splitwise.events;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Kafka value deserializer for {@link AvroEventCodec} payloads. Messages still in JSON
+ * (written before producers switched to Avro) are read with Jackson, so topics can be
+ * migrated without draining them first.
+ */
+public class AvroEventDeserializer<T> implements Deserializer<T> {
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final AvroEventCodec codec = new AvroEventCodec(SchemaRegistry.classpath());
+    private AvroMappers mappers;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        mappers = AvroMappers.configure(configs);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        AvroMapper<T> mapper = mappers.forTopic(topic);
+        if (AvroEventCodec.isAvro(data)) {
+            return codec.decode(mapper, data);
+        }
+        try {
+            return JSON.readValue(data, mapper.type());
+        } catch (IOException e) {
+            throw new SerializationException("Could not read " + topic + " event as Avro or JSON", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.splitwise.events;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value serializer writing events with {@link AvroEventCodec}.
+ * Configure the mapper per topic through {@code splitwise.avro.mappers}.
+ */
+public class AvroEventSerializer<T> implements Serializer<T> {
+
+    private final AvroEventCodec codec = new AvroEventCodec(SchemaRegistry.classpath());
+    private AvroMappers mappers;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        mappers = AvroMappers.configure(configs);
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        if (data == null) {
+            return null;
+        }
+        AvroMapper<T> mapper = mappers.forTopic(topic);
+        return codec.encode(mapper, data);
+    }
+}
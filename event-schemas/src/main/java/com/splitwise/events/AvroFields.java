@@ -0,0 +1,30 @@
+package com.splitwise.events;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Small conversions shared by the {@link AvroMapper} implementations
+ */
+public final class AvroFields {
+
+    /** Scale of the decimal amount fields in every schema */
+    public static final int AMOUNT_SCALE = 2;
+
+    private AvroFields() {
+    }
+
+    /**
+     * Avro decimals must carry exactly the schema's scale
+     */
+    public static BigDecimal amount(BigDecimal amount) {
+        return amount == null ? null : amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Avro strings are read back as Utf8
+     */
+    public static String string(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
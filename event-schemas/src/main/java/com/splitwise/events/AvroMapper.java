@@ -0,0 +1,28 @@
+package com.splitwise.events;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+
+/**
+ * Maps an event class to and from the Avro record of its subject.
+ * Implementations need a public no-arg constructor: Kafka creates them from configuration.
+ */
+public interface AvroMapper<T> {
+
+    /**
+     * Registry subject, e.g. "expense-event"
+     */
+    String subject();
+
+    Class<T> type();
+
+    /**
+     * Build a record of the given (latest) schema from an event
+     */
+    GenericRecord toRecord(T event, Schema schema);
+
+    /**
+     * Read an event from a record already resolved to the latest schema
+     */
+    T fromRecord(GenericRecord record);
+}
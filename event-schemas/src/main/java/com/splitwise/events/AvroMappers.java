@@ -0,0 +1,56 @@
+package com.splitwise.events;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the topic-to-mapper table shared by {@link AvroEventSerializer} and
+ * {@link AvroEventDeserializer}, e.g.
+ * {@code splitwise.avro.mappers: expense-events=com.splitwise.expense.event.ExpenseEventAvroMapper}
+ */
+final class AvroMappers {
+
+    static final String CONFIG = "splitwise.avro.mappers";
+
+    private final Map<String, AvroMapper<?>> byTopic;
+
+    private AvroMappers(Map<String, AvroMapper<?>> byTopic) {
+        this.byTopic = byTopic;
+    }
+
+    static AvroMappers configure(Map<String, ?> configs) {
+        Object value = configs.get(CONFIG);
+        if (value == null || value.toString().isBlank()) {
+            throw new IllegalStateException(CONFIG + " must map each topic to an AvroMapper class");
+        }
+
+        Map<String, AvroMapper<?>> byTopic = new HashMap<>();
+        for (String entry : value.toString().split(",")) {
+            String[] parts = entry.trim().split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalStateException("Invalid " + CONFIG + " entry: " + entry);
+            }
+            byTopic.put(parts[0].trim(), instantiate(parts[1].trim()));
+        }
+        return new AvroMappers(byTopic);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> AvroMapper<T> forTopic(String topic) {
+        AvroMapper<?> mapper = byTopic.get(topic);
+        if (mapper == null) {
+            throw new IllegalStateException("No AvroMapper configured for topic " + topic);
+        }
+        return (AvroMapper<T>) mapper;
+    }
+
+    private static AvroMapper<?> instantiate(String className) {
+        try {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            Class<?> type = Class.forName(className, true, loader != null ? loader : AvroMappers.class.getClassLoader());
+            return (AvroMapper<?>) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException("Could not create AvroMapper " + className, e);
+        }
+    }
+}
@@ -1,4 +1,4 @@
-package com.splitwise.expense.event;
+package com.splitwise.events;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,12 +8,15 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * An event on expense-events, written with the expense-event schema
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class ExpenseEvent {
-    private String eventType; // EXPENSE_CREATED, EXPENSE_UPDATED, EXPENSE_DELETED
+    private String eventType; // EXPENSE_CREATED, EXPENSE_UPDATED, EXPENSE_DELETED, EXPENSES_IMPORTED
     private Long expenseId;
     private String description;
     private BigDecimal amount;
@@ -21,4 +24,7 @@ public class ExpenseEvent {
     private Long groupId;
     private String category;
     private LocalDateTime timestamp;
+    private Integer expenseCount; // Set on EXPENSES_IMPORTED batch events; expenseId is null then
+    private String actorUserId; // User who made the change
+    private String currency;
 }
@@ -0,0 +1,59 @@
+package com.splitwise.events;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Maps {@link ExpenseEvent} to and from the expense-event Avro schema.
+ * The producer and every consumer of expense-events share this one mapper.
+ */
+public class ExpenseEventAvroMapper implements AvroMapper<ExpenseEvent> {
+
+    @Override
+    public String subject() {
+        return "expense-event";
+    }
+
+    @Override
+    public Class<ExpenseEvent> type() {
+        return ExpenseEvent.class;
+    }
+
+    @Override
+    public GenericRecord toRecord(ExpenseEvent event, Schema schema) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("eventType", event.getEventType());
+        record.put("expenseId", event.getExpenseId());
+        record.put("description", event.getDescription());
+        record.put("amount", AvroFields.amount(event.getAmount()));
+        record.put("paidByUserId", event.getPaidByUserId());
+        record.put("groupId", event.getGroupId());
+        record.put("category", event.getCategory());
+        record.put("timestamp", event.getTimestamp());
+        record.put("expenseCount", event.getExpenseCount());
+        record.put("actorUserId", event.getActorUserId());
+        record.put("currency", event.getCurrency());
+        return record;
+    }
+
+    @Override
+    public ExpenseEvent fromRecord(GenericRecord record) {
+        return ExpenseEvent.builder()
+                .eventType(AvroFields.string(record.get("eventType")))
+                .expenseId((Long) record.get("expenseId"))
+                .description(AvroFields.string(record.get("description")))
+                .amount((BigDecimal) record.get("amount"))
+                .paidByUserId(AvroFields.string(record.get("paidByUserId")))
+                .groupId((Long) record.get("groupId"))
+                .category(AvroFields.string(record.get("category")))
+                .timestamp((LocalDateTime) record.get("timestamp"))
+                .expenseCount((Integer) record.get("expenseCount"))
+                .actorUserId(AvroFields.string(record.get("actorUserId")))
+                .currency(AvroFields.string(record.get("currency")))
+                .build();
+    }
+}
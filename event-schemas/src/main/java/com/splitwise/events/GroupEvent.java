@@ -1,4 +1,4 @@
-package com.splitwise.group.event;
+package com.splitwise.events;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +7,9 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * An event on group-events, written with the group-event schema
+ */
 @Data
 @Builder
 @NoArgsConstructor
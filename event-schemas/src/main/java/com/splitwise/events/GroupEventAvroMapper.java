@@ -0,0 +1,48 @@
+package com.splitwise.events;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.time.LocalDateTime;
+
+/**
+ * Maps {@link GroupEvent} to and from the group-event Avro schema.
+ * The producer and every consumer of group-events share this one mapper.
+ */
+public class GroupEventAvroMapper implements AvroMapper<GroupEvent> {
+
+    @Override
+    public String subject() {
+        return "group-event";
+    }
+
+    @Override
+    public Class<GroupEvent> type() {
+        return GroupEvent.class;
+    }
+
+    @Override
+    public GenericRecord toRecord(GroupEvent event, Schema schema) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("eventType", event.getEventType());
+        record.put("groupId", event.getGroupId());
+        record.put("groupName", event.getGroupName());
+        record.put("userId", event.getUserId());
+        record.put("targetUserId", event.getTargetUserId());
+        record.put("timestamp", event.getTimestamp());
+        return record;
+    }
+
+    @Override
+    public GroupEvent fromRecord(GenericRecord record) {
+        return GroupEvent.builder()
+                .eventType(AvroFields.string(record.get("eventType")))
+                .groupId((Long) record.get("groupId"))
+                .groupName(AvroFields.string(record.get("groupName")))
+                .userId(AvroFields.string(record.get("userId")))
+                .targetUserId(AvroFields.string(record.get("targetUserId")))
+                .timestamp((LocalDateTime) record.get("timestamp"))
+                .build();
+    }
+}
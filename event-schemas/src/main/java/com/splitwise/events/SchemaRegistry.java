@@ -0,0 +1,82 @@
+package com.splitwise.events;
+
+import org.apache.avro.Schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * File-based stand-in for a schema registry. Every subject is a directory on the classpath
+ * holding {@code v1.avsc}, {@code v2.avsc}, ... ; versions are numbered from 1 without gaps
+ * and are never edited once released (see the module README for the evolution rules).
+ */
+public final class SchemaRegistry {
+
+    private static final String ROOT = "schemas/";
+    private static final SchemaRegistry CLASSPATH = new SchemaRegistry(SchemaRegistry.class.getClassLoader());
+
+    private final ClassLoader classLoader;
+    private final Map<String, List<Schema>> subjects = new ConcurrentHashMap<>();
+
+    SchemaRegistry(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Registry backed by the schemas bundled in this module
+     */
+    public static SchemaRegistry classpath() {
+        return CLASSPATH;
+    }
+
+    /**
+     * Version new events of a subject are written with
+     */
+    public int latestVersion(String subject) {
+        return versions(subject).size();
+    }
+
+    public Schema latest(String subject) {
+        List<Schema> versions = versions(subject);
+        return versions.get(versions.size() - 1);
+    }
+
+    public Schema schema(String subject, int version) {
+        List<Schema> versions = versions(subject);
+        if (version < 1 || version > versions.size()) {
+            throw new IllegalArgumentException("Unknown schema version " + version + " for subject " + subject);
+        }
+        return versions.get(version - 1);
+    }
+
+    /**
+     * All versions of a subject, oldest first
+     */
+    public List<Schema> versions(String subject) {
+        return subjects.computeIfAbsent(subject, this::load);
+    }
+
+    private List<Schema> load(String subject) {
+        List<Schema> versions = new ArrayList<>();
+        for (int version = 1; ; version++) {
+            String path = ROOT + subject + "/v" + version + ".avsc";
+            try (InputStream in = classLoader.getResourceAsStream(path)) {
+                if (in == null) {
+                    break;
+                }
+                versions.add(new Schema.Parser().parse(in));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read schema " + path, e);
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new IllegalArgumentException("No schemas registered for subject " + subject);
+        }
+        return List.copyOf(versions);
+    }
+}
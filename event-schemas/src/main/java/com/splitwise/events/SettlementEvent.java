@@ -1,4 +1,4 @@
-package com.splitwise.settlement.event;
+package com.splitwise.events;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,6 +8,9 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * An event on settlement-events, written with the settlement-event schema
+ */
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,6 +21,8 @@ public class SettlementEvent {
     private String payerUserId;
     private String payeeUserId;
     private BigDecimal amount;
+    private String currency;
+    private String paymentMethod;
     private Long groupId;
     private LocalDateTime timestamp;
 }
@@ -0,0 +1,55 @@
+package com.splitwise.events;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Maps {@link SettlementEvent} to and from the settlement-event Avro schema.
+ * The producer and every consumer of settlement-events share this one mapper.
+ */
+public class SettlementEventAvroMapper implements AvroMapper<SettlementEvent> {
+
+    @Override
+    public String subject() {
+        return "settlement-event";
+    }
+
+    @Override
+    public Class<SettlementEvent> type() {
+        return SettlementEvent.class;
+    }
+
+    @Override
+    public GenericRecord toRecord(SettlementEvent event, Schema schema) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("eventType", event.getEventType());
+        record.put("settlementId", event.getSettlementId());
+        record.put("payerUserId", event.getPayerUserId());
+        record.put("payeeUserId", event.getPayeeUserId());
+        record.put("amount", AvroFields.amount(event.getAmount()));
+        record.put("groupId", event.getGroupId());
+        record.put("currency", event.getCurrency());
+        record.put("paymentMethod", event.getPaymentMethod());
+        record.put("timestamp", event.getTimestamp());
+        return record;
+    }
+
+    @Override
+    public SettlementEvent fromRecord(GenericRecord record) {
+        return SettlementEvent.builder()
+                .eventType(AvroFields.string(record.get("eventType")))
+                .settlementId((Long) record.get("settlementId"))
+                .payerUserId(AvroFields.string(record.get("payerUserId")))
+                .payeeUserId(AvroFields.string(record.get("payeeUserId")))
+                .amount((BigDecimal) record.get("amount"))
+                .groupId((Long) record.get("groupId"))
+                .currency(AvroFields.string(record.get("currency")))
+                .paymentMethod(AvroFields.string(record.get("paymentMethod")))
+                .timestamp((LocalDateTime) record.get("timestamp"))
+                .build();
+    }
+}
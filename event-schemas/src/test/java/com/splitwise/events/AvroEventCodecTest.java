@@ -0,0 +1,121 @@
+package com.splitwise.events;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvroEventCodecTest {
+
+    /**
+     * Minimal mapper over a map, standing in for an event class
+     */
+    public static class SettlementMapper implements AvroMapper<Map<String, Object>> {
+        @Override
+        public String subject() {
+            return "settlement-event";
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Class<Map<String, Object>> type() {
+            return (Class) Map.class;
+        }
+
+        @Override
+        public GenericRecord toRecord(Map<String, Object> event, Schema schema) {
+            GenericRecord record = new GenericData.Record(schema);
+            record.put("eventType", event.get("eventType"));
+            record.put("settlementId", event.get("settlementId"));
+            record.put("amount", AvroFields.amount((BigDecimal) event.get("amount")));
+            record.put("timestamp", event.get("timestamp"));
+            return record;
+        }
+
+        @Override
+        public Map<String, Object> fromRecord(GenericRecord record) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("eventType", AvroFields.string(record.get("eventType")));
+            event.put("settlementId", record.get("settlementId"));
+            event.put("amount", record.get("amount"));
+            event.put("timestamp", record.get("timestamp"));
+            return event;
+        }
+    }
+
+    private final AvroEventCodec codec = new AvroEventCodec(SchemaRegistry.classpath());
+    private final SettlementMapper mapper = new SettlementMapper();
+
+    @Test
+    void encodeDecode_RoundTripsLogicalTypes() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000);
+        Map<String, Object> event = Map.of(
+                "eventType", "SETTLEMENT_CREATED",
+                "settlementId", 42L,
+                "amount", new BigDecimal("19.5"),
+                "timestamp", timestamp);
+
+        byte[] bytes = codec.encode(mapper, event);
+        Map<String, Object> decoded = codec.decode(mapper, bytes);
+
+        assertEquals(AvroEventCodec.MAGIC, bytes[0]);
+        assertEquals(SchemaRegistry.classpath().latestVersion("settlement-event"), ((bytes[1] & 0xff) << 8) | (bytes[2] & 0xff));
+        assertEquals("SETTLEMENT_CREATED", decoded.get("eventType"));
+        assertEquals(42L, decoded.get("settlementId"));
+        assertEquals(new BigDecimal("19.50"), decoded.get("amount"));
+        assertEquals(timestamp, decoded.get("timestamp"));
+    }
+
+    @Test
+    void sharedMappers_RoundTripEveryField() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 3, 1, 12, 30, 15);
+        ExpenseEvent expense = ExpenseEvent.builder()
+                .eventType("EXPENSE_CREATED").expenseId(1L).description("Dinner").amount(new BigDecimal("30.00"))
+                .paidByUserId("alice").groupId(2L).category("FOOD").timestamp(timestamp)
+                .actorUserId("bob").currency("EUR").build();
+        GroupEvent group = GroupEvent.builder()
+                .eventType("MEMBER_ADDED").groupId(2L).groupName("Trip").userId("alice").targetUserId("bob")
+                .timestamp(timestamp).build();
+        SettlementEvent settlement = SettlementEvent.builder()
+                .eventType("SETTLEMENT_CREATED").settlementId(3L).payerUserId("bob").payeeUserId("alice")
+                .amount(new BigDecimal("15.00")).currency("EUR").paymentMethod("CASH").groupId(2L)
+                .timestamp(timestamp).build();
+
+        assertEquals(expense, codec.decode(new ExpenseEventAvroMapper(), codec.encode(new ExpenseEventAvroMapper(), expense)));
+        assertEquals(group, codec.decode(new GroupEventAvroMapper(), codec.encode(new GroupEventAvroMapper(), group)));
+        assertEquals(settlement,
+                codec.decode(new SettlementEventAvroMapper(), codec.encode(new SettlementEventAvroMapper(), settlement)));
+    }
+
+    @Test
+    void deserializer_FallsBackToJsonForLegacyMessages() {
+        AvroEventDeserializer<Map<String, Object>> deserializer = new AvroEventDeserializer<>();
+        deserializer.configure(Map.of("splitwise.avro.mappers", "settlement-events=" + SettlementMapper.class.getName()), false);
+
+        Map<String, Object> decoded = deserializer.deserialize("settlement-events",
+                "{\"eventType\":\"SETTLEMENT_COMPLETED\",\"settlementId\":7}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("SETTLEMENT_COMPLETED", decoded.get("eventType"));
+    }
+
+    @Test
+    void serializerAndDeserializer_AgreeThroughKafkaConfig() {
+        Map<String, String> configs = Map.of("splitwise.avro.mappers", "settlement-events=" + SettlementMapper.class.getName());
+        AvroEventSerializer<Map<String, Object>> serializer = new AvroEventSerializer<>();
+        serializer.configure(configs, false);
+        AvroEventDeserializer<Map<String, Object>> deserializer = new AvroEventDeserializer<>();
+        deserializer.configure(configs, false);
+
+        byte[] bytes = serializer.serialize("settlement-events", Map.of("eventType", "SETTLEMENT_CREATED"));
+
+        assertEquals("SETTLEMENT_CREATED", deserializer.deserialize("settlement-events", bytes).get("eventType"));
+    }
+}
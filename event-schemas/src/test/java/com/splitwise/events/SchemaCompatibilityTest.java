@@ -0,0 +1,39 @@
+package com.splitwise.events;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Enforces the evolution rules: each version must read its predecessor's events and vice versa
+ */
+class SchemaCompatibilityTest {
+
+    private final SchemaRegistry registry = SchemaRegistry.classpath();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"expense-event", "group-event", "settlement-event"})
+    void consecutiveVersions_AreFullyCompatible(String subject) {
+        List<Schema> versions = registry.versions(subject);
+        assertFalse(versions.isEmpty());
+
+        for (int i = 1; i < versions.size(); i++) {
+            Schema older = versions.get(i - 1);
+            Schema newer = versions.get(i);
+            assertCompatible(newer, older, subject + " v" + (i + 1) + " reading v" + i);
+            assertCompatible(older, newer, subject + " v" + i + " reading v" + (i + 1));
+        }
+    }
+
+    private static void assertCompatible(Schema reader, Schema writer, String description) {
+        SchemaCompatibility.SchemaPairCompatibility result =
+                SchemaCompatibility.checkReaderWriterCompatibility(reader, writer);
+        assertEquals(SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE, result.getType(),
+                () -> description + ": " + result.getDescription());
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -27,7 +28,7 @@ public class GatewayHeaderAuthFilter extends OncePerRequestFilter {
         if (userId != null && !userId.isEmpty()) {
             List<SimpleGrantedAuthority> authorities = Collections.emptyList();
             if (userRoles != null && !userRoles.isEmpty()) {
-                authorities = List.of(new SimpleGrantedAuthority("ROLE_" + userRoles));
+                authorities = toAuthorities(userRoles);
             }
 
             UsernamePasswordAuthenticationToken authentication =
@@ -37,4 +38,24 @@ public class GatewayHeaderAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * The gateway forwards the JWT roles claim as is, e.g. "ROLE_USER,ROLE_ADMIN"
+     */
+    static List<SimpleGrantedAuthority> toAuthorities(String userRoles) {
+        return Arrays.stream(userRoles.split(","))
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .map(role -> new SimpleGrantedAuthority(role.startsWith("ROLE_") ? role : "ROLE_" + role))
+                .toList();
+    }
+
+    /**
+     * Streaming responses (e.g. the expense export) finish on an async dispatch, which goes
+     * through the security chain again and needs the same authentication
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
 }
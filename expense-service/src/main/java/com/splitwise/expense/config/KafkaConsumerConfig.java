@@ -0,0 +1,21 @@
+package com.splitwise.expense.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Retry a failing settlement event until it succeeds instead of skipping it after ten
+     * attempts: a skipped settlement would leave the ledgers permanently out of step.
+     * Events that cannot describe a payment are logged and acknowledged by the consumer,
+     * so only transient failures such as an unavailable database end up here.
+     */
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler() {
+        return new DefaultErrorHandler(new FixedBackOff(5_000L, FixedBackOff.UNLIMITED_ATTEMPTS));
+    }
+}
@@ -29,6 +29,7 @@ public class SecurityConfig {
                                 "/swagger-ui.html",
                                 "/actuator/health")
                         .permitAll()
+                        .requestMatchers("/api/expenses/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(gatewayHeaderAuthFilter, UsernamePasswordAuthenticationFilter.class)
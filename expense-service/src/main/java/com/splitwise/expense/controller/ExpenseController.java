@@ -1,18 +1,52 @@
 package com.splitwise.expense.controller;
 
 import com.splitwise.expense.dto.ApiResponse;
+import com.splitwise.expense.dto.BalanceReconciliationReport;
+import com.splitwise.expense.dto.BulkImportResponse;
 import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.dto.ExpenseHistoryResponse;
+import com.splitwise.expense.dto.ExpensePage;
+import com.splitwise.expense.dto.ExportFormat;
+import com.splitwise.expense.dto.ExpenseStateResponse;
+import com.splitwise.expense.dto.SpendingSummaryResponse;
 import com.splitwise.expense.dto.ExpenseResponse;
 import com.splitwise.expense.dto.UserBalanceResponse;
+import com.splitwise.expense.exception.ResourceNotFoundException;
+import com.splitwise.expense.service.BalanceReconciliationService;
+import com.splitwise.expense.service.ExpenseExportService;
+import com.splitwise.expense.service.ExpenseHistoryService;
+import com.splitwise.expense.service.ExpenseImportService;
 import com.splitwise.expense.service.ExpenseService;
+import com.splitwise.expense.service.GroupVersionService;
+import com.splitwise.expense.service.ReceiptService;
+import com.splitwise.expense.service.SpendingRollupService;
+import com.splitwise.expense.storage.Receipt;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -22,7 +56,22 @@ import java.util.Map;
 @Slf4j
 public class ExpenseController {
 
+    private static final int RECENT_EXPENSES = 10;
+
+    // Request attributes through which Tomcat sends a file itself, with sendfile where the OS has it
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final ExpenseService expenseService;
+    private final ExpenseImportService expenseImportService;
+    private final ExpenseExportService expenseExportService;
+    private final SpendingRollupService spendingRollupService;
+    private final GroupVersionService groupVersionService;
+    private final BalanceReconciliationService balanceReconciliationService;
+    private final ReceiptService receiptService;
+    private final ExpenseHistoryService expenseHistoryService;
 
     /**
      * Create a new expense
@@ -41,6 +90,22 @@ public class ExpenseController {
                 .body(ApiResponse.success("Expense created successfully", response));
     }
 
+    /**
+     * Bulk-import expenses from a streamed body: NDJSON (one request per line) or a JSON array.
+     * Every row is reported back as CREATED with its ID or REJECTED with the reason.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<BulkImportResponse>> importExpenses(
+            HttpServletRequest request,
+            @RequestHeader("X-User-Id") String userId) throws IOException {
+
+        log.info("Bulk importing expenses for user: {}", userId);
+        BulkImportResponse response = expenseImportService.importExpenses(request.getInputStream(), userId);
+
+        return ResponseEntity.ok(ApiResponse.success(
+                response.getCreated() + " expenses imported, " + response.getRejected() + " rejected", response));
+    }
+
     /**
      * Get recent expenses for current user
      */
@@ -49,13 +114,28 @@ public class ExpenseController {
             @RequestHeader("X-User-Id") String userId) {
 
         log.info("Fetching recent expenses for user: {}", userId);
-        List<ExpenseResponse> expenses = expenseService.getUserExpenses(userId);
-        // Return at most 10 recent expenses
-        List<ExpenseResponse> recent = expenses.stream()
-                .limit(10)
-                .toList();
+        // Return at most 10 recent expenses; the limit is applied in SQL
+        ExpensePage recent = expenseService.getUserExpensesPage(userId, null, RECENT_EXPENSES);
+
+        return ResponseEntity.ok(ApiResponse.success(recent.getExpenses()));
+    }
+
+    /**
+     * Search the current user's expenses by the words of their description, notes and category.
+     * Every word of q must match the start of a word ("ub" finds "Uber"); newest first, one page
+     * at a time like /my-expenses.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<ExpenseResponse>>> searchExpenses(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader("X-User-Id") String userId) {
+
+        log.info("Searching expenses of user: {}", userId);
+        ExpensePage page = expenseService.searchExpenses(userId, q, cursor, limit);
 
-        return ResponseEntity.ok(ApiResponse.success(recent));
+        return ResponseEntity.ok(ApiResponse.page(page.getExpenses(), page.getNextCursor()));
     }
 
     /**
@@ -73,30 +153,259 @@ public class ExpenseController {
     }
 
     /**
-     * Get all expenses for a group
+     * Upload the receipt of an expense (JPEG, PNG, WebP, HEIC, GIF or PDF), replacing any previous one.
+     * The part is streamed to the blob store; identical files are stored once.
+     */
+    @PostMapping(value = "/{id}/receipt", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<ExpenseResponse>> uploadReceipt(
+            @PathVariable Long id,
+            @RequestParam("file") MultipartFile file,
+            @RequestHeader("X-User-Id") String userId) throws IOException {
+
+        log.info("Uploading receipt for expense ID: {} by user: {}", id, userId);
+        ExpenseResponse response;
+        try (InputStream content = file.getInputStream()) {
+            response = receiptService.uploadReceipt(id, content, file.getContentType(), userId);
+        }
+
+        return ResponseEntity.ok(ApiResponse.success("Receipt uploaded successfully", response));
+    }
+
+    /**
+     * Download the receipt of an expense. Supports a single byte range (206 Partial Content)
+     * and If-None-Match, the ETag being the receipt's SHA-256.
+     */
+    @GetMapping("/{id}/receipt")
+    public void downloadReceipt(
+            @PathVariable Long id,
+            @RequestHeader("X-User-Id") String userId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Receipt receipt = expenseService.getReceipt(id, userId);
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + receipt.key() + "\"")) {
+            return;
+        }
+
+        long size = receipt.size();
+        long start = 0;
+        long end = size - 1;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+
+        // Several ranges are answered with the whole file, which RFC 9110 allows; so is a malformed header
+        List<HttpRange> ranges = parseRanges(request.getHeader(HttpHeaders.RANGE));
+        if (ranges.size() == 1) {
+            try {
+                start = ranges.get(0).getRangeStart(size);
+                end = ranges.get(0).getRangeEnd(size);
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        response.setContentType(receipt.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline().build().toString());
+        response.setContentLengthLong(end - start + 1);
+
+        // Tomcat sends the file from the page cache to the socket once the request returns, with no
+        // copy through the heap; otherwise the bytes go through the response's output buffer
+        Path file = receiptService.localFile(receipt);
+        if (file != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))
+                && !HttpMethod.HEAD.matches(request.getMethod())) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        receiptService.transferTo(receipt, start, end - start + 1, Channels.newChannel(response.getOutputStream()));
+    }
+
+    /**
+     * Remove the uploaded receipt of an expense
+     */
+    @DeleteMapping("/{id}/receipt")
+    public ResponseEntity<ApiResponse<ExpenseResponse>> removeReceipt(
+            @PathVariable Long id,
+            @RequestHeader("X-User-Id") String userId) {
+
+        log.info("Removing receipt of expense ID: {} by user: {}", id, userId);
+        ExpenseResponse response = expenseService.removeReceipt(id, userId);
+
+        return ResponseEntity.ok(ApiResponse.success("Receipt removed successfully", response));
+    }
+
+    /**
+     * Every change ever made to an expense, oldest first; each entry holds only what changed.
+     * Deleted expenses keep their history.
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<ApiResponse<List<ExpenseHistoryResponse>>> getExpenseHistory(
+            @PathVariable Long id,
+            @RequestHeader("X-User-Id") String userId) {
+
+        List<ExpenseHistoryResponse> history = expenseHistoryService.getHistory(id, userId);
+        return ResponseEntity.ok(ApiResponse.success(history));
+    }
+
+    /**
+     * An expense as it stood at one version of its history
+     */
+    @GetMapping("/{id}/history/{version}")
+    public ResponseEntity<ApiResponse<ExpenseStateResponse>> getExpenseVersion(
+            @PathVariable Long id,
+            @PathVariable int version,
+            @RequestHeader("X-User-Id") String userId) {
+
+        ExpenseStateResponse state = expenseHistoryService.getStateAt(id, version, userId);
+        return ResponseEntity.ok(ApiResponse.success(state));
+    }
+
+    private static List<HttpRange> parseRanges(String header) {
+        if (header == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Get expenses for a group, newest first, one page at a time.
+     * Pass the returned nextCursor to fetch the following page.
+     * Send the returned ETag as If-None-Match to get 304 while the group is unchanged.
      */
     @GetMapping("/group/{groupId}")
     public ResponseEntity<ApiResponse<List<ExpenseResponse>>> getGroupExpenses(
             @PathVariable Long groupId,
-            @RequestHeader("X-User-Id") String userId) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader("X-User-Id") String userId,
+            WebRequest request) {
+
+        // 304 without reading any expense while the group is unchanged. Otherwise checkNotModified
+        // also sets the ETag on the 200; it is read before the page, so it never names a version
+        // newer than the data it labels.
+        if (request.checkNotModified(groupVersionService.getEtag(groupId))) {
+            return null;
+        }
 
         log.info("Fetching expenses for group: {}", groupId);
-        List<ExpenseResponse> expenses = expenseService.getGroupExpenses(groupId);
+        ExpensePage page = expenseService.getGroupExpensesPage(groupId, cursor, limit);
 
-        return ResponseEntity.ok(ApiResponse.success(expenses));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.page(page.getExpenses(), page.getNextCursor()));
+    }
+
+    /**
+     * Download a group's full expense history as CSV or NDJSON (?format=csv|ndjson).
+     * Rows are streamed from the database while the response is written, so any group size
+     * can be exported in constant memory.
+     */
+    @GetMapping("/group/{groupId}/export")
+    public ResponseEntity<StreamingResponseBody> exportGroupExpenses(
+            @PathVariable Long groupId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader("X-User-Id") String userId) {
+
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        log.info("Exporting expenses of group {} as {} for user: {}", groupId, exportFormat, userId);
+
+        StreamingResponseBody body = out -> expenseExportService.exportGroupExpenses(groupId, exportFormat, out);
+        String filename = "group-" + groupId + "-expenses." + exportFormat.getExtension();
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Spending of a group per month, category and currency, read from the rollups.
+     * from/to are yyyy-MM and inclusive; both default to the current month.
+     */
+    @GetMapping("/group/{groupId}/summary")
+    public ResponseEntity<ApiResponse<SpendingSummaryResponse>> getGroupSpendingSummary(
+            @PathVariable Long groupId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestHeader("X-User-Id") String userId) {
+
+        log.info("Fetching spending summary for group: {}", groupId);
+        SpendingSummaryResponse summary = spendingRollupService.getGroupSummary(groupId, from, to);
+
+        return ResponseEntity.ok(ApiResponse.success(summary));
     }
 
     /**
-     * Get all expenses for current user
+     * Recompute the spending rollups from the expenses, for one group or for all groups.
+     * Admin only.
+     */
+    @PostMapping("/admin/rollups/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildSpendingRollups(
+            @RequestParam(required = false) Long groupId,
+            @RequestHeader("X-User-Id") String userId) {
+
+        log.info("Rebuilding spending rollups for {} requested by {}", groupId != null ? "group " + groupId : "all groups", userId);
+        if (groupId != null) {
+            int rows = spendingRollupService.rebuildGroup(groupId);
+            return ResponseEntity.ok(ApiResponse.success("Rebuilt " + rows + " rollups for group " + groupId, rows));
+        }
+        int groups = spendingRollupService.rebuildAll();
+        return ResponseEntity.ok(ApiResponse.success("Rebuilt rollups for " + groups + " groups", groups));
+    }
+
+    /**
+     * Recompute every group and pair balance from the expenses and settlements in the background,
+     * repairing drift unless repair=false. Admin only.
+     */
+    @PostMapping("/admin/balances/reconcile")
+    public ResponseEntity<ApiResponse<BalanceReconciliationReport>> reconcileBalances(
+            @RequestParam(defaultValue = "true") boolean repair,
+            @RequestHeader("X-User-Id") String userId) {
+
+        log.info("Balance reconciliation ({}) requested by {}", repair ? "repair" : "dry run", userId);
+        BalanceReconciliationReport report = balanceReconciliationService.start(repair);
+
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Balance reconciliation started", report));
+    }
+
+    /**
+     * Progress of the running balance reconciliation, or the outcome of the last one. Admin only.
+     */
+    @GetMapping("/admin/balances/reconcile")
+    public ResponseEntity<ApiResponse<BalanceReconciliationReport>> getBalanceReconciliation(
+            @RequestHeader("X-User-Id") String userId) {
+
+        BalanceReconciliationReport report = balanceReconciliationService.getLatest();
+        if (report == null) {
+            throw new ResourceNotFoundException("No balance reconciliation has run since startup");
+        }
+        return ResponseEntity.ok(ApiResponse.success(report));
+    }
+
+    /**
+     * Get expenses for current user, newest first, one page at a time
      */
     @GetMapping("/my-expenses")
     public ResponseEntity<ApiResponse<List<ExpenseResponse>>> getMyExpenses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
             @RequestHeader("X-User-Id") String userId) {
 
         log.info("Fetching expenses for user: {}", userId);
-        List<ExpenseResponse> expenses = expenseService.getUserExpenses(userId);
+        ExpensePage page = expenseService.getUserExpensesPage(userId, cursor, limit);
 
-        return ResponseEntity.ok(ApiResponse.success(expenses));
+        return ResponseEntity.ok(ApiResponse.page(page.getExpenses(), page.getNextCursor()));
     }
 
     /**
@@ -105,11 +414,13 @@ public class ExpenseController {
      */
     @GetMapping("/user")
     public ResponseEntity<ApiResponse<List<ExpenseResponse>>> getUserExpenses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
             @RequestHeader("X-User-Id") String userId) {
 
         log.info("Fetching expenses for user via /user endpoint: {}", userId);
         // Reuse the same logic as /my-expenses
-        return getMyExpenses(userId);
+        return getMyExpenses(cursor, limit, userId);
     }
 
     /**
@@ -142,14 +453,15 @@ public class ExpenseController {
     }
 
     /**
-     * Get user balance summary
+     * Get user balance summary, optionally as it stood at a past moment (ISO date-time, server time)
      */
     @GetMapping("/balance")
     public ResponseEntity<ApiResponse<UserBalanceResponse>> getUserBalance(
-            @RequestHeader("X-User-Id") String userId) {
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
 
         log.info("Calculating balance for user: {}", userId);
-        UserBalanceResponse balance = expenseService.calculateUserBalance(userId);
+        UserBalanceResponse balance = expenseService.calculateUserBalance(userId, asOf);
 
         return ResponseEntity.ok(ApiResponse.success(balance));
     }
@@ -160,26 +472,36 @@ public class ExpenseController {
     @GetMapping("/balance/{userId}")
     public ResponseEntity<ApiResponse<UserBalanceResponse>> getUserBalanceById(
             @PathVariable String userId,
-            @RequestHeader("X-User-Id") String currentUserId) {
+            @RequestHeader("X-User-Id") String currentUserId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
 
         log.info("Calculating balance for user: {} requested by: {}", userId, currentUserId);
-        UserBalanceResponse balance = expenseService.calculateUserBalance(userId);
+        UserBalanceResponse balance = expenseService.calculateUserBalance(userId, asOf);
 
         return ResponseEntity.ok(ApiResponse.success(balance));
     }
 
     /**
      * Get balances for all users in a group (for settlement service)
-     * Returns: Map<userId, netBalance>
+     * Returns: Map<userId, netBalance>, optionally as it stood at a past moment
+     * Current balances carry an ETag; send it as If-None-Match to get 304 while the group is unchanged.
      */
     @GetMapping("/group/{groupId}/balances")
     public ResponseEntity<Map<String, BigDecimal>> getGroupBalances(
-            @PathVariable Long groupId) {
+            @PathVariable Long groupId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+            WebRequest request) {
+
+        if (asOf == null && request.checkNotModified(groupVersionService.getEtag(groupId))) {
+            return null;
+        }
 
         log.info("Calculating balances for group: {}", groupId);
-        Map<String, BigDecimal> balances = expenseService.calculateGroupBalances(groupId);
+        Map<String, BigDecimal> balances = expenseService.calculateGroupBalances(groupId, asOf);
 
-        return ResponseEntity.ok(balances);
+        return asOf == null
+                ? ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(balances)
+                : ResponseEntity.ok(balances);
     }
 
     // ==================== Friend Expense Endpoints ====================
@@ -0,0 +1,38 @@
+package com.splitwise.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceReconciliationReport {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private Status status;
+    private boolean repair; // false for a dry run that only reports drift
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt; // null while running
+
+    private long groupsChecked;
+    private long usersChecked;
+    private long balancesChecked;  // group balances plus pair balances
+    private long balancesDrifted;  // stored balance differs from the one recomputed from source
+    private long balancesRepaired;
+    private long scopesFailed;     // groups or users whose check failed and was skipped
+
+    private double balancesPerSecond;
+
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.splitwise.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResponse {
+
+    private int received;
+    private int created;
+    private int rejected;
+
+    // One entry per submitted row, in submission order
+    @Builder.Default
+    private List<ImportRowResult> results = new ArrayList<>();
+}
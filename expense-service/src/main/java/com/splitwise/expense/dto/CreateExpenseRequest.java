@@ -10,6 +10,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -44,7 +45,9 @@ public class CreateExpenseRequest {
 
     private String notes;
 
-    // For EQUAL split: list of participant user IDs
+    private LocalDateTime date; // Defaults to now; set when importing past expenses
+
+    // For EQUAL and ADJUSTMENT split: list of participant user IDs
     private List<String> participantIds;
 
     // For EXACT split: map of userId -> exact amount
@@ -52,4 +55,10 @@ public class CreateExpenseRequest {
 
     // For PERCENTAGE split: map of userId -> percentage
     private Map<String, BigDecimal> percentages;
+
+    // For SHARES split: map of userId -> number of shares (weight)
+    private Map<String, BigDecimal> shares;
+
+    // For ADJUSTMENT split: map of participant userId -> amount added to (or taken from) their equal share
+    private Map<String, BigDecimal> adjustments;
 }
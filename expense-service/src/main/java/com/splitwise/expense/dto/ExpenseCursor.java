@@ -0,0 +1,45 @@
+package com.splitwise.expense.dto;
+
+import com.splitwise.expense.exception.BadRequestException;
+import com.splitwise.expense.model.Expense;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a (date DESC, id DESC) ordered expense listing.
+ * Clients only ever see the opaque Base64 form returned as nextCursor.
+ */
+@Getter
+@AllArgsConstructor
+public class ExpenseCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime date;
+    private final Long id;
+
+    public static ExpenseCursor after(Expense expense) {
+        return new ExpenseCursor(expense.getDate(), expense.getId());
+    }
+
+    public String encode() {
+        String raw = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExpenseCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new ExpenseCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.splitwise.expense.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.splitwise.expense.model.ExpenseChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseHistoryResponse {
+
+    private int version;
+    private ExpenseChangeType eventType;
+    private JsonNode changes; // Only what changed, see ExpenseChangeType
+    private String actorUserId;
+    private LocalDateTime recordedAt;
+}
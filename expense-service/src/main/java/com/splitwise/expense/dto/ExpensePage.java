@@ -0,0 +1,20 @@
+package com.splitwise.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpensePage {
+
+    private List<ExpenseResponse> expenses;
+
+    // Opaque cursor for the next page; null when this is the last page
+    private String nextCursor;
+}
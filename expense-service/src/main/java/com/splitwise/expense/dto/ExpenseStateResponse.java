@@ -0,0 +1,18 @@
+package com.splitwise.expense.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseStateResponse {
+
+    private Long expenseId;
+    private int version;
+    private JsonNode state; // The expense as it stood at this version, splits keyed by user ID
+}
@@ -0,0 +1,35 @@
+package com.splitwise.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingSummaryResponse {
+
+    private Long groupId;
+    private String fromMonth; // yyyy-MM, inclusive
+    private String toMonth;   // yyyy-MM, inclusive
+
+    // Newest month first, largest total first within a month
+    private List<Row> rows;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        private String month;
+        private String category;
+        private String currency;
+        private long expenseCount;
+        private BigDecimal totalAmount;
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Data
@@ -21,4 +22,6 @@ public class UserBalanceResponse {
 
     // Map of userId -> amount (how much each person owes you or you owe them)
     private Map<String, BigDecimal> balances;
+
+    private LocalDateTime asOf; // Null for current balances
 }
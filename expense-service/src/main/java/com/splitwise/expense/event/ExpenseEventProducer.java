@@ -1,26 +1,55 @@
 package com.splitwise.expense.event;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.events.ExpenseEvent;
+import com.splitwise.expense.model.OutboxEvent;
+import com.splitwise.expense.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Stages expense events in the outbox table. The row commits or rolls back with the
+ * expense change that produced it; {@link ExpenseOutboxRelay} publishes it to Kafka.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ExpenseEventProducer {
 
-    private static final String TOPIC = "expense-events";
-    private final KafkaTemplate<String, ExpenseEvent> kafkaTemplate;
+    static final String TOPIC = "expense-events";
 
-    @Async
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishExpenseEvent(ExpenseEvent event) {
+        String payload;
         try {
-            kafkaTemplate.send(TOPIC, String.valueOf(event.getExpenseId()), event);
-            log.info("Published {} event for expense: {}", event.getEventType(), event.getExpenseId());
-        } catch (Exception e) {
-            log.warn("Failed to publish expense event (non-blocking): {}", e.getMessage());
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize expense event", e);
+        }
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(TOPIC)
+                .eventKey(eventKey(event))
+                .payload(payload)
+                .build());
+        log.debug("Staged {} event for expense: {}", event.getEventType(), event.getExpenseId());
+    }
+
+    /**
+     * Partition by expense so updates to one expense stay ordered; batch events have no
+     * single expense and are keyed by group instead
+     */
+    static String eventKey(ExpenseEvent event) {
+        if (event.getExpenseId() != null) {
+            return String.valueOf(event.getExpenseId());
         }
+        return event.getGroupId() != null ? "group-" + event.getGroupId() : null;
     }
 }
@@ -0,0 +1,131 @@
+package com.splitwise.expense.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.events.ExpenseEvent;
+import com.splitwise.expense.model.OutboxEvent;
+import com.splitwise.expense.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes staged outbox events to Kafka (at-least-once).
+ * Each poll locks a batch with SKIP LOCKED, sends every event without waiting in between
+ * so the producer can batch and compress them, then marks the acknowledged rows as sent.
+ * Rows whose send failed stay unsent and are retried on the next poll.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseOutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, ExpenseEvent> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${outbox.relay.retention-hours:24}")
+    private long retentionHours;
+
+    /**
+     * Drain the outbox: keep relaying full batches until a partial one shows it is caught up
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        int sent;
+        do {
+            sent = relayBatch();
+        } while (sent == batchSize);
+    }
+
+    /**
+     * Publish one batch and mark it sent; returns the number of events acknowledged by Kafka
+     */
+    int relayBatch() {
+        Integer sent = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                sends.add(send(event));
+            }
+
+            List<Long> delivered = awaitDelivered(batch, sends);
+            if (!delivered.isEmpty()) {
+                outboxEventRepository.markSent(delivered, LocalDateTime.now());
+            }
+            log.debug("Relayed {} of {} outbox events", delivered.size(), batch.size());
+            return delivered.size();
+        });
+        return sent != null ? sent : 0;
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        ExpenseEvent payload;
+        try {
+            payload = objectMapper.readValue(event.getPayload(), ExpenseEvent.class);
+        } catch (JsonProcessingException e) {
+            // Can never be published; completing it lets the row be marked and skipped
+            log.error("Dropping unreadable outbox event {}: {}", event.getId(), e.getOriginalMessage());
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return kafkaTemplate.send(event.getTopic(), event.getEventKey(), payload);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private List<Long> awaitDelivered(List<OutboxEvent> batch, List<CompletableFuture<?>> sends) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> delivered = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                delivered.add(batch.get(i).getId());
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox event {} not published, will retry: {}", batch.get(i).getId(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Delete events that were published longer ago than the retention window
+     */
+    @Scheduled(cron = "${outbox.relay.cleanup-cron:0 0 * * * *}")
+    public void purgeSent() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteSentBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published outbox events", deleted);
+        }
+    }
+}
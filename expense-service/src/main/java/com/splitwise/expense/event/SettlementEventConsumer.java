@@ -0,0 +1,37 @@
+package com.splitwise.expense.event;
+
+import com.splitwise.events.SettlementEvent;
+import com.splitwise.expense.service.SettlementLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies recorded settlements to the balance ledgers. A settlement is announced by
+ * SETTLEMENT_CREATED and, when it is confirmed later, SETTLEMENT_COMPLETED; whichever
+ * arrives first applies it and the other is skipped by settlement ID.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SettlementEventConsumer {
+
+    private final SettlementLedgerService settlementLedgerService;
+
+    @KafkaListener(topics = "settlement-events", groupId = "expense-service")
+    public void consumeSettlementEvent(ConsumerRecord<String, SettlementEvent> record) {
+        SettlementEvent event = record.value();
+        if (event == null) {
+            log.warn("Skipping unreadable event at {}-{}@{}", record.topic(), record.partition(), record.offset());
+            return;
+        }
+
+        if ("SETTLEMENT_CREATED".equals(event.getEventType()) || "SETTLEMENT_COMPLETED".equals(event.getEventType())) {
+            settlementLedgerService.applySettlement(event);
+        } else {
+            log.debug("Ignoring {} for settlement {}", event.getEventType(), event.getSettlementId());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.splitwise.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A settlement from settlement-service whose payment has been applied to the balance ledgers.
+ * The settlement ID is the primary key, so each settlement moves the ledgers at most once.
+ */
+@Entity
+@Table(name = "applied_settlements")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppliedSettlement {
+
+    @Id
+    @Column(name = "settlement_id")
+    private Long settlementId;
+
+    private Long groupId; // null for direct friend settlements
+
+    @Column(nullable = false)
+    private String payerId;
+
+    @Column(nullable = false)
+    private String payeeId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private LocalDateTime appliedAt = LocalDateTime.now();
+}
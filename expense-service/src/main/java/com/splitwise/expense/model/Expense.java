@@ -5,6 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,6 +16,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "expenses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "expenses")
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,7 +25,8 @@ import java.util.List;
 public class Expense {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_id_seq")
+    @SequenceGenerator(name = "expense_id_seq", sequenceName = "expenses_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -58,6 +64,14 @@ public class Expense {
     @Column(length = 500)
     private String receiptUrl;
 
+    @Column(length = 64)
+    private String receiptKey; // SHA-256 of an uploaded receipt in the blob store; null if none
+
+    @Column(length = 100)
+    private String receiptContentType;
+
+    private Long receiptSize;
+
     @Builder.Default
     @Column(nullable = false)
     private LocalDateTime date = LocalDateTime.now();
@@ -73,7 +87,16 @@ public class Expense {
     @Builder.Default
     @Column(nullable = false)
     private Boolean isActive = true;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int eventVersion = 1; // Latest version in the expense's history, see ExpenseHistoryEntry
+
+    // Batch size covers a full page (ExpenseService.MAX_PAGE_SIZE plus the look-ahead row),
+    // so the splits of a keyset page load in one extra statement
     @OneToMany(mappedBy = "expense", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 128)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "expenses.splits")
     @Builder.Default
     private List<ExpenseSplit> splits = new ArrayList<>();
 
@@ -0,0 +1,12 @@
+package com.splitwise.expense.model;
+
+/**
+ * Kind of an {@link ExpenseHistoryEntry}; the payload of each is described on the constant
+ */
+public enum ExpenseChangeType {
+    EXPENSE_CREATED,  // The full state of the new expense, splits included
+    DETAILS_CHANGED,  // Only the changed fields other than amount and splits, e.g. {"description": "Taxi"}
+    AMOUNT_CHANGED,   // {"amount": 42.00}
+    SPLITS_CHANGED,   // {"splits": {"bob": {"amount": 21.00, "percentage": null}, "carol": null}}, null = removed
+    EXPENSE_DELETED   // {}
+}
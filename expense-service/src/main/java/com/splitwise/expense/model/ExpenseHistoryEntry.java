@@ -0,0 +1,46 @@
+package com.splitwise.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to an expense, appended in the same transaction as the change itself and never
+ * updated or deleted. Versions of an expense count up from 1 without gaps, so replaying its
+ * entries in order rebuilds the expense as it stood at any version.
+ */
+@Entity
+@Table(name = "expense_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseHistoryEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_events_id_seq")
+    @SequenceGenerator(name = "expense_events_id_seq", sequenceName = "expense_events_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long expenseId;
+
+    @Column(nullable = false)
+    private int version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private ExpenseChangeType eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // JSON, see ExpenseChangeType
+
+    private String actorUserId;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,35 @@
+package com.splitwise.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One posting of the expense search index: {@code term} is a word of the description, notes or
+ * category of an active expense that {@code userId} paid, recorded or takes part in.
+ * Maintained by {@link com.splitwise.expense.service.ExpenseSearchService}.
+ */
+@Entity
+@Table(name = "expense_search_terms")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseSearchTerm {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_search_terms_id_seq")
+    @SequenceGenerator(name = "expense_search_terms_id_seq", sequenceName = "expense_search_terms_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false, length = 64)
+    private String term;
+
+    @Column(nullable = false)
+    private Long expenseId;
+}
@@ -0,0 +1,47 @@
+package com.splitwise.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Full state of an expense at {@code version}, in the same JSON shape as an
+ * {@link ExpenseChangeType#EXPENSE_CREATED} payload. Rebuilding a version replays only the
+ * history entries after the nearest snapshot at or below it.
+ */
+@Entity
+@Table(name = "expense_snapshots")
+@IdClass(ExpenseSnapshot.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseSnapshot {
+
+    @Id
+    @Column(nullable = false)
+    private Long expenseId;
+
+    @Id
+    @Column(nullable = false)
+    private int version;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String state; // JSON
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long expenseId;
+        private int version;
+    }
+}
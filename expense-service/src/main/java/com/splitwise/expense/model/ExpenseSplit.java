@@ -6,11 +6,15 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "expense_splits")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "expense-splits")
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,7 +22,8 @@ import java.math.BigDecimal;
 public class ExpenseSplit {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_split_id_seq")
+    @SequenceGenerator(name = "expense_split_id_seq", sequenceName = "expense_splits_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
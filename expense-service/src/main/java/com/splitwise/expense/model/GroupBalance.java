@@ -0,0 +1,50 @@
+package com.splitwise.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized net balance of one user within one group.
+ * Positive balance = others owe this user; negative = this user owes others.
+ * Maintained incrementally by {@link com.splitwise.expense.service.BalanceLedgerService}.
+ */
+@Entity
+@Table(name = "group_balances")
+@IdClass(GroupBalance.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBalance {
+
+    @Id
+    @Column(nullable = false)
+    private Long groupId;
+
+    @Id
+    @Column(nullable = false)
+    private String userId;
+
+    @Builder.Default
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long groupId;
+        private String userId;
+    }
+}
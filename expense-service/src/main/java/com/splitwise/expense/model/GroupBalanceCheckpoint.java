@@ -0,0 +1,50 @@
+package com.splitwise.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Balance of one user in one group as of {@code checkpointAt}, i.e. the sum of that user's
+ * group journal entries recorded up to then. A checkpoint holds a row for every user of the
+ * group that has journal entries, zero balances included.
+ */
+@Entity
+@Table(name = "group_balance_checkpoints")
+@IdClass(GroupBalanceCheckpoint.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBalanceCheckpoint {
+
+    @Id
+    @Column(nullable = false)
+    private Long groupId;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDateTime checkpointAt;
+
+    @Id
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long groupId;
+        private LocalDateTime checkpointAt;
+        private String userId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.splitwise.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One change to a {@link GroupBalance}, appended in the same transaction as the change itself.
+ * Rows are never updated or deleted, so the balance of a group at any past moment is the sum
+ * of its entries recorded up to then.
+ */
+@Entity
+@Table(name = "group_balance_journal")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBalanceJournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_balance_journal_id_seq")
+    @SequenceGenerator(name = "group_balance_journal_id_seq", sequenceName = "group_balance_journal_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long groupId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal delta;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,64 @@
+package com.splitwise.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Number and total of a group's active expenses in one month, category and currency.
+ * Maintained incrementally by {@link com.splitwise.expense.service.SpendingRollupService}.
+ */
+@Entity
+@Table(name = "group_spending_rollups")
+@IdClass(GroupSpendingRollup.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupSpendingRollup {
+
+    @Id
+    @Column(nullable = false)
+    private Long groupId;
+
+    /** yyyy-MM of the expense date */
+    @Id
+    @Column(name = "spend_month", nullable = false, length = 7)
+    private String month;
+
+    @Id
+    @Column(nullable = false, length = 50)
+    private String category;
+
+    @Id
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long expenseCount = 0;
+
+    @Builder.Default
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long groupId;
+        private String month;
+        private String category;
+        private String currency;
+    }
+}
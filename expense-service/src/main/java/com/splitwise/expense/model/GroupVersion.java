@@ -0,0 +1,33 @@
+package com.splitwise.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Monotonically increasing data version of one group, the source of the ETags of its expense
+ * and balance reads. Maintained by {@link com.splitwise.expense.service.GroupVersionService}.
+ */
+@Entity
+@Table(name = "group_versions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupVersion {
+
+    @Id
+    @Column(name = "group_id")
+    private Long groupId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
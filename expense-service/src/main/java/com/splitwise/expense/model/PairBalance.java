@@ -0,0 +1,58 @@
+package com.splitwise.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized net balance between two users across all shared expenses (group + friend).
+ * The pair is stored in canonical order (userA < userB).
+ * Positive balance = userB owes userA; negative = userA owes userB.
+ */
+@Entity
+@Table(name = "pair_balances")
+@IdClass(PairBalance.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PairBalance {
+
+    // Named explicitly: the naming strategy puts no underscore before a trailing capital (usera)
+    @Id
+    @Column(name = "user_a", nullable = false)
+    private String userA;
+
+    @Id
+    @Column(name = "user_b", nullable = false)
+    private String userB;
+
+    @Builder.Default
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String userA;
+        private String userB;
+
+        /**
+         * Build the canonical key for two users, whichever order they are given in
+         */
+        public static Key of(String user1, String user2) {
+            return user1.compareTo(user2) < 0 ? new Key(user1, user2) : new Key(user2, user1);
+        }
+    }
+}
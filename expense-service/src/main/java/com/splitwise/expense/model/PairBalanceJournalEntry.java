@@ -0,0 +1,40 @@
+package com.splitwise.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One change to a {@link PairBalance}, appended in the same transaction as the change itself.
+ * Uses the same canonical order and sign as the pair ledger: positive delta = userB owes userA more.
+ */
+@Entity
+@Table(name = "pair_balance_journal")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PairBalanceJournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pair_balance_journal_id_seq")
+    @SequenceGenerator(name = "pair_balance_journal_id_seq", sequenceName = "pair_balance_journal_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_a", nullable = false)
+    private String userA;
+
+    @Column(name = "user_b", nullable = false)
+    private String userB;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal delta;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+}
@@ -3,5 +3,7 @@ package com.splitwise.expense.model;
 public enum SplitType {
     EQUAL, // Split equally among all participants
     EXACT, // Each person has exact amount specified
-    PERCENTAGE // Split by percentage (must total 100%)
+    PERCENTAGE, // Split by percentage (must total 100%)
+    SHARES, // Split in proportion to each person's number of shares
+    ADJUSTMENT // Split equally, then add each person's adjustment
 }
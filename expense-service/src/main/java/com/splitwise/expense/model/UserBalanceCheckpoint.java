@@ -0,0 +1,50 @@
+package com.splitwise.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Net balance between a user and one counterparty as of {@code checkpointAt}, oriented to the
+ * user: positive = the counterparty owes userId. Derived from the pair journal; a checkpoint holds
+ * a row for every counterparty the user has journal entries with, zero balances included.
+ */
+@Entity
+@Table(name = "user_balance_checkpoints")
+@IdClass(UserBalanceCheckpoint.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBalanceCheckpoint {
+
+    @Id
+    @Column(nullable = false)
+    private String userId;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDateTime checkpointAt;
+
+    @Id
+    @Column(nullable = false)
+    private String counterpartyId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String userId;
+        private LocalDateTime checkpointAt;
+        private String counterpartyId;
+    }
+}
@@ -0,0 +1,192 @@
+package com.splitwise.expense.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic on {@code long} minor units for the split and balance hot paths.
+ * Amounts are converted from {@link BigDecimal} once at the boundary, the loops run on
+ * primitives, and results are turned back into {@link BigDecimal} only for entities and DTOs.
+ * <p>
+ * A value is always paired with a scale (number of fraction digits): 1234 at scale 2 is 12.34.
+ * Rounding is HALF_UP, i.e. half away from zero, exactly like {@link RoundingMode#HALF_UP}.
+ */
+public final class Money {
+
+    /** Fraction digits stored for every currency (amount columns are NUMERIC(19,2)) */
+    public static final int STORAGE_SCALE = 2;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private Money() {
+    }
+
+    /**
+     * Smallest scale at which an amount can be represented without losing digits,
+     * never below {@link #STORAGE_SCALE}
+     */
+    public static int workingScale(BigDecimal amount) {
+        return Math.max(STORAGE_SCALE, amount.scale());
+    }
+
+    /**
+     * Convert to minor units at the given scale.
+     *
+     * @throws ArithmeticException if the amount has more fraction digits than the scale
+     *                             or does not fit in a long
+     */
+    public static long toMinor(BigDecimal amount, int scale) {
+        return amount.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convert minor units back to a decimal with the given scale
+     */
+    public static BigDecimal toDecimal(long minor, int scale) {
+        return BigDecimal.valueOf(minor, scale);
+    }
+
+    /**
+     * Multiply minor units by 10^digits, moving them to a finer scale
+     */
+    public static long rescaleUp(long minor, int digits) {
+        return Math.multiplyExact(minor, pow10(digits));
+    }
+
+    /**
+     * 10^exponent for exponents 0..18
+     */
+    public static long pow10(int exponent) {
+        if (exponent < 0 || exponent >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("10^" + exponent + " does not fit in a long");
+        }
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * dividend / divisor rounded HALF_UP; the divisor must be positive
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        // remainder >= divisor / 2, written so it cannot overflow
+        if (remainder >= divisor - remainder) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    /**
+     * (a * b) / divisor rounded HALF_UP. Stays on primitives unless the product overflows,
+     * in which case the single term is computed with BigInteger.
+     */
+    public static long multiplyDivideHalfUp(long a, long b, long divisor) {
+        long product;
+        try {
+            product = Math.multiplyExact(a, b);
+        } catch (ArithmeticException overflow) {
+            return new BigDecimal(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)))
+                    .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        }
+        return divideHalfUp(product, divisor);
+    }
+
+    /**
+     * Split {@code total} units in proportion to {@code weights} by largest remainder: every entry
+     * gets floor(total × weight / Σweights), then the units lost to flooring go one each to the
+     * entries with the largest remainders, ties to the earlier entry. The result always sums to
+     * {@code total} and no entry is more than one unit away from its exact share.
+     * <p>
+     * O(n) on primitives: one pass to floor, a linear-time selection of the smallest remainder
+     * that still earns a unit, and one pass to hand the units out. Weights need not be reduced;
+     * 1, 1, 1 and 3333, 3333, 3334 are both fine.
+     *
+     * @param weights weights with a positive sum
+     * @throws ArithmeticException if total × weight does not fit in a long
+     */
+    public static long[] allocate(long total, long[] weights) {
+        long weightSum = 0;
+        for (long weight : weights) {
+            weightSum = Math.addExact(weightSum, weight);
+        }
+        if (weightSum <= 0) {
+            throw new IllegalArgumentException("Weights must have a positive sum");
+        }
+
+        int n = weights.length;
+        long[] parts = new long[n];
+        long[] remainders = new long[n];
+        long allocated = 0;
+        for (int i = 0; i < n; i++) {
+            long exact = Math.multiplyExact(total, weights[i]);
+            parts[i] = Math.floorDiv(exact, weightSum);
+            remainders[i] = Math.floorMod(exact, weightSum);
+            allocated = Math.addExact(allocated, parts[i]);
+        }
+
+        // The remainders add up to leftover × weightSum and each is below weightSum, so leftover < n
+        int leftover = (int) (total - allocated);
+        if (leftover == 0) {
+            return parts;
+        }
+        long cutoff = select(remainders.clone(), n - leftover);
+        int tiesLeft = leftover;
+        for (long remainder : remainders) {
+            if (remainder > cutoff) {
+                tiesLeft--;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (remainders[i] > cutoff) {
+                parts[i]++;
+            } else if (remainders[i] == cutoff && tiesLeft > 0) {
+                parts[i]++;
+                tiesLeft--;
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * The k-th smallest value (0-based), by quickselect; reorders {@code values}
+     */
+    private static long select(long[] values, int k) {
+        int lo = 0;
+        int hi = values.length - 1;
+        while (lo < hi) {
+            long pivot = values[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    long swap = values[i];
+                    values[i++] = values[j];
+                    values[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return values[k];
+            }
+        }
+        return values[k];
+    }
+}
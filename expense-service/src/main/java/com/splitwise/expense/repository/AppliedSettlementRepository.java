@@ -0,0 +1,37 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.AppliedSettlement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AppliedSettlementRepository extends JpaRepository<AppliedSettlement, Long> {
+
+    // Sums for reconciling the ledgers against the settlements applied to them
+
+    @Query("SELECT a.payerId AS userId, SUM(a.amount) AS amount FROM AppliedSettlement a " +
+            "WHERE a.groupId = :groupId GROUP BY a.payerId")
+    List<BalanceDelta> sumPaidInGroup(@Param("groupId") Long groupId);
+
+    @Query("SELECT a.payeeId AS userId, SUM(a.amount) AS amount FROM AppliedSettlement a " +
+            "WHERE a.groupId = :groupId GROUP BY a.payeeId")
+    List<BalanceDelta> sumReceivedInGroup(@Param("groupId") Long groupId);
+
+    /**
+     * What a user paid each payee, group and friend settlements alike
+     */
+    @Query("SELECT a.payeeId AS counterpartyId, SUM(a.amount) AS signedAmount FROM AppliedSettlement a " +
+            "WHERE a.payerId = :userId GROUP BY a.payeeId")
+    List<CounterpartyBalance> sumPaidByUser(@Param("userId") String userId);
+
+    /**
+     * What each payer paid a user, group and friend settlements alike
+     */
+    @Query("SELECT a.payerId AS counterpartyId, SUM(a.amount) AS signedAmount FROM AppliedSettlement a " +
+            "WHERE a.payeeId = :userId GROUP BY a.payerId")
+    List<CounterpartyBalance> sumReceivedByUser(@Param("userId") String userId);
+}
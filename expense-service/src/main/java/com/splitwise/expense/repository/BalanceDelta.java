@@ -0,0 +1,14 @@
+package com.splitwise.expense.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of an amount summed per user: a group's journal entries over a time window, or what
+ * a user paid, owed or settled in a group when its balances are reconciled
+ */
+public interface BalanceDelta {
+
+    String getUserId();
+
+    BigDecimal getAmount();
+}
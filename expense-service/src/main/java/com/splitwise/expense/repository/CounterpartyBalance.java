@@ -0,0 +1,14 @@
+package com.splitwise.expense.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of one row of a user's balance breakdown.
+ * Positive signed amount = the counterparty owes the user; negative = the user owes the counterparty.
+ */
+public interface CounterpartyBalance {
+
+    String getCounterpartyId();
+
+    BigDecimal getSignedAmount();
+}
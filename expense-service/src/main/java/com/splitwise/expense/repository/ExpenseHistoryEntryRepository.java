@@ -0,0 +1,24 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.ExpenseHistoryEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExpenseHistoryEntryRepository extends JpaRepository<ExpenseHistoryEntry, Long> {
+
+    List<ExpenseHistoryEntry> findByExpenseIdOrderByVersion(Long expenseId);
+
+    /**
+     * Entries of an expense with {@code after < version <= upTo}, oldest first
+     */
+    @Query("SELECT h FROM ExpenseHistoryEntry h WHERE h.expenseId = :expenseId " +
+            "AND h.version > :after AND h.version <= :upTo ORDER BY h.version")
+    List<ExpenseHistoryEntry> findRange(@Param("expenseId") Long expenseId,
+                                        @Param("after") int after,
+                                        @Param("upTo") int upTo);
+}
@@ -1,22 +1,49 @@
 package com.splitwise.expense.repository;
 
 import com.splitwise.expense.model.Expense;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseWriteRepository {
 
-    Optional<Expense> findByIdAndIsActiveTrue(Long id);
+    // Finders whose callers read the splits load them in the same statement ("splits" entity graph).
+    // Paged finders cannot fetch-join a collection without paging in memory; their splits are
+    // batch-fetched instead (see @BatchSize on Expense.splits).
 
-    List<Expense> findByGroupIdAndIsActiveTrueOrderByDateDesc(Long groupId);
+    /**
+     * Load by primary key, which the second-level cache can answer when it is enabled.
+     * On a cache miss the splits come in the same statement.
+     */
+    @Override
+    @EntityGraph(attributePaths = "splits")
+    Optional<Expense> findById(Long id);
+
+    /**
+     * An active expense with its splits. A by-ID load plus the soft-delete check rather than a
+     * query, so an expense held in the second-level cache is returned without any statement.
+     * For reads only: the write paths load with {@link #findActiveForUpdate}.
+     */
+    default Optional<Expense> findByIdAndIsActiveTrue(Long id) {
+        return findById(id).filter(expense -> Boolean.TRUE.equals(expense.getIsActive()));
+    }
 
-    @Query("SELECT e FROM Expense e JOIN e.splits s WHERE s.userId = :userId AND e.isActive = true ORDER BY e.date DESC")
+    @EntityGraph(attributePaths = "splits")
+    @Query("SELECT e FROM Expense e WHERE e.isActive = true " +
+            "AND EXISTS (SELECT 1 FROM ExpenseSplit s WHERE s.expense = e AND s.userId = :userId) " +
+            "ORDER BY e.date DESC")
     List<Expense> findByUserIdOrderByDateDesc(@Param("userId") String userId);
 
     @Query("SELECT e FROM Expense e WHERE e.groupId = :groupId AND e.paidBy = :userId AND e.isActive = true")
@@ -28,6 +55,7 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     /**
      * Find all friend expenses between two users (direct, non-group)
      */
+    @EntityGraph(attributePaths = "splits")
     @Query("SELECT e FROM Expense e WHERE e.expenseType = com.splitwise.expense.model.ExpenseType.FRIEND " +
             "AND e.isActive = true " +
             "AND ((e.paidBy = :userId AND e.friendUserId = :friendId) " +
@@ -36,12 +64,71 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     List<Expense> findFriendExpenses(@Param("userId") String userId, @Param("friendId") String friendId);
 
     /**
-     * Find ALL expenses where both users are involved (group + friend),
-     * used for calculating total net balance between two users
+     * Groups that have or had expenses, for rebuilding per-group aggregates
      */
-    @Query("SELECT DISTINCT e FROM Expense e JOIN e.splits s WHERE e.isActive = true " +
-            "AND ((e.paidBy = :userId AND s.userId = :friendId) " +
-            "OR (e.paidBy = :friendId AND s.userId = :userId)) " +
-            "ORDER BY e.date DESC")
-    List<Expense> findAllExpensesBetweenUsers(@Param("userId") String userId, @Param("friendId") String friendId);
+    @Query("SELECT DISTINCT e.groupId FROM Expense e WHERE e.groupId IS NOT NULL ORDER BY e.groupId")
+    List<Long> findGroupIds();
+
+    /**
+     * What each payer paid for a group's active expenses, for reconciling its balances
+     */
+    @Query("SELECT e.paidBy AS userId, SUM(e.amount) AS amount FROM Expense e " +
+            "WHERE e.groupId = :groupId AND e.isActive = true GROUP BY e.paidBy")
+    List<BalanceDelta> sumPaidInGroup(@Param("groupId") Long groupId);
+
+    /**
+     * A group's active expenses summed per calendar month, category and currency
+     */
+    @Query("SELECT YEAR(e.date) AS spendYear, MONTH(e.date) AS spendMonth, e.category AS category, " +
+            "e.currency AS currency, COUNT(e) AS expenseCount, SUM(e.amount) AS totalAmount " +
+            "FROM Expense e WHERE e.groupId = :groupId AND e.isActive = true " +
+            "GROUP BY YEAR(e.date), MONTH(e.date), e.category, e.currency")
+    List<SpendingTotal> sumSpendingByMonth(@Param("groupId") Long groupId);
+
+    // ==================== Keyset pagination on (date, id) ====================
+    // Pass PageRequest.of(0, n) to push the row limit into SQL; the cursor variants
+    // continue strictly after the (date, id) of the last row of the previous page.
+
+    @Query("SELECT e FROM Expense e WHERE e.groupId = :groupId AND e.isActive = true " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<Expense> findGroupPage(@Param("groupId") Long groupId, Pageable page);
+
+    @Query("SELECT e FROM Expense e WHERE e.groupId = :groupId AND e.isActive = true " +
+            "AND (e.date < :date OR (e.date = :date AND e.id < :id)) " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<Expense> findGroupPageAfter(@Param("groupId") Long groupId,
+                                     @Param("date") LocalDateTime date,
+                                     @Param("id") Long id,
+                                     Pageable page);
+
+    @Query("SELECT e FROM Expense e WHERE e.isActive = true " +
+            "AND EXISTS (SELECT 1 FROM ExpenseSplit s WHERE s.expense = e AND s.userId = :userId) " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<Expense> findUserPage(@Param("userId") String userId, Pageable page);
+
+    @Query("SELECT e FROM Expense e WHERE e.isActive = true " +
+            "AND EXISTS (SELECT 1 FROM ExpenseSplit s WHERE s.expense = e AND s.userId = :userId) " +
+            "AND (e.date < :date OR (e.date = :date AND e.id < :id)) " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<Expense> findUserPageAfter(@Param("userId") String userId,
+                                    @Param("date") LocalDateTime date,
+                                    @Param("id") Long id,
+                                    Pageable page);
+
+    // ==================== Streaming export ====================
+
+    /**
+     * All active expenses of a group with their splits, newest first, read from a server-side
+     * cursor in fetch-size chunks. Must be consumed inside a transaction and closed; the caller
+     * detaches each expense once written so the persistence context does not grow.
+     * Ordered by id after date so every expense's split rows arrive together.
+     */
+    @EntityGraph(attributePaths = "splits")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Expense e WHERE e.groupId = :groupId AND e.isActive = true " +
+            "ORDER BY e.date DESC, e.id DESC")
+    Stream<Expense> streamGroupExpenses(@Param("groupId") Long groupId);
 }
@@ -0,0 +1,19 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.ExpenseSearchTerm;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ExpenseSearchTermRepository extends JpaRepository<ExpenseSearchTerm, Long> {
+
+    /**
+     * Take an expense out of the search index; pending postings are flushed first
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ExpenseSearchTerm t WHERE t.expenseId = :expenseId")
+    int deleteByExpenseId(@Param("expenseId") Long expenseId);
+}
@@ -0,0 +1,16 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.ExpenseSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ExpenseSnapshotRepository extends JpaRepository<ExpenseSnapshot, ExpenseSnapshot.Key> {
+
+    /**
+     * The nearest snapshot of an expense at or below {@code version}
+     */
+    Optional<ExpenseSnapshot> findFirstByExpenseIdAndVersionLessThanEqualOrderByVersionDesc(Long expenseId, int version);
+}
@@ -25,4 +25,24 @@ public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long
     // expenses this user paid
     @Query("SELECT SUM(s.amount) FROM ExpenseSplit s WHERE s.expense.paidBy = :userId AND s.userId <> :userId AND s.isPaid = false AND s.expense.isActive = true")
     BigDecimal getTotalOwedToUser(@Param("userId") String userId);
+
+    // What each participant owes across a group's active expenses, for reconciling its balances
+    @Query("SELECT s.userId AS userId, SUM(s.amount) AS amount FROM ExpenseSplit s " +
+            "WHERE s.expense.groupId = :groupId AND s.expense.isActive = true GROUP BY s.userId")
+    List<BalanceDelta> sumSplitsInGroup(@Param("groupId") Long groupId);
+
+    // Per-counterparty breakdown for a user in one aggregation: when the user paid, every
+    // other participant owes them their split; when someone else paid, the user owes the payer
+    // their own split
+    @Query(value = "SELECT b.counterparty_id AS \"counterpartyId\", SUM(b.signed_amount) AS \"signedAmount\" " +
+            "FROM (" +
+            "SELECT s.user_id AS counterparty_id, s.amount AS signed_amount " +
+            "FROM expense_splits s JOIN expenses e ON e.id = s.expense_id " +
+            "WHERE e.is_active = TRUE AND e.paid_by = :userId AND s.user_id <> :userId " +
+            "UNION ALL " +
+            "SELECT e.paid_by, -s.amount " +
+            "FROM expense_splits s JOIN expenses e ON e.id = s.expense_id " +
+            "WHERE e.is_active = TRUE AND s.user_id = :userId AND e.paid_by <> :userId" +
+            ") b GROUP BY b.counterparty_id", nativeQuery = true)
+    List<CounterpartyBalance> getBalanceBreakdown(@Param("userId") String userId);
 }
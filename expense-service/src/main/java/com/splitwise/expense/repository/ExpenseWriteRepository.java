@@ -0,0 +1,17 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.Expense;
+
+import java.util.Optional;
+
+/**
+ * Loads for the write paths, implemented in {@link ExpenseWriteRepositoryImpl}
+ */
+public interface ExpenseWriteRepository {
+
+    /**
+     * An active expense about to be changed, read from the database rather than the second-level
+     * cache and locked until the transaction ends
+     */
+    Optional<Expense> findActiveForUpdate(Long id);
+}
@@ -0,0 +1,34 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.Expense;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.SpecHints;
+
+import java.util.Optional;
+
+/**
+ * The second-level cache may hold another instance's copy of an expense for up to its TTL.
+ * A write that started from that copy would revert the newer amount and splits, or edit an
+ * expense that has already been deleted, so the write paths read past the cache and lock the row.
+ */
+@RequiredArgsConstructor
+public class ExpenseWriteRepositoryImpl implements ExpenseWriteRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<Expense> findActiveForUpdate(Long id) {
+        // For the rest of the transaction, so the lazily loaded splits skip the cache too;
+        // what is read replaces the cached entries
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.REFRESH);
+
+        // No fetch join: PostgreSQL refuses FOR UPDATE on the nullable side of an outer join
+        Expense expense = entityManager.find(Expense.class, id, LockModeType.PESSIMISTIC_WRITE);
+        return Optional.ofNullable(expense).filter(e -> Boolean.TRUE.equals(e.getIsActive()));
+    }
+}
@@ -0,0 +1,29 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.GroupBalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GroupBalanceCheckpointRepository
+        extends JpaRepository<GroupBalanceCheckpoint, GroupBalanceCheckpoint.Key> {
+
+    /**
+     * Rows of the group's latest checkpoint taken at or before {@code asOf}; empty if there is none
+     */
+    @Query("SELECT c FROM GroupBalanceCheckpoint c WHERE c.groupId = :groupId AND c.checkpointAt = " +
+            "(SELECT MAX(l.checkpointAt) FROM GroupBalanceCheckpoint l " +
+            "WHERE l.groupId = :groupId AND l.checkpointAt <= :asOf)")
+    List<GroupBalanceCheckpoint> findLatest(@Param("groupId") Long groupId, @Param("asOf") LocalDateTime asOf);
+
+    /**
+     * Time of the newest checkpoint of any group, or null before the first one
+     */
+    @Query("SELECT MAX(c.checkpointAt) FROM GroupBalanceCheckpoint c")
+    LocalDateTime findLastCheckpointAt();
+}
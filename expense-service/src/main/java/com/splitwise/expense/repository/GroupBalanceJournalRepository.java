@@ -0,0 +1,35 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.GroupBalanceJournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * All windows are half-open: entries recorded after {@code since}, up to and including {@code until}
+ */
+@Repository
+public interface GroupBalanceJournalRepository extends JpaRepository<GroupBalanceJournalEntry, Long> {
+
+    @Query("SELECT j.userId AS userId, SUM(j.delta) AS amount FROM GroupBalanceJournalEntry j " +
+            "WHERE j.groupId = :groupId AND j.recordedAt > :since AND j.recordedAt <= :until " +
+            "GROUP BY j.userId")
+    List<BalanceDelta> sumDeltas(@Param("groupId") Long groupId,
+                                 @Param("since") LocalDateTime since,
+                                 @Param("until") LocalDateTime until);
+
+    @Query("SELECT COUNT(j) FROM GroupBalanceJournalEntry j " +
+            "WHERE j.groupId = :groupId AND j.recordedAt > :since AND j.recordedAt <= :until")
+    long countEntries(@Param("groupId") Long groupId,
+                      @Param("since") LocalDateTime since,
+                      @Param("until") LocalDateTime until);
+
+    @Query("SELECT DISTINCT j.groupId FROM GroupBalanceJournalEntry j " +
+            "WHERE j.recordedAt > :since AND j.recordedAt <= :until")
+    List<Long> findGroupsChangedBetween(@Param("since") LocalDateTime since,
+                                        @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,54 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.GroupBalance;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface GroupBalanceRepository extends JpaRepository<GroupBalance, GroupBalance.Key> {
+
+    List<GroupBalance> findByGroupId(Long groupId);
+
+    /**
+     * The group's balance rows, locked until the transaction ends.
+     * Sorted by user ID, the order expense writes lock them in.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM GroupBalance b WHERE b.groupId = :groupId ORDER BY b.userId")
+    List<GroupBalance> lockByGroupId(@Param("groupId") Long groupId);
+
+    /**
+     * Every group that has a stored balance, expenses or settlements, read from a server-side
+     * cursor. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT group_id FROM group_balances " +
+            "UNION SELECT group_id FROM expenses WHERE group_id IS NOT NULL " +
+            "UNION SELECT group_id FROM applied_settlements WHERE group_id IS NOT NULL", nativeQuery = true)
+    Stream<Long> streamReconciledGroupIds();
+
+    /**
+     * Atomically add a delta to an existing balance row.
+     * Returns the number of rows updated (0 when the user has no row in the group yet).
+     */
+    @Modifying
+    @Query("UPDATE GroupBalance b SET b.balance = b.balance + :delta, b.updatedAt = :now " +
+            "WHERE b.groupId = :groupId AND b.userId = :userId")
+    int addToBalance(@Param("groupId") Long groupId,
+                     @Param("userId") String userId,
+                     @Param("delta") BigDecimal delta,
+                     @Param("now") LocalDateTime now);
+}
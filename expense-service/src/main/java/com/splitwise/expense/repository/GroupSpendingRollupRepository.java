@@ -0,0 +1,49 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.GroupSpendingRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GroupSpendingRollupRepository extends JpaRepository<GroupSpendingRollup, GroupSpendingRollup.Key> {
+
+    /**
+     * Non-empty rollups of a group between two months (yyyy-MM, inclusive)
+     */
+    @Query("SELECT r FROM GroupSpendingRollup r WHERE r.groupId = :groupId " +
+            "AND r.month BETWEEN :fromMonth AND :toMonth AND r.expenseCount > 0 " +
+            "ORDER BY r.month DESC, r.totalAmount DESC, r.category, r.currency")
+    List<GroupSpendingRollup> findSummary(@Param("groupId") Long groupId,
+                                          @Param("fromMonth") String fromMonth,
+                                          @Param("toMonth") String toMonth);
+
+    /**
+     * Atomically add deltas to an existing rollup row.
+     * Returns the number of rows updated (0 when the row does not exist yet).
+     */
+    @Modifying
+    @Query("UPDATE GroupSpendingRollup r SET r.expenseCount = r.expenseCount + :countDelta, " +
+            "r.totalAmount = r.totalAmount + :amountDelta, r.updatedAt = :now " +
+            "WHERE r.groupId = :groupId AND r.month = :month AND r.category = :category AND r.currency = :currency")
+    int addToRollup(@Param("groupId") Long groupId,
+                    @Param("month") String month,
+                    @Param("category") String category,
+                    @Param("currency") String currency,
+                    @Param("countDelta") long countDelta,
+                    @Param("amountDelta") BigDecimal amountDelta,
+                    @Param("now") LocalDateTime now);
+
+    /**
+     * Delete all rollups of a group and detach any that were loaded, so they can be re-inserted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM GroupSpendingRollup r WHERE r.groupId = :groupId")
+    int deleteByGroup(@Param("groupId") Long groupId);
+}
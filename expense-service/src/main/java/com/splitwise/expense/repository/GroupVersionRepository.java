@@ -0,0 +1,26 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.GroupVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface GroupVersionRepository extends JpaRepository<GroupVersion, Long> {
+
+    @Query("SELECT v.version FROM GroupVersion v WHERE v.groupId = :groupId")
+    Optional<Long> findVersion(@Param("groupId") Long groupId);
+
+    /**
+     * Atomically increment an existing version row.
+     * Returns the number of rows updated (0 when the group has no row yet).
+     */
+    @Modifying
+    @Query("UPDATE GroupVersion v SET v.version = v.version + 1, v.updatedAt = :now WHERE v.groupId = :groupId")
+    int increment(@Param("groupId") Long groupId, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,40 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.PairBalanceJournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * All windows are half-open: entries recorded after {@code since}, up to and including {@code until}
+ */
+@Repository
+public interface PairBalanceJournalRepository extends JpaRepository<PairBalanceJournalEntry, Long> {
+
+    /**
+     * Summed deltas of every pair the user is part of, on either side
+     */
+    @Query("SELECT j.userA AS userA, j.userB AS userB, SUM(j.delta) AS amount FROM PairBalanceJournalEntry j " +
+            "WHERE (j.userA = :userId OR j.userB = :userId) AND j.recordedAt > :since AND j.recordedAt <= :until " +
+            "GROUP BY j.userA, j.userB")
+    List<PairDelta> sumDeltas(@Param("userId") String userId,
+                              @Param("since") LocalDateTime since,
+                              @Param("until") LocalDateTime until);
+
+    @Query("SELECT COUNT(j) FROM PairBalanceJournalEntry j " +
+            "WHERE (j.userA = :userId OR j.userB = :userId) AND j.recordedAt > :since AND j.recordedAt <= :until")
+    long countEntries(@Param("userId") String userId,
+                      @Param("since") LocalDateTime since,
+                      @Param("until") LocalDateTime until);
+
+    @Query(value = "SELECT user_a FROM pair_balance_journal WHERE recorded_at > :since AND recorded_at <= :until " +
+            "UNION " +
+            "SELECT user_b FROM pair_balance_journal WHERE recorded_at > :since AND recorded_at <= :until",
+            nativeQuery = true)
+    List<String> findUsersChangedBetween(@Param("since") LocalDateTime since,
+                                         @Param("until") LocalDateTime until);
+}
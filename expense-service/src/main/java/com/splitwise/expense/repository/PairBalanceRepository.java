@@ -0,0 +1,60 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.PairBalance;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface PairBalanceRepository extends JpaRepository<PairBalance, PairBalance.Key> {
+
+    /**
+     * Every pair the user is part of, on either side
+     */
+    @Query("SELECT p FROM PairBalance p WHERE p.userA = :userId OR p.userB = :userId")
+    List<PairBalance> findByUser(@Param("userId") String userId);
+
+    /**
+     * The pairs in which the user is userA, i.e. sorts first, locked until the transaction ends.
+     * Sorted by userB, which is the (userA, userB) order expense writes lock pairs in.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PairBalance p WHERE p.userA = :userA ORDER BY p.userB")
+    List<PairBalance> lockByUserA(@Param("userA") String userA);
+
+    /**
+     * Every user who is userA of a stored pair, paid or shared an expense, or paid or received a
+     * settlement, read from a server-side cursor. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT user_a FROM pair_balances " +
+            "UNION SELECT paid_by FROM expenses " +
+            "UNION SELECT user_id FROM expense_splits " +
+            "UNION SELECT payer_id FROM applied_settlements " +
+            "UNION SELECT payee_id FROM applied_settlements", nativeQuery = true)
+    Stream<String> streamReconciledUserIds();
+
+    /**
+     * Atomically add a delta to an existing pair row.
+     * Returns the number of rows updated (0 when the pair has no row yet).
+     */
+    @Modifying
+    @Query("UPDATE PairBalance p SET p.balance = p.balance + :delta, p.updatedAt = :now " +
+            "WHERE p.userA = :userA AND p.userB = :userB")
+    int addToBalance(@Param("userA") String userA,
+                     @Param("userB") String userB,
+                     @Param("delta") BigDecimal delta,
+                     @Param("now") LocalDateTime now);
+}
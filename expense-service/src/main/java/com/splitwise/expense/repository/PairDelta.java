@@ -0,0 +1,16 @@
+package com.splitwise.expense.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the summed pair journal entries of one (userA, userB) pair over a time window.
+ * Positive amount = userB owes userA more.
+ */
+public interface PairDelta {
+
+    String getUserA();
+
+    String getUserB();
+
+    BigDecimal getAmount();
+}
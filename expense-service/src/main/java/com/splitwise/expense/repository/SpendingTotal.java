@@ -0,0 +1,21 @@
+package com.splitwise.expense.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of a group's active expenses aggregated per calendar month, category and currency
+ */
+public interface SpendingTotal {
+
+    Integer getSpendYear();
+
+    Integer getSpendMonth();
+
+    String getCategory();
+
+    String getCurrency();
+
+    Long getExpenseCount();
+
+    BigDecimal getTotalAmount();
+}
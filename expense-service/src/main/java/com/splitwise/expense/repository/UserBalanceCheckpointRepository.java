@@ -0,0 +1,29 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.UserBalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserBalanceCheckpointRepository
+        extends JpaRepository<UserBalanceCheckpoint, UserBalanceCheckpoint.Key> {
+
+    /**
+     * Rows of the user's latest checkpoint taken at or before {@code asOf}; empty if there is none
+     */
+    @Query("SELECT c FROM UserBalanceCheckpoint c WHERE c.userId = :userId AND c.checkpointAt = " +
+            "(SELECT MAX(l.checkpointAt) FROM UserBalanceCheckpoint l " +
+            "WHERE l.userId = :userId AND l.checkpointAt <= :asOf)")
+    List<UserBalanceCheckpoint> findLatest(@Param("userId") String userId, @Param("asOf") LocalDateTime asOf);
+
+    /**
+     * Time of the newest checkpoint of any user, or null before the first one
+     */
+    @Query("SELECT MAX(c.checkpointAt) FROM UserBalanceCheckpoint c")
+    LocalDateTime findLastCheckpointAt();
+}
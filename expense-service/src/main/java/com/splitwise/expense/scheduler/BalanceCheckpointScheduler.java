@@ -0,0 +1,42 @@
+package com.splitwise.expense.scheduler;
+
+import com.splitwise.expense.service.BalanceHistoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Periodically checkpoints the balance journal so as-of balance reads replay a bounded number of entries.
+ * Checkpoints are taken {@code settle-lag} in the past: a journal entry carries the time it was
+ * recorded, not the time its transaction committed, and a checkpoint must not miss one that commits late.
+ * Several instances may run it at once: a scope already checkpointed at the cutoff is skipped, and one
+ * that another instance checkpoints first fails its insert on the primary key and is skipped too.
+ */
+@Component
+@ConditionalOnProperty(name = "balance.checkpoint.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceCheckpointScheduler {
+
+    private final BalanceHistoryService balanceHistoryService;
+
+    @Value("${balance.checkpoint.settle-lag:5m}")
+    private Duration settleLag;
+
+    @Scheduled(cron = "${balance.checkpoint.cron:0 0 * * * *}")
+    public void checkpoint() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(settleLag).truncatedTo(ChronoUnit.SECONDS);
+        try {
+            balanceHistoryService.checkpoint(cutoff);
+        } catch (Exception e) {
+            log.error("Balance checkpoint at {} failed, retrying on the next run: {}", cutoff, e.getMessage(), e);
+        }
+    }
+}
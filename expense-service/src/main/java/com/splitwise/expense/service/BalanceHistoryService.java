@@ -0,0 +1,240 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.exception.BadRequestException;
+import com.splitwise.expense.model.GroupBalanceCheckpoint;
+import com.splitwise.expense.model.UserBalanceCheckpoint;
+import com.splitwise.expense.repository.BalanceDelta;
+import com.splitwise.expense.repository.GroupBalanceCheckpointRepository;
+import com.splitwise.expense.repository.GroupBalanceJournalRepository;
+import com.splitwise.expense.repository.PairBalanceJournalRepository;
+import com.splitwise.expense.repository.PairDelta;
+import com.splitwise.expense.repository.UserBalanceCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Point-in-time balances, read from the balance journal that {@link BalanceLedgerService} appends to.
+ * A read starts from the scope's latest checkpoint at or before the requested moment and adds only
+ * the journal entries recorded after it, so its cost is bounded by the checkpoint interval rather
+ * than by the scope's whole history. Times are the server-local times the changes were recorded at,
+ * not expense dates.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class BalanceHistoryService {
+
+    /**
+     * Start of the replay window of a scope that has no checkpoint yet
+     */
+    static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final GroupBalanceJournalRepository groupJournalRepository;
+    private final PairBalanceJournalRepository pairJournalRepository;
+    private final GroupBalanceCheckpointRepository groupCheckpointRepository;
+    private final UserBalanceCheckpointRepository userCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${balance.checkpoint.min-entries:100}")
+    private int minEntries;
+
+    /**
+     * Net balances of a group as they stood at {@code asOf}, skipping settled (zero) entries
+     */
+    public Map<String, BigDecimal> getGroupBalancesAsOf(Long groupId, LocalDateTime asOf) {
+        requirePast(asOf);
+        return nonZero(groupBalancesAt(groupId, asOf));
+    }
+
+    /**
+     * Net balances between a user and everyone they shared expenses with as they stood at
+     * {@code asOf}, oriented to the user and skipping settled (zero) pairs.
+     * Positive = that person owed userId; Negative = userId owed that person.
+     */
+    public Map<String, BigDecimal> getUserPairBalancesAsOf(String userId, LocalDateTime asOf) {
+        requirePast(asOf);
+        return nonZero(userBalancesAt(userId, asOf));
+    }
+
+    /**
+     * Checkpoint every group and user whose journal grew by at least {@code min-entries} entries
+     * since its last checkpoint, each scope in its own transaction. Only scopes with entries newer
+     * than the last checkpoint run are considered, so a run costs O(recently changed scopes).
+     *
+     * @param cutoff the checkpoint time; must lie far enough in the past that no transaction still
+     *               in flight can commit an entry recorded before it
+     * @return number of checkpoints written
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int checkpoint(LocalDateTime cutoff) {
+        int written = 0;
+
+        LocalDateTime groupsSince = orBeginning(groupCheckpointRepository.findLastCheckpointAt());
+        for (Long groupId : groupJournalRepository.findGroupsChangedBetween(groupsSince, cutoff)) {
+            if (checkpointScope("group " + groupId, () -> checkpointGroup(groupId, cutoff))) {
+                written++;
+            }
+        }
+
+        LocalDateTime usersSince = orBeginning(userCheckpointRepository.findLastCheckpointAt());
+        for (String userId : pairJournalRepository.findUsersChangedBetween(usersSince, cutoff)) {
+            if (checkpointScope("user " + userId, () -> checkpointUser(userId, cutoff))) {
+                written++;
+            }
+        }
+
+        log.info("Wrote {} balance checkpoints at {}", written, cutoff);
+        return written;
+    }
+
+    /**
+     * Checkpoint one scope in its own transaction. An instance running the same cutoff concurrently
+     * can commit the scope's checkpoint first, failing this insert on the primary key; the scope is
+     * then checkpointed and the run goes on with the next one.
+     */
+    private boolean checkpointScope(String scope, Supplier<Boolean> checkpoint) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> checkpoint.get()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Balance checkpoint of {} was written by another instance", scope);
+            return false;
+        }
+    }
+
+    /**
+     * Checkpoint a group at {@code cutoff} if at least {@code min-entries} journal entries were
+     * recorded since its previous checkpoint.
+     *
+     * @return true if a checkpoint was written
+     */
+    @Transactional
+    public boolean checkpointGroup(Long groupId, LocalDateTime cutoff) {
+        List<GroupBalanceCheckpoint> latest = groupCheckpointRepository.findLatest(groupId, cutoff);
+        LocalDateTime since = latest.isEmpty() ? BEGINNING : latest.get(0).getCheckpointAt();
+        if (!since.isBefore(cutoff) || groupJournalRepository.countEntries(groupId, since, cutoff) < minEntries) {
+            return false;
+        }
+
+        List<GroupBalanceCheckpoint> rows = new ArrayList<>();
+        for (Map.Entry<String, BigDecimal> balance : replayGroup(latest, groupId, since, cutoff).entrySet()) {
+            rows.add(GroupBalanceCheckpoint.builder()
+                    .groupId(groupId)
+                    .checkpointAt(cutoff)
+                    .userId(balance.getKey())
+                    .balance(balance.getValue())
+                    .build());
+        }
+        groupCheckpointRepository.saveAll(rows);
+
+        log.debug("Checkpointed {} balances of group {} at {}", rows.size(), groupId, cutoff);
+        return true;
+    }
+
+    /**
+     * Checkpoint a user's pair balances at {@code cutoff} if at least {@code min-entries} journal
+     * entries involving the user were recorded since their previous checkpoint.
+     *
+     * @return true if a checkpoint was written
+     */
+    @Transactional
+    public boolean checkpointUser(String userId, LocalDateTime cutoff) {
+        List<UserBalanceCheckpoint> latest = userCheckpointRepository.findLatest(userId, cutoff);
+        LocalDateTime since = latest.isEmpty() ? BEGINNING : latest.get(0).getCheckpointAt();
+        if (!since.isBefore(cutoff) || pairJournalRepository.countEntries(userId, since, cutoff) < minEntries) {
+            return false;
+        }
+
+        List<UserBalanceCheckpoint> rows = new ArrayList<>();
+        for (Map.Entry<String, BigDecimal> balance : replayUser(latest, userId, since, cutoff).entrySet()) {
+            rows.add(UserBalanceCheckpoint.builder()
+                    .userId(userId)
+                    .checkpointAt(cutoff)
+                    .counterpartyId(balance.getKey())
+                    .balance(balance.getValue())
+                    .build());
+        }
+        userCheckpointRepository.saveAll(rows);
+
+        log.debug("Checkpointed {} pair balances of user {} at {}", rows.size(), userId, cutoff);
+        return true;
+    }
+
+    private Map<String, BigDecimal> groupBalancesAt(Long groupId, LocalDateTime asOf) {
+        List<GroupBalanceCheckpoint> latest = groupCheckpointRepository.findLatest(groupId, asOf);
+        LocalDateTime since = latest.isEmpty() ? BEGINNING : latest.get(0).getCheckpointAt();
+        return replayGroup(latest, groupId, since, asOf);
+    }
+
+    private Map<String, BigDecimal> userBalancesAt(String userId, LocalDateTime asOf) {
+        List<UserBalanceCheckpoint> latest = userCheckpointRepository.findLatest(userId, asOf);
+        LocalDateTime since = latest.isEmpty() ? BEGINNING : latest.get(0).getCheckpointAt();
+        return replayUser(latest, userId, since, asOf);
+    }
+
+    /**
+     * Checkpointed group balances plus the journal entries recorded in (since, until]
+     */
+    private Map<String, BigDecimal> replayGroup(List<GroupBalanceCheckpoint> checkpoint, Long groupId,
+                                                LocalDateTime since, LocalDateTime until) {
+        Map<String, BigDecimal> balances = new TreeMap<>();
+        checkpoint.forEach(row -> balances.put(row.getUserId(), row.getBalance()));
+        for (BalanceDelta delta : groupJournalRepository.sumDeltas(groupId, since, until)) {
+            balances.merge(delta.getUserId(), delta.getAmount(), BigDecimal::add);
+        }
+        return balances;
+    }
+
+    /**
+     * Checkpointed pair balances of a user plus the journal entries recorded in (since, until],
+     * oriented to the user
+     */
+    private Map<String, BigDecimal> replayUser(List<UserBalanceCheckpoint> checkpoint, String userId,
+                                               LocalDateTime since, LocalDateTime until) {
+        Map<String, BigDecimal> balances = new TreeMap<>();
+        checkpoint.forEach(row -> balances.put(row.getCounterpartyId(), row.getBalance()));
+        for (PairDelta delta : pairJournalRepository.sumDeltas(userId, since, until)) {
+            if (userId.equals(delta.getUserA())) {
+                balances.merge(delta.getUserB(), delta.getAmount(), BigDecimal::add);
+            } else {
+                balances.merge(delta.getUserA(), delta.getAmount().negate(), BigDecimal::add);
+            }
+        }
+        return balances;
+    }
+
+    private static Map<String, BigDecimal> nonZero(Map<String, BigDecimal> balances) {
+        Map<String, BigDecimal> result = new HashMap<>();
+        balances.forEach((id, balance) -> {
+            if (balance.compareTo(BigDecimal.ZERO) != 0) {
+                result.put(id, balance);
+            }
+        });
+        return result;
+    }
+
+    private static LocalDateTime orBeginning(LocalDateTime time) {
+        return time != null ? time : BEGINNING;
+    }
+
+    private static void requirePast(LocalDateTime asOf) {
+        if (asOf.isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("asOf must not be in the future");
+        }
+    }
+}
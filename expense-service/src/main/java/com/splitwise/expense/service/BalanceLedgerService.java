@@ -0,0 +1,268 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.model.Expense;
+import com.splitwise.expense.model.ExpenseSplit;
+import com.splitwise.expense.model.GroupBalance;
+import com.splitwise.expense.model.GroupBalanceJournalEntry;
+import com.splitwise.expense.model.PairBalance;
+import com.splitwise.expense.model.PairBalanceJournalEntry;
+import com.splitwise.expense.repository.GroupBalanceJournalRepository;
+import com.splitwise.expense.repository.GroupBalanceRepository;
+import com.splitwise.expense.repository.PairBalanceJournalRepository;
+import com.splitwise.expense.repository.PairBalanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the per-(group, user) and per-(user, user) balance ledgers in sync with expense writes
+ * and recorded settlements.
+ * Every change is also appended to the balance journal, which {@link BalanceHistoryService}
+ * reads for point-in-time balances.
+ * Every method joins the caller's transaction, so the ledger commits or rolls back
+ * together with the expense change that produced the delta.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class BalanceLedgerService {
+
+    private static final Comparator<PairBalance.Key> PAIR_ORDER =
+            Comparator.comparing(PairBalance.Key::getUserA).thenComparing(PairBalance.Key::getUserB);
+
+    private final GroupBalanceRepository groupBalanceRepository;
+    private final PairBalanceRepository pairBalanceRepository;
+    private final GroupBalanceJournalRepository groupJournalRepository;
+    private final PairBalanceJournalRepository pairJournalRepository;
+
+    /**
+     * Add the balance contribution of an active expense to the ledger
+     */
+    public void applyExpense(Expense expense) {
+        applyGroupDeltas(expense, false);
+        applyPairDeltas(expense, false);
+    }
+
+    /**
+     * Remove the balance contribution of an expense from the ledger.
+     * Must be called before the expense's amount, payer or splits are modified.
+     */
+    public void revertExpense(Expense expense) {
+        applyGroupDeltas(expense, true);
+        applyPairDeltas(expense, true);
+    }
+
+    /**
+     * Add the contribution of many expenses at once, merging deltas per ledger row first
+     * so a large import touches each (group, user) and (user, user) row only once.
+     */
+    public void applyExpenses(Collection<Expense> expenses) {
+        Map<Long, Map<String, BigDecimal>> groupTotals = new TreeMap<>();
+        Map<PairBalance.Key, BigDecimal> pairTotals = new TreeMap<>(PAIR_ORDER);
+
+        for (Expense expense : expenses) {
+            if (expense.getGroupId() != null) {
+                Map<String, BigDecimal> totals = groupTotals.computeIfAbsent(expense.getGroupId(), id -> new TreeMap<>());
+                groupDeltas(expense).forEach((userId, delta) -> totals.merge(userId, delta, BigDecimal::add));
+            }
+            pairDeltas(expense).forEach((key, delta) -> pairTotals.merge(key, delta, BigDecimal::add));
+        }
+
+        groupTotals.forEach((groupId, totals) -> totals.forEach((userId, delta) -> {
+            if (delta.compareTo(BigDecimal.ZERO) != 0) {
+                addToGroupBalance(groupId, userId, delta);
+            }
+        }));
+        pairTotals.forEach((key, delta) -> {
+            if (delta.compareTo(BigDecimal.ZERO) != 0) {
+                addToPairBalance(key, delta);
+            }
+        });
+    }
+
+    /**
+     * Apply a payment from payer to payee: the payer is credited and the payee debited,
+     * exactly as if the payer had paid an expense that was split entirely to the payee.
+     * Friend settlements (no group) only move the pair ledger.
+     */
+    public void applySettlement(Long groupId, String payerId, String payeeId, BigDecimal amount) {
+        if (groupId != null) {
+            // Sorted by user ID, the same lock order as expense writes
+            Map<String, BigDecimal> deltas = new TreeMap<>();
+            deltas.put(payerId, amount);
+            deltas.put(payeeId, amount.negate());
+            deltas.forEach((userId, delta) -> addToGroupBalance(groupId, userId, delta));
+        }
+
+        PairBalance.Key key = PairBalance.Key.of(payerId, payeeId);
+        addToPairBalance(key, payerId.equals(key.getUserA()) ? amount : amount.negate());
+    }
+
+    /**
+     * Move a group balance by a correction found when reconciling the ledger with its sources.
+     * Journalled like any other change, so past balances read after the repair include it.
+     */
+    public void correctGroupBalance(Long groupId, String userId, BigDecimal delta) {
+        addToGroupBalance(groupId, userId, delta);
+    }
+
+    /**
+     * Move a pair balance by a correction found when reconciling the ledger with its sources,
+     * expressed from userA's point of view
+     */
+    public void correctPairBalance(PairBalance.Key key, BigDecimal delta) {
+        addToPairBalance(key, delta);
+    }
+
+    /**
+     * Read the current net balances of a group, skipping settled (zero) entries
+     */
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> getGroupBalances(Long groupId) {
+        List<GroupBalance> rows = groupBalanceRepository.findByGroupId(groupId);
+
+        Map<String, BigDecimal> balances = new HashMap<>();
+        for (GroupBalance row : rows) {
+            if (row.getBalance().compareTo(BigDecimal.ZERO) != 0) {
+                balances.put(row.getUserId(), row.getBalance());
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * Read the net balance between two users with a single primary-key lookup.
+     * Positive = friendId owes userId; Negative = userId owes friendId.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getPairBalance(String userId, String friendId) {
+        PairBalance.Key key = PairBalance.Key.of(userId, friendId);
+        return pairBalanceRepository.findById(key)
+                .map(pair -> userId.equals(pair.getUserA()) ? pair.getBalance() : pair.getBalance().negate())
+                .orElse(BigDecimal.ZERO);
+    }
+
+    /**
+     * Read the net balance between a user and everyone they share expenses with, oriented to
+     * the user and skipping settled (zero) pairs.
+     * Positive = that person owes userId; Negative = userId owes that person.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> getUserPairBalances(String userId) {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        for (PairBalance pair : pairBalanceRepository.findByUser(userId)) {
+            if (pair.getBalance().compareTo(BigDecimal.ZERO) == 0) {
+                continue;
+            }
+            if (userId.equals(pair.getUserA())) {
+                balances.put(pair.getUserB(), pair.getBalance());
+            } else {
+                balances.put(pair.getUserA(), pair.getBalance().negate());
+            }
+        }
+        return balances;
+    }
+
+    private void applyGroupDeltas(Expense expense, boolean revert) {
+        if (expense.getGroupId() == null) {
+            return; // FRIEND expenses are not part of any group ledger
+        }
+
+        for (Map.Entry<String, BigDecimal> entry : groupDeltas(expense).entrySet()) {
+            BigDecimal delta = revert ? entry.getValue().negate() : entry.getValue();
+            addToGroupBalance(expense.getGroupId(), entry.getKey(), delta);
+        }
+    }
+
+    /**
+     * Net effect of one expense on its group: the payer is credited the full amount
+     * and every participant is debited their split.
+     * Sorted by user ID so concurrent writers lock ledger rows in the same order.
+     */
+    static Map<String, BigDecimal> groupDeltas(Expense expense) {
+        Map<String, BigDecimal> deltas = new TreeMap<>();
+        deltas.merge(expense.getPaidBy(), expense.getAmount(), BigDecimal::add);
+        for (ExpenseSplit split : expense.getSplits()) {
+            deltas.merge(split.getUserId(), split.getAmount().negate(), BigDecimal::add);
+        }
+        deltas.values().removeIf(delta -> delta.compareTo(BigDecimal.ZERO) == 0);
+        return deltas;
+    }
+
+    private void applyPairDeltas(Expense expense, boolean revert) {
+        for (Map.Entry<PairBalance.Key, BigDecimal> entry : pairDeltas(expense).entrySet()) {
+            BigDecimal delta = revert ? entry.getValue().negate() : entry.getValue();
+            addToPairBalance(entry.getKey(), delta);
+        }
+    }
+
+    /**
+     * Net effect of one expense on each (payer, participant) pair: every participant other
+     * than the payer owes the payer their split. Deltas are expressed from userA's point of view.
+     */
+    static Map<PairBalance.Key, BigDecimal> pairDeltas(Expense expense) {
+        String paidBy = expense.getPaidBy();
+        Map<PairBalance.Key, BigDecimal> deltas = new TreeMap<>(PAIR_ORDER);
+        for (ExpenseSplit split : expense.getSplits()) {
+            if (split.getUserId().equals(paidBy)) {
+                continue;
+            }
+            PairBalance.Key key = PairBalance.Key.of(paidBy, split.getUserId());
+            BigDecimal delta = paidBy.equals(key.getUserA()) ? split.getAmount() : split.getAmount().negate();
+            deltas.merge(key, delta, BigDecimal::add);
+        }
+        deltas.values().removeIf(delta -> delta.compareTo(BigDecimal.ZERO) == 0);
+        return deltas;
+    }
+
+    private void addToGroupBalance(Long groupId, String userId, BigDecimal delta) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = groupBalanceRepository.addToBalance(groupId, userId, delta, now);
+        if (updated == 0) {
+            groupBalanceRepository.save(GroupBalance.builder()
+                    .groupId(groupId)
+                    .userId(userId)
+                    .balance(delta)
+                    .updatedAt(now)
+                    .build());
+        }
+        groupJournalRepository.save(GroupBalanceJournalEntry.builder()
+                .groupId(groupId)
+                .userId(userId)
+                .delta(delta)
+                .recordedAt(now)
+                .build());
+        log.debug("Group {} balance of {} changed by {}", groupId, userId, delta);
+    }
+
+    private void addToPairBalance(PairBalance.Key key, BigDecimal delta) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = pairBalanceRepository.addToBalance(key.getUserA(), key.getUserB(), delta, now);
+        if (updated == 0) {
+            pairBalanceRepository.save(PairBalance.builder()
+                    .userA(key.getUserA())
+                    .userB(key.getUserB())
+                    .balance(delta)
+                    .updatedAt(now)
+                    .build());
+        }
+        pairJournalRepository.save(PairBalanceJournalEntry.builder()
+                .userA(key.getUserA())
+                .userB(key.getUserB())
+                .delta(delta)
+                .recordedAt(now)
+                .build());
+        log.debug("Balance between {} and {} changed by {}", key.getUserA(), key.getUserB(), delta);
+    }
+}
@@ -0,0 +1,388 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.dto.BalanceReconciliationReport;
+import com.splitwise.expense.exception.BadRequestException;
+import com.splitwise.expense.model.GroupBalance;
+import com.splitwise.expense.model.PairBalance;
+import com.splitwise.expense.repository.AppliedSettlementRepository;
+import com.splitwise.expense.repository.BalanceDelta;
+import com.splitwise.expense.repository.CounterpartyBalance;
+import com.splitwise.expense.repository.ExpenseRepository;
+import com.splitwise.expense.repository.ExpenseSplitRepository;
+import com.splitwise.expense.repository.GroupBalanceRepository;
+import com.splitwise.expense.repository.PairBalanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Recomputes the balance ledgers from the rows they are derived from (active expenses, their
+ * splits and applied settlements), compares them with the stored {@code group_balances} and
+ * {@code pair_balances} rows and, unless it is a dry run, repairs any drift through
+ * {@link BalanceLedgerService}, so each repair is journalled like any other balance change.
+ * <p>
+ * Group and user IDs are streamed from a database cursor, and each batch of IDs is split across a
+ * fork-join pool. A group is recomputed from per-user sums and a user's pairs from
+ * per-counterparty sums, both aggregated by the database, so no expense or split is ever loaded.
+ * Heap use is bounded by the batch size and the largest group or circle of counterparties,
+ * however many splits there are. Every group and every user is checked in its own transaction;
+ * each pair is checked once, by the user that sorts first in it.
+ * <p>
+ * A scope's ledger rows are locked before its sources are summed. A write that has already
+ * updated them is waited for and then counted in the sums; one that comes later waits for the
+ * check to finish. So a write in flight is not reported as drift, nor undone by a repair. The
+ * exception is a write that only adds rows the scope does not have yet, which is not held back.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceReconciliationService {
+
+    private final GroupBalanceRepository groupBalanceRepository;
+    private final PairBalanceRepository pairBalanceRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseSplitRepository expenseSplitRepository;
+    private final AppliedSettlementRepository appliedSettlementRepository;
+    private final BalanceLedgerService balanceLedgerService;
+    private final GroupVersionService groupVersionService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicReference<Run> latest = new AtomicReference<>();
+
+    // Every worker holds a database connection while it checks a scope, and the ID cursor one more
+    @Value("${balance.reconciliation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${balance.reconciliation.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Start a reconciliation in the background and return its initial progress
+     *
+     * @param repair false for a dry run that reports drift without touching the ledgers
+     * @throws BadRequestException if a reconciliation is already running
+     */
+    public BalanceReconciliationReport start(boolean repair) {
+        Run run = begin(repair);
+        Thread.ofPlatform().name("balance-reconciliation").daemon().start(() -> execute(run));
+        return run.report();
+    }
+
+    /**
+     * Run a reconciliation on the calling thread and return its outcome
+     *
+     * @param repair false for a dry run that reports drift without touching the ledgers
+     * @throws BadRequestException if a reconciliation is already running
+     */
+    public BalanceReconciliationReport reconcile(boolean repair) {
+        Run run = begin(repair);
+        execute(run);
+        return run.report();
+    }
+
+    /**
+     * Progress of the running reconciliation, or the outcome of the last one;
+     * null if none ran since startup
+     */
+    public BalanceReconciliationReport getLatest() {
+        Run run = latest.get();
+        return run != null ? run.report() : null;
+    }
+
+    private Run begin(boolean repair) {
+        Run previous = latest.get();
+        Run run = new Run(repair);
+        if ((previous != null && previous.finishedAt == null) || !latest.compareAndSet(previous, run)) {
+            throw new BadRequestException("A balance reconciliation is already running");
+        }
+        return run;
+    }
+
+    private void execute(Run run) {
+        log.info("Balance reconciliation started ({})", run.repair ? "repairing drift" : "dry run");
+
+        // A task can run on whichever thread joins it, including this one while it holds the ID
+        // cursor's transaction, so every scope gets a transaction of its own
+        TransactionTemplate scopeTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        scopeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            forEachBatch(groupBalanceRepository::streamReconciledGroupIds, batch -> {
+                pool.invoke(new ScopeTask<>(batch, 0, batch.size(), groupId -> check(run, run.groups,
+                        () -> scopeTransaction.execute(status -> reconcileGroup(groupId, run.repair)))));
+                run.logProgress();
+            });
+            forEachBatch(pairBalanceRepository::streamReconciledUserIds, batch -> {
+                pool.invoke(new ScopeTask<>(batch, 0, batch.size(), userId -> check(run, run.users,
+                        () -> scopeTransaction.execute(status -> reconcileUser(userId, run.repair)))));
+                run.logProgress();
+            });
+            run.finish(null);
+        } catch (RuntimeException e) {
+            log.error("Balance reconciliation failed: {}", e.getMessage(), e);
+            run.finish(e);
+        }
+
+        BalanceReconciliationReport report = run.report();
+        log.info("Balance reconciliation {}: {} groups, {} users, {} balances checked, {} drifted, {} repaired, "
+                        + "{} scopes failed, {} balances/s",
+                report.getStatus(), report.getGroupsChecked(), report.getUsersChecked(), report.getBalancesChecked(),
+                report.getBalancesDrifted(), report.getBalancesRepaired(), report.getScopesFailed(),
+                String.format("%.0f", report.getBalancesPerSecond()));
+    }
+
+    /**
+     * Feed the IDs read from a cursor to {@code work} in batches of {@code batch-size}
+     */
+    private <T> void forEachBatch(Supplier<Stream<T>> ids, Consumer<List<T>> work) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<T> stream = ids.get()) {
+                Iterator<T> iterator = stream.iterator();
+                List<T> batch = new ArrayList<>(batchSize);
+                while (iterator.hasNext()) {
+                    batch.add(iterator.next());
+                    if (batch.size() == batchSize) {
+                        work.accept(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    work.accept(batch);
+                }
+            }
+        });
+    }
+
+    private static void check(Run run, AtomicLong scopes, Supplier<Outcome> reconcile) {
+        try {
+            Outcome outcome = reconcile.get();
+            scopes.incrementAndGet();
+            run.balancesChecked.addAndGet(outcome.checked());
+            run.balancesDrifted.addAndGet(outcome.drifted());
+            if (run.repair) {
+                run.balancesRepaired.addAndGet(outcome.drifted());
+            }
+        } catch (RuntimeException e) {
+            // One bad scope must not stop the run; it is counted and can be retried with the next one
+            run.scopesFailed.incrementAndGet();
+            log.warn("Balance reconciliation skipped a scope: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compare a group's stored balances with the ones its expenses and settlements add up to:
+     * the payer of an expense or settlement is credited the amount, every participant of an
+     * expense is debited their split and the payee of a settlement the amount paid
+     */
+    Outcome reconcileGroup(Long groupId, boolean repair) {
+        // Locked first, so the sums below include every write that changed these rows before
+        List<GroupBalance> rows = groupBalanceRepository.lockByGroupId(groupId);
+
+        Map<String, BigDecimal> expected = new TreeMap<>();
+        addDeltas(expected, expenseRepository.sumPaidInGroup(groupId), false);
+        addDeltas(expected, expenseSplitRepository.sumSplitsInGroup(groupId), true);
+        addDeltas(expected, appliedSettlementRepository.sumPaidInGroup(groupId), false);
+        addDeltas(expected, appliedSettlementRepository.sumReceivedInGroup(groupId), true);
+
+        Map<String, BigDecimal> stored = new TreeMap<>();
+        for (GroupBalance row : rows) {
+            stored.put(row.getUserId(), row.getBalance());
+        }
+
+        Map<String, BigDecimal> drift = drift(expected, stored);
+        if (!drift.isEmpty()) {
+            log.warn("Group {} balances drifted from their expenses: {}", groupId, drift);
+            if (repair) {
+                // Sorted by user ID, the same lock order as expense writes
+                drift.forEach((userId, delta) -> balanceLedgerService.correctGroupBalance(groupId, userId, delta));
+                groupVersionService.bump(groupId);
+            }
+        }
+        return new Outcome(union(expected, stored), drift.size());
+    }
+
+    /**
+     * Compare the stored pair balances a user is userA of with the ones their expenses and
+     * settlements add up to, group and friend alike, oriented to the user
+     */
+    Outcome reconcileUser(String userId, boolean repair) {
+        // Locked first, as for a group
+        List<PairBalance> pairs = pairBalanceRepository.lockByUserA(userId);
+
+        Map<String, BigDecimal> expected = new TreeMap<>();
+        addOwnPairs(expected, userId, expenseSplitRepository.getBalanceBreakdown(userId), false);
+        addOwnPairs(expected, userId, appliedSettlementRepository.sumPaidByUser(userId), false);
+        addOwnPairs(expected, userId, appliedSettlementRepository.sumReceivedByUser(userId), true);
+
+        Map<String, BigDecimal> stored = new TreeMap<>();
+        for (PairBalance pair : pairs) {
+            stored.put(pair.getUserB(), pair.getBalance());
+        }
+
+        Map<String, BigDecimal> drift = drift(expected, stored);
+        if (!drift.isEmpty()) {
+            log.warn("Pair balances of {} drifted from their expenses: {}", userId, drift);
+            if (repair) {
+                drift.forEach((counterpartyId, delta) ->
+                        balanceLedgerService.correctPairBalance(new PairBalance.Key(userId, counterpartyId), delta));
+            }
+        }
+        return new Outcome(union(expected, stored), drift.size());
+    }
+
+    private static void addDeltas(Map<String, BigDecimal> totals, List<BalanceDelta> rows, boolean negate) {
+        for (BalanceDelta row : rows) {
+            BigDecimal amount = negate ? row.getAmount().negate() : row.getAmount();
+            totals.merge(row.getUserId(), amount, BigDecimal::add);
+        }
+    }
+
+    /**
+     * Add the rows whose pair the user is userA of; the other pairs are checked with the counterparty
+     */
+    private static void addOwnPairs(Map<String, BigDecimal> totals, String userId, List<CounterpartyBalance> rows,
+                                    boolean negate) {
+        for (CounterpartyBalance row : rows) {
+            if (userId.compareTo(row.getCounterpartyId()) < 0) {
+                BigDecimal amount = negate ? row.getSignedAmount().negate() : row.getSignedAmount();
+                totals.merge(row.getCounterpartyId(), amount, BigDecimal::add);
+            }
+        }
+    }
+
+    /**
+     * expected - stored for every key where the two differ; a missing row counts as zero
+     */
+    private static Map<String, BigDecimal> drift(Map<String, BigDecimal> expected, Map<String, BigDecimal> stored) {
+        Map<String, BigDecimal> drift = new TreeMap<>();
+        expected.forEach((key, value) -> drift.put(key, value.subtract(stored.getOrDefault(key, BigDecimal.ZERO))));
+        stored.forEach((key, value) -> drift.putIfAbsent(key, value.negate()));
+        drift.values().removeIf(delta -> delta.compareTo(BigDecimal.ZERO) == 0);
+        return drift;
+    }
+
+    private static int union(Map<String, BigDecimal> expected, Map<String, BigDecimal> stored) {
+        int count = expected.size();
+        for (String key : stored.keySet()) {
+            if (!expected.containsKey(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Balances compared and found drifted in one group or for one user
+     */
+    record Outcome(int checked, int drifted) {
+    }
+
+    /**
+     * Checks the scopes ids[from, to), splitting the range in halves until it is small enough
+     * to check directly
+     */
+    private static final class ScopeTask<T> extends RecursiveAction {
+
+        private static final int THRESHOLD = 8;
+
+        private final List<T> ids;
+        private final int from;
+        private final int to;
+        private final Consumer<T> check;
+
+        ScopeTask(List<T> ids, int from, int to, Consumer<T> check) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+            this.check = check;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    check.accept(ids.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScopeTask<>(ids, from, middle, check), new ScopeTask<>(ids, middle, to, check));
+        }
+    }
+
+    /**
+     * Counters of one reconciliation, updated by the pool's workers
+     */
+    private static final class Run {
+
+        private final boolean repair;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+
+        private final AtomicLong groups = new AtomicLong();
+        private final AtomicLong users = new AtomicLong();
+        private final AtomicLong balancesChecked = new AtomicLong();
+        private final AtomicLong balancesDrifted = new AtomicLong();
+        private final AtomicLong balancesRepaired = new AtomicLong();
+        private final AtomicLong scopesFailed = new AtomicLong();
+
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedNanos;
+        private volatile String error;
+
+        Run(boolean repair) {
+            this.repair = repair;
+        }
+
+        void finish(RuntimeException failure) {
+            error = failure != null ? failure.getMessage() : null;
+            finishedNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+        }
+
+        void logProgress() {
+            log.info("Balance reconciliation: {} groups, {} users, {} balances checked, {} drifted",
+                    groups.get(), users.get(), balancesChecked.get(), balancesDrifted.get());
+        }
+
+        BalanceReconciliationReport report() {
+            boolean finished = finishedAt != null;
+            double seconds = ((finished ? finishedNanos : System.nanoTime()) - startedNanos) / 1e9;
+            long checked = balancesChecked.get();
+            return BalanceReconciliationReport.builder()
+                    .status(!finished ? BalanceReconciliationReport.Status.RUNNING
+                            : error == null ? BalanceReconciliationReport.Status.COMPLETED
+                            : BalanceReconciliationReport.Status.FAILED)
+                    .repair(repair)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .groupsChecked(groups.get())
+                    .usersChecked(users.get())
+                    .balancesChecked(checked)
+                    .balancesDrifted(balancesDrifted.get())
+                    .balancesRepaired(balancesRepaired.get())
+                    .scopesFailed(scopesFailed.get())
+                    .balancesPerSecond(seconds > 0 ? checked / seconds : 0)
+                    .error(error)
+                    .build();
+        }
+    }
+}
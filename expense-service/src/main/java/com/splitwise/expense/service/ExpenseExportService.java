@@ -0,0 +1,167 @@
+package com.splitwise.expense.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.splitwise.expense.dto.ExportFormat;
+import com.splitwise.expense.dto.ExpenseResponse;
+import com.splitwise.expense.model.Expense;
+import com.splitwise.expense.model.ExpenseSplit;
+import com.splitwise.expense.repository.ExpenseRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a group's expense history straight from a database cursor to the response body.
+ * Each expense is written and detached before the next one is read, so memory use does not
+ * depend on the size of the group.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseExportService {
+
+    static final String CSV_HEADER = "id,date,description,category,amount,currency,paid_by,created_by,split_type,splits";
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseService expenseService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * Write all active expenses of a group, newest first, and return how many were written.
+     * The output stream is flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public int exportGroupExpenses(Long groupId, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        int written = 0;
+
+        try (Stream<Expense> expenses = expenseRepository.streamGroupExpenses(groupId)) {
+            RowWriter rows = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+            Iterator<Expense> iterator = expenses.iterator();
+            while (iterator.hasNext()) {
+                Expense expense = iterator.next();
+                rows.write(expense);
+                // Cascades to the splits; keeps the persistence context at one expense
+                entityManager.detach(expense);
+                written++;
+            }
+            rows.finish();
+        }
+        writer.flush();
+
+        log.info("Exported {} expenses of group {} as {}", written, groupId, format);
+        return written;
+    }
+
+    private interface RowWriter {
+        void write(Expense expense) throws IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    /**
+     * One line per expense; the splits column lists user=amount pairs separated by ';'
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final StringBuilder splits = new StringBuilder();
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Expense expense) throws IOException {
+            splits.setLength(0);
+            for (ExpenseSplit split : expense.getSplits()) {
+                if (!splits.isEmpty()) {
+                    splits.append(';');
+                }
+                splits.append(split.getUserId()).append('=').append(split.getAmount().toPlainString());
+            }
+
+            writer.write(String.valueOf(expense.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(expense.getDate()));
+            writer.write(',');
+            writer.write(csvField(expense.getDescription()));
+            writer.write(',');
+            writer.write(csvField(expense.getCategory()));
+            writer.write(',');
+            writer.write(expense.getAmount().toPlainString());
+            writer.write(',');
+            writer.write(csvField(expense.getCurrency()));
+            writer.write(',');
+            writer.write(csvField(expense.getPaidBy()));
+            writer.write(',');
+            writer.write(csvField(expense.getCreatedBy()));
+            writer.write(',');
+            writer.write(String.valueOf(expense.getSplitType()));
+            writer.write(',');
+            writer.write(csvField(splits.toString()));
+            writer.write("\r\n");
+        }
+    }
+
+    /**
+     * One {@link ExpenseResponse} JSON document per line, the same shape the listing endpoints return
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private final ObjectWriter responseWriter;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.responseWriter = objectMapper.writerFor(ExpenseResponse.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(Expense expense) throws IOException {
+            responseWriter.writeValue(generator, expenseService.convertToResponse(expense));
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    /**
+     * RFC 4180 quoting, plus a leading quote on values a spreadsheet would run as a formula
+     */
+    static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            value = "'" + value;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
@@ -0,0 +1,340 @@
+package com.splitwise.expense.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.splitwise.expense.dto.ExpenseHistoryResponse;
+import com.splitwise.expense.dto.ExpenseStateResponse;
+import com.splitwise.expense.exception.ResourceNotFoundException;
+import com.splitwise.expense.exception.UnauthorizedException;
+import com.splitwise.expense.model.Expense;
+import com.splitwise.expense.model.ExpenseChangeType;
+import com.splitwise.expense.model.ExpenseHistoryEntry;
+import com.splitwise.expense.model.ExpenseSnapshot;
+import com.splitwise.expense.model.ExpenseSplit;
+import com.splitwise.expense.repository.ExpenseHistoryEntryRepository;
+import com.splitwise.expense.repository.ExpenseRepository;
+import com.splitwise.expense.repository.ExpenseSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the append-only history of every expense ({@code expense_events}) and rebuilds past
+ * versions from it. Each write appends only what changed: editing the description of an expense
+ * with twenty splits records the new description, not twenty split rows. A full snapshot is
+ * taken every {@code expense.history.snapshot-interval} versions, so rebuilding any version
+ * replays at most that many entries.
+ * <p>
+ * The expenses and expense_splits tables stay the current state, updated in the same transaction
+ * as the history is appended, because balances, rollups, search and ETags are maintained from them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ExpenseHistoryService {
+
+    static final String AMOUNT = "amount";
+    static final String SPLITS = "splits";
+    static final String ACTIVE = "active";
+
+    // Exact decimals, so 12.50 reads back as 12.50 rather than a double
+    private static final ObjectMapper JSON = JsonMapper.builder()
+            .nodeFactory(JsonNodeFactory.withExactBigDecimals(true))
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .build();
+
+    private final ExpenseHistoryEntryRepository historyRepository;
+    private final ExpenseSnapshotRepository snapshotRepository;
+    private final ExpenseRepository expenseRepository;
+
+    @Value("${expense.history.snapshot-interval:20}")
+    private int snapshotInterval;
+
+    /**
+     * Record a newly saved expense as version 1, holding its full state
+     */
+    public void recordCreated(Expense expense, String actorUserId) {
+        historyRepository.save(created(expense, actorUserId, LocalDateTime.now()));
+    }
+
+    /**
+     * Record many newly saved expenses at once; the entries are inserted in JDBC batches
+     */
+    public void recordCreated(Collection<Expense> expenses, String actorUserId) {
+        LocalDateTime now = LocalDateTime.now();
+        historyRepository.saveAll(expenses.stream()
+                .map(expense -> created(expense, actorUserId, now))
+                .toList());
+    }
+
+    /**
+     * Append the difference between {@code before}, taken with {@link #stateOf} before the
+     * expense was changed, and the expense as it is now. Each kind of change becomes one entry
+     * holding only the changed values; nothing is appended when nothing changed.
+     */
+    public void recordChanges(ObjectNode before, Expense expense, String actorUserId) {
+        ObjectNode after = stateOf(expense);
+        List<Change> changes = diff(before, after);
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int previous = expense.getEventVersion();
+        int version = previous;
+        List<ExpenseHistoryEntry> entries = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            entries.add(entry(expense.getId(), ++version, change.type(), change.payload(), actorUserId, now));
+        }
+        historyRepository.saveAll(entries);
+        expense.setEventVersion(version);
+
+        // Snapshot whenever the changes crossed a multiple of the interval
+        if (version / snapshotInterval > previous / snapshotInterval) {
+            snapshotRepository.save(ExpenseSnapshot.builder()
+                    .expenseId(expense.getId())
+                    .version(version)
+                    .state(write(after))
+                    .createdAt(now)
+                    .build());
+            log.debug("Snapshot of expense {} at version {}", expense.getId(), version);
+        }
+    }
+
+    /**
+     * Every change of an expense, oldest first, for anyone who can see it (deleted expenses included)
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseHistoryResponse> getHistory(Long expenseId, String currentUserId) {
+        requireVisible(expenseId, currentUserId);
+        return historyRepository.findByExpenseIdOrderByVersion(expenseId).stream()
+                .map(entry -> ExpenseHistoryResponse.builder()
+                        .version(entry.getVersion())
+                        .eventType(entry.getEventType())
+                        .changes(read(entry.getPayload()))
+                        .actorUserId(entry.getActorUserId())
+                        .recordedAt(entry.getRecordedAt())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * The expense as it stood at {@code version}, rebuilt from the nearest snapshot at or below it
+     */
+    @Transactional(readOnly = true)
+    public ExpenseStateResponse getStateAt(Long expenseId, int version, String currentUserId) {
+        requireVisible(expenseId, currentUserId);
+        return ExpenseStateResponse.builder()
+                .expenseId(expenseId)
+                .version(version)
+                .state(replay(expenseId, version))
+                .build();
+    }
+
+    ObjectNode replay(Long expenseId, int version) {
+        Optional<ExpenseSnapshot> snapshot = snapshotRepository
+                .findFirstByExpenseIdAndVersionLessThanEqualOrderByVersionDesc(expenseId, version);
+        ObjectNode state = snapshot.map(s -> (ObjectNode) read(s.getState())).orElse(null);
+        int reached = snapshot.map(ExpenseSnapshot::getVersion).orElse(0);
+
+        for (ExpenseHistoryEntry entry : historyRepository.findRange(expenseId, reached, version)) {
+            state = apply(state, entry.getEventType(), read(entry.getPayload()));
+            reached = entry.getVersion();
+        }
+        if (state == null || reached != version) {
+            throw new ResourceNotFoundException("Expense " + expenseId + " has no version " + version);
+        }
+        return state;
+    }
+
+    /**
+     * The recorded state of an expense: its fields, whether it is active and its splits keyed by
+     * user ID. Bookkeeping such as timestamps and the receipt's size is left out.
+     */
+    public ObjectNode stateOf(Expense expense) {
+        ObjectNode state = JSON.createObjectNode();
+        state.put("description", expense.getDescription());
+        state.put(AMOUNT, expense.getAmount());
+        state.put("currency", expense.getCurrency());
+        state.put("groupId", expense.getGroupId());
+        state.put("friendUserId", expense.getFriendUserId());
+        state.put("expenseType", expense.getExpenseType() != null ? expense.getExpenseType().name() : null);
+        state.put("paidBy", expense.getPaidBy());
+        state.put("createdBy", expense.getCreatedBy());
+        state.put("category", expense.getCategory());
+        state.put("splitType", expense.getSplitType() != null ? expense.getSplitType().name() : null);
+        state.put("receiptUrl", expense.getReceiptUrl());
+        state.put("receiptKey", expense.getReceiptKey());
+        state.put("notes", expense.getNotes());
+        // Always with seconds, as PostgreSQL renders timestamps in the V15 backfill
+        state.put("date", expense.getDate() != null
+                ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(expense.getDate()) : null);
+        state.put(ACTIVE, Boolean.TRUE.equals(expense.getIsActive()));
+
+        ObjectNode splits = state.putObject(SPLITS);
+        expense.getSplits().stream()
+                .sorted(Comparator.comparing(ExpenseSplit::getUserId))
+                .forEach(split -> splits.putObject(split.getUserId())
+                        .put(AMOUNT, split.getAmount())
+                        .put("percentage", split.getPercentage()));
+        return state;
+    }
+
+    /**
+     * The entries that turn {@code before} into {@code after}, in the order they are applied
+     */
+    static List<Change> diff(ObjectNode before, ObjectNode after) {
+        List<Change> changes = new ArrayList<>();
+
+        ObjectNode details = JSON.createObjectNode();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = after.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String name = field.getKey();
+            if (!name.equals(AMOUNT) && !name.equals(SPLITS) && !name.equals(ACTIVE)
+                    && !same(before.get(name), field.getValue())) {
+                details.set(name, field.getValue());
+            }
+        }
+        if (!details.isEmpty()) {
+            changes.add(new Change(ExpenseChangeType.DETAILS_CHANGED, details));
+        }
+
+        if (!same(before.get(AMOUNT), after.get(AMOUNT))) {
+            changes.add(new Change(ExpenseChangeType.AMOUNT_CHANGED,
+                    JSON.createObjectNode().set(AMOUNT, after.get(AMOUNT))));
+        }
+
+        ObjectNode splits = JSON.createObjectNode();
+        JsonNode oldSplits = before.get(SPLITS);
+        JsonNode newSplits = after.get(SPLITS);
+        newSplits.fields().forEachRemaining(split -> {
+            if (!same(oldSplits.get(split.getKey()), split.getValue())) {
+                splits.set(split.getKey(), split.getValue());
+            }
+        });
+        oldSplits.fieldNames().forEachRemaining(userId -> {
+            if (!newSplits.has(userId)) {
+                splits.putNull(userId);
+            }
+        });
+        if (!splits.isEmpty()) {
+            changes.add(new Change(ExpenseChangeType.SPLITS_CHANGED, JSON.createObjectNode().set(SPLITS, splits)));
+        }
+
+        if (before.get(ACTIVE).asBoolean() && !after.get(ACTIVE).asBoolean()) {
+            changes.add(new Change(ExpenseChangeType.EXPENSE_DELETED, JSON.createObjectNode()));
+        }
+        return changes;
+    }
+
+    /**
+     * Apply one entry to a state; the state is modified in place, except by a creation
+     */
+    static ObjectNode apply(ObjectNode state, ExpenseChangeType type, JsonNode payload) {
+        switch (type) {
+            case EXPENSE_CREATED -> {
+                return ((ObjectNode) payload).deepCopy();
+            }
+            case DETAILS_CHANGED, AMOUNT_CHANGED -> state.setAll((ObjectNode) payload);
+            case SPLITS_CHANGED -> {
+                ObjectNode splits = (ObjectNode) state.get(SPLITS);
+                payload.get(SPLITS).fields().forEachRemaining(split -> {
+                    if (split.getValue().isNull()) {
+                        splits.remove(split.getKey());
+                    } else {
+                        splits.set(split.getKey(), split.getValue());
+                    }
+                });
+            }
+            case EXPENSE_DELETED -> state.put(ACTIVE, false);
+        }
+        return state;
+    }
+
+    /**
+     * Equal values, comparing numbers by value so 12.5 and 12.50 are the same amount
+     */
+    private static boolean same(JsonNode a, JsonNode b) {
+        a = a != null ? a : NullNode.getInstance();
+        b = b != null ? b : NullNode.getInstance();
+        if (a.isNumber() && b.isNumber()) {
+            return a.decimalValue().compareTo(b.decimalValue()) == 0;
+        }
+        if (a.isObject() && b.isObject()) {
+            if (a.size() != b.size()) {
+                return false;
+            }
+            for (Iterator<Map.Entry<String, JsonNode>> fields = a.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!same(field.getValue(), b.get(field.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return a.equals(b);
+    }
+
+    private void requireVisible(Long expenseId, String currentUserId) {
+        Expense expense = expenseRepository.findById(expenseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense not found with ID: " + expenseId));
+        if (!ExpenseService.canSee(expense, currentUserId)) {
+            throw new UnauthorizedException("You don't have access to this expense");
+        }
+    }
+
+    private ExpenseHistoryEntry created(Expense expense, String actorUserId, LocalDateTime now) {
+        expense.setEventVersion(1);
+        return entry(expense.getId(), 1, ExpenseChangeType.EXPENSE_CREATED, stateOf(expense), actorUserId, now);
+    }
+
+    private static ExpenseHistoryEntry entry(Long expenseId, int version, ExpenseChangeType type, JsonNode payload,
+                                             String actorUserId, LocalDateTime now) {
+        return ExpenseHistoryEntry.builder()
+                .expenseId(expenseId)
+                .version(version)
+                .eventType(type)
+                .payload(write(payload))
+                .actorUserId(actorUserId)
+                .recordedAt(now)
+                .build();
+    }
+
+    private static String write(JsonNode node) {
+        try {
+            return JSON.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize expense history", e);
+        }
+    }
+
+    private static JsonNode read(String json) {
+        try {
+            return JSON.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt expense history: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    record Change(ExpenseChangeType type, JsonNode payload) {
+    }
+}
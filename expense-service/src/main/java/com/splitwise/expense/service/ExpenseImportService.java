@@ -0,0 +1,173 @@
+package com.splitwise.expense.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.events.ExpenseEvent;
+import com.splitwise.expense.dto.BulkImportResponse;
+import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.dto.ImportRowResult;
+import com.splitwise.expense.event.ExpenseEventProducer;
+import com.splitwise.expense.exception.BadRequestException;
+import com.splitwise.expense.model.Expense;
+import com.splitwise.expense.repository.ExpenseRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a bulk upload (NDJSON or a JSON array of {@link CreateExpenseRequest}) into the database.
+ * Rows are validated one by one outside any transaction; valid rows are persisted in batches,
+ * each batch in its own transaction with one ledger update pass and one aggregated event.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseImportService {
+
+    static final int BATCH_SIZE = 500;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ExpenseService expenseService;
+    private final ExpenseRepository expenseRepository;
+    private final BalanceLedgerService balanceLedgerService;
+    private final SpendingRollupService spendingRollupService;
+    private final ExpenseSearchService expenseSearchService;
+    private final ExpenseHistoryService expenseHistoryService;
+    private final GroupVersionService groupVersionService;
+    private final ExpenseEventProducer expenseEventProducer;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Import every row of the stream. A rejected row never blocks the others;
+     * malformed JSON stops the import at that point, keeping the batches already committed.
+     */
+    public BulkImportResponse importExpenses(InputStream body, String currentUserId) throws IOException {
+        BulkImportResponse response = new BulkImportResponse();
+        List<PendingRow> batch = new ArrayList<>(BATCH_SIZE);
+        int row = 0;
+
+        // Reading trees first keeps a bad field (e.g. unknown split type) local to its row
+        try (MappingIterator<JsonNode> rows = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            while (rows.hasNextValue()) {
+                JsonNode node = rows.nextValue();
+                row++;
+                try {
+                    CreateExpenseRequest request = objectMapper.treeToValue(node, CreateExpenseRequest.class);
+                    validate(request);
+                    batch.add(new PendingRow(row, expenseService.buildExpense(request, currentUserId)));
+                } catch (JsonProcessingException e) {
+                    reject(response, row, "Invalid row: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException | BadRequestException e) {
+                    reject(response, row, e.getMessage());
+                }
+
+                if (batch.size() == BATCH_SIZE) {
+                    flush(batch, currentUserId, response);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Bulk import stopped at row {}: {}", row + 1, e.getOriginalMessage());
+            reject(response, row + 1, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+        } finally {
+            flush(batch, currentUserId, response);
+        }
+
+        response.getResults().sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+        response.setReceived(response.getResults().size());
+        log.info("Bulk import by {}: {} created, {} rejected",
+                currentUserId, response.getCreated(), response.getRejected());
+        return response;
+    }
+
+    private void validate(CreateExpenseRequest request) {
+        Set<ConstraintViolation<CreateExpenseRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    /**
+     * Persist one batch: the inserts are JDBC-batched (pooled sequence IDs, ordered inserts),
+     * the ledger and spending rollups are updated once per touched row, and a single event describes the batch.
+     */
+    private void flush(List<PendingRow> batch, String currentUserId, BulkImportResponse response) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Expense> expenses = batch.stream().map(PendingRow::expense).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                expenseRepository.saveAll(expenses);
+                balanceLedgerService.applyExpenses(expenses);
+                spendingRollupService.applyExpenses(expenses);
+                expenseSearchService.indexExpenses(expenses);
+                expenseHistoryService.recordCreated(expenses, currentUserId);
+                groupVersionService.bumpAll(expenses.stream().map(Expense::getGroupId).toList());
+                expenseEventProducer.publishExpenseEvent(batchEvent(expenses, currentUserId));
+            });
+        } catch (RuntimeException e) {
+            log.error("Bulk import batch of {} rows failed: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> reject(response, pending.row(), "Batch failed: " + e.getMessage()));
+            batch.clear();
+            return;
+        }
+
+        for (PendingRow pending : batch) {
+            response.getResults().add(ImportRowResult.builder()
+                    .row(pending.row())
+                    .status(ImportRowResult.CREATED)
+                    .expenseId(pending.expense().getId())
+                    .build());
+        }
+        response.setCreated(response.getCreated() + batch.size());
+        batch.clear();
+    }
+
+    private ExpenseEvent batchEvent(List<Expense> expenses, String currentUserId) {
+        Long groupId = expenses.get(0).getGroupId();
+        boolean singleGroup = expenses.stream().allMatch(e -> Objects.equals(e.getGroupId(), groupId));
+
+        return ExpenseEvent.builder()
+                .eventType("EXPENSES_IMPORTED")
+                .expenseCount(expenses.size())
+                .amount(expenses.stream().map(Expense::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .description("Imported " + expenses.size() + " expenses")
+                .paidByUserId(currentUserId)
+                .actorUserId(currentUserId)
+                .groupId(singleGroup ? groupId : null)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private void reject(BulkImportResponse response, int row, String error) {
+        response.getResults().add(ImportRowResult.builder()
+                .row(row)
+                .status(ImportRowResult.REJECTED)
+                .error(error)
+                .build());
+        response.setRejected(response.getRejected() + 1);
+    }
+
+    private record PendingRow(int row, Expense expense) {
+    }
+}
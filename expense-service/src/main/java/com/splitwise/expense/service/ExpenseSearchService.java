@@ -0,0 +1,163 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.dto.ExpenseCursor;
+import com.splitwise.expense.exception.BadRequestException;
+import com.splitwise.expense.model.Expense;
+import com.splitwise.expense.model.ExpenseSearchTerm;
+import com.splitwise.expense.model.ExpenseSplit;
+import com.splitwise.expense.repository.ExpenseSearchTermRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the expense search index ({@code expense_search_terms}) in sync with expense writes and
+ * answers searches from it, the same way {@link SpendingRollupService} keeps the rollups.
+ * <p>
+ * Every word of an active expense's description, notes and category is posted once for each
+ * user on the expense (payer, recorder and participants), so a search only ever reads the
+ * searching user's own postings, however many expenses other users have. Each query word
+ * matches as a prefix ("ub" finds "Uber"), and an expense must match all of them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ExpenseSearchService {
+
+    static final int MAX_TERM_LENGTH = 64;
+    static final int MAX_QUERY_TERMS = 8;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final ExpenseSearchTermRepository termRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * Add a saved, active expense to the index
+     */
+    public void indexExpense(Expense expense) {
+        termRepository.saveAll(postings(expense));
+    }
+
+    /**
+     * Add many saved expenses at once; the postings are inserted in JDBC batches
+     */
+    public void indexExpenses(Collection<Expense> expenses) {
+        List<ExpenseSearchTerm> postings = new ArrayList<>();
+        for (Expense expense : expenses) {
+            postings.addAll(postings(expense));
+        }
+        termRepository.saveAll(postings);
+    }
+
+    /**
+     * Take an expense out of the index, before it is deleted or re-indexed after an update
+     */
+    public void removeExpense(Expense expense) {
+        termRepository.deleteByExpenseId(expense.getId());
+    }
+
+    /**
+     * Active expenses of a user matching every word of the query as a prefix, newest first,
+     * continuing after {@code after} when given. The limit is applied in SQL.
+     */
+    @Transactional(readOnly = true)
+    public List<Expense> search(String userId, String query, ExpenseCursor after, int limit) {
+        List<String> terms = queryTerms(query);
+
+        StringBuilder jpql = new StringBuilder("SELECT e FROM Expense e WHERE e.isActive = true");
+        for (int i = 0; i < terms.size(); i++) {
+            jpql.append(" AND e.id IN (SELECT t.expenseId FROM ExpenseSearchTerm t ")
+                    .append("WHERE t.userId = :userId AND t.term LIKE :term").append(i).append(')');
+        }
+        if (after != null) {
+            jpql.append(" AND (e.date < :date OR (e.date = :date AND e.id < :id))");
+        }
+        jpql.append(" ORDER BY e.date DESC, e.id DESC");
+
+        TypedQuery<Expense> search = entityManager.createQuery(jpql.toString(), Expense.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit);
+        for (int i = 0; i < terms.size(); i++) {
+            // Terms hold only letters and digits, so there is no LIKE wildcard to escape
+            search.setParameter("term" + i, terms.get(i) + "%");
+        }
+        if (after != null) {
+            search.setParameter("date", after.getDate()).setParameter("id", after.getId());
+        }
+
+        List<Expense> expenses = search.getResultList();
+        log.debug("Search {} by {} matched {} expenses", terms, userId, expenses.size());
+        return expenses;
+    }
+
+    private static List<ExpenseSearchTerm> postings(Expense expense) {
+        Set<String> users = new TreeSet<>();
+        users.add(expense.getPaidBy());
+        if (expense.getCreatedBy() != null) {
+            users.add(expense.getCreatedBy());
+        }
+        for (ExpenseSplit split : expense.getSplits()) {
+            users.add(split.getUserId());
+        }
+
+        Set<String> terms = terms(expense.getDescription(), expense.getNotes(), expense.getCategory());
+        List<ExpenseSearchTerm> postings = new ArrayList<>(users.size() * terms.size());
+        for (String userId : users) {
+            for (String term : terms) {
+                postings.add(ExpenseSearchTerm.builder()
+                        .userId(userId)
+                        .term(term)
+                        .expenseId(expense.getId())
+                        .build());
+            }
+        }
+        return postings;
+    }
+
+    /**
+     * The distinct words of some texts: lower-cased, split on anything that is not a letter or
+     * digit and cut to {@value #MAX_TERM_LENGTH} characters. V14 indexed the existing expenses
+     * the same way.
+     */
+    static Set<String> terms(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String word : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+                if (!word.isEmpty()) {
+                    terms.add(word.codePointCount(0, word.length()) > MAX_TERM_LENGTH
+                            ? word.substring(0, word.offsetByCodePoints(0, MAX_TERM_LENGTH))
+                            : word);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static List<String> queryTerms(String query) {
+        Set<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            throw new BadRequestException("Search query must contain a letter or digit");
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            throw new BadRequestException("Search query must have at most " + MAX_QUERY_TERMS + " words");
+        }
+        return List.copyOf(terms);
+    }
+}
@@ -1,9 +1,8 @@
 package com.splitwise.expense.service;
 
-import com.splitwise.expense.client.ActivityClient;
-import com.splitwise.expense.client.ActivityRequest;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.splitwise.events.ExpenseEvent;
 import com.splitwise.expense.dto.*;
-import com.splitwise.expense.event.ExpenseEvent;
 import com.splitwise.expense.event.ExpenseEventProducer;
 import com.splitwise.expense.exception.BadRequestException;
 import com.splitwise.expense.exception.ResourceNotFoundException;
@@ -12,15 +11,19 @@ import com.splitwise.expense.model.Expense;
 import com.splitwise.expense.model.ExpenseSplit;
 import com.splitwise.expense.model.ExpenseType;
 import com.splitwise.expense.repository.ExpenseRepository;
-import com.splitwise.expense.repository.ExpenseSplitRepository;
+import com.splitwise.expense.storage.Receipt;
+import com.splitwise.expense.storage.StoredBlob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,17 +33,50 @@ import java.util.stream.Collectors;
 @Transactional
 public class ExpenseService {
 
+    static final int MAX_PAGE_SIZE = 100;
+
     private final ExpenseRepository expenseRepository;
-    private final ExpenseSplitRepository expenseSplitRepository;
     private final SplitCalculatorService splitCalculatorService;
-    private final ActivityClient activityClient;
     private final ExpenseEventProducer expenseEventProducer;
+    private final BalanceLedgerService balanceLedgerService;
+    private final BalanceHistoryService balanceHistoryService;
+    private final SpendingRollupService spendingRollupService;
+    private final GroupVersionService groupVersionService;
+    private final ExpenseSearchService expenseSearchService;
+    private final ExpenseHistoryService expenseHistoryService;
 
     /**
      * Create a new expense with calculated splits.
      * Supports both GROUP expenses (require groupId) and FRIEND expenses (require friendUserId).
      */
     public ExpenseResponse createExpense(CreateExpenseRequest request, String currentUserId) {
+        Expense expense = buildExpense(request, currentUserId);
+
+        // Save expense (cascades to splits)
+        Expense savedExpense = expenseRepository.save(expense);
+
+        log.info("Expense created successfully with ID: {}", savedExpense.getId());
+
+        // Apply balance and spending deltas in the same transaction
+        balanceLedgerService.applyExpense(savedExpense);
+        spendingRollupService.applyExpense(savedExpense);
+        expenseSearchService.indexExpense(savedExpense);
+        expenseHistoryService.recordCreated(savedExpense, currentUserId);
+        groupVersionService.bump(savedExpense.getGroupId());
+
+        // Publish Kafka event (also feeds the activity log)
+        expenseEventProducer.publishExpenseEvent(toEvent("EXPENSE_CREATED", savedExpense, currentUserId,
+                savedExpense.getCreatedAt()));
+
+        return convertToResponse(savedExpense);
+    }
+
+    /**
+     * Validate a create request and assemble the unsaved expense with its splits.
+     * Touches no repository, so callers such as the bulk importer can run it outside a transaction.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Expense buildExpense(CreateExpenseRequest request, String currentUserId) {
         // Determine expense type
         boolean isFriendExpense = request.getFriendUserId() != null && !request.getFriendUserId().isBlank();
         ExpenseType expenseType = isFriendExpense ? ExpenseType.FRIEND : ExpenseType.GROUP;
@@ -53,13 +89,14 @@ public class ExpenseService {
             throw new BadRequestException("Friend user ID is required for friend expenses");
         }
 
-        log.info("Creating {} expense, paid by: {}, recorded by: {}",
+        log.debug("Building {} expense, paid by: {}, recorded by: {}",
                 expenseType, request.getPaidBy(), currentUserId);
 
         // Calculate splits using the split calculator
         List<ExpenseSplit> splits = splitCalculatorService.calculateSplits(request);
 
         // Create expense entity
+        LocalDateTime now = LocalDateTime.now();
         Expense expense = Expense.builder()
                 .description(request.getDescription())
                 .amount(request.getAmount())
@@ -73,37 +110,18 @@ public class ExpenseService {
                 .splitType(request.getSplitType())
                 .receiptUrl(request.getReceiptUrl())
                 .notes(request.getNotes())
-                .date(LocalDateTime.now())
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
+                // Stored to the microsecond: truncating here makes a keyset cursor built from this
+                // instance match the stored row rather than sort just after it
+                .date((request.getDate() != null ? request.getDate() : now).truncatedTo(ChronoUnit.MICROS))
+                .createdAt(now)
+                .updatedAt(now)
                 .isActive(true)
                 .splits(splits)
                 .build();
 
         // Set the expense reference in each split (bidirectional relationship)
         splits.forEach(split -> split.setExpense(expense));
-
-        // Save expense (cascades to splits)
-        Expense savedExpense = expenseRepository.save(expense);
-
-        log.info("Expense created successfully with ID: {}", savedExpense.getId());
-
-        // Log activity
-        logExpenseActivity("EXPENSE_ADDED", savedExpense);
-
-        // Publish Kafka event
-        expenseEventProducer.publishExpenseEvent(ExpenseEvent.builder()
-                .eventType("EXPENSE_CREATED")
-                .expenseId(savedExpense.getId())
-                .description(savedExpense.getDescription())
-                .amount(savedExpense.getAmount())
-                .paidByUserId(savedExpense.getPaidBy())
-                .groupId(savedExpense.getGroupId())
-                .category(savedExpense.getCategory())
-                .timestamp(savedExpense.getCreatedAt())
-                .build());
-
-        return convertToResponse(savedExpense);
+        return expense;
     }
 
     /**
@@ -111,41 +129,78 @@ public class ExpenseService {
      */
     @Transactional(readOnly = true)
     public ExpenseResponse getExpenseById(Long expenseId, String currentUserId) {
-        Expense expense = expenseRepository.findByIdAndIsActiveTrue(expenseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Expense not found with ID: " + expenseId));
-
-        // Check if user has access to this expense (payer, creator, or participant)
-        boolean hasAccess = expense.getPaidBy().equals(currentUserId) ||
-                (expense.getCreatedBy() != null && expense.getCreatedBy().equals(currentUserId)) ||
-                expense.getSplits().stream().anyMatch(split -> split.getUserId().equals(currentUserId));
+        return convertToResponse(findVisible(expenseId, currentUserId));
+    }
 
-        if (!hasAccess) {
-            throw new UnauthorizedException("You don't have access to this expense");
+    /**
+     * Get one page of a group's expenses, newest first.
+     * The limit is applied in SQL; pass the previous page's nextCursor to continue.
+     */
+    @Transactional(readOnly = true)
+    public ExpensePage getGroupExpensesPage(Long groupId, String cursor, int limit) {
+        int pageSize = clampPageSize(limit);
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+
+        List<Expense> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = expenseRepository.findGroupPage(groupId, fetch);
+        } else {
+            ExpenseCursor after = ExpenseCursor.decode(cursor);
+            rows = expenseRepository.findGroupPageAfter(groupId, after.getDate(), after.getId(), fetch);
         }
-
-        return convertToResponse(expense);
+        return toPage(rows, pageSize);
     }
 
     /**
-     * Get all expenses for a group
+     * Get one page of the expenses a user participates in, newest first
      */
     @Transactional(readOnly = true)
-    public List<ExpenseResponse> getGroupExpenses(Long groupId) {
-        List<Expense> expenses = expenseRepository.findByGroupIdAndIsActiveTrueOrderByDateDesc(groupId);
-        return expenses.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public ExpensePage getUserExpensesPage(String userId, String cursor, int limit) {
+        int pageSize = clampPageSize(limit);
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+
+        List<Expense> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = expenseRepository.findUserPage(userId, fetch);
+        } else {
+            ExpenseCursor after = ExpenseCursor.decode(cursor);
+            rows = expenseRepository.findUserPageAfter(userId, after.getDate(), after.getId(), fetch);
+        }
+        return toPage(rows, pageSize);
     }
 
     /**
-     * Get all expenses for a user (across all groups)
+     * Search the expenses a user paid, recorded or takes part in by the words of their
+     * description, notes and category, newest first, one page at a time. Every word of the
+     * query must match the start of a word of the expense.
      */
     @Transactional(readOnly = true)
-    public List<ExpenseResponse> getUserExpenses(String userId) {
-        List<Expense> expenses = expenseRepository.findByUserIdOrderByDateDesc(userId);
-        return expenses.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public ExpensePage searchExpenses(String userId, String query, String cursor, int limit) {
+        int pageSize = clampPageSize(limit);
+        ExpenseCursor after = cursor == null || cursor.isBlank() ? null : ExpenseCursor.decode(cursor);
+        return toPage(expenseSearchService.search(userId, query, after, pageSize + 1), pageSize);
+    }
+
+    private int clampPageSize(int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Build a page from rows fetched with one extra look-ahead row
+     */
+    private ExpensePage toPage(List<Expense> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<Expense> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        return ExpensePage.builder()
+                .expenses(page.stream()
+                        .map(this::convertToResponse)
+                        .collect(Collectors.toList()))
+                .nextCursor(hasMore ? ExpenseCursor.after(page.get(page.size() - 1)).encode() : null)
+                .build();
     }
 
     /**
@@ -154,15 +209,13 @@ public class ExpenseService {
     public ExpenseResponse updateExpense(Long expenseId, CreateExpenseRequest request, String currentUserId) {
         log.info("Updating expense ID: {}", expenseId);
 
-        Expense expense = expenseRepository.findByIdAndIsActiveTrue(expenseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Expense not found with ID: " + expenseId));
+        Expense expense = findEditable(expenseId, currentUserId, "update");
+        ObjectNode before = expenseHistoryService.stateOf(expense);
 
-        // The person who recorded the expense (or the payer) can update it
-        boolean isCreator = currentUserId.equals(expense.getCreatedBy());
-        boolean isPayer = currentUserId.equals(expense.getPaidBy());
-        if (!isCreator && !isPayer) {
-            throw new UnauthorizedException("Only the person who recorded or paid this expense can update it");
-        }
+        // Take the old contribution out of the ledger and rollups before anything changes
+        balanceLedgerService.revertExpense(expense);
+        spendingRollupService.revertExpense(expense);
+        expenseSearchService.removeExpense(expense);
 
         // Recalculate splits
         List<ExpenseSplit> newSplits = splitCalculatorService.calculateSplits(request);
@@ -173,20 +226,26 @@ public class ExpenseService {
         expense.setCurrency(request.getCurrency() != null ? request.getCurrency() : "USD");
         expense.setCategory(request.getCategory());
         expense.setSplitType(request.getSplitType());
-        expense.setReceiptUrl(request.getReceiptUrl());
+        if (expense.getReceiptKey() == null) {
+            // An uploaded receipt is kept until it is removed through its own endpoint
+            expense.setReceiptUrl(request.getReceiptUrl());
+        }
         expense.setNotes(request.getNotes());
         expense.setUpdatedAt(LocalDateTime.now());
 
-        // Clear old splits and add new ones
-        expense.getSplits().clear();
-        newSplits.forEach(split -> {
-            split.setExpense(expense);
-            expense.getSplits().add(split);
-        });
+        mergeSplits(expense, newSplits);
 
         Expense updatedExpense = expenseRepository.save(expense);
+        balanceLedgerService.applyExpense(updatedExpense);
+        spendingRollupService.applyExpense(updatedExpense);
+        expenseSearchService.indexExpense(updatedExpense);
+        expenseHistoryService.recordChanges(before, updatedExpense, currentUserId);
+        groupVersionService.bump(updatedExpense.getGroupId());
         log.info("Expense updated successfully: {}", expenseId);
 
+        expenseEventProducer.publishExpenseEvent(toEvent("EXPENSE_UPDATED", updatedExpense, currentUserId,
+                updatedExpense.getUpdatedAt()));
+
         return convertToResponse(updatedExpense);
     }
 
@@ -196,104 +255,208 @@ public class ExpenseService {
     public void deleteExpense(Long expenseId, String currentUserId) {
         log.info("Deleting expense ID: {}", expenseId);
 
-        Expense expense = expenseRepository.findByIdAndIsActiveTrue(expenseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Expense not found with ID: " + expenseId));
-
-        // The person who recorded the expense (or the payer) can delete it
-        boolean isCreator = currentUserId.equals(expense.getCreatedBy());
-        boolean isPayer = currentUserId.equals(expense.getPaidBy());
-        if (!isCreator && !isPayer) {
-            throw new UnauthorizedException("Only the person who recorded or paid this expense can delete it");
-        }
+        Expense expense = findEditable(expenseId, currentUserId, "delete");
+        ObjectNode before = expenseHistoryService.stateOf(expense);
 
         expense.setIsActive(false);
         expense.setUpdatedAt(LocalDateTime.now());
         expenseRepository.save(expense);
+        balanceLedgerService.revertExpense(expense);
+        spendingRollupService.revertExpense(expense);
+        expenseSearchService.removeExpense(expense);
+        expenseHistoryService.recordChanges(before, expense, currentUserId);
+        groupVersionService.bump(expense.getGroupId());
 
         // Publish Kafka event
-        expenseEventProducer.publishExpenseEvent(ExpenseEvent.builder()
-                .eventType("EXPENSE_DELETED")
-                .expenseId(expense.getId())
-                .description(expense.getDescription())
-                .amount(expense.getAmount())
-                .paidByUserId(expense.getPaidBy())
-                .groupId(expense.getGroupId())
-                .category(expense.getCategory())
-                .timestamp(LocalDateTime.now())
-                .build());
+        expenseEventProducer.publishExpenseEvent(toEvent("EXPENSE_DELETED", expense, currentUserId,
+                expense.getUpdatedAt()));
 
         log.info("Expense soft-deleted successfully: {}", expenseId);
     }
 
     /**
-     * Calculate balance for a user across all their expenses
+     * Check that a user may attach a receipt to an expense, before its bytes are stored
      */
     @Transactional(readOnly = true)
-    public UserBalanceResponse calculateUserBalance(String userId) {
-        log.info("Calculating balance for user: {}", userId);
+    public void checkReceiptEditable(Long expenseId, String currentUserId) {
+        Expense expense = expenseRepository.findByIdAndIsActiveTrue(expenseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense not found with ID: " + expenseId));
+        requireEditable(expense, currentUserId, "attach a receipt to");
+    }
 
-        // What the user still owes others (their unpaid splits on expenses others paid)
-        BigDecimal totalOwed = expenseSplitRepository.getTotalOwedByUser(userId);
+    /**
+     * Point an expense at a stored receipt, replacing any previous one.
+     * The receipt URL becomes the expense's receipt download endpoint.
+     */
+    public ExpenseResponse attachReceipt(Long expenseId, StoredBlob blob, String contentType, String currentUserId) {
+        Expense expense = findEditable(expenseId, currentUserId, "attach a receipt to");
+        ObjectNode before = expenseHistoryService.stateOf(expense);
+
+        expense.setReceiptKey(blob.key());
+        expense.setReceiptContentType(contentType);
+        expense.setReceiptSize(blob.size());
+        expense.setReceiptUrl("/api/expenses/" + expenseId + "/receipt");
+        expense.setUpdatedAt(LocalDateTime.now());
 
-        // What others still owe the user (unpaid splits of other people on expenses
-        // this user paid)
-        BigDecimal totalOwedToUser = expenseSplitRepository.getTotalOwedToUser(userId);
+        Expense saved = expenseRepository.save(expense);
+        expenseHistoryService.recordChanges(before, saved, currentUserId);
+        groupVersionService.bump(saved.getGroupId());
+        log.info("Receipt {} attached to expense {}", blob.key(), expenseId);
+        return convertToResponse(saved);
+    }
 
-        // Handle null values for users with no matching rows
-        BigDecimal totalOwedValue = totalOwed != null ? totalOwed : BigDecimal.ZERO;
-        BigDecimal totalOwedToUserValue = totalOwedToUser != null ? totalOwedToUser : BigDecimal.ZERO;
+    /**
+     * Detach the uploaded receipt of an expense. The blob itself stays, as other expenses may share it.
+     */
+    public ExpenseResponse removeReceipt(Long expenseId, String currentUserId) {
+        Expense expense = findEditable(expenseId, currentUserId, "remove the receipt of");
+        if (expense.getReceiptKey() == null) {
+            throw new ResourceNotFoundException("Expense " + expenseId + " has no uploaded receipt");
+        }
+        ObjectNode before = expenseHistoryService.stateOf(expense);
 
-        // Net balance: positive = others owe you more than you owe; negative = you owe
-        // more
-        BigDecimal netBalance = totalOwedToUserValue.subtract(totalOwedValue);
+        expense.setReceiptKey(null);
+        expense.setReceiptContentType(null);
+        expense.setReceiptSize(null);
+        expense.setReceiptUrl(null);
+        expense.setUpdatedAt(LocalDateTime.now());
 
-        log.debug("Balance calculated for user {} - OwedToUser: {}, Owed: {}, Net: {}",
-                userId, totalOwedToUserValue, totalOwedValue, netBalance);
+        Expense saved = expenseRepository.save(expense);
+        expenseHistoryService.recordChanges(before, saved, currentUserId);
+        groupVersionService.bump(saved.getGroupId());
+        return convertToResponse(saved);
+    }
 
-        // Get detailed balances per user
-        Map<String, BigDecimal> balances = calculateDetailedBalances(userId);
+    /**
+     * The uploaded receipt of an expense, for anyone who can see the expense
+     */
+    @Transactional(readOnly = true)
+    public Receipt getReceipt(Long expenseId, String currentUserId) {
+        Expense expense = findVisible(expenseId, currentUserId);
+        if (expense.getReceiptKey() == null) {
+            throw new ResourceNotFoundException("Expense " + expenseId + " has no uploaded receipt");
+        }
+        return new Receipt(expense.getReceiptKey(), expense.getReceiptContentType(), expense.getReceiptSize());
+    }
 
-        return UserBalanceResponse.builder()
-                .userId(userId)
-                .totalPaid(totalOwedToUserValue) // "owed to you" — what others owe you
-                .totalOwed(totalOwedValue) // "you owe" — what you owe others
-                .netBalance(netBalance)
-                .balances(balances)
-                .build();
+    /**
+     * Replace the splits of an expense with newly calculated ones, in place: a user's existing
+     * split row takes the new values, so only splits that changed, came or went are written
+     */
+    private static void mergeSplits(Expense expense, List<ExpenseSplit> newSplits) {
+        Map<String, ExpenseSplit> byUser = new LinkedHashMap<>();
+        newSplits.forEach(split -> byUser.put(split.getUserId(), split));
+
+        Iterator<ExpenseSplit> existing = expense.getSplits().iterator();
+        while (existing.hasNext()) {
+            ExpenseSplit split = existing.next();
+            ExpenseSplit replacement = byUser.remove(split.getUserId());
+            if (replacement == null) {
+                existing.remove(); // orphan removal deletes the row
+            } else {
+                split.setAmount(replacement.getAmount());
+                split.setPercentage(replacement.getPercentage());
+                split.setPaid(replacement.isPaid());
+            }
+        }
+        byUser.values().forEach(split -> {
+            split.setExpense(expense);
+            expense.getSplits().add(split);
+        });
     }
 
     /**
-     * Calculate detailed balances between users.
-     * Positive value for a key means that person owes the current user.
-     * Negative value for a key means the current user owes that person.
+     * Load an active expense the user can see: its payer, its creator or a participant
      */
-    private Map<String, BigDecimal> calculateDetailedBalances(String userId) {
-        Map<String, BigDecimal> balances = new HashMap<>();
-
-        // Get all expenses where this user is involved
-        List<Expense> userExpenses = expenseRepository.findByUserIdOrderByDateDesc(userId);
-
-        for (Expense expense : userExpenses) {
-            String paidBy = expense.getPaidBy();
-
-            if (paidBy.equals(userId)) {
-                // Current user paid: every other participant owes them their split amount
-                for (ExpenseSplit split : expense.getSplits()) {
-                    if (!split.getUserId().equals(userId)) {
-                        balances.merge(split.getUserId(), split.getAmount(), BigDecimal::add);
-                    }
-                }
+    private Expense findVisible(Long expenseId, String currentUserId) {
+        Expense expense = expenseRepository.findByIdAndIsActiveTrue(expenseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense not found with ID: " + expenseId));
+
+        if (!canSee(expense, currentUserId)) {
+            throw new UnauthorizedException("You don't have access to this expense");
+        }
+        return expense;
+    }
+
+    /**
+     * Whether a user has access to an expense: its payer, its creator or a participant
+     */
+    static boolean canSee(Expense expense, String userId) {
+        return expense.getPaidBy().equals(userId) ||
+                (expense.getCreatedBy() != null && expense.getCreatedBy().equals(userId)) ||
+                expense.getSplits().stream().anyMatch(split -> split.getUserId().equals(userId));
+    }
+
+    /**
+     * Load an active expense the user may change, locked and bypassing the second-level cache
+     */
+    private Expense findEditable(Long expenseId, String currentUserId, String action) {
+        Expense expense = expenseRepository.findActiveForUpdate(expenseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense not found with ID: " + expenseId));
+        requireEditable(expense, currentUserId, action);
+        return expense;
+    }
+
+    /**
+     * Refuse users who may not change the expense; {@code action} completes the refusal message
+     */
+    private static void requireEditable(Expense expense, String currentUserId, String action) {
+        // The person who recorded the expense (or the payer) can change it
+        boolean isCreator = currentUserId.equals(expense.getCreatedBy());
+        boolean isPayer = currentUserId.equals(expense.getPaidBy());
+        if (!isCreator && !isPayer) {
+            throw new UnauthorizedException("Only the person who recorded or paid this expense can " + action + " it");
+        }
+    }
+
+    /**
+     * Calculate balance for a user across all their expenses, net of recorded settlements.
+     * Read from the pair ledger with one query, so no expense or split rows are loaded.
+     */
+    @Transactional(readOnly = true)
+    public UserBalanceResponse calculateUserBalance(String userId) {
+        return calculateUserBalance(userId, null);
+    }
+
+    /**
+     * Calculate balance for a user as it stood at {@code asOf}, or the current balance when null.
+     * Past balances are replayed from the balance journal's nearest checkpoint.
+     */
+    @Transactional(readOnly = true)
+    public UserBalanceResponse calculateUserBalance(String userId, LocalDateTime asOf) {
+        log.info("Calculating balance for user: {} as of {}", userId, asOf != null ? asOf : "now");
+
+        // Positive value for a key means that person owes the current user,
+        // negative means the current user owes that person
+        Map<String, BigDecimal> balances = asOf == null
+                ? balanceLedgerService.getUserPairBalances(userId)
+                : balanceHistoryService.getUserPairBalancesAsOf(userId, asOf);
+
+        BigDecimal totalOwedToUser = BigDecimal.ZERO;
+        BigDecimal totalOwed = BigDecimal.ZERO;
+        for (BigDecimal balance : balances.values()) {
+            if (balance.signum() > 0) {
+                totalOwedToUser = totalOwedToUser.add(balance);
             } else {
-                // Someone else paid: find only THIS user's split — that's what they owe the
-                // payer
-                expense.getSplits().stream()
-                        .filter(s -> s.getUserId().equals(userId))
-                        .findFirst()
-                        .ifPresent(mySplit -> balances.merge(paidBy, mySplit.getAmount().negate(), BigDecimal::add));
+                totalOwed = totalOwed.add(balance.negate());
             }
         }
 
-        return balances;
+        // Net balance: positive = others owe you more than you owe; negative = you owe
+        // more
+        BigDecimal netBalance = totalOwedToUser.subtract(totalOwed);
+
+        log.debug("Balance calculated for user {} - OwedToUser: {}, Owed: {}, Net: {}",
+                userId, totalOwedToUser, totalOwed, netBalance);
+
+        return UserBalanceResponse.builder()
+                .userId(userId)
+                .totalPaid(totalOwedToUser) // "owed to you" — what others owe you
+                .totalOwed(totalOwed) // "you owe" — what you owe others
+                .netBalance(netBalance)
+                .balances(balances)
+                .asOf(asOf)
+                .build();
     }
 
     /**
@@ -310,33 +473,13 @@ public class ExpenseService {
     /**
      * Calculate the net balance between two users across ALL shared expenses (group + friend).
      * Positive = friendId owes userId; Negative = userId owes friendId.
+     * Served from the pairwise ledger with a single primary-key lookup.
      */
     @Transactional(readOnly = true)
     public BigDecimal calculateFriendNetBalance(String userId, String friendId) {
         log.info("Calculating net balance between {} and {}", userId, friendId);
 
-        List<Expense> sharedExpenses = expenseRepository.findAllExpensesBetweenUsers(userId, friendId);
-        BigDecimal netBalance = BigDecimal.ZERO;
-
-        for (Expense expense : sharedExpenses) {
-            String paidBy = expense.getPaidBy();
-
-            if (paidBy.equals(userId)) {
-                // userId paid: friendId's split is what friendId owes userId
-                for (ExpenseSplit split : expense.getSplits()) {
-                    if (split.getUserId().equals(friendId)) {
-                        netBalance = netBalance.add(split.getAmount());
-                    }
-                }
-            } else if (paidBy.equals(friendId)) {
-                // friendId paid: userId's split is what userId owes friendId
-                for (ExpenseSplit split : expense.getSplits()) {
-                    if (split.getUserId().equals(userId)) {
-                        netBalance = netBalance.subtract(split.getAmount());
-                    }
-                }
-            }
-        }
+        BigDecimal netBalance = balanceLedgerService.getPairBalance(userId, friendId);
 
         log.info("Net balance between {} and {}: {}", userId, friendId, netBalance);
         return netBalance;
@@ -347,30 +490,24 @@ public class ExpenseService {
      * Returns Map<userId, netBalance>
      * Positive balance = others owe this user
      * Negative balance = this user owes others
+     * Served from the incrementally maintained ledger, so the cost is O(members)
      */
     @Transactional(readOnly = true)
     public Map<String, BigDecimal> calculateGroupBalances(Long groupId) {
-        log.info("Calculating balances for group: {}", groupId);
-
-        Map<String, BigDecimal> balances = new HashMap<>();
-
-        // Get all expenses for the group
-        List<Expense> expenses = expenseRepository.findByGroupIdAndIsActiveTrueOrderByDateDesc(groupId);
-
-        for (Expense expense : expenses) {
-            String paidBy = expense.getPaidBy();
-
-            // Add the total amount paid to the payer's balance
-            balances.merge(paidBy, expense.getAmount(), BigDecimal::add);
+        return calculateGroupBalances(groupId, null);
+    }
 
-            // Subtract each split from the respective user's balance
-            for (ExpenseSplit split : expense.getSplits()) {
-                balances.merge(split.getUserId(), split.getAmount().negate(), BigDecimal::add);
-            }
-        }
+    /**
+     * Calculate net balances for all users in a group as they stood at {@code asOf},
+     * or the current balances when null
+     */
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> calculateGroupBalances(Long groupId, LocalDateTime asOf) {
+        log.info("Calculating balances for group: {} as of {}", groupId, asOf != null ? asOf : "now");
 
-        // Filter out zero balances
-        balances.entrySet().removeIf(entry -> entry.getValue().compareTo(BigDecimal.ZERO) == 0);
+        Map<String, BigDecimal> balances = asOf == null
+                ? balanceLedgerService.getGroupBalances(groupId)
+                : balanceHistoryService.getGroupBalancesAsOf(groupId, asOf);
 
         log.info("Calculated balances for {} users in group {}", balances.size(), groupId);
         return balances;
@@ -379,7 +516,7 @@ public class ExpenseService {
     /**
      * Convert Expense entity to ExpenseResponse DTO
      */
-    private ExpenseResponse convertToResponse(Expense expense) {
+    ExpenseResponse convertToResponse(Expense expense) {
         List<ExpenseResponse.SplitResponse> splitResponses = expense.getSplits().stream()
                 .map(split -> ExpenseResponse.SplitResponse.builder()
                         .userId(split.getUserId())
@@ -411,30 +548,20 @@ public class ExpenseService {
     }
 
     /**
-     * Log activity to activity service
+     * Event describing a change to an expense, carrying what consumers such as the activity log need
      */
-    private void logExpenseActivity(String activityType, Expense expense) {
-        try {
-            String actor = expense.getCreatedBy() != null ? expense.getCreatedBy() : expense.getPaidBy();
-            ActivityRequest activityRequest = ActivityRequest.builder()
-                    .activityType(activityType)
-                    .userId(actor)
-                    .groupId(expense.getGroupId())
-                    .description(String.format("%s added expense '%s' for %s %s (paid by %s)",
-                            actor,
-                            expense.getDescription(),
-                            expense.getCurrency(),
-                            expense.getAmount(),
-                            expense.getPaidBy()))
-                    .metadata(String.format("{\"expenseId\":%d,\"amount\":%s,\"category\":\"%s\"}",
-                            expense.getId(),
-                            expense.getAmount(),
-                            expense.getCategory() != null ? expense.getCategory() : "OTHER"))
-                    .build();
-
-            activityClient.logActivity(activityRequest);
-        } catch (Exception e) {
-            log.warn("Failed to log activity: {}", e.getMessage());
-        }
+    private ExpenseEvent toEvent(String eventType, Expense expense, String actorUserId, LocalDateTime timestamp) {
+        return ExpenseEvent.builder()
+                .eventType(eventType)
+                .expenseId(expense.getId())
+                .description(expense.getDescription())
+                .amount(expense.getAmount())
+                .currency(expense.getCurrency())
+                .paidByUserId(expense.getPaidBy())
+                .actorUserId(actorUserId)
+                .groupId(expense.getGroupId())
+                .category(expense.getCategory())
+                .timestamp(timestamp)
+                .build();
     }
 }
@@ -0,0 +1,74 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.model.GroupVersion;
+import com.splitwise.expense.repository.GroupVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Per-group data versions behind the ETags of {@code GET /group/{groupId}} and
+ * {@code GET /group/{groupId}/balances}. Every write that changes a group's expenses or balances
+ * bumps the group's version in its own transaction, so while the version stands still both reads
+ * would return what the client already has.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class GroupVersionService {
+
+    private final GroupVersionRepository groupVersionRepository;
+
+    /**
+     * Bump the version of a group; friend expenses and settlements (no group) have none
+     */
+    public void bump(Long groupId) {
+        if (groupId == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int updated = groupVersionRepository.increment(groupId, now);
+        if (updated == 0) {
+            groupVersionRepository.save(GroupVersion.builder()
+                    .groupId(groupId)
+                    .version(1)
+                    .updatedAt(now)
+                    .build());
+        }
+        log.debug("Group {} data version bumped", groupId);
+    }
+
+    /**
+     * Bump each distinct group once, in ID order so concurrent writers lock the rows in the same order
+     */
+    public void bumpAll(Collection<Long> groupIds) {
+        groupIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new))
+                .forEach(this::bump);
+    }
+
+    /**
+     * Current version of a group, 0 if nothing changed since versions were introduced
+     */
+    @Transactional(readOnly = true)
+    public long getVersion(Long groupId) {
+        return groupVersionRepository.findVersion(groupId).orElse(0L);
+    }
+
+    /**
+     * Strong ETag of a group's expense and balance reads at its current version
+     */
+    @Transactional(readOnly = true)
+    public String getEtag(Long groupId) {
+        return "\"" + groupId + "-" + getVersion(groupId) + "\"";
+    }
+}
@@ -0,0 +1,89 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.dto.ExpenseResponse;
+import com.splitwise.expense.exception.BadRequestException;
+import com.splitwise.expense.storage.BlobStore;
+import com.splitwise.expense.storage.Receipt;
+import com.splitwise.expense.storage.StoredBlob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Uploads and downloads of expense receipts. The bytes go to the {@link BlobStore} outside any
+ * transaction, so no database connection is held while a file is streamed; only attaching the
+ * stored blob to the expense is transactional.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReceiptService {
+
+    static final Set<String> CONTENT_TYPES = Set.of(
+            "image/jpeg", "image/png", "image/webp", "image/heic", "image/gif", "application/pdf");
+
+    private final ExpenseService expenseService;
+    private final BlobStore blobStore;
+
+    @Value("${receipts.max-size:10MB}")
+    private DataSize maxSize;
+
+    /**
+     * Store a receipt and attach it to an expense, replacing any previous one.
+     * Identical files are stored once, whichever expenses they are attached to.
+     */
+    public ExpenseResponse uploadReceipt(Long expenseId, InputStream content, String contentType,
+                                         String currentUserId) throws IOException {
+        String type = requireSupportedType(contentType);
+        // Refuse before storing anything for a user who could not attach it
+        expenseService.checkReceiptEditable(expenseId, currentUserId);
+
+        StoredBlob blob = blobStore.put(content, maxSize.toBytes());
+        log.info("Stored receipt {} ({} bytes) for expense {}", blob.key(), blob.size(), expenseId);
+        return expenseService.attachReceipt(expenseId, blob, type, currentUserId);
+    }
+
+    /**
+     * Write {@code count} bytes of a receipt starting at {@code position} to {@code target}
+     */
+    public void transferTo(Receipt receipt, long position, long count, WritableByteChannel target) throws IOException {
+        blobStore.transferTo(receipt.key(), position, count, target);
+    }
+
+    /**
+     * The file holding a receipt, if the blob store keeps receipts on the local filesystem; null otherwise
+     */
+    public Path localFile(Receipt receipt) {
+        return blobStore.localFile(receipt.key());
+    }
+
+    /**
+     * The media type without parameters, if it is one a receipt may have
+     */
+    static String requireSupportedType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            throw new BadRequestException("Receipt content type is required");
+        }
+        String type;
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            type = mediaType.getType() + "/" + mediaType.getSubtype();
+        } catch (InvalidMediaTypeException e) {
+            throw new BadRequestException("Invalid receipt content type: " + contentType);
+        }
+        if (!CONTENT_TYPES.contains(type)) {
+            throw new BadRequestException("Receipts must be one of " + CONTENT_TYPES.stream().sorted().toList());
+        }
+        return type;
+    }
+}
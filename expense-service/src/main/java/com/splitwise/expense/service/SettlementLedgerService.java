@@ -0,0 +1,63 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.events.SettlementEvent;
+import com.splitwise.expense.model.AppliedSettlement;
+import com.splitwise.expense.repository.AppliedSettlementRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+/**
+ * Applies settlements recorded in settlement-service to the balance ledgers, so balance reads
+ * already net out debts that were paid. Each settlement is applied once, keyed by its ID,
+ * no matter how many of its events arrive or how often they are redelivered.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SettlementLedgerService {
+
+    private final AppliedSettlementRepository appliedSettlementRepository;
+    private final BalanceLedgerService balanceLedgerService;
+    private final GroupVersionService groupVersionService;
+
+    /**
+     * Apply the payment described by a settlement event, unless that settlement was applied before.
+     *
+     * @return true if the ledgers changed, false for a repeat or an event that describes no payment
+     */
+    @Transactional
+    public boolean applySettlement(SettlementEvent event) {
+        Long settlementId = event.getSettlementId();
+        String payerId = event.getPayerUserId();
+        String payeeId = event.getPayeeUserId();
+        BigDecimal amount = event.getAmount();
+
+        if (settlementId == null || payerId == null || payeeId == null || payerId.equals(payeeId)
+                || amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            log.warn("Ignoring settlement event without a valid payment: {}", event);
+            return false;
+        }
+        if (appliedSettlementRepository.existsById(settlementId)) {
+            log.debug("Settlement {} already applied, skipping {}", settlementId, event.getEventType());
+            return false;
+        }
+
+        // The primary key also rejects a concurrent duplicate, rolling back its ledger update
+        appliedSettlementRepository.save(AppliedSettlement.builder()
+                .settlementId(settlementId)
+                .groupId(event.getGroupId())
+                .payerId(payerId)
+                .payeeId(payeeId)
+                .amount(amount)
+                .build());
+        balanceLedgerService.applySettlement(event.getGroupId(), payerId, payeeId, amount);
+        groupVersionService.bump(event.getGroupId());
+
+        log.info("Applied settlement {}: {} paid {} {}", settlementId, payerId, payeeId, amount);
+        return true;
+    }
+}
@@ -0,0 +1,215 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.dto.SpendingSummaryResponse;
+import com.splitwise.expense.exception.BadRequestException;
+import com.splitwise.expense.model.Expense;
+import com.splitwise.expense.model.GroupSpendingRollup;
+import com.splitwise.expense.repository.ExpenseRepository;
+import com.splitwise.expense.repository.GroupSpendingRollupRepository;
+import com.splitwise.expense.repository.SpendingTotal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the per-(group, month, category, currency) spending rollups in sync with expense writes,
+ * the same way {@link BalanceLedgerService} keeps the balance ledgers. Only active GROUP expenses
+ * count; an expense without a category is counted as {@value #UNCATEGORIZED}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class SpendingRollupService {
+
+    public static final String UNCATEGORIZED = "UNCATEGORIZED";
+
+    private static final String DEFAULT_CURRENCY = "USD";
+
+    // Lock rows in a fixed order, like the ledger
+    private static final Comparator<GroupSpendingRollup.Key> KEY_ORDER =
+            Comparator.comparing(GroupSpendingRollup.Key::getGroupId)
+                    .thenComparing(GroupSpendingRollup.Key::getMonth)
+                    .thenComparing(GroupSpendingRollup.Key::getCategory)
+                    .thenComparing(GroupSpendingRollup.Key::getCurrency);
+
+    private final GroupSpendingRollupRepository rollupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Count an active expense in its rollup
+     */
+    public void applyExpense(Expense expense) {
+        if (expense.getGroupId() != null) {
+            addToRollup(keyOf(expense), 1, expense.getAmount());
+        }
+    }
+
+    /**
+     * Take an expense out of its rollup.
+     * Must be called before the expense's date, category, currency or amount is modified.
+     */
+    public void revertExpense(Expense expense) {
+        if (expense.getGroupId() != null) {
+            addToRollup(keyOf(expense), -1, expense.getAmount().negate());
+        }
+    }
+
+    /**
+     * Count many expenses at once, touching each rollup row only once
+     */
+    public void applyExpenses(Collection<Expense> expenses) {
+        Map<GroupSpendingRollup.Key, Totals> totals = new TreeMap<>(KEY_ORDER);
+        for (Expense expense : expenses) {
+            if (expense.getGroupId() != null) {
+                totals.computeIfAbsent(keyOf(expense), key -> new Totals()).add(1, expense.getAmount());
+            }
+        }
+        totals.forEach((key, total) -> addToRollup(key, total.count, total.amount));
+    }
+
+    /**
+     * Spending of a group per month, category and currency between two months (yyyy-MM,
+     * inclusive). Both default to the current month.
+     */
+    @Transactional(readOnly = true)
+    public SpendingSummaryResponse getGroupSummary(Long groupId, String fromMonth, String toMonth) {
+        String current = YearMonth.now().toString();
+        String from = parseMonth(fromMonth != null ? fromMonth : current);
+        String to = parseMonth(toMonth != null ? toMonth : (fromMonth != null ? fromMonth : current));
+        if (from.compareTo(to) > 0) {
+            throw new BadRequestException("from must not be after to");
+        }
+
+        List<SpendingSummaryResponse.Row> rows = rollupRepository.findSummary(groupId, from, to).stream()
+                .map(rollup -> SpendingSummaryResponse.Row.builder()
+                        .month(rollup.getMonth())
+                        .category(rollup.getCategory())
+                        .currency(rollup.getCurrency())
+                        .expenseCount(rollup.getExpenseCount())
+                        .totalAmount(rollup.getTotalAmount())
+                        .build())
+                .toList();
+
+        return SpendingSummaryResponse.builder()
+                .groupId(groupId)
+                .fromMonth(from)
+                .toMonth(to)
+                .rows(rows)
+                .build();
+    }
+
+    /**
+     * Recompute a group's rollups from its expenses, replacing whatever is stored.
+     * Expense writes to the group that commit while the rebuild runs may be lost from the
+     * rollups, so rebuild when the group is quiet or run it again afterwards.
+     *
+     * @return the number of rollup rows written
+     */
+    public int rebuildGroup(Long groupId) {
+        Map<GroupSpendingRollup.Key, Totals> totals = new TreeMap<>(KEY_ORDER);
+        for (SpendingTotal row : expenseRepository.sumSpendingByMonth(groupId)) {
+            GroupSpendingRollup.Key key = new GroupSpendingRollup.Key(groupId,
+                    YearMonth.of(row.getSpendYear(), row.getSpendMonth()).toString(),
+                    categoryOf(row.getCategory()), currencyOf(row.getCurrency()));
+            // NULL and 'UNCATEGORIZED' categories land on the same row
+            totals.computeIfAbsent(key, k -> new Totals()).add(row.getExpenseCount(), row.getTotalAmount());
+        }
+
+        rollupRepository.deleteByGroup(groupId);
+        LocalDateTime now = LocalDateTime.now();
+        List<GroupSpendingRollup> rollups = new ArrayList<>(totals.size());
+        totals.forEach((key, total) -> rollups.add(GroupSpendingRollup.builder()
+                .groupId(key.getGroupId())
+                .month(key.getMonth())
+                .category(key.getCategory())
+                .currency(key.getCurrency())
+                .expenseCount(total.count)
+                .totalAmount(total.amount)
+                .updatedAt(now)
+                .build()));
+        rollupRepository.saveAll(rollups);
+
+        log.info("Rebuilt {} spending rollups for group {}", rollups.size(), groupId);
+        return rollups.size();
+    }
+
+    /**
+     * Rebuild the rollups of every group, each group in its own transaction.
+     *
+     * @return number of groups rebuilt
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildAll() {
+        List<Long> groupIds = expenseRepository.findGroupIds();
+        for (Long groupId : groupIds) {
+            transactionTemplate.executeWithoutResult(status -> rebuildGroup(groupId));
+        }
+        log.info("Rebuilt spending rollups for {} groups", groupIds.size());
+        return groupIds.size();
+    }
+
+    private void addToRollup(GroupSpendingRollup.Key key, long countDelta, BigDecimal amountDelta) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = rollupRepository.addToRollup(key.getGroupId(), key.getMonth(), key.getCategory(),
+                key.getCurrency(), countDelta, amountDelta, now);
+        if (updated == 0) {
+            rollupRepository.save(GroupSpendingRollup.builder()
+                    .groupId(key.getGroupId())
+                    .month(key.getMonth())
+                    .category(key.getCategory())
+                    .currency(key.getCurrency())
+                    .expenseCount(countDelta)
+                    .totalAmount(amountDelta)
+                    .updatedAt(now)
+                    .build());
+        }
+        log.debug("Spending rollup {} changed by {} expenses, {}", key, countDelta, amountDelta);
+    }
+
+    static GroupSpendingRollup.Key keyOf(Expense expense) {
+        return new GroupSpendingRollup.Key(expense.getGroupId(), YearMonth.from(expense.getDate()).toString(),
+                categoryOf(expense.getCategory()), currencyOf(expense.getCurrency()));
+    }
+
+    private static String categoryOf(String category) {
+        return category == null || category.isBlank() ? UNCATEGORIZED : category;
+    }
+
+    private static String currencyOf(String currency) {
+        return currency == null ? DEFAULT_CURRENCY : currency;
+    }
+
+    private static String parseMonth(String month) {
+        try {
+            return YearMonth.parse(month).toString();
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Month must be in yyyy-MM format: " + month);
+        }
+    }
+
+    private static final class Totals {
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        void add(long count, BigDecimal amount) {
+            this.count += count;
+            this.amount = this.amount.add(amount);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.splitwise.expense.service;
 
 import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.money.Money;
 import com.splitwise.expense.model.ExpenseSplit;
 import com.splitwise.expense.model.SplitType;
 import lombok.extern.slf4j.Slf4j;
@@ -9,81 +10,319 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @Slf4j
 public class SplitCalculatorService {
 
+    private static final BigDecimal CENT = BigDecimal.ONE.movePointLeft(Money.STORAGE_SCALE);
+
     /**
      * Calculate splits based on the split type
      */
     public List<ExpenseSplit> calculateSplits(CreateExpenseRequest request) {
-        log.info("Calculating splits for expense of amount: {} with type: {}",
+        log.debug("Calculating splits for expense of amount: {} with type: {}",
                 request.getAmount(), request.getSplitType());
 
-        return switch (request.getSplitType()) {
-            case EQUAL -> calculateEqualSplits(request);
-            case EXACT -> calculateExactSplits(request);
-            case PERCENTAGE -> calculatePercentageSplits(request);
-        };
+        try {
+            return switch (request.getSplitType()) {
+                case EQUAL -> calculateEqualSplits(request);
+                case EXACT -> calculateExactSplits(request);
+                case PERCENTAGE -> calculatePercentageSplits(request);
+                case SHARES -> calculateShareSplits(request);
+                case ADJUSTMENT -> calculateAdjustmentSplits(request);
+            };
+        } catch (ArithmeticException outOfRange) {
+            // More fraction digits or magnitude than a long can carry
+            return calculateSplitsDecimal(request);
+        }
     }
 
     /**
      * EQUAL SPLIT: Divide amount equally among all participants
-     * Example: $120 ÷ 3 = $40 each
+     * Example: $100 ÷ 3 = $33.34, $33.33, $33.33
      */
     private List<ExpenseSplit> calculateEqualSplits(CreateExpenseRequest request) {
-        if (request.getParticipantIds() == null || request.getParticipantIds().isEmpty()) {
+        List<String> participantIds = request.getParticipantIds();
+        if (participantIds == null || participantIds.isEmpty()) {
             throw new IllegalArgumentException("Participant IDs are required for equal split");
         }
 
-        List<ExpenseSplit> splits = new ArrayList<>();
         BigDecimal totalAmount = request.getAmount();
-        int participantCount = request.getParticipantIds().size();
+        int scale = Money.workingScale(totalAmount);
+        long[] weights = new long[participantIds.size()];
+        Arrays.fill(weights, 1);
+        long[] amounts = allocateCents(Money.toMinor(totalAmount, scale), scale, weights);
+
+        List<ExpenseSplit> splits = new ArrayList<>(amounts.length);
+        for (int i = 0; i < amounts.length; i++) {
+            splits.add(split(participantIds.get(i), Money.toDecimal(amounts[i], scale), null, request));
+        }
 
-        // Calculate per-person amount
-        BigDecimal perPersonAmount = totalAmount.divide(
-                BigDecimal.valueOf(participantCount),
-                2,
-                RoundingMode.HALF_UP);
+        log.debug("Equal split created for {} participants", splits.size());
+        return splits;
+    }
 
-        log.debug("Equal split: {} participants, {} per person", participantCount, perPersonAmount);
+    /**
+     * EXACT SPLIT: Each person has a specific amount
+     * Example: Alice: $40, Bob: $50, Charlie: $30 = $120
+     */
+    private List<ExpenseSplit> calculateExactSplits(CreateExpenseRequest request) {
+        Map<String, BigDecimal> exactAmounts = request.getExactAmounts();
+        if (exactAmounts == null || exactAmounts.isEmpty()) {
+            throw new IllegalArgumentException("Exact amounts are required for exact split");
+        }
 
-        // Handle rounding differences
-        BigDecimal allocatedAmount = BigDecimal.ZERO;
+        // Validate that exact amounts sum to total
+        int sumScale = maxScale(exactAmounts.values());
+        long sumMinor = 0;
+        for (BigDecimal amount : exactAmounts.values()) {
+            sumMinor = Math.addExact(sumMinor, Money.toMinor(amount, sumScale));
+        }
 
-        for (int i = 0; i < request.getParticipantIds().size(); i++) {
-            String userId = request.getParticipantIds().get(i);
-            BigDecimal amount;
+        BigDecimal totalAmount = request.getAmount();
+        int compareScale = Math.max(sumScale, totalAmount.scale());
+        if (Money.rescaleUp(sumMinor, compareScale - sumScale) != Money.toMinor(totalAmount, compareScale)) {
+            throw new IllegalArgumentException(
+                    String.format("Sum of exact amounts (%s) must equal total amount (%s)",
+                            Money.toDecimal(sumMinor, sumScale), totalAmount));
+        }
 
-            if (i == request.getParticipantIds().size() - 1) {
-                // Last person gets the remainder to handle rounding
-                amount = totalAmount.subtract(allocatedAmount);
-            } else {
-                amount = perPersonAmount;
-                allocatedAmount = allocatedAmount.add(amount);
-            }
+        List<ExpenseSplit> splits = new ArrayList<>(exactAmounts.size());
+        for (Map.Entry<String, BigDecimal> entry : exactAmounts.entrySet()) {
+            splits.add(split(entry.getKey(), entry.getValue(), null, request));
+        }
 
-            ExpenseSplit split = ExpenseSplit.builder()
-                    .userId(userId)
-                    .amount(amount)
-                    .percentage(null)
-                    .isPaid(userId.equals(request.getPaidBy())) // Payer is already paid
-                    .build();
+        log.debug("Exact split created for {} participants", splits.size());
+        return splits;
+    }
 
-            splits.add(split);
+    /**
+     * PERCENTAGE SPLIT: Each person pays a percentage of total
+     * Example: Alice: 50%, Bob: 30%, Charlie: 20% of $120
+     */
+    private List<ExpenseSplit> calculatePercentageSplits(CreateExpenseRequest request) {
+        Map<String, BigDecimal> percentages = request.getPercentages();
+        if (percentages == null || percentages.isEmpty()) {
+            throw new IllegalArgumentException("Percentages are required for percentage split");
+        }
+
+        // Validate that percentages sum to 100
+        int percentScale = maxScale(percentages.values());
+        long[] percentMinor = new long[percentages.size()];
+        long sumPercentMinor = 0;
+        int index = 0;
+        for (BigDecimal percentage : percentages.values()) {
+            percentMinor[index] = Money.toMinor(percentage, percentScale);
+            sumPercentMinor = Math.addExact(sumPercentMinor, percentMinor[index++]);
+        }
+
+        if (sumPercentMinor != Money.rescaleUp(100, percentScale)) {
+            throw new IllegalArgumentException(
+                    String.format("Sum of percentages (%s) must equal 100", Money.toDecimal(sumPercentMinor, percentScale)));
         }
 
+        BigDecimal totalAmount = request.getAmount();
+        int scale = Money.workingScale(totalAmount);
+        long[] amounts = allocateCents(Money.toMinor(totalAmount, scale), scale, percentMinor);
+
+        List<ExpenseSplit> splits = new ArrayList<>(amounts.length);
+        index = 0;
+        for (Map.Entry<String, BigDecimal> entry : percentages.entrySet()) {
+            splits.add(split(entry.getKey(), Money.toDecimal(amounts[index++], scale), entry.getValue(), request));
+        }
+
+        log.debug("Percentage split created for {} participants", splits.size());
         return splits;
     }
 
     /**
-     * EXACT SPLIT: Each person has a specific amount
-     * Example: Alice: $40, Bob: $50, Charlie: $30 = $120
+     * SHARES SPLIT: Each person pays in proportion to their number of shares
+     * Example: Alice: 2, Bob: 1, Charlie: 1 share of $120 = $60, $30, $30
      */
-    private List<ExpenseSplit> calculateExactSplits(CreateExpenseRequest request) {
+    private List<ExpenseSplit> calculateShareSplits(CreateExpenseRequest request) {
+        Map<String, BigDecimal> shares = request.getShares();
+        if (shares == null || shares.isEmpty()) {
+            throw new IllegalArgumentException("Shares are required for shares split");
+        }
+
+        int shareScale = maxScale(shares.values());
+        long[] weights = new long[shares.size()];
+        int index = 0;
+        for (Map.Entry<String, BigDecimal> entry : shares.entrySet()) {
+            requirePositiveShare(entry);
+            weights[index++] = Money.toMinor(entry.getValue(), shareScale);
+        }
+
+        BigDecimal totalAmount = request.getAmount();
+        int scale = Money.workingScale(totalAmount);
+        long[] amounts = allocateCents(Money.toMinor(totalAmount, scale), scale, weights);
+
+        List<ExpenseSplit> splits = new ArrayList<>(amounts.length);
+        index = 0;
+        for (String userId : shares.keySet()) {
+            splits.add(split(userId, Money.toDecimal(amounts[index++], scale), null, request));
+        }
+
+        log.debug("Shares split created for {} participants", splits.size());
+        return splits;
+    }
+
+    /**
+     * ADJUSTMENT SPLIT: Split equally what is left after the per-person adjustments, then add each
+     * person's adjustment to their share
+     * Example: $120 among Alice, Bob, Charlie with Bob +$30 = $30, $60, $30
+     */
+    private List<ExpenseSplit> calculateAdjustmentSplits(CreateExpenseRequest request) {
+        List<String> participantIds = request.getParticipantIds();
+        if (participantIds == null || participantIds.isEmpty()) {
+            throw new IllegalArgumentException("Participant IDs are required for adjustment split");
+        }
+        Map<String, BigDecimal> adjustments = adjustments(request);
+
+        int adjustmentScale = maxScale(adjustments.values());
+        long adjustmentSum = 0;
+        for (BigDecimal adjustment : adjustments.values()) {
+            adjustmentSum = Math.addExact(adjustmentSum, Money.toMinor(adjustment, adjustmentScale));
+        }
+
+        BigDecimal totalAmount = request.getAmount();
+        int scale = Math.max(Money.workingScale(totalAmount), adjustmentScale);
+        long remainingMinor = Math.subtractExact(Money.toMinor(totalAmount, scale),
+                Money.rescaleUp(adjustmentSum, scale - adjustmentScale));
+        if (remainingMinor < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Sum of adjustments (%s) must not exceed total amount (%s)",
+                            Money.toDecimal(adjustmentSum, adjustmentScale), totalAmount));
+        }
+
+        long[] weights = new long[participantIds.size()];
+        Arrays.fill(weights, 1);
+        long[] amounts = allocateCents(remainingMinor, scale, weights);
+
+        List<ExpenseSplit> splits = new ArrayList<>(amounts.length);
+        for (int i = 0; i < amounts.length; i++) {
+            String userId = participantIds.get(i);
+            BigDecimal adjustment = adjustments.get(userId);
+            long amount = adjustment == null ? amounts[i]
+                    : Math.addExact(amounts[i], Money.toMinor(adjustment, scale));
+            if (amount < 0) {
+                throw negativeAdjustedAmount(userId);
+            }
+            splits.add(split(userId, Money.toDecimal(amount, scale), null, request));
+        }
+
+        log.debug("Adjustment split created for {} participants", splits.size());
+        return splits;
+    }
+
+    /**
+     * Distribute a total, in minor units at {@code scale}, over weights in whole cents using
+     * {@link Money#allocate}. The residue below one cent of a total with more fraction digits
+     * goes to the last entry, so the amounts still add up to the total.
+     */
+    private static long[] allocateCents(long totalMinor, int scale, long[] weights) {
+        long unit = Money.pow10(scale - Money.STORAGE_SCALE);
+        long totalCents = totalMinor / unit;
+        long[] amounts = Money.allocate(totalCents, weights);
+        if (unit > 1) {
+            for (int i = 0; i < amounts.length; i++) {
+                amounts[i] = Math.multiplyExact(amounts[i], unit);
+            }
+            amounts[amounts.length - 1] += totalMinor - totalCents * unit;
+        }
+        return amounts;
+    }
+
+    /**
+     * Adjustments of an ADJUSTMENT split (none if absent), checked to name only participants
+     */
+    private static Map<String, BigDecimal> adjustments(CreateExpenseRequest request) {
+        Map<String, BigDecimal> adjustments = request.getAdjustments();
+        if (adjustments == null) {
+            return Map.of();
+        }
+        Set<String> participants = new HashSet<>(request.getParticipantIds());
+        for (String userId : adjustments.keySet()) {
+            if (!participants.contains(userId)) {
+                throw new IllegalArgumentException("Adjustment given for a non-participant: " + userId);
+            }
+        }
+        return adjustments;
+    }
+
+    private static void requirePositiveShare(Map.Entry<String, BigDecimal> share) {
+        if (share.getValue().signum() <= 0) {
+            throw new IllegalArgumentException("Shares must be greater than zero for user: " + share.getKey());
+        }
+    }
+
+    private static IllegalArgumentException negativeAdjustedAmount(String userId) {
+        return new IllegalArgumentException("Adjusted amount must not be negative for user: " + userId);
+    }
+
+    private static ExpenseSplit split(String userId, BigDecimal amount, BigDecimal percentage, CreateExpenseRequest request) {
+        return ExpenseSplit.builder()
+                .userId(userId)
+                .amount(amount)
+                .percentage(percentage)
+                .isPaid(userId.equals(request.getPaidBy())) // Payer is already paid
+                .build();
+    }
+
+    /**
+     * Scale of the sum of the given values, as BigDecimal addition starting from ZERO would produce
+     */
+    private static int maxScale(Collection<BigDecimal> values) {
+        int scale = 0;
+        for (BigDecimal value : values) {
+            scale = Math.max(scale, value.scale());
+        }
+        return scale;
+    }
+
+    /**
+     * BigDecimal implementation of the same rules. Used for inputs that do not fit in
+     * long minor units, and as the reference the fixed-point path is tested against.
+     */
+    List<ExpenseSplit> calculateSplitsDecimal(CreateExpenseRequest request) {
+        return switch (request.getSplitType()) {
+            case EQUAL -> calculateEqualSplitsDecimal(request);
+            case EXACT -> calculateExactSplitsDecimal(request);
+            case PERCENTAGE -> calculatePercentageSplitsDecimal(request);
+            case SHARES -> calculateShareSplitsDecimal(request);
+            case ADJUSTMENT -> calculateAdjustmentSplitsDecimal(request);
+        };
+    }
+
+    private List<ExpenseSplit> calculateEqualSplitsDecimal(CreateExpenseRequest request) {
+        if (request.getParticipantIds() == null || request.getParticipantIds().isEmpty()) {
+            throw new IllegalArgumentException("Participant IDs are required for equal split");
+        }
+
+        BigDecimal totalAmount = request.getAmount();
+        List<String> participantIds = request.getParticipantIds();
+        List<BigDecimal> amounts = allocateCentsDecimal(totalAmount,
+                Collections.nCopies(participantIds.size(), BigDecimal.ONE), Money.workingScale(totalAmount));
+
+        List<ExpenseSplit> splits = new ArrayList<>();
+        for (int i = 0; i < participantIds.size(); i++) {
+            splits.add(split(participantIds.get(i), amounts.get(i), null, request));
+        }
+
+        log.debug("Equal split created for {} participants", splits.size());
+        return splits;
+    }
+
+    private List<ExpenseSplit> calculateExactSplitsDecimal(CreateExpenseRequest request) {
         if (request.getExactAmounts() == null || request.getExactAmounts().isEmpty()) {
             throw new IllegalArgumentException("Exact amounts are required for exact split");
         }
@@ -115,11 +354,7 @@ public class SplitCalculatorService {
         return splits;
     }
 
-    /**
-     * PERCENTAGE SPLIT: Each person pays a percentage of total
-     * Example: Alice: 50%, Bob: 30%, Charlie: 20% of $120
-     */
-    private List<ExpenseSplit> calculatePercentageSplits(CreateExpenseRequest request) {
+    private List<ExpenseSplit> calculatePercentageSplitsDecimal(CreateExpenseRequest request) {
         if (request.getPercentages() == null || request.getPercentages().isEmpty()) {
             throw new IllegalArgumentException("Percentages are required for percentage split");
         }
@@ -133,41 +368,113 @@ public class SplitCalculatorService {
                     String.format("Sum of percentages (%s) must equal 100", sumPercentage));
         }
 
+        BigDecimal totalAmount = request.getAmount();
+        List<BigDecimal> amounts = allocateCentsDecimal(totalAmount,
+                new ArrayList<>(request.getPercentages().values()), Money.workingScale(totalAmount));
+
+        List<ExpenseSplit> splits = new ArrayList<>();
+        int index = 0;
+        for (Map.Entry<String, BigDecimal> entry : request.getPercentages().entrySet()) {
+            splits.add(split(entry.getKey(), amounts.get(index++), entry.getValue(), request));
+        }
+
+        log.debug("Percentage split created for {} participants", splits.size());
+        return splits;
+    }
+
+    private List<ExpenseSplit> calculateShareSplitsDecimal(CreateExpenseRequest request) {
+        if (request.getShares() == null || request.getShares().isEmpty()) {
+            throw new IllegalArgumentException("Shares are required for shares split");
+        }
+        request.getShares().entrySet().forEach(SplitCalculatorService::requirePositiveShare);
+
+        BigDecimal totalAmount = request.getAmount();
+        List<BigDecimal> amounts = allocateCentsDecimal(totalAmount,
+                new ArrayList<>(request.getShares().values()), Money.workingScale(totalAmount));
+
         List<ExpenseSplit> splits = new ArrayList<>();
+        int index = 0;
+        for (String userId : request.getShares().keySet()) {
+            splits.add(split(userId, amounts.get(index++), null, request));
+        }
+
+        log.debug("Shares split created for {} participants", splits.size());
+        return splits;
+    }
+
+    private List<ExpenseSplit> calculateAdjustmentSplitsDecimal(CreateExpenseRequest request) {
+        if (request.getParticipantIds() == null || request.getParticipantIds().isEmpty()) {
+            throw new IllegalArgumentException("Participant IDs are required for adjustment split");
+        }
+        Map<String, BigDecimal> adjustments = adjustments(request);
+
         BigDecimal totalAmount = request.getAmount();
-        BigDecimal allocatedAmount = BigDecimal.ZERO;
-
-        List<Map.Entry<String, BigDecimal>> entries = new ArrayList<>(request.getPercentages().entrySet());
-
-        for (int i = 0; i < entries.size(); i++) {
-            Map.Entry<String, BigDecimal> entry = entries.get(i);
-            BigDecimal amount;
-
-            if (i == entries.size() - 1) {
-                // Last person gets the remainder to handle rounding
-                amount = totalAmount.subtract(allocatedAmount);
-            } else {
-                // Calculate amount based on percentage
-                amount = totalAmount
-                        .multiply(entry.getValue())
-                        .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-                allocatedAmount = allocatedAmount.add(amount);
-            }
+        BigDecimal adjustmentSum = adjustments.values().stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (adjustmentSum.compareTo(totalAmount) > 0) {
+            throw new IllegalArgumentException(
+                    String.format("Sum of adjustments (%s) must not exceed total amount (%s)",
+                            adjustmentSum, totalAmount));
+        }
 
-            ExpenseSplit split = ExpenseSplit.builder()
-                    .userId(entry.getKey())
-                    .amount(amount)
-                    .percentage(entry.getValue())
-                    .isPaid(entry.getKey().equals(request.getPaidBy()))
-                    .build();
+        List<String> participantIds = request.getParticipantIds();
+        int scale = Math.max(Money.workingScale(totalAmount), adjustmentSum.scale());
+        List<BigDecimal> amounts = allocateCentsDecimal(totalAmount.subtract(adjustmentSum),
+                Collections.nCopies(participantIds.size(), BigDecimal.ONE), scale);
 
-            splits.add(split);
+        List<ExpenseSplit> splits = new ArrayList<>();
+        for (int i = 0; i < participantIds.size(); i++) {
+            String userId = participantIds.get(i);
+            BigDecimal amount = amounts.get(i).add(adjustments.getOrDefault(userId, BigDecimal.ZERO));
+            if (amount.signum() < 0) {
+                throw negativeAdjustedAmount(userId);
+            }
+            splits.add(split(userId, amount, null, request));
         }
 
-        log.debug("Percentage split created for {} participants", splits.size());
+        log.debug("Adjustment split created for {} participants", splits.size());
         return splits;
     }
 
+    /**
+     * BigDecimal version of {@link #allocateCents}: floor every exact share to cents, give the
+     * leftover cents to the largest remainders (ties to the earlier entry) and the residue below
+     * one cent to the last entry, all at {@code scale}
+     */
+    private static List<BigDecimal> allocateCentsDecimal(BigDecimal total, List<BigDecimal> weights, int scale) {
+        BigDecimal totalCents = total.setScale(Money.STORAGE_SCALE, RoundingMode.FLOOR);
+        BigDecimal weightSum = weights.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        List<BigDecimal> amounts = new ArrayList<>();
+        List<BigDecimal> remainders = new ArrayList<>();
+        BigDecimal allocated = BigDecimal.ZERO;
+        for (BigDecimal weight : weights) {
+            BigDecimal weighted = totalCents.multiply(weight);
+            BigDecimal amount = weighted.divide(weightSum, Money.STORAGE_SCALE, RoundingMode.FLOOR);
+            amounts.add(amount);
+            remainders.add(weighted.subtract(amount.multiply(weightSum)));
+            allocated = allocated.add(amount);
+        }
+
+        // Stable sort, so equal remainders keep their original order
+        List<Integer> byRemainder = new ArrayList<>();
+        for (int i = 0; i < weights.size(); i++) {
+            byRemainder.add(i);
+        }
+        byRemainder.sort(Comparator.comparing((Integer i) -> remainders.get(i)).reversed());
+
+        int leftover = totalCents.subtract(allocated).movePointRight(Money.STORAGE_SCALE).intValueExact();
+        for (int i = 0; i < leftover; i++) {
+            int index = byRemainder.get(i);
+            amounts.set(index, amounts.get(index).add(CENT));
+        }
+
+        int last = amounts.size() - 1;
+        amounts.set(last, amounts.get(last).add(total.subtract(totalCents)));
+        amounts.replaceAll(amount -> amount.setScale(scale));
+        return amounts;
+    }
+
     /**
      * Validate that all split amounts are positive
      */
@@ -0,0 +1,37 @@
+package com.splitwise.expense.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * Content-addressed storage for attachments such as receipts. A blob is keyed by the SHA-256
+ * of its bytes, so identical content is stored once however many expenses point at it.
+ * Blobs are immutable and may be shared, so they are never deleted through this interface.
+ */
+public interface BlobStore {
+
+    /**
+     * Store everything readable from {@code content}, streaming it without holding it in memory.
+     * Storing content that is already present returns the existing blob.
+     *
+     * @throws com.splitwise.expense.exception.BadRequestException if the content is longer than maxBytes
+     */
+    StoredBlob put(InputStream content, long maxBytes) throws IOException;
+
+    boolean exists(String key);
+
+    /**
+     * Write {@code count} bytes of a blob starting at {@code position} to {@code target}
+     */
+    void transferTo(String key, long position, long count, WritableByteChannel target) throws IOException;
+
+    /**
+     * The file holding a blob, for stores that keep blobs on the local filesystem, so the servlet
+     * container can send it itself; null for other stores
+     */
+    default Path localFile(String key) {
+        return null;
+    }
+}
@@ -0,0 +1,127 @@
+package com.splitwise.expense.storage;
+
+import com.splitwise.expense.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * {@link BlobStore} on the local filesystem. A blob lives at {@code <root>/ab/cd/abcd...}, named
+ * after its SHA-256. Uploads are written to {@code <root>/incoming} while they are hashed, synced,
+ * and then renamed into place, so a blob is either complete or absent. Reads go through
+ * {@link FileChannel#transferTo}, which only avoids copying through user space when the target is
+ * a file or socket channel; into a channel over a servlet output stream it is a buffered copy.
+ * Downloads therefore hand {@link #localFile} to the container's sendfile where it is supported.
+ */
+@Component
+@ConditionalOnProperty(name = "receipts.store.type", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalBlobStore implements BlobStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path incoming;
+
+    public LocalBlobStore(@Value("${receipts.store.local.root}") Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+        Files.createDirectories(incoming);
+        log.info("Storing receipts under {}", this.root);
+    }
+
+    @Override
+    public StoredBlob put(InputStream content, long maxBytes) throws IOException {
+        MessageDigest sha256 = newSha256();
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            long size = 0;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new BadRequestException("Receipt is larger than " + maxBytes + " bytes");
+                    }
+                    sha256.update(buffer, 0, read);
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        out.write(chunk);
+                    }
+                }
+                out.force(true);
+            }
+
+            String key = HexFormat.of().formatHex(sha256.digest());
+            Path target = path(key);
+            if (Files.exists(target)) {
+                log.debug("Blob {} already stored, discarding the duplicate upload", key);
+                return new StoredBlob(key, size);
+            }
+            Files.createDirectories(target.getParent());
+            // Same content under the same name, so losing a race with a concurrent upload is harmless
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Stored blob {} ({} bytes)", key, size);
+            return new StoredBlob(key, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(path(key));
+    }
+
+    @Override
+    public void transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel file = FileChannel.open(path(key), StandardOpenOption.READ)) {
+            long end = position + count;
+            while (position < end) {
+                long sent = file.transferTo(position, end - position, target);
+                if (sent <= 0) {
+                    throw new EOFException("Blob " + key + " ends before byte " + end);
+                }
+                position += sent;
+            }
+        }
+    }
+
+    @Override
+    public Path localFile(String key) {
+        return path(key);
+    }
+
+    private Path path(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.splitwise.expense.storage;
+
+/**
+ * The receipt attached to an expense: the key of its blob, its media type and its size in bytes
+ */
+public record Receipt(String key, String contentType, long size) {
+}
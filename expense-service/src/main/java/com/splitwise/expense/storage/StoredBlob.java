@@ -0,0 +1,7 @@
+package com.splitwise.expense.storage;
+
+/**
+ * A blob as stored: its key (lowercase hex SHA-256 of the content) and its size in bytes
+ */
+public record StoredBlob(String key, long size) {
+}
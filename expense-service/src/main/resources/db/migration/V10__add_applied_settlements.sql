@@ -0,0 +1,54 @@
+-- Settlements already applied to group_balances and pair_balances, keyed by the settlement-service ID.
+-- The settlement-events consumer inserts here in the same transaction as the ledger update, so a
+-- redelivered or repeated event (SETTLEMENT_CREATED, then SETTLEMENT_COMPLETED) is applied once.
+CREATE TABLE IF NOT EXISTS applied_settlements (
+    settlement_id BIGINT NOT NULL,
+    group_id BIGINT,
+    payer_id VARCHAR(255) NOT NULL,
+    payee_id VARCHAR(255) NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL,
+    applied_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_applied_settlements PRIMARY KEY (settlement_id)
+);
+
+-- User balances read every pair a user is part of; user_a is covered by the primary key
+CREATE INDEX IF NOT EXISTS idx_pair_balances_user_b ON pair_balances (user_b);
+
+-- Backfill from settlements completed before this consumer existed. The table belongs to
+-- settlement-service and only exists here when both services share the database.
+DO $$
+BEGIN
+    IF to_regclass('settlements') IS NULL THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO applied_settlements (settlement_id, group_id, payer_id, payee_id, amount)
+    SELECT id, group_id, payer_id, payee_id, amount
+    FROM settlements
+    WHERE status = 'COMPLETED' AND amount > 0 AND payer_id <> payee_id;
+
+    -- The payer is credited and the payee debited, as if the payer had paid an expense for the payee
+    INSERT INTO group_balances (group_id, user_id, balance)
+    SELECT group_id, user_id, SUM(delta)
+    FROM (
+        SELECT group_id, payer_id AS user_id, amount AS delta FROM applied_settlements WHERE group_id IS NOT NULL
+        UNION ALL
+        SELECT group_id, payee_id, -amount FROM applied_settlements WHERE group_id IS NOT NULL
+    ) deltas
+    GROUP BY group_id, user_id
+    ON CONFLICT (group_id, user_id)
+        DO UPDATE SET balance = group_balances.balance + EXCLUDED.balance, updated_at = NOW();
+
+    INSERT INTO pair_balances (user_a, user_b, balance)
+    SELECT pair.user_a, pair.user_b, SUM(pair.delta)
+    FROM (
+        SELECT LEAST(payer_id COLLATE "C", payee_id COLLATE "C") AS user_a,
+               GREATEST(payer_id COLLATE "C", payee_id COLLATE "C") AS user_b,
+               CASE WHEN payer_id COLLATE "C" < payee_id COLLATE "C" THEN amount ELSE -amount END AS delta
+        FROM applied_settlements
+    ) pair
+    GROUP BY pair.user_a, pair.user_b
+    ON CONFLICT (user_a, user_b)
+        DO UPDATE SET balance = pair_balances.balance + EXCLUDED.balance, updated_at = NOW();
+END
+$$;
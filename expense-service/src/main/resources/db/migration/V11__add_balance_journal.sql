@@ -0,0 +1,60 @@
+-- Append-only journals of every change to group_balances and pair_balances, written in the same
+-- transaction as the change. Summing a scope's entries up to a moment gives its balance at that moment.
+CREATE SEQUENCE IF NOT EXISTS group_balance_journal_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS group_balance_journal (
+    id BIGINT PRIMARY KEY DEFAULT nextval('group_balance_journal_id_seq'),
+    group_id BIGINT NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    delta NUMERIC(19, 2) NOT NULL,
+    recorded_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_group_balance_journal_group ON group_balance_journal (group_id, recorded_at);
+CREATE INDEX IF NOT EXISTS idx_group_balance_journal_recorded ON group_balance_journal (recorded_at);
+
+-- Same canonical order and sign as pair_balances: user_a < user_b, positive = user_b owes user_a
+CREATE SEQUENCE IF NOT EXISTS pair_balance_journal_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS pair_balance_journal (
+    id BIGINT PRIMARY KEY DEFAULT nextval('pair_balance_journal_id_seq'),
+    user_a VARCHAR(255) COLLATE "C" NOT NULL,
+    user_b VARCHAR(255) COLLATE "C" NOT NULL,
+    delta NUMERIC(19, 2) NOT NULL,
+    recorded_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_pair_balance_journal_user_a ON pair_balance_journal (user_a, recorded_at);
+CREATE INDEX IF NOT EXISTS idx_pair_balance_journal_user_b ON pair_balance_journal (user_b, recorded_at);
+CREATE INDEX IF NOT EXISTS idx_pair_balance_journal_recorded ON pair_balance_journal (recorded_at);
+
+-- Periodic snapshots of a scope's journal sum, so an as-of read replays only the entries after the
+-- nearest checkpoint. Zero balances are kept: the rows of a checkpoint are also its marker.
+CREATE TABLE IF NOT EXISTS group_balance_checkpoints (
+    group_id BIGINT NOT NULL,
+    checkpoint_at TIMESTAMP NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    balance NUMERIC(19, 2) NOT NULL,
+    CONSTRAINT pk_group_balance_checkpoints PRIMARY KEY (group_id, checkpoint_at, user_id)
+);
+
+-- Oriented to user_id: positive = counterparty_id owes user_id
+CREATE TABLE IF NOT EXISTS user_balance_checkpoints (
+    user_id VARCHAR(255) NOT NULL,
+    checkpoint_at TIMESTAMP NOT NULL,
+    counterparty_id VARCHAR(255) NOT NULL,
+    balance NUMERIC(19, 2) NOT NULL,
+    CONSTRAINT pk_user_balance_checkpoints PRIMARY KEY (user_id, checkpoint_at, counterparty_id)
+);
+
+-- Opening entries: history starts here, with every existing balance as one entry recorded now.
+-- As-of reads before this migration see no balances.
+INSERT INTO group_balance_journal (group_id, user_id, delta, recorded_at)
+SELECT group_id, user_id, balance, NOW()
+FROM group_balances
+WHERE balance <> 0;
+
+INSERT INTO pair_balance_journal (user_a, user_b, delta, recorded_at)
+SELECT user_a, user_b, balance, NOW()
+FROM pair_balances
+WHERE balance <> 0;
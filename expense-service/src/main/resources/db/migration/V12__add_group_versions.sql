@@ -0,0 +1,10 @@
+-- Per-group data version, bumped in the same transaction as every change to a group's expenses or
+-- balances. Conditional GETs of a group's expense pages and balances compare it to the client's
+-- ETag, so an unchanged poll is answered with 304 from this row alone.
+-- Groups without a row are at version 0.
+CREATE TABLE IF NOT EXISTS group_versions (
+    group_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_group_versions PRIMARY KEY (group_id)
+);
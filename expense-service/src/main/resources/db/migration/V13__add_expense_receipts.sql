@@ -0,0 +1,6 @@
+-- Receipts uploaded to expense-service are kept in a content-addressed blob store; an expense
+-- points at its receipt by the SHA-256 of the file. receipt_url stays for externally hosted
+-- receipts and is set to the download endpoint when a receipt is uploaded.
+ALTER TABLE expenses ADD COLUMN receipt_key VARCHAR(64);
+ALTER TABLE expenses ADD COLUMN receipt_content_type VARCHAR(100);
+ALTER TABLE expenses ADD COLUMN receipt_size BIGINT;
@@ -0,0 +1,36 @@
+-- Inverted index for expense search: one row per (user, term, expense) for every user on an
+-- active expense (payer, recorder and participants) and every word of its description, notes
+-- and category. Written in the same transaction as expense creates, updates, deletes and bulk
+-- imports. Terms sort bytewise (C collation), so a prefix search is a range scan over the
+-- searching user's own terms.
+CREATE SEQUENCE IF NOT EXISTS expense_search_terms_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS expense_search_terms (
+    id BIGINT PRIMARY KEY DEFAULT nextval('expense_search_terms_id_seq'),
+    user_id VARCHAR(255) NOT NULL,
+    term VARCHAR(64) COLLATE "C" NOT NULL,
+    expense_id BIGINT NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_expense_search_terms_user_term
+    ON expense_search_terms (user_id, term, expense_id);
+
+-- Reindexing and deleting an expense
+CREATE INDEX IF NOT EXISTS idx_expense_search_terms_expense
+    ON expense_search_terms (expense_id);
+
+-- Index the existing expenses the way ExpenseSearchService.terms does: lower-case, split on
+-- anything that is not a letter or digit, cut to 64 characters
+INSERT INTO expense_search_terms (user_id, term, expense_id)
+SELECT DISTINCT u.user_id, LEFT(w.term, 64), e.id
+FROM expenses e
+CROSS JOIN LATERAL (
+    SELECT e.paid_by AS user_id
+    UNION SELECT e.created_by
+    UNION SELECT s.user_id FROM expense_splits s WHERE s.expense_id = e.id
+) u
+CROSS JOIN LATERAL regexp_split_to_table(
+    LOWER(CONCAT_WS(' ', e.description, e.notes, e.category)), '[^[:alnum:]]+') AS w(term)
+WHERE e.is_active = TRUE
+  AND u.user_id IS NOT NULL
+  AND w.term <> '';
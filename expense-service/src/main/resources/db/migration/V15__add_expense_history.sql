@@ -0,0 +1,57 @@
+-- Append-only history of every expense: one row per change, numbered per expense from 1 without
+-- gaps. Written in the same transaction as the change to expenses/expense_splits, which remain
+-- the current state that balances, rollups and search are maintained from.
+CREATE SEQUENCE IF NOT EXISTS expense_events_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS expense_events (
+    id BIGINT PRIMARY KEY DEFAULT nextval('expense_events_id_seq'),
+    expense_id BIGINT NOT NULL,
+    version INT NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    payload TEXT NOT NULL,
+    actor_user_id VARCHAR(255),
+    recorded_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_expense_events_version UNIQUE (expense_id, version)
+);
+
+-- Full state every expense.history.snapshot-interval versions, so a rebuild replays a bounded tail
+CREATE TABLE IF NOT EXISTS expense_snapshots (
+    expense_id BIGINT NOT NULL,
+    version INT NOT NULL,
+    state TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_expense_snapshots PRIMARY KEY (expense_id, version)
+);
+
+-- Latest version of each expense, so appending needs no lookup
+ALTER TABLE expenses ADD COLUMN IF NOT EXISTS event_version INT NOT NULL DEFAULT 1;
+
+-- History starts here: every existing expense gets version 1 holding its current state,
+-- in the shape ExpenseHistoryService.stateOf writes. Earlier edits were never recorded.
+INSERT INTO expense_events (expense_id, version, event_type, payload, actor_user_id, recorded_at)
+SELECT e.id, 1, 'EXPENSE_CREATED',
+       json_build_object(
+           'description', e.description,
+           'amount', e.amount,
+           'currency', e.currency,
+           'groupId', e.group_id,
+           'friendUserId', e.friend_user_id,
+           'expenseType', e.expense_type,
+           'paidBy', e.paid_by,
+           'createdBy', e.created_by,
+           'category', e.category,
+           'splitType', e.split_type,
+           'receiptUrl', e.receipt_url,
+           'receiptKey', e.receipt_key,
+           'notes', e.notes,
+           'date', e.date,
+           'active', e.is_active,
+           'splits', COALESCE(
+               (SELECT json_object_agg(s.user_id,
+                           json_build_object('amount', s.amount, 'percentage', s.percentage))
+                FROM expense_splits s
+                WHERE s.expense_id = e.id),
+               '{}'::json)
+       )::text,
+       e.created_by, e.created_at
+FROM expenses e;
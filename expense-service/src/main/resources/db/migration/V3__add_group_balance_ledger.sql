@@ -0,0 +1,24 @@
+-- Per-(group, user) net balance ledger, maintained incrementally on every expense write
+CREATE TABLE IF NOT EXISTS group_balances (
+    group_id BIGINT NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    balance NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_group_balances PRIMARY KEY (group_id, user_id)
+);
+
+-- Backfill from existing active group expenses: payer is credited the amount,
+-- each participant is debited their split
+INSERT INTO group_balances (group_id, user_id, balance)
+SELECT group_id, user_id, SUM(delta)
+FROM (
+    SELECT e.group_id, e.paid_by AS user_id, e.amount AS delta
+    FROM expenses e
+    WHERE e.is_active = TRUE AND e.group_id IS NOT NULL
+    UNION ALL
+    SELECT e.group_id, s.user_id, -s.amount
+    FROM expense_splits s
+    JOIN expenses e ON e.id = s.expense_id
+    WHERE e.is_active = TRUE AND e.group_id IS NOT NULL
+) deltas
+GROUP BY group_id, user_id;
@@ -0,0 +1,24 @@
+-- Pairwise net balance between two users across group and friend expenses.
+-- Pairs are stored in canonical order (user_a < user_b); positive = user_b owes user_a.
+-- "C" collation keeps the database ordering identical to Java's String.compareTo.
+CREATE TABLE IF NOT EXISTS pair_balances (
+    user_a VARCHAR(255) COLLATE "C" NOT NULL,
+    user_b VARCHAR(255) COLLATE "C" NOT NULL,
+    balance NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_pair_balances PRIMARY KEY (user_a, user_b),
+    CONSTRAINT chk_pair_balances_order CHECK (user_a < user_b)
+);
+
+-- Backfill: every participant other than the payer owes the payer their split
+INSERT INTO pair_balances (user_a, user_b, balance)
+SELECT pair.user_a, pair.user_b, SUM(pair.delta)
+FROM (
+    SELECT LEAST(e.paid_by COLLATE "C", s.user_id COLLATE "C") AS user_a,
+           GREATEST(e.paid_by COLLATE "C", s.user_id COLLATE "C") AS user_b,
+           CASE WHEN e.paid_by COLLATE "C" < s.user_id COLLATE "C" THEN s.amount ELSE -s.amount END AS delta
+    FROM expense_splits s
+    JOIN expenses e ON e.id = s.expense_id
+    WHERE e.is_active = TRUE AND s.user_id <> e.paid_by
+) pair
+GROUP BY pair.user_a, pair.user_b;
@@ -0,0 +1,15 @@
+-- Composite indexes backing keyset pagination on (date DESC, id DESC)
+
+-- Group listing: WHERE group_id = ? AND is_active ORDER BY date DESC, id DESC LIMIT ?
+CREATE INDEX IF NOT EXISTS idx_expenses_group_date_id
+    ON expenses (group_id, date DESC, id DESC)
+    WHERE is_active = TRUE;
+
+-- User listing: semi-join from the user's splits to their expenses
+CREATE INDEX IF NOT EXISTS idx_expense_splits_user_expense
+    ON expense_splits (user_id, expense_id);
+
+-- User listing: lets the planner walk expenses newest-first and stop at LIMIT
+CREATE INDEX IF NOT EXISTS idx_expenses_active_date_id
+    ON expenses (date DESC, id DESC)
+    WHERE is_active = TRUE;
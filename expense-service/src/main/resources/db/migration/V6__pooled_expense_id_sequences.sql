@@ -0,0 +1,4 @@
+-- Expense and split IDs are now allocated by Hibernate's pooled optimizer (allocationSize = 50),
+-- which lets inserts be JDBC-batched. The sequence increment must match the allocation size.
+ALTER SEQUENCE expenses_id_seq INCREMENT BY 50;
+ALTER SEQUENCE expense_splits_id_seq INCREMENT BY 50;
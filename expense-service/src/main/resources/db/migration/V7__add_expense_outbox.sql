@@ -0,0 +1,13 @@
+-- Transactional outbox: events are inserted with the expense change and published by a relay
+CREATE TABLE IF NOT EXISTS expense_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    event_key VARCHAR(255),
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP
+);
+
+-- The relay only ever scans unsent rows, oldest first
+CREATE INDEX IF NOT EXISTS idx_expense_outbox_unsent ON expense_outbox (id) WHERE sent_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_expense_outbox_sent_at ON expense_outbox (sent_at) WHERE sent_at IS NOT NULL;
@@ -0,0 +1,12 @@
+-- Indexes for the repository lookups not covered by the pagination indexes (V5)
+
+-- Splits of an expense: the FK side of expense_splits, used by split batch fetches,
+-- findByExpenseId and every join from expenses to their splits
+CREATE INDEX IF NOT EXISTS idx_expense_splits_expense_id
+    ON expense_splits (expense_id);
+
+-- Balance aggregations filter on the payer (getTotalOwedToUser, getBalanceBreakdown),
+-- and findByGroupIdAndPaidBy adds the group
+CREATE INDEX IF NOT EXISTS idx_expenses_paid_by_group
+    ON expenses (paid_by, group_id)
+    WHERE is_active = TRUE;
@@ -0,0 +1,26 @@
+-- Spending per (group, month, category, currency), maintained incrementally on every expense write
+-- so dashboards read a few rows instead of the expense list. spend_month is yyyy-MM of the expense date.
+CREATE TABLE IF NOT EXISTS group_spending_rollups (
+    group_id BIGINT NOT NULL,
+    spend_month VARCHAR(7) NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    expense_count BIGINT NOT NULL DEFAULT 0,
+    total_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_group_spending_rollups PRIMARY KEY (group_id, spend_month, category, currency)
+);
+
+-- Backfill from existing active group expenses
+INSERT INTO group_spending_rollups (group_id, spend_month, category, currency, expense_count, total_amount)
+SELECT group_id, spend_month, category, currency, COUNT(*), SUM(amount)
+FROM (
+    SELECT group_id,
+           TO_CHAR(date, 'YYYY-MM') AS spend_month,
+           CASE WHEN category IS NULL OR TRIM(category) = '' THEN 'UNCATEGORIZED' ELSE category END AS category,
+           COALESCE(currency, 'USD') AS currency,
+           amount
+    FROM expenses
+    WHERE is_active = TRUE AND group_id IS NOT NULL
+) e
+GROUP BY group_id, spend_month, category, currency;
@@ -0,0 +1,102 @@
+package com.splitwise.expense.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.events.ExpenseEvent;
+import com.splitwise.expense.model.OutboxEvent;
+import com.splitwise.expense.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseOutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, ExpenseEvent> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExpenseOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new ExpenseOutboxRelay(outboxEventRepository, kafkaTemplate, new ObjectMapper(),
+                new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(relay, "batchSize", 3);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 1_000L);
+    }
+
+    private static OutboxEvent outboxEvent(long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("expense-events")
+                .eventKey(String.valueOf(id))
+                .payload("{\"eventType\":\"EXPENSE_CREATED\",\"expenseId\":" + id + "}")
+                .build();
+    }
+
+    @Test
+    void relayBatch_PublishesAndMarksAcknowledgedEvents() {
+        when(outboxEventRepository.lockNextBatch(3)).thenReturn(List.of(outboxEvent(1), outboxEvent(2)));
+        when(kafkaTemplate.send(eq("expense-events"), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        int sent = relay.relayBatch();
+
+        assertEquals(2, sent);
+        verify(kafkaTemplate).send(eq("expense-events"), eq("1"), argThat(e -> e.getExpenseId() == 1L));
+        verify(outboxEventRepository).markSent(eq(List.of(1L, 2L)), any());
+    }
+
+    @Test
+    void relayBatch_LeavesFailedSendsForTheNextPoll() {
+        when(outboxEventRepository.lockNextBatch(3)).thenReturn(List.of(outboxEvent(1), outboxEvent(2)));
+        when(kafkaTemplate.send(eq("expense-events"), eq("1"), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.send(eq("expense-events"), eq("2"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        int sent = relay.relayBatch();
+
+        assertEquals(1, sent);
+        verify(outboxEventRepository).markSent(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void relayBatch_DoesNothingWhenOutboxIsEmpty() {
+        when(outboxEventRepository.lockNextBatch(3)).thenReturn(List.of());
+
+        assertEquals(0, relay.relayBatch());
+        verifyNoInteractions(kafkaTemplate);
+        verify(outboxEventRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void relay_DrainsUntilABatchIsNotFull() {
+        when(outboxEventRepository.lockNextBatch(3))
+                .thenReturn(List.of(outboxEvent(1), outboxEvent(2), outboxEvent(3)))
+                .thenReturn(List.of(outboxEvent(4)));
+        when(kafkaTemplate.send(eq("expense-events"), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relay();
+
+        verify(outboxEventRepository, times(2)).lockNextBatch(3);
+        verify(kafkaTemplate, times(4)).send(eq("expense-events"), any(), any());
+    }
+}
@@ -0,0 +1,106 @@
+package com.splitwise.expense.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void divideHalfUp_MatchesBigDecimalForRandomOperands() {
+        Random random = new Random(7);
+        for (int n = 0; n < 100_000; n++) {
+            long dividend = random.nextLong() >> random.nextInt(63);
+            long divisor = 1 + (random.nextLong() >>> (2 + random.nextInt(62)));
+
+            long expected = BigDecimal.valueOf(dividend)
+                    .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+            assertEquals(expected, Money.divideHalfUp(dividend, divisor), dividend + " / " + divisor);
+        }
+    }
+
+    @Test
+    void divideHalfUp_RoundsHalfAwayFromZero() {
+        assertEquals(3, Money.divideHalfUp(5, 2));
+        assertEquals(-3, Money.divideHalfUp(-5, 2));
+        assertEquals(2, Money.divideHalfUp(7, 4));
+        assertEquals(1, Money.divideHalfUp(5, 4));
+    }
+
+    @Test
+    void multiplyDivideHalfUp_FallsBackWhenTheProductOverflows() {
+        long a = Long.MAX_VALUE / 3;
+        long expected = BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(1_000))
+                .divide(BigDecimal.valueOf(7_000), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+
+        assertEquals(expected, Money.multiplyDivideHalfUp(a, 1_000, 7_000));
+    }
+
+    @Test
+    void allocate_MatchesSortedLargestRemainder() {
+        Random random = new Random(11);
+        for (int n = 0; n < 20_000; n++) {
+            long[] weights = new long[1 + random.nextInt(40)];
+            for (int i = 0; i < weights.length; i++) {
+                // Small weights produce many equal remainders, so ties are exercised too
+                weights[i] = random.nextInt(n % 3 == 0 ? 3 : 1_000);
+            }
+            weights[0]++;
+            long total = random.nextInt(1_000_000);
+
+            assertArrayEquals(sortedLargestRemainder(total, weights), Money.allocate(total, weights),
+                    total + " over " + Arrays.toString(weights));
+        }
+    }
+
+    @Test
+    void allocate_GivesLeftoverUnitsToLargestRemaindersThenEarlierEntries() {
+        assertArrayEquals(new long[]{34, 33, 33}, Money.allocate(100, new long[]{1, 1, 1}));
+        assertArrayEquals(new long[]{14, 29, 57}, Money.allocate(100, new long[]{1, 2, 4}));
+        assertArrayEquals(new long[]{0, 0, 5}, Money.allocate(5, new long[]{0, 0, 7}));
+        assertThrows(IllegalArgumentException.class, () -> Money.allocate(5, new long[]{0, 0}));
+        assertThrows(ArithmeticException.class, () -> Money.allocate(Long.MAX_VALUE, new long[]{2, 1}));
+    }
+
+    @Test
+    void toMinor_RoundTripsAndRejectsExtraDigits() {
+        assertEquals(1234, Money.toMinor(new BigDecimal("12.34"), 2));
+        assertEquals(12340, Money.toMinor(new BigDecimal("12.34"), 3));
+        assertEquals(new BigDecimal("12.34"), Money.toDecimal(1234, 2));
+        assertThrows(ArithmeticException.class, () -> Money.toMinor(new BigDecimal("12.345"), 2));
+    }
+
+    /**
+     * Textbook largest remainder: floor every share, sort by remainder, hand out the rest
+     */
+    private static long[] sortedLargestRemainder(long total, long[] weights) {
+        long weightSum = Arrays.stream(weights).sum();
+        long[] parts = new long[weights.length];
+        long[] remainders = new long[weights.length];
+        long allocated = 0;
+        for (int i = 0; i < weights.length; i++) {
+            parts[i] = total * weights[i] / weightSum;
+            remainders[i] = total * weights[i] % weightSum;
+            allocated += parts[i];
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < weights.length; i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingLong((Integer i) -> remainders[i]).reversed());
+        for (int i = 0; i < total - allocated; i++) {
+            parts[order.get(i)]++;
+        }
+        return parts;
+    }
+}
@@ -7,10 +7,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -46,7 +48,8 @@ class ExpenseRepositoryIntegrationTest {
                 .createdBy(payerId)
                 .category("FOOD")
                 .splitType(SplitType.EQUAL)
-                .date(LocalDateTime.now())
+                // Truncated to what the column stores, so cursors built from these instances match the rows
+                .date(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .isActive(true)
@@ -90,8 +93,8 @@ class ExpenseRepositoryIntegrationTest {
     }
 
     @Test
-    void findByGroupIdAndIsActiveTrueOrderByDateDesc_returnsExpenses() {
-        List<Expense> expenses = expenseRepository.findByGroupIdAndIsActiveTrueOrderByDateDesc(groupId);
+    void findGroupPage_returnsActiveExpenses() {
+        List<Expense> expenses = expenseRepository.findGroupPage(groupId, PageRequest.of(0, 10));
         assertEquals(1, expenses.size());
         assertEquals("Dinner", expenses.get(0).getDescription());
     }
@@ -127,4 +130,50 @@ class ExpenseRepositoryIntegrationTest {
         List<ExpenseSplit> splits = expenseSplitRepository.findByExpenseId(savedExpense.getId());
         assertEquals(2, splits.size());
     }
+
+    @Test
+    void getBalanceBreakdown_returnsSignedAmountPerCounterparty() {
+        List<CounterpartyBalance> payerView = expenseSplitRepository.getBalanceBreakdown(payerId);
+        assertEquals(1, payerView.size());
+        assertEquals(splitUserId, payerView.get(0).getCounterpartyId());
+        assertEquals(0, new BigDecimal("50.00").compareTo(payerView.get(0).getSignedAmount()));
+
+        List<CounterpartyBalance> participantView = expenseSplitRepository.getBalanceBreakdown(splitUserId);
+        assertEquals(1, participantView.size());
+        assertEquals(payerId, participantView.get(0).getCounterpartyId());
+        assertEquals(0, new BigDecimal("-50.00").compareTo(participantView.get(0).getSignedAmount()));
+    }
+
+    @Test
+    void findGroupPage_pagesByDateThenId() {
+        Expense newer = expenseRepository.save(Expense.builder()
+                .description("Lunch")
+                .amount(new BigDecimal("20.00"))
+                .groupId(groupId)
+                .paidBy(payerId)
+                .splitType(SplitType.EQUAL)
+                .date(savedExpense.getDate().plusHours(1))
+                .isActive(true)
+                .splits(new ArrayList<>())
+                .build());
+
+        List<Expense> first = expenseRepository.findGroupPage(groupId, PageRequest.of(0, 1));
+        assertEquals(1, first.size());
+        assertEquals(newer.getId(), first.get(0).getId());
+
+        List<Expense> second = expenseRepository.findGroupPageAfter(
+                groupId, newer.getDate(), newer.getId(), PageRequest.of(0, 1));
+        assertEquals(1, second.size());
+        assertEquals(savedExpense.getId(), second.get(0).getId());
+
+        assertTrue(expenseRepository.findGroupPageAfter(
+                groupId, savedExpense.getDate(), savedExpense.getId(), PageRequest.of(0, 1)).isEmpty());
+    }
+
+    @Test
+    void findUserPage_returnsEachExpenseOnce() {
+        List<Expense> page = expenseRepository.findUserPage(splitUserId, PageRequest.of(0, 10));
+        assertEquals(1, page.size());
+        assertEquals(savedExpense.getId(), page.get(0).getId());
+    }
 }
@@ -0,0 +1,155 @@
+package com.splitwise.expense.repository;
+
+import com.splitwise.expense.model.Expense;
+import com.splitwise.expense.model.ExpenseSplit;
+import com.splitwise.expense.model.SplitType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction, so every read and write commits in its own persistence context
+ * and the second-level cache sees the same sequence of events as in the service
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExpenseSecondLevelCacheTest {
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Long expenseId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Expense expense = Expense.builder()
+                .description("Dinner")
+                .amount(new BigDecimal("30.00"))
+                .groupId(1L)
+                .paidBy("alice")
+                .splitType(SplitType.EQUAL)
+                .build();
+        expense.getSplits().add(split(expense, "alice", "15.00"));
+        expense.getSplits().add(split(expense, "bob", "15.00"));
+        expenseId = expenseRepository.save(expense).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        expenseRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void repeatedLookup_isServedFromTheCache() {
+        assertEquals(List.of("alice", "bob"), read(this::splitUsers));
+
+        statistics.clear();
+        assertEquals(List.of("alice", "bob"), read(this::splitUsers));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics("expenses").getHitCount() > 0);
+        assertTrue(statistics.getDomainDataRegionStatistics("expenses.splits").getHitCount() > 0);
+    }
+
+    @Test
+    void update_replacesTheCachedExpenseAndSplits() {
+        read(this::splitUsers);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Expense expense = expenseRepository.findByIdAndIsActiveTrue(expenseId).orElseThrow();
+            expense.setDescription("Late dinner");
+            expense.getSplits().removeIf(split -> split.getUserId().equals("bob"));
+            expense.getSplits().add(split(expense, "carol", "15.00"));
+        });
+
+        assertEquals("Late dinner", read(() -> expenseRepository.findByIdAndIsActiveTrue(expenseId)
+                .orElseThrow().getDescription()));
+        assertEquals(List.of("alice", "carol"), read(this::splitUsers));
+    }
+
+    @Test
+    void softDelete_hidesTheCachedExpense() {
+        read(this::splitUsers);
+
+        transactionTemplate.executeWithoutResult(status ->
+                expenseRepository.findByIdAndIsActiveTrue(expenseId).orElseThrow().setIsActive(false));
+
+        assertTrue(read(() -> expenseRepository.findByIdAndIsActiveTrue(expenseId)).isEmpty());
+    }
+
+    @Test
+    void writes_readPastAStaleCachedCopy() {
+        read(this::splitUsers);
+
+        // Another instance changes the rows; this instance's cache still holds the old copy
+        jdbcTemplate.update("UPDATE expense_splits SET amount = 10.00 WHERE expense_id = ? AND user_id = 'bob'",
+                expenseId);
+        assertEquals(new BigDecimal("15.00"), read(() -> bobsAmount(expenseRepository.findByIdAndIsActiveTrue(expenseId))));
+        assertEquals(new BigDecimal("10.00"), read(() -> bobsAmount(expenseRepository.findActiveForUpdate(expenseId))));
+
+        // What the write path read replaced the stale entries
+        assertEquals(new BigDecimal("10.00"), read(() -> bobsAmount(expenseRepository.findByIdAndIsActiveTrue(expenseId))));
+
+        jdbcTemplate.update("UPDATE expenses SET is_active = false WHERE id = ?", expenseId);
+        assertTrue(read(() -> expenseRepository.findActiveForUpdate(expenseId)).isEmpty());
+    }
+
+    private static BigDecimal bobsAmount(Optional<Expense> expense) {
+        return expense.orElseThrow().getSplits().stream()
+                .filter(split -> split.getUserId().equals("bob"))
+                .findFirst().orElseThrow()
+                .getAmount();
+    }
+
+    private List<String> splitUsers() {
+        return expenseRepository.findByIdAndIsActiveTrue(expenseId).orElseThrow().getSplits().stream()
+                .map(ExpenseSplit::getUserId)
+                .sorted()
+                .toList();
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        return transactionTemplate.execute(status -> reader.get());
+    }
+
+    private static ExpenseSplit split(Expense expense, String userId, String amount) {
+        return ExpenseSplit.builder()
+                .expense(expense)
+                .userId(userId)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.repository.GroupBalanceCheckpointRepository;
+import com.splitwise.expense.repository.GroupBalanceJournalRepository;
+import com.splitwise.expense.repository.PairBalanceJournalRepository;
+import com.splitwise.expense.repository.UserBalanceCheckpointRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * The checkpoint run's handling of its scopes, with the scopes' own transactions mocked out
+ */
+@ExtendWith(MockitoExtension.class)
+class BalanceCheckpointRunTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @Mock
+    private GroupBalanceJournalRepository groupJournalRepository;
+
+    @Mock
+    private PairBalanceJournalRepository pairJournalRepository;
+
+    @Mock
+    private GroupBalanceCheckpointRepository groupCheckpointRepository;
+
+    @Mock
+    private UserBalanceCheckpointRepository userCheckpointRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private BalanceHistoryService historyService;
+
+    @Test
+    void scopeCheckpointedByAnotherInstance_doesNotStopTheRun() {
+        when(groupJournalRepository.findGroupsChangedBetween(BalanceHistoryService.BEGINNING, CUTOFF))
+                .thenReturn(List.of(1L, 2L));
+        when(pairJournalRepository.findUsersChangedBetween(BalanceHistoryService.BEGINNING, CUTOFF))
+                .thenReturn(List.of("alice"));
+        // Group 1 loses the race on pk_group_balance_checkpoints; the other scopes are written
+        when(transactionTemplate.<Boolean>execute(any()))
+                .thenThrow(new DataIntegrityViolationException("pk_group_balance_checkpoints"))
+                .thenReturn(true);
+
+        assertEquals(2, historyService.checkpoint(CUTOFF));
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+}
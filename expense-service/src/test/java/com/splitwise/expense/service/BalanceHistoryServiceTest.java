@@ -0,0 +1,154 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.exception.BadRequestException;
+import com.splitwise.expense.model.GroupBalanceJournalEntry;
+import com.splitwise.expense.model.PairBalanceJournalEntry;
+import com.splitwise.expense.repository.GroupBalanceCheckpointRepository;
+import com.splitwise.expense.repository.GroupBalanceJournalRepository;
+import com.splitwise.expense.repository.PairBalanceJournalRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "balance.checkpoint.min-entries=2")
+@ActiveProfiles("test")
+@Import({BalanceHistoryService.class, BalanceLedgerService.class})
+class BalanceHistoryServiceTest {
+
+    private static final Long GROUP_ID = 9L;
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 3, 1, 10, 0);
+    private static final LocalDateTime T2 = LocalDateTime.of(2024, 3, 2, 10, 0);
+    private static final LocalDateTime T3 = LocalDateTime.of(2024, 3, 3, 10, 0);
+
+    @Autowired
+    private BalanceHistoryService historyService;
+
+    @Autowired
+    private BalanceLedgerService ledgerService;
+
+    @Autowired
+    private GroupBalanceJournalRepository groupJournalRepository;
+
+    @Autowired
+    private PairBalanceJournalRepository pairJournalRepository;
+
+    @Autowired
+    private GroupBalanceCheckpointRepository groupCheckpointRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void asOf_sumsTheEntriesRecordedUpToThatMoment() {
+        // alice pays 30.00 for bob at T1; bob pays back 10.00 at T2
+        journal(T1, "30.00");
+        journal(T2, "-10.00");
+
+        assertTrue(historyService.getGroupBalancesAsOf(GROUP_ID, T1.minusSeconds(1)).isEmpty());
+        assertBalances(Map.of("alice", "30.00", "bob", "-30.00"), historyService.getGroupBalancesAsOf(GROUP_ID, T1));
+        assertBalances(Map.of("alice", "20.00", "bob", "-20.00"), historyService.getGroupBalancesAsOf(GROUP_ID, T3));
+
+        assertBalances(Map.of("alice", "-30.00"), historyService.getUserPairBalancesAsOf("bob", T1.plusHours(1)));
+        assertBalances(Map.of("bob", "20.00"), historyService.getUserPairBalancesAsOf("alice", T3));
+    }
+
+    @Test
+    void checkpoint_replacesTheEntriesItCovers() {
+        journal(T1, "30.00");
+        journal(T2, "-10.00");
+        journal(T3, "5.00");
+        LocalDateTime cutoff = T2.plusHours(1);
+
+        assertTrue(historyService.checkpointGroup(GROUP_ID, cutoff));
+        assertTrue(historyService.checkpointUser("bob", cutoff));
+        assertFalse(historyService.checkpointGroup(GROUP_ID, cutoff), "already checkpointed at the cutoff");
+        assertFalse(historyService.checkpointUser("carol", cutoff), "no entries since the beginning");
+
+        // Reads at or after the checkpoint no longer need the entries before it
+        groupJournalRepository.deleteAll(groupJournalRepository.findAll().stream()
+                .filter(entry -> !entry.getRecordedAt().isAfter(cutoff)).toList());
+        pairJournalRepository.deleteAll(pairJournalRepository.findAll().stream()
+                .filter(entry -> !entry.getRecordedAt().isAfter(cutoff)).toList());
+
+        assertBalances(Map.of("alice", "20.00", "bob", "-20.00"),
+                read(() -> historyService.getGroupBalancesAsOf(GROUP_ID, cutoff)));
+        assertBalances(Map.of("alice", "25.00", "bob", "-25.00"),
+                read(() -> historyService.getGroupBalancesAsOf(GROUP_ID, T3)));
+        assertBalances(Map.of("alice", "-25.00"),
+                read(() -> historyService.getUserPairBalancesAsOf("bob", T3)));
+    }
+
+    @Test
+    void checkpoint_waitsForEnoughNewEntries() {
+        journal(T1, "30.00");
+
+        // One pair entry is below the minimum of two, the group's two entries are not
+        assertFalse(historyService.checkpointUser("bob", T2));
+        assertTrue(historyService.checkpointGroup(GROUP_ID, T2));
+        assertEquals(2, groupCheckpointRepository.findLatest(GROUP_ID, T3).size());
+    }
+
+    @Test
+    void ledgerWrites_areJournalled() {
+        ledgerService.applySettlement(GROUP_ID, "bob", "alice", new BigDecimal("12.00"));
+        ledgerService.applySettlement(null, "carol", "bob", new BigDecimal("4.00"));
+
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(read(() -> ledgerService.getGroupBalances(GROUP_ID)),
+                read(() -> historyService.getGroupBalancesAsOf(GROUP_ID, now)));
+        assertEquals(read(() -> ledgerService.getUserPairBalances("bob")),
+                read(() -> historyService.getUserPairBalancesAsOf("bob", now)));
+    }
+
+    @Test
+    void changedUsers_areReadFromTheJournalColumns() {
+        journal(T1, "30.00");
+        pairJournalRepository.save(PairBalanceJournalEntry.builder()
+                .userA("carol").userB("dave").delta(new BigDecimal("4.00")).recordedAt(T3).build());
+
+        // Native SQL on user_a/user_b, as V11 names the columns
+        assertEquals(Set.of("alice", "bob"),
+                Set.copyOf(read(() -> pairJournalRepository.findUsersChangedBetween(T1.minusSeconds(1), T2))));
+    }
+
+    @Test
+    void asOf_inTheFutureIsRejected() {
+        assertThrows(BadRequestException.class,
+                () -> historyService.getGroupBalancesAsOf(GROUP_ID, LocalDateTime.now().plusDays(1)));
+    }
+
+    /**
+     * Record alice paying {@code amount} for bob (a negative amount moves the debt back)
+     */
+    private void journal(LocalDateTime at, String amount) {
+        BigDecimal delta = new BigDecimal(amount);
+        groupJournalRepository.save(GroupBalanceJournalEntry.builder()
+                .groupId(GROUP_ID).userId("alice").delta(delta).recordedAt(at).build());
+        groupJournalRepository.save(GroupBalanceJournalEntry.builder()
+                .groupId(GROUP_ID).userId("bob").delta(delta.negate()).recordedAt(at).build());
+        pairJournalRepository.save(PairBalanceJournalEntry.builder()
+                .userA("alice").userB("bob").delta(delta).recordedAt(at).build());
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        entityManager.flush();
+        entityManager.clear();
+        return reader.get();
+    }
+
+    private static void assertBalances(Map<String, String> expected, Map<String, BigDecimal> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((id, amount) -> assertEquals(0, new BigDecimal(amount).compareTo(actual.get(id)), id));
+    }
+}
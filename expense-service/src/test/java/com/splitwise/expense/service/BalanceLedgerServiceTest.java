@@ -0,0 +1,252 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.model.Expense;
+import com.splitwise.expense.model.ExpenseSplit;
+import com.splitwise.expense.model.ExpenseType;
+import com.splitwise.expense.model.GroupBalance;
+import com.splitwise.expense.model.GroupBalanceJournalEntry;
+import com.splitwise.expense.model.PairBalance;
+import com.splitwise.expense.model.PairBalanceJournalEntry;
+import com.splitwise.expense.model.SplitType;
+import com.splitwise.expense.repository.GroupBalanceJournalRepository;
+import com.splitwise.expense.repository.GroupBalanceRepository;
+import com.splitwise.expense.repository.PairBalanceJournalRepository;
+import com.splitwise.expense.repository.PairBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceLedgerServiceTest {
+
+    @Mock
+    private GroupBalanceRepository groupBalanceRepository;
+
+    @Mock
+    private PairBalanceRepository pairBalanceRepository;
+
+    @Mock
+    private GroupBalanceJournalRepository groupJournalRepository;
+
+    @Mock
+    private PairBalanceJournalRepository pairJournalRepository;
+
+    @InjectMocks
+    private BalanceLedgerService balanceLedgerService;
+
+    private Expense expense;
+
+    @BeforeEach
+    void setUp() {
+        expense = Expense.builder()
+                .id(1L)
+                .groupId(7L)
+                .amount(new BigDecimal("100.00"))
+                .paidBy("user1")
+                .splitType(SplitType.EQUAL)
+                .build();
+        expense.setSplits(new ArrayList<>(Arrays.asList(
+                ExpenseSplit.builder().userId("user1").amount(new BigDecimal("33.33")).build(),
+                ExpenseSplit.builder().userId("user2").amount(new BigDecimal("33.33")).build(),
+                ExpenseSplit.builder().userId("user3").amount(new BigDecimal("33.34")).build())));
+    }
+
+    @Test
+    void groupDeltas_CreditsPayerAndDebitsParticipants() {
+        Map<String, BigDecimal> deltas = BalanceLedgerService.groupDeltas(expense);
+
+        assertEquals(0, new BigDecimal("66.67").compareTo(deltas.get("user1")));
+        assertEquals(0, new BigDecimal("-33.33").compareTo(deltas.get("user2")));
+        assertEquals(0, new BigDecimal("-33.34").compareTo(deltas.get("user3")));
+        assertEquals(0, deltas.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add).signum());
+    }
+
+    @Test
+    void applyExpense_UpdatesExistingRowsAndInsertsMissingOnes() {
+        when(groupBalanceRepository.addToBalance(eq(7L), eq("user1"), any(), any())).thenReturn(1);
+        when(groupBalanceRepository.addToBalance(eq(7L), eq("user2"), any(), any())).thenReturn(1);
+        when(groupBalanceRepository.addToBalance(eq(7L), eq("user3"), any(), any())).thenReturn(0);
+
+        balanceLedgerService.applyExpense(expense);
+
+        ArgumentCaptor<GroupBalance> inserted = ArgumentCaptor.forClass(GroupBalance.class);
+        verify(groupBalanceRepository).save(inserted.capture());
+        assertEquals("user3", inserted.getValue().getUserId());
+        assertEquals(0, new BigDecimal("-33.34").compareTo(inserted.getValue().getBalance()));
+    }
+
+    @Test
+    void revertExpense_AppliesNegatedDeltas() {
+        when(groupBalanceRepository.addToBalance(any(), any(), any(), any())).thenReturn(1);
+
+        balanceLedgerService.revertExpense(expense);
+
+        verify(groupBalanceRepository).addToBalance(eq(7L), eq("user1"), eq(new BigDecimal("-66.67")), any());
+        verify(groupBalanceRepository).addToBalance(eq(7L), eq("user2"), eq(new BigDecimal("33.33")), any());
+        verify(groupBalanceRepository).addToBalance(eq(7L), eq("user3"), eq(new BigDecimal("33.34")), any());
+        verify(groupBalanceRepository, never()).save(any());
+    }
+
+    @Test
+    void applyExpense_IgnoresFriendExpenses() {
+        expense.setGroupId(null);
+        expense.setExpenseType(ExpenseType.FRIEND);
+
+        balanceLedgerService.applyExpense(expense);
+
+        verifyNoInteractions(groupBalanceRepository);
+    }
+
+    @Test
+    void applyExpenses_WritesEachLedgerRowOnceForTheWholeBatch() {
+        when(groupBalanceRepository.addToBalance(any(), any(), any(), any())).thenReturn(1);
+        when(pairBalanceRepository.addToBalance(any(), any(), any(), any())).thenReturn(1);
+
+        balanceLedgerService.applyExpenses(List.of(expense, expense));
+
+        verify(groupBalanceRepository).addToBalance(eq(7L), eq("user1"), eq(new BigDecimal("133.34")), any());
+        verify(groupBalanceRepository).addToBalance(eq(7L), eq("user2"), eq(new BigDecimal("-66.66")), any());
+        verify(groupBalanceRepository).addToBalance(eq(7L), eq("user3"), eq(new BigDecimal("-66.68")), any());
+        verify(pairBalanceRepository).addToBalance(eq("user1"), eq("user2"), eq(new BigDecimal("66.66")), any());
+        verify(pairBalanceRepository).addToBalance(eq("user1"), eq("user3"), eq(new BigDecimal("66.68")), any());
+        verifyNoMoreInteractions(groupBalanceRepository, pairBalanceRepository);
+    }
+
+    @Test
+    void everyLedgerChange_IsJournalledWithTheSameDeltaAndTime() {
+        when(groupBalanceRepository.addToBalance(any(), any(), any(), any())).thenReturn(1);
+        when(pairBalanceRepository.addToBalance(any(), any(), any(), any())).thenReturn(0);
+
+        balanceLedgerService.revertExpense(expense);
+
+        ArgumentCaptor<GroupBalanceJournalEntry> groupEntries = ArgumentCaptor.forClass(GroupBalanceJournalEntry.class);
+        verify(groupJournalRepository, times(3)).save(groupEntries.capture());
+        GroupBalanceJournalEntry payer = groupEntries.getAllValues().get(0);
+        assertEquals("user1", payer.getUserId());
+        assertEquals(0, new BigDecimal("-66.67").compareTo(payer.getDelta()));
+        verify(groupBalanceRepository).addToBalance(eq(7L), eq("user1"), any(), eq(payer.getRecordedAt()));
+
+        ArgumentCaptor<PairBalance> pairRows = ArgumentCaptor.forClass(PairBalance.class);
+        ArgumentCaptor<PairBalanceJournalEntry> pairEntries = ArgumentCaptor.forClass(PairBalanceJournalEntry.class);
+        verify(pairBalanceRepository, times(2)).save(pairRows.capture());
+        verify(pairJournalRepository, times(2)).save(pairEntries.capture());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(pairRows.getAllValues().get(i).getUserB(), pairEntries.getAllValues().get(i).getUserB());
+            assertEquals(pairRows.getAllValues().get(i).getBalance(), pairEntries.getAllValues().get(i).getDelta());
+        }
+    }
+
+    @Test
+    void getGroupBalances_SkipsZeroRows() {
+        when(groupBalanceRepository.findByGroupId(7L)).thenReturn(List.of(
+                GroupBalance.builder().groupId(7L).userId("user1").balance(new BigDecimal("10.00")).build(),
+                GroupBalance.builder().groupId(7L).userId("user2").balance(new BigDecimal("0.00")).build()));
+
+        Map<String, BigDecimal> balances = balanceLedgerService.getGroupBalances(7L);
+
+        assertEquals(1, balances.size());
+        assertTrue(balances.containsKey("user1"));
+    }
+
+    @Test
+    void pairDeltas_ParticipantsOweThePayer() {
+        expense.setPaidBy("user2");
+
+        Map<PairBalance.Key, BigDecimal> deltas = BalanceLedgerService.pairDeltas(expense);
+
+        assertEquals(2, deltas.size());
+        // user1 < user2: user2 (userB) paid, so user1 (userA) owes → negative from userA's view
+        assertEquals(0, new BigDecimal("-33.33").compareTo(deltas.get(new PairBalance.Key("user1", "user2"))));
+        // user2 < user3: user2 (userA) paid, so user3 (userB) owes → positive
+        assertEquals(0, new BigDecimal("33.34").compareTo(deltas.get(new PairBalance.Key("user2", "user3"))));
+    }
+
+    @Test
+    void applyExpense_WritesPairRowsForFriendExpenses() {
+        expense.setGroupId(null);
+        expense.setExpenseType(ExpenseType.FRIEND);
+        expense.setSplits(new ArrayList<>(Arrays.asList(
+                ExpenseSplit.builder().userId("user1").amount(new BigDecimal("50.00")).build(),
+                ExpenseSplit.builder().userId("user2").amount(new BigDecimal("50.00")).build())));
+        when(pairBalanceRepository.addToBalance(eq("user1"), eq("user2"), any(), any())).thenReturn(1);
+
+        balanceLedgerService.applyExpense(expense);
+
+        verify(pairBalanceRepository).addToBalance(eq("user1"), eq("user2"), eq(new BigDecimal("50.00")), any());
+        verify(pairBalanceRepository, never()).save(any());
+    }
+
+    @Test
+    void getPairBalance_IsOrientedToTheCaller() {
+        PairBalance pair = PairBalance.builder().userA("alice").userB("bob").balance(new BigDecimal("12.50")).build();
+        when(pairBalanceRepository.findById(new PairBalance.Key("alice", "bob"))).thenReturn(Optional.of(pair));
+
+        // bob owes alice 12.50
+        assertEquals(0, new BigDecimal("12.50").compareTo(balanceLedgerService.getPairBalance("alice", "bob")));
+        assertEquals(0, new BigDecimal("-12.50").compareTo(balanceLedgerService.getPairBalance("bob", "alice")));
+    }
+
+    @Test
+    void getPairBalance_ReturnsZeroForUnknownPair() {
+        when(pairBalanceRepository.findById(any())).thenReturn(Optional.empty());
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceLedgerService.getPairBalance("alice", "carol")));
+    }
+
+    @Test
+    void applySettlement_CreditsPayerAndDebitsPayee() {
+        when(groupBalanceRepository.addToBalance(eq(7L), any(), any(), any())).thenReturn(1);
+        when(pairBalanceRepository.addToBalance(any(), any(), any(), any())).thenReturn(1);
+
+        // user3 pays user1 back
+        balanceLedgerService.applySettlement(7L, "user3", "user1", new BigDecimal("33.34"));
+
+        verify(groupBalanceRepository).addToBalance(eq(7L), eq("user3"), eq(new BigDecimal("33.34")), any());
+        verify(groupBalanceRepository).addToBalance(eq(7L), eq("user1"), eq(new BigDecimal("-33.34")), any());
+        // user1 < user3: user3 (userB) paid userA, so the pair moves toward userB
+        verify(pairBalanceRepository).addToBalance(eq("user1"), eq("user3"), eq(new BigDecimal("-33.34")), any());
+    }
+
+    @Test
+    void applySettlement_WithoutGroupOnlyMovesThePair() {
+        when(pairBalanceRepository.addToBalance(any(), any(), any(), any())).thenReturn(0);
+
+        balanceLedgerService.applySettlement(null, "alice", "bob", new BigDecimal("5.00"));
+
+        verify(pairBalanceRepository).save(argThat(pair -> pair.getUserA().equals("alice")
+                && pair.getBalance().compareTo(new BigDecimal("5.00")) == 0));
+        verifyNoInteractions(groupBalanceRepository);
+    }
+
+    @Test
+    void getUserPairBalances_IsOrientedToTheCallerAndSkipsSettledPairs() {
+        when(pairBalanceRepository.findByUser("bob")).thenReturn(List.of(
+                PairBalance.builder().userA("alice").userB("bob").balance(new BigDecimal("12.50")).build(),
+                PairBalance.builder().userA("bob").userB("carol").balance(new BigDecimal("4.00")).build(),
+                PairBalance.builder().userA("bob").userB("dave").balance(new BigDecimal("0.00")).build()));
+
+        Map<String, BigDecimal> balances = balanceLedgerService.getUserPairBalances("bob");
+
+        assertEquals(2, balances.size());
+        // bob owes alice; carol owes bob
+        assertEquals(0, new BigDecimal("-12.50").compareTo(balances.get("alice")));
+        assertEquals(0, new BigDecimal("4.00").compareTo(balances.get("carol")));
+    }
+}
@@ -0,0 +1,195 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.dto.BalanceReconciliationReport;
+import com.splitwise.expense.model.AppliedSettlement;
+import com.splitwise.expense.model.Expense;
+import com.splitwise.expense.model.ExpenseSplit;
+import com.splitwise.expense.model.ExpenseType;
+import com.splitwise.expense.model.GroupBalance;
+import com.splitwise.expense.model.PairBalance;
+import com.splitwise.expense.model.SplitType;
+import com.splitwise.expense.repository.AppliedSettlementRepository;
+import com.splitwise.expense.repository.ExpenseRepository;
+import com.splitwise.expense.repository.GroupBalanceJournalRepository;
+import com.splitwise.expense.repository.GroupBalanceRepository;
+import com.splitwise.expense.repository.GroupVersionRepository;
+import com.splitwise.expense.repository.PairBalanceJournalRepository;
+import com.splitwise.expense.repository.PairBalanceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction: the job checks every scope in its own transaction on the
+ * pool's threads, which only see committed rows
+ */
+@DataJpaTest(properties = {
+        "balance.reconciliation.parallelism=2",
+        "balance.reconciliation.batch-size=2"})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BalanceReconciliationService.class, BalanceLedgerService.class, GroupVersionService.class})
+class BalanceReconciliationServiceTest {
+
+    @Autowired
+    private BalanceReconciliationService reconciliationService;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private GroupVersionService groupVersionService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private AppliedSettlementRepository appliedSettlementRepository;
+
+    @Autowired
+    private GroupBalanceRepository groupBalanceRepository;
+
+    @Autowired
+    private PairBalanceRepository pairBalanceRepository;
+
+    @Autowired
+    private GroupBalanceJournalRepository groupJournalRepository;
+
+    @Autowired
+    private PairBalanceJournalRepository pairJournalRepository;
+
+    @Autowired
+    private GroupVersionRepository groupVersionRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Source rows only; the ledgers are seeded by each test
+        expenseRepository.save(expense(1L, "alice", "30.00", true, Map.of("alice", "10.00", "bob", "10.00", "carol", "10.00")));
+        expenseRepository.save(expense(1L, "carol", "50.00", false, Map.of("alice", "50.00")));
+        expenseRepository.save(expense(null, "bob", "8.00", true, Map.of("bob", "4.00", "dave", "4.00")));
+        appliedSettlementRepository.save(AppliedSettlement.builder()
+                .settlementId(1L).groupId(1L).payerId("bob").payeeId("alice").amount(new BigDecimal("10.00")).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        expenseRepository.deleteAll();
+        appliedSettlementRepository.deleteAll();
+        groupBalanceRepository.deleteAll();
+        pairBalanceRepository.deleteAll();
+        groupJournalRepository.deleteAll();
+        pairJournalRepository.deleteAll();
+        groupVersionRepository.deleteAll();
+    }
+
+    @Test
+    void dryRun_reportsDriftWithoutTouchingTheLedgers() {
+        seedDriftedLedgers();
+
+        BalanceReconciliationReport report = reconciliationService.reconcile(false);
+
+        assertCompleted(report);
+        assertEquals(2, report.getGroupsChecked());
+        assertEquals(4, report.getUsersChecked());
+        // alice, carol and the stale erin row in the groups; (alice, carol), (bob, dave), (carol, dave) in the pairs
+        assertEquals(6, report.getBalancesDrifted());
+        assertEquals(0, report.getBalancesRepaired());
+        assertNotNull(report.getFinishedAt());
+
+        assertEquals(0, new BigDecimal("25.00").compareTo(balanceLedgerService.getGroupBalances(1L).get("alice")));
+        assertEquals(0, groupJournalRepository.count());
+        assertEquals(0, groupVersionService.getVersion(1L));
+    }
+
+    @Test
+    void repair_bringsTheLedgersBackToTheirSources() {
+        seedDriftedLedgers();
+
+        BalanceReconciliationReport report = reconciliationService.reconcile(true);
+
+        assertCompleted(report);
+        assertEquals(6, report.getBalancesDrifted());
+        assertEquals(6, report.getBalancesRepaired());
+        assertEquals(report, reconciliationService.getLatest());
+
+        // alice paid 30.00 for three and bob settled his 10.00 with her
+        Map<String, BigDecimal> group = balanceLedgerService.getGroupBalances(1L);
+        assertEquals(2, group.size());
+        assertEquals(0, new BigDecimal("10.00").compareTo(group.get("alice")));
+        assertEquals(0, new BigDecimal("-10.00").compareTo(group.get("carol")));
+        assertTrue(balanceLedgerService.getGroupBalances(2L).isEmpty());
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceLedgerService.getPairBalance("alice", "bob")));
+        assertEquals(0, new BigDecimal("10.00").compareTo(balanceLedgerService.getPairBalance("alice", "carol")));
+        assertEquals(0, new BigDecimal("4.00").compareTo(balanceLedgerService.getPairBalance("bob", "dave")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceLedgerService.getPairBalance("carol", "dave")));
+
+        // Repairs are journalled and move the ETag of the groups they changed
+        assertEquals(3, groupJournalRepository.count());
+        assertEquals(3, pairJournalRepository.count());
+        assertEquals(1, groupVersionService.getVersion(1L));
+        assertEquals(1, groupVersionService.getVersion(2L));
+
+        assertEquals(0, reconciliationService.reconcile(false).getBalancesDrifted());
+    }
+
+    @Test
+    void emptyLedgers_areRebuiltFromScratch() {
+        BalanceReconciliationReport report = reconciliationService.reconcile(true);
+
+        assertCompleted(report);
+        assertEquals(4, report.getBalancesRepaired());
+
+        assertEquals(0, new BigDecimal("-10.00").compareTo(balanceLedgerService.getGroupBalances(1L).get("carol")));
+        assertEquals(0, new BigDecimal("-4.00").compareTo(balanceLedgerService.getPairBalance("dave", "bob")));
+    }
+
+    /**
+     * A run that dies on a broken query only shows up as missing counts, so name its error
+     */
+    private static void assertCompleted(BalanceReconciliationReport report) {
+        assertEquals(BalanceReconciliationReport.Status.COMPLETED, report.getStatus(), report.getError());
+        assertEquals(0, report.getScopesFailed());
+    }
+
+    /**
+     * A wrong row (alice), a missing row (carol) and a stale row for a group without expenses (erin);
+     * a settled pair, a missing pair (alice, carol) and a stale pair
+     */
+    private void seedDriftedLedgers() {
+        groupBalanceRepository.save(GroupBalance.builder().groupId(1L).userId("alice").balance(new BigDecimal("25.00")).build());
+        groupBalanceRepository.save(GroupBalance.builder().groupId(2L).userId("erin").balance(new BigDecimal("5.00")).build());
+        pairBalanceRepository.save(PairBalance.builder().userA("alice").userB("bob").balance(BigDecimal.ZERO).build());
+        pairBalanceRepository.save(PairBalance.builder().userA("carol").userB("dave").balance(new BigDecimal("3.00")).build());
+    }
+
+    private static Expense expense(Long groupId, String paidBy, String amount, boolean active, Map<String, String> splits) {
+        Expense expense = Expense.builder()
+                .description("Dinner")
+                .amount(new BigDecimal(amount))
+                .groupId(groupId)
+                .expenseType(groupId != null ? ExpenseType.GROUP : ExpenseType.FRIEND)
+                .paidBy(paidBy)
+                .splitType(SplitType.EXACT)
+                .isActive(active)
+                .build();
+        splits.forEach((userId, share) -> expense.getSplits().add(ExpenseSplit.builder()
+                .expense(expense)
+                .userId(userId)
+                .amount(new BigDecimal(share))
+                .isPaid(userId.equals(paidBy))
+                .build()));
+        return expense;
+    }
+}
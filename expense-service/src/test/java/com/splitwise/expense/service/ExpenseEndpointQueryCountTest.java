@@ -0,0 +1,259 @@
+package com.splitwise.expense.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.expense.dto.BulkImportResponse;
+import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.dto.ExportFormat;
+import com.splitwise.expense.dto.ExpenseResponse;
+import com.splitwise.expense.model.SplitType;
+import com.splitwise.expense.storage.StoredBlob;
+import com.splitwise.expense.support.ExpenseServiceSliceTest;
+import com.splitwise.expense.support.StatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement budgets for the service calls behind each controller endpoint. Every read is
+ * measured against a small and a large data set: the count must stay within budget and must
+ * not grow with the number of expenses or splits.
+ */
+@ExpenseServiceSliceTest(properties = StatementCounter.STATISTICS)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({ExpenseExportService.class, ExpenseImportService.class})
+class ExpenseEndpointQueryCountTest {
+
+    private static final Long GROUP_ID = 1L;
+    private static final List<String> MEMBERS = List.of("alice", "bob", "carol", "dave");
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupVersionService groupVersionService;
+
+    @Autowired
+    private ExpenseExportService expenseExportService;
+
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private SpendingRollupService spendingRollupService;
+
+    @Autowired
+    private ExpenseHistoryService expenseHistoryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private StatementCounter counter;
+
+    private Long firstExpenseId;
+
+    @BeforeEach
+    void setUp() {
+        counter = new StatementCounter(entityManager);
+    }
+
+    @Test
+    void getExpenseById_loadsSplitsInTheSameStatement() {
+        assertBudgetIndependentOfData(1, "GET /{id}",
+                () -> expenseService.getExpenseById(firstExpenseId, "alice"));
+    }
+
+    @Test
+    void expensePages_fetchSplitsInOneBatch() {
+        assertBudgetIndependentOfData(2, "GET /group/{groupId}",
+                () -> expenseService.getGroupExpensesPage(GROUP_ID, null, 50));
+        assertBudgetIndependentOfData(2, "GET /my-expenses",
+                () -> expenseService.getUserExpensesPage("alice", null, 50));
+    }
+
+    @Test
+    void friendExpenses_loadSplitsInTheSameStatement() {
+        assertBudgetIndependentOfData(1, "GET /friend/{friendId}",
+                () -> expenseService.getFriendExpenses("alice", "erin"));
+    }
+
+    @Test
+    void balances_areAggregatedInTheDatabase() {
+        assertBudgetIndependentOfData(3, "GET /balance",
+                () -> expenseService.calculateUserBalance("alice"));
+        assertBudgetIndependentOfData(1, "GET /group/{groupId}/balances",
+                () -> expenseService.calculateGroupBalances(GROUP_ID));
+        assertBudgetIndependentOfData(1, "GET /friend/{friendId}/balance",
+                () -> expenseService.calculateFriendNetBalance("alice", "erin"));
+    }
+
+    @Test
+    void search_readsOnlyTheIndexAndOneSplitBatch() {
+        assertBudgetIndependentOfData(2, "GET /search",
+                () -> expenseService.searchExpenses("alice", "group exp", null, 50));
+    }
+
+    @Test
+    void unchangedGroupPolls_onlyReadTheGroupVersion() {
+        assertBudgetIndependentOfData(1, "GET /group/{groupId} with If-None-Match",
+                () -> groupVersionService.getEtag(GROUP_ID));
+    }
+
+    @Test
+    void balancesAsOf_readTheCheckpointAndOneJournalSum() {
+        assertBudgetIndependentOfData(2, "GET /balance?asOf",
+                () -> expenseService.calculateUserBalance("alice", LocalDateTime.now()));
+        assertBudgetIndependentOfData(2, "GET /group/{groupId}/balances?asOf",
+                () -> expenseService.calculateGroupBalances(GROUP_ID, LocalDateTime.now()));
+    }
+
+    @Test
+    void exports_streamExpensesWithTheirSplits() {
+        assertBudgetIndependentOfData(1, "GET /group/{groupId}/export?format=csv",
+                () -> export(ExportFormat.CSV));
+        assertBudgetIndependentOfData(1, "GET /group/{groupId}/export?format=ndjson",
+                () -> export(ExportFormat.NDJSON));
+    }
+
+    @Test
+    void spendingSummary_readsOnlyTheRollups() {
+        assertBudgetIndependentOfData(1, "GET /group/{groupId}/summary",
+                () -> spendingRollupService.getGroupSummary(GROUP_ID, null, null));
+    }
+
+    @Test
+    void history_readsTheEntriesInOneStatement() {
+        seed(1);
+        for (int i = 1; i <= 4; i++) {
+            expenseService.updateExpense(firstExpenseId, groupExpense(i), "alice");
+        }
+
+        assertBudgetIndependentOfData(2, "GET /{id}/history",
+                () -> expenseHistoryService.getHistory(firstExpenseId, "alice"));
+        assertBudgetIndependentOfData(3, "GET /{id}/history/{version}",
+                () -> expenseHistoryService.getStateAt(firstExpenseId, 4, "alice"));
+    }
+
+    @Test
+    void receipts_stayWithinBudget() {
+        seed(1);
+        StoredBlob blob = new StoredBlob("a".repeat(64), 1024);
+
+        counter.assertAtMost(20, "POST /{id}/receipt",
+                () -> expenseService.attachReceipt(firstExpenseId, blob, "image/png", "alice"));
+        assertBudgetIndependentOfData(1, "GET /{id}/receipt",
+                () -> expenseService.getReceipt(firstExpenseId, "alice"));
+        counter.assertAtMost(20, "DELETE /{id}/receipt",
+                () -> expenseService.removeReceipt(firstExpenseId, "alice"));
+    }
+
+    @Test
+    void imports_writeInBatchesNotPerRow() {
+        seed(5);
+
+        // One JDBC batch per table and 50 rows, plus the pooled sequence fetches of each 50 IDs;
+        // the ledger, rollup and group version upserts are per touched row, not per imported row
+        counter.assertAtMost(20, "POST /bulk with 5 rows", () -> importRows(5));
+        long many = counter.assertAtMost(30, "POST /bulk with 60 rows", () -> importRows(60));
+        assertTrue(many < 60, "POST /bulk prepared a statement per row");
+    }
+
+    @Test
+    void writes_stayWithinBudget() {
+        seed(60);
+
+        // Split inserts are batched; the rest is one ledger upsert per member and per pair,
+        // plus the spending rollup row, the group version bump and the balance journal and
+        // search index and expense history inserts, batched per table with their pooled sequence
+        // fetches. Updates and deletes also clear the expense's search postings with one statement;
+        // an update writes only the split rows that changed.
+        counter.assertAtMost(30, "POST /", () -> expenseService.createExpense(groupExpense(0), "alice"));
+        counter.assertAtMost(35, "PUT /{id}",
+                () -> expenseService.updateExpense(firstExpenseId, groupExpense(1), "alice"));
+        counter.assertAtMost(20, "DELETE /{id}",
+                () -> expenseService.deleteExpense(firstExpenseId, "alice"));
+    }
+
+    /**
+     * Measure the call after seeding a few expenses and again after seeding many more
+     */
+    private void assertBudgetIndependentOfData(long budget, String endpoint, Runnable call) {
+        seed(5);
+        long few = counter.assertAtMost(budget, endpoint + " with 5 expenses", call);
+
+        seed(60);
+        long many = counter.assertAtMost(budget, endpoint + " with 65 expenses", call);
+
+        assertEquals(few, many, endpoint + " statement count grew with the data");
+    }
+
+    private void export(ExportFormat format) {
+        try {
+            expenseExportService.exportGroupExpenses(GROUP_ID, format, OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void importRows(int count) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(IntStream.range(0, count)
+                    .mapToObj(ExpenseEndpointQueryCountTest::groupExpense)
+                    .toList());
+            BulkImportResponse response = expenseImportService.importExpenses(new ByteArrayInputStream(body), "alice");
+            assertEquals(count, response.getCreated());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void seed(int count) {
+        for (int i = 0; i < count; i++) {
+            ExpenseResponse expense = expenseService.createExpense(groupExpense(i), "alice");
+            if (firstExpenseId == null) {
+                firstExpenseId = expense.getId();
+            }
+            expenseService.createExpense(friendExpense(i), "alice");
+        }
+    }
+
+    private static CreateExpenseRequest groupExpense(int i) {
+        return CreateExpenseRequest.builder()
+                .description("Group expense " + i)
+                .amount(new BigDecimal("40.00"))
+                .groupId(GROUP_ID)
+                .paidBy(MEMBERS.get(i % MEMBERS.size()))
+                .splitType(SplitType.EQUAL)
+                .participantIds(MEMBERS)
+                .build();
+    }
+
+    private static CreateExpenseRequest friendExpense(int i) {
+        return CreateExpenseRequest.builder()
+                .description("Friend expense " + i)
+                .amount(new BigDecimal("15.00"))
+                .friendUserId(i % 2 == 0 ? "erin" : "alice")
+                .paidBy(i % 2 == 0 ? "alice" : "erin")
+                .splitType(SplitType.EQUAL)
+                .participantIds(List.of("alice", "erin"))
+                .build();
+    }
+}
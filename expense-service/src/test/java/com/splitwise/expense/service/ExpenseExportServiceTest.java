@@ -0,0 +1,123 @@
+package com.splitwise.expense.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.dto.ExportFormat;
+import com.splitwise.expense.model.SplitType;
+import com.splitwise.expense.support.ExpenseServiceSliceTest;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExpenseServiceSliceTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(ExpenseExportService.class)
+class ExpenseExportServiceTest {
+
+    private static final Long GROUP_ID = 7L;
+
+    @Autowired
+    private ExpenseExportService exportService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void csvExport_writesOneQuotedRowPerExpenseNewestFirst() throws IOException {
+        create("Taxi", "2024-03-01T10:00");
+        create("Dinner, drinks and \"dessert\"", "2024-03-02T20:00");
+        create("=HYPERLINK(\"x\")", "2024-02-01T08:00");
+        createInOtherGroup();
+
+        String[] lines = export(ExportFormat.CSV).split("\r\n");
+
+        assertEquals(4, lines.length);
+        assertEquals(ExpenseExportService.CSV_HEADER, lines[0]);
+        assertTrue(lines[1].contains(",\"Dinner, drinks and \"\"dessert\"\"\","), lines[1]);
+        assertTrue(lines[1].endsWith(",EQUAL,alice=10.00;bob=10.00;carol=10.00"), lines[1]);
+        assertTrue(lines[2].contains(",Taxi,"), lines[2]);
+        assertTrue(lines[3].contains(",\"'=HYPERLINK(\"\"x\"\")\","), lines[3]);
+    }
+
+    @Test
+    void ndjsonExport_writesOneExpenseResponsePerLine() throws IOException {
+        create("Taxi", "2024-03-01T10:00");
+        create("Hotel", "2024-03-05T12:00");
+
+        String[] lines = export(ExportFormat.NDJSON).split("\n");
+
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Hotel", first.get("description").asText());
+        assertEquals(3, first.get("splits").size());
+        assertEquals("Taxi", objectMapper.readTree(lines[1]).get("description").asText());
+    }
+
+    @Test
+    void export_ofEmptyGroupWritesOnlyTheCsvHeader() throws IOException {
+        assertEquals(ExpenseExportService.CSV_HEADER + "\r\n", export(ExportFormat.CSV));
+        assertEquals("", export(ExportFormat.NDJSON));
+    }
+
+    @Test
+    void export_leavesNoExpensesInThePersistenceContext() throws IOException {
+        for (int i = 0; i < 20; i++) {
+            create("Expense " + i, "2024-01-01T00:00");
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        export(ExportFormat.CSV);
+
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private String export(ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportGroupExpenses(GROUP_ID, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void create(String description, String date) {
+        expenseService.createExpense(CreateExpenseRequest.builder()
+                .description(description)
+                .amount(new BigDecimal("30.00"))
+                .groupId(GROUP_ID)
+                .paidBy("alice")
+                .splitType(SplitType.EQUAL)
+                .participantIds(List.of("alice", "bob", "carol"))
+                .date(LocalDateTime.parse(date))
+                .build(), "alice");
+    }
+
+    private void createInOtherGroup() {
+        expenseService.createExpense(CreateExpenseRequest.builder()
+                .description("Elsewhere")
+                .amount(new BigDecimal("10.00"))
+                .groupId(GROUP_ID + 1)
+                .paidBy("alice")
+                .splitType(SplitType.EQUAL)
+                .participantIds(List.of("alice", "bob"))
+                .build(), "alice");
+    }
+}
@@ -0,0 +1,115 @@
+package com.splitwise.expense.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.dto.ExpenseHistoryResponse;
+import com.splitwise.expense.exception.ResourceNotFoundException;
+import com.splitwise.expense.exception.UnauthorizedException;
+import com.splitwise.expense.model.ExpenseChangeType;
+import com.splitwise.expense.model.SplitType;
+import com.splitwise.expense.repository.ExpenseRepository;
+import com.splitwise.expense.repository.ExpenseSnapshotRepository;
+import com.splitwise.expense.support.ExpenseServiceSliceTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExpenseServiceSliceTest(properties = "expense.history.snapshot-interval=3")
+class ExpenseHistoryServiceTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseHistoryService expenseHistoryService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExpenseSnapshotRepository snapshotRepository;
+
+    @Test
+    void edits_appendOnlyWhatChanged() {
+        Long id = expenseService.createExpense(request("Lunch", "20.00", List.of("alice", "bob")), "alice").getId();
+        expenseService.updateExpense(id, request("Taxi", "20.00", List.of("alice", "bob")), "alice");
+        expenseService.updateExpense(id, request("Taxi", "30.00", List.of("alice", "carol")), "alice");
+        expenseService.deleteExpense(id, "alice");
+
+        List<ExpenseHistoryResponse> history = expenseHistoryService.getHistory(id, "carol");
+
+        assertEquals(List.of(1, 2, 3, 4, 5), history.stream().map(ExpenseHistoryResponse::getVersion).toList());
+        assertEquals(List.of(ExpenseChangeType.EXPENSE_CREATED, ExpenseChangeType.DETAILS_CHANGED,
+                        ExpenseChangeType.AMOUNT_CHANGED, ExpenseChangeType.SPLITS_CHANGED,
+                        ExpenseChangeType.EXPENSE_DELETED),
+                history.stream().map(ExpenseHistoryResponse::getEventType).toList());
+
+        JsonNode details = history.get(1).getChanges();
+        assertEquals(1, details.size());
+        assertEquals("Taxi", details.get("description").asText());
+
+        JsonNode splits = history.get(3).getChanges().get("splits");
+        assertEquals(0, new BigDecimal("15.00").compareTo(splits.get("alice").get("amount").decimalValue()));
+        assertEquals(0, new BigDecimal("15.00").compareTo(splits.get("carol").get("amount").decimalValue()));
+        assertTrue(splits.get("bob").isNull());
+        assertEquals(5, expenseRepository.findById(id).orElseThrow().getEventVersion());
+    }
+
+    @Test
+    void pastVersions_areRebuiltFromTheNearestSnapshot() {
+        Long id = expenseService.createExpense(request("Lunch", "20.00", List.of("alice", "bob")), "alice").getId();
+        expenseService.updateExpense(id, request("Taxi", "20.00", List.of("alice", "bob")), "alice");
+        expenseService.updateExpense(id, request("Taxi", "30.00", List.of("alice", "carol")), "alice");
+        expenseService.updateExpense(id, request("Airport taxi", "30.00", List.of("alice", "carol")), "alice");
+
+        // Versions 3 and 4 came from one update, crossing the interval of 3
+        assertEquals(4, snapshotRepository.findFirstByExpenseIdAndVersionLessThanEqualOrderByVersionDesc(id, 5)
+                .orElseThrow().getVersion());
+
+        JsonNode first = expenseHistoryService.getStateAt(id, 1, "alice").getState();
+        assertEquals("Lunch", first.get("description").asText());
+        assertTrue(first.get("splits").has("bob"));
+        assertFalse(first.get("splits").has("carol"));
+
+        ObjectNode latest = (ObjectNode) expenseHistoryService.getStateAt(id, 5, "alice").getState();
+        ObjectNode current = expenseHistoryService.stateOf(expenseRepository.findById(id).orElseThrow());
+        assertTrue(ExpenseHistoryService.diff(latest, current).isEmpty());
+        assertTrue(ExpenseHistoryService.diff(current, latest).isEmpty());
+        assertEquals("Airport taxi", latest.get("description").asText());
+    }
+
+    @Test
+    void history_isOnlyForUsersOnTheExpense() {
+        Long id = expenseService.createExpense(request("Lunch", "20.00", List.of("alice", "bob")), "alice").getId();
+
+        assertThrows(UnauthorizedException.class, () -> expenseHistoryService.getHistory(id, "dave"));
+        assertThrows(ResourceNotFoundException.class, () -> expenseHistoryService.getStateAt(id, 2, "alice"));
+        assertThrows(ResourceNotFoundException.class, () -> expenseHistoryService.getHistory(id + 1000, "alice"));
+    }
+
+    @Test
+    void unchangedUpdates_appendNothing() {
+        Long id = expenseService.createExpense(request("Lunch", "20.00", List.of("alice", "bob")), "alice").getId();
+        expenseService.updateExpense(id, request("Lunch", "20.0", List.of("alice", "bob")), "alice");
+
+        assertEquals(1, expenseHistoryService.getHistory(id, "alice").size());
+    }
+
+    private static CreateExpenseRequest request(String description, String amount, List<String> participants) {
+        return CreateExpenseRequest.builder()
+                .description(description)
+                .amount(new BigDecimal(amount))
+                .groupId(1L)
+                .paidBy(participants.get(0))
+                .splitType(SplitType.EQUAL)
+                .participantIds(participants)
+                .date(LocalDateTime.of(2024, 3, 1, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,192 @@
+package com.splitwise.expense.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.splitwise.events.ExpenseEvent;
+import com.splitwise.expense.dto.BulkImportResponse;
+import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.dto.ImportRowResult;
+import com.splitwise.expense.event.ExpenseEventProducer;
+import com.splitwise.expense.exception.BadRequestException;
+import com.splitwise.expense.model.Expense;
+import com.splitwise.expense.repository.ExpenseRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseImportServiceTest {
+
+    private static ValidatorFactory validatorFactory;
+
+    @Mock
+    private ExpenseService expenseService;
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private BalanceLedgerService balanceLedgerService;
+
+    @Mock
+    private SpendingRollupService spendingRollupService;
+
+    @Mock
+    private ExpenseSearchService expenseSearchService;
+
+    @Mock
+    private ExpenseHistoryService expenseHistoryService;
+
+    @Mock
+    private GroupVersionService groupVersionService;
+
+    @Mock
+    private ExpenseEventProducer expenseEventProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExpenseImportService expenseImportService;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeAll
+    static void createValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = validatorFactory.getValidator();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        expenseImportService = new ExpenseImportService(objectMapper, validator, expenseService,
+                expenseRepository, balanceLedgerService, spendingRollupService, expenseSearchService,
+                expenseHistoryService, groupVersionService, expenseEventProducer, new TransactionTemplate(transactionManager));
+    }
+
+    private void stubBuildAndSave() {
+        when(expenseService.buildExpense(any(CreateExpenseRequest.class), eq("user1")))
+                .thenAnswer(inv -> {
+                    CreateExpenseRequest request = inv.getArgument(0);
+                    return Expense.builder().amount(request.getAmount()).groupId(request.getGroupId()).build();
+                });
+        when(expenseRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Expense> expenses = inv.getArgument(0);
+            expenses.forEach(e -> e.setId(ids.incrementAndGet()));
+            return expenses;
+        });
+    }
+
+    private static String row(String description, String amount) {
+        return "{\"description\":\"" + description + "\",\"amount\":" + amount
+                + ",\"groupId\":1,\"paidBy\":\"user1\",\"splitType\":\"EQUAL\",\"participantIds\":[\"user1\",\"user2\"]}";
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importExpenses_Ndjson_ReportsEveryRowAndPublishesOneEvent() throws Exception {
+        stubBuildAndSave();
+        String ndjson = row("Dinner", "30.00") + "\n" + row("", "10.00") + "\n" + row("Taxi", "12.50") + "\n";
+
+        BulkImportResponse response = expenseImportService.importExpenses(body(ndjson), "user1");
+
+        assertEquals(3, response.getReceived());
+        assertEquals(2, response.getCreated());
+        assertEquals(1, response.getRejected());
+        assertEquals(List.of(1, 2, 3), response.getResults().stream().map(ImportRowResult::getRow).toList());
+        assertEquals(ImportRowResult.REJECTED, response.getResults().get(1).getStatus());
+        assertTrue(response.getResults().get(1).getError().contains("description"));
+        assertEquals(1L, response.getResults().get(0).getExpenseId());
+
+        verify(expenseRepository, times(1)).saveAll(anyList());
+        verify(balanceLedgerService, times(1)).applyExpenses(anyList());
+        verify(spendingRollupService, times(1)).applyExpenses(anyList());
+        verify(expenseSearchService, times(1)).indexExpenses(anyList());
+        verify(expenseHistoryService, times(1)).recordCreated(anyList(), eq("user1"));
+        ArgumentCaptor<ExpenseEvent> event = ArgumentCaptor.forClass(ExpenseEvent.class);
+        verify(expenseEventProducer).publishExpenseEvent(event.capture());
+        assertEquals("EXPENSES_IMPORTED", event.getValue().getEventType());
+        assertEquals(2, event.getValue().getExpenseCount());
+        assertEquals(0, new BigDecimal("42.50").compareTo(event.getValue().getAmount()));
+        assertEquals(1L, event.getValue().getGroupId());
+    }
+
+    @Test
+    void importExpenses_AcceptsJsonArray() throws Exception {
+        stubBuildAndSave();
+        String array = "[" + row("Dinner", "30.00") + "," + row("Taxi", "12.50") + "]";
+
+        BulkImportResponse response = expenseImportService.importExpenses(body(array), "user1");
+
+        assertEquals(2, response.getCreated());
+        assertEquals(0, response.getRejected());
+    }
+
+    @Test
+    void importExpenses_SplitErrorsRejectOnlyThatRow() throws Exception {
+        stubBuildAndSave();
+        doThrow(new BadRequestException("Percentages must add up to 100%"))
+                .when(expenseService).buildExpense(argThat(r -> "Broken".equals(r.getDescription())), eq("user1"));
+        String ndjson = row("Broken", "10.00") + "\n" + row("Dinner", "30.00");
+
+        BulkImportResponse response = expenseImportService.importExpenses(body(ndjson), "user1");
+
+        assertEquals(1, response.getCreated());
+        assertEquals("Percentages must add up to 100%", response.getResults().get(0).getError());
+    }
+
+    @Test
+    void importExpenses_MalformedJson_KeepsEarlierRowsAndStops() throws Exception {
+        stubBuildAndSave();
+        String ndjson = row("Dinner", "30.00") + "\n{\"description\": oops\n" + row("Taxi", "12.50");
+
+        BulkImportResponse response = expenseImportService.importExpenses(body(ndjson), "user1");
+
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getRejected());
+        assertTrue(response.getResults().get(1).getError().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void importExpenses_FailedBatchRejectsItsRows() throws Exception {
+        when(expenseService.buildExpense(any(CreateExpenseRequest.class), eq("user1"))).thenReturn(new Expense());
+        when(expenseRepository.saveAll(anyList())).thenThrow(new IllegalStateException("connection lost"));
+
+        BulkImportResponse response = expenseImportService.importExpenses(body(row("Dinner", "30.00")), "user1");
+
+        assertEquals(0, response.getCreated());
+        assertEquals(1, response.getRejected());
+        verifyNoInteractions(expenseEventProducer);
+    }
+}
@@ -0,0 +1,119 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.dto.ExpensePage;
+import com.splitwise.expense.dto.ExpenseResponse;
+import com.splitwise.expense.exception.BadRequestException;
+import com.splitwise.expense.model.SplitType;
+import com.splitwise.expense.support.ExpenseServiceSliceTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExpenseServiceSliceTest
+class ExpenseSearchServiceTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Test
+    void search_matchesEveryQueryWordAsAPrefix() {
+        Long uber = create("Uber to the airport", null, "TRANSPORT", List.of("alice", "bob"), 1);
+        Long hotel = create("Hotel Lisboa", "Two nights, breakfast included", "ACCOMMODATION", List.of("alice", "bob"), 2);
+        create("Dinner", null, "FOOD", List.of("alice", "bob"), 3);
+
+        assertEquals(List.of(uber), ids(search("alice", "ub")));
+        assertEquals(List.of(uber), ids(search("alice", "UBER airport")));
+        assertEquals(List.of(hotel), ids(search("alice", "breakfast")));
+        assertEquals(List.of(hotel), ids(search("bob", "accommodation")));
+        assertTrue(search("alice", "uber hotel").getExpenses().isEmpty());
+    }
+
+    @Test
+    void search_onlyFindsTheCallersExpenses() {
+        create("Uber home", null, null, List.of("alice", "bob"), 1);
+        create("Uber to work", null, null, List.of("carol", "dave"), 2);
+
+        assertEquals(1, search("alice", "uber").getExpenses().size());
+        assertEquals("Uber to work", search("dave", "uber").getExpenses().get(0).getDescription());
+        assertTrue(search("erin", "uber").getExpenses().isEmpty());
+    }
+
+    @Test
+    void updatesAndDeletes_keepTheIndexCurrent() {
+        Long id = create("Taxi", null, null, List.of("alice", "bob"), 1);
+
+        expenseService.updateExpense(id, request("Uber", null, null, List.of("alice", "carol"), 1), "alice");
+
+        assertTrue(search("alice", "taxi").getExpenses().isEmpty());
+        assertEquals(List.of(id), ids(search("carol", "uber")));
+        assertTrue(search("bob", "uber").getExpenses().isEmpty());
+
+        expenseService.deleteExpense(id, "alice");
+
+        assertTrue(search("alice", "uber").getExpenses().isEmpty());
+    }
+
+    @Test
+    void search_pagesNewestFirst() {
+        Long oldest = create("Groceries week 1", null, null, List.of("alice", "bob"), 3);
+        Long middle = create("Groceries week 2", null, null, List.of("alice", "bob"), 2);
+        Long newest = create("Groceries week 3", null, null, List.of("alice", "bob"), 1);
+
+        ExpensePage first = expenseService.searchExpenses("alice", "groc", null, 2);
+        assertEquals(List.of(newest, middle), ids(first));
+        assertNotNull(first.getNextCursor());
+
+        ExpensePage second = expenseService.searchExpenses("alice", "groc", first.getNextCursor(), 2);
+        assertEquals(List.of(oldest), ids(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void queriesWithoutAWord_areRejected() {
+        assertThrows(BadRequestException.class, () -> search("alice", " -- "));
+        assertThrows(BadRequestException.class, () -> search("alice", "a b c d e f g h i"));
+    }
+
+    @Test
+    void terms_areLowerCasedWordsOfLettersAndDigits() {
+        assertEquals(Set.of("café", "crème", "2x", "e", "mail"),
+                ExpenseSearchService.terms("Café/Crème 2x", null, "E-mail"));
+        assertEquals(ExpenseSearchService.MAX_TERM_LENGTH,
+                ExpenseSearchService.terms("a".repeat(100)).iterator().next().length());
+    }
+
+    private ExpensePage search(String userId, String query) {
+        return expenseService.searchExpenses(userId, query, null, 50);
+    }
+
+    private Long create(String description, String notes, String category, List<String> participants, int daysAgo) {
+        return expenseService.createExpense(request(description, notes, category, participants, daysAgo),
+                participants.get(0)).getId();
+    }
+
+    private static CreateExpenseRequest request(String description, String notes, String category,
+                                                List<String> participants, int daysAgo) {
+        return CreateExpenseRequest.builder()
+                .description(description)
+                .notes(notes)
+                .category(category)
+                .amount(new BigDecimal("20.00"))
+                .groupId(1L)
+                .paidBy(participants.get(0))
+                .splitType(SplitType.EQUAL)
+                .participantIds(participants)
+                .date(LocalDateTime.now().minusDays(daysAgo))
+                .build();
+    }
+
+    private static List<Long> ids(ExpensePage page) {
+        return page.getExpenses().stream().map(ExpenseResponse::getId).toList();
+    }
+}
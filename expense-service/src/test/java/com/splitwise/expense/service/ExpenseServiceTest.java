@@ -1,21 +1,24 @@
 package com.splitwise.expense.service;
 
-import com.splitwise.expense.client.ActivityClient;
 import com.splitwise.expense.event.ExpenseEventProducer;
 import com.splitwise.expense.dto.*;
+import com.splitwise.expense.exception.BadRequestException;
 import com.splitwise.expense.exception.ResourceNotFoundException;
 import com.splitwise.expense.exception.UnauthorizedException;
 import com.splitwise.expense.model.Expense;
 import com.splitwise.expense.model.ExpenseSplit;
 import com.splitwise.expense.model.SplitType;
 import com.splitwise.expense.repository.ExpenseRepository;
-import com.splitwise.expense.repository.ExpenseSplitRepository;
+import com.splitwise.expense.storage.Receipt;
+import com.splitwise.expense.storage.StoredBlob;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -32,16 +35,28 @@ class ExpenseServiceTest {
     private ExpenseRepository expenseRepository;
 
     @Mock
-    private ExpenseSplitRepository expenseSplitRepository;
+    private SplitCalculatorService splitCalculatorService;
 
     @Mock
-    private SplitCalculatorService splitCalculatorService;
+    private ExpenseEventProducer expenseEventProducer;
 
     @Mock
-    private ActivityClient activityClient;
+    private BalanceLedgerService balanceLedgerService;
 
     @Mock
-    private ExpenseEventProducer expenseEventProducer;
+    private SpendingRollupService spendingRollupService;
+
+    @Mock
+    private BalanceHistoryService balanceHistoryService;
+
+    @Mock
+    private GroupVersionService groupVersionService;
+
+    @Mock
+    private ExpenseSearchService expenseSearchService;
+
+    @Mock
+    private ExpenseHistoryService expenseHistoryService;
 
     @InjectMocks
     private ExpenseService expenseService;
@@ -98,6 +113,22 @@ class ExpenseServiceTest {
         assertEquals(new BigDecimal("100.00"), response.getAmount());
         assertEquals(SplitType.EQUAL, response.getSplitType());
         verify(expenseRepository).save(any(Expense.class));
+        verify(balanceLedgerService).applyExpense(expense);
+        verify(spendingRollupService).applyExpense(expense);
+        verify(expenseSearchService).indexExpense(expense);
+        verify(expenseHistoryService).recordCreated(expense, "user1");
+        verify(groupVersionService).bump(1L);
+    }
+
+    @Test
+    void buildExpense_TruncatesTheDateToTheStoredPrecision() {
+        when(splitCalculatorService.calculateSplits(any(CreateExpenseRequest.class)))
+                .thenReturn(expenseSplits);
+        createExpenseRequest.setDate(LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_789));
+
+        Expense built = expenseService.buildExpense(createExpenseRequest, "user1");
+
+        assertEquals(LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_000), built.getDate());
     }
 
     @Test
@@ -160,20 +191,73 @@ class ExpenseServiceTest {
     }
 
     @Test
-    void getGroupExpenses_ShouldReturnAllExpenses() {
-        when(expenseRepository.findByGroupIdAndIsActiveTrueOrderByDateDesc(1L))
+    void getGroupExpensesPage_ShouldReturnTheGroupsExpenses() {
+        when(expenseRepository.findGroupPage(1L, PageRequest.of(0, 11)))
                 .thenReturn(Arrays.asList(expense));
 
-        List<ExpenseResponse> responses = expenseService.getGroupExpenses(1L);
+        ExpensePage page = expenseService.getGroupExpensesPage(1L, null, 10);
 
-        assertNotNull(responses);
-        assertEquals(1, responses.size());
-        assertEquals("Dinner", responses.get(0).getDescription());
+        assertEquals(1, page.getExpenses().size());
+        assertEquals("Dinner", page.getExpenses().get(0).getDescription());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getGroupExpensesPage_WhenMoreRowsExist_ShouldReturnCursor() {
+        Expense older = Expense.builder()
+                .id(2L)
+                .groupId(1L)
+                .description("Taxi")
+                .amount(new BigDecimal("20.00"))
+                .paidBy("user2")
+                .splitType(SplitType.EQUAL)
+                .date(expense.getDate().minusDays(1))
+                .build();
+        when(expenseRepository.findGroupPage(1L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(expense, older));
+
+        ExpensePage page = expenseService.getGroupExpensesPage(1L, null, 1);
+
+        assertEquals(1, page.getExpenses().size());
+        assertEquals("Dinner", page.getExpenses().get(0).getDescription());
+        assertNotNull(page.getNextCursor());
+
+        ExpenseCursor cursor = ExpenseCursor.decode(page.getNextCursor());
+        assertEquals(expense.getDate(), cursor.getDate());
+        assertEquals(1L, cursor.getId());
+    }
+
+    @Test
+    void getGroupExpensesPage_WithCursor_ShouldContinueAfterIt() {
+        String cursor = ExpenseCursor.after(expense).encode();
+        when(expenseRepository.findGroupPageAfter(1L, expense.getDate(), 1L, PageRequest.of(0, 51)))
+                .thenReturn(Collections.emptyList());
+
+        ExpensePage page = expenseService.getGroupExpensesPage(1L, cursor, 50);
+
+        assertTrue(page.getExpenses().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getUserExpensesPage_ShouldCapPageSize() {
+        when(expenseRepository.findUserPage("user1", PageRequest.of(0, ExpenseService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(Arrays.asList(expense));
+
+        ExpensePage page = expenseService.getUserExpensesPage("user1", null, 10_000);
+
+        assertEquals(1, page.getExpenses().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getGroupExpensesPage_WithGarbageCursor_ShouldThrowBadRequest() {
+        assertThrows(BadRequestException.class, () -> expenseService.getGroupExpensesPage(1L, "not-a-cursor", 10));
     }
 
     @Test
     void updateExpense_WhenAuthorized_ShouldSucceed() {
-        when(expenseRepository.findByIdAndIsActiveTrue(1L)).thenReturn(Optional.of(expense));
+        when(expenseRepository.findActiveForUpdate(1L)).thenReturn(Optional.of(expense));
         when(splitCalculatorService.calculateSplits(any(CreateExpenseRequest.class)))
                 .thenReturn(expenseSplits);
         when(expenseRepository.save(any(Expense.class))).thenReturn(expense);
@@ -189,11 +273,49 @@ class ExpenseServiceTest {
 
         assertNotNull(response);
         verify(expenseRepository).save(any(Expense.class));
+        InOrder inOrder = inOrder(balanceLedgerService, spendingRollupService);
+        inOrder.verify(balanceLedgerService).revertExpense(expense);
+        inOrder.verify(spendingRollupService).revertExpense(expense);
+        inOrder.verify(balanceLedgerService).applyExpense(expense);
+        inOrder.verify(spendingRollupService).applyExpense(expense);
+        InOrder search = inOrder(expenseSearchService);
+        search.verify(expenseSearchService).removeExpense(expense);
+        search.verify(expenseSearchService).indexExpense(expense);
+        InOrder history = inOrder(expenseHistoryService, expenseRepository);
+        history.verify(expenseHistoryService).stateOf(expense);
+        history.verify(expenseRepository).save(expense);
+        history.verify(expenseHistoryService).recordChanges(any(), eq(expense), eq("user1"));
+        verify(groupVersionService).bump(1L);
+    }
+
+    @Test
+    void updateExpense_KeepsTheSplitRowsOfRemainingParticipants() {
+        when(expenseRepository.findActiveForUpdate(1L)).thenReturn(Optional.of(expense));
+        when(splitCalculatorService.calculateSplits(any(CreateExpenseRequest.class))).thenReturn(List.of(
+                ExpenseSplit.builder().userId("user1").amount(new BigDecimal("50.00")).build(),
+                ExpenseSplit.builder().userId("user4").amount(new BigDecimal("50.00")).build()));
+        when(expenseRepository.save(any(Expense.class))).thenReturn(expense);
+        ExpenseSplit user1 = expense.getSplits().get(0);
+
+        CreateExpenseRequest updateRequest = new CreateExpenseRequest();
+        updateRequest.setDescription("Dinner");
+        updateRequest.setAmount(new BigDecimal("100.00"));
+        updateRequest.setPaidBy("user1");
+        updateRequest.setSplitType(SplitType.EQUAL);
+        updateRequest.setParticipantIds(Arrays.asList("user1", "user4"));
+
+        expenseService.updateExpense(1L, updateRequest, "user1");
+
+        assertEquals(2, expense.getSplits().size());
+        assertSame(user1, expense.getSplits().get(0));
+        assertEquals(new BigDecimal("50.00"), user1.getAmount());
+        assertEquals("user4", expense.getSplits().get(1).getUserId());
+        assertSame(expense, expense.getSplits().get(1).getExpense());
     }
 
     @Test
     void updateExpense_WhenUnauthorized_ShouldThrowException() {
-        when(expenseRepository.findByIdAndIsActiveTrue(1L)).thenReturn(Optional.of(expense));
+        when(expenseRepository.findActiveForUpdate(1L)).thenReturn(Optional.of(expense));
 
         CreateExpenseRequest updateRequest = new CreateExpenseRequest();
         updateRequest.setDescription("Updated Dinner");
@@ -205,42 +327,116 @@ class ExpenseServiceTest {
 
     @Test
     void deleteExpense_WhenAuthorized_ShouldSucceed() {
-        when(expenseRepository.findByIdAndIsActiveTrue(1L)).thenReturn(Optional.of(expense));
+        when(expenseRepository.findActiveForUpdate(1L)).thenReturn(Optional.of(expense));
         when(expenseRepository.save(any(Expense.class))).thenReturn(expense);
 
         expenseService.deleteExpense(1L, "user1");
 
         verify(expenseRepository).save(any(Expense.class));
+        verify(balanceLedgerService).revertExpense(expense);
+        verify(balanceLedgerService, never()).applyExpense(any(Expense.class));
+        verify(spendingRollupService).revertExpense(expense);
+        verify(expenseSearchService).removeExpense(expense);
+        verify(expenseSearchService, never()).indexExpense(any(Expense.class));
+        verify(expenseHistoryService).recordChanges(any(), eq(expense), eq("user1"));
+        verify(groupVersionService).bump(1L);
     }
 
     @Test
     void deleteExpense_WhenUnauthorized_ShouldThrowException() {
-        when(expenseRepository.findByIdAndIsActiveTrue(1L)).thenReturn(Optional.of(expense));
+        when(expenseRepository.findActiveForUpdate(1L)).thenReturn(Optional.of(expense));
 
         assertThrows(UnauthorizedException.class, () -> {
             expenseService.deleteExpense(1L, "user2");
         });
+        verifyNoInteractions(groupVersionService);
+    }
+
+    @Test
+    void attachReceipt_ShouldPointTheExpenseAtTheBlob() {
+        when(expenseRepository.findActiveForUpdate(1L)).thenReturn(Optional.of(expense));
+        when(expenseRepository.findByIdAndIsActiveTrue(1L)).thenReturn(Optional.of(expense));
+        when(expenseRepository.save(any(Expense.class))).thenReturn(expense);
+
+        ExpenseResponse response = expenseService.attachReceipt(1L, new StoredBlob("ab".repeat(32), 1234),
+                "image/png", "user1");
+
+        assertEquals("/api/expenses/1/receipt", response.getReceiptUrl());
+        assertEquals(new Receipt("ab".repeat(32), "image/png", 1234), expenseService.getReceipt(1L, "user2"));
+        verify(groupVersionService).bump(1L);
+    }
+
+    @Test
+    void attachReceipt_WhenUnauthorized_ShouldThrowException() {
+        when(expenseRepository.findActiveForUpdate(1L)).thenReturn(Optional.of(expense));
+
+        assertThrows(UnauthorizedException.class,
+                () -> expenseService.attachReceipt(1L, new StoredBlob("ab".repeat(32), 1234), "image/png", "user2"));
+        verify(expenseRepository, never()).save(any(Expense.class));
     }
 
     @Test
-    void calculateUserBalance_ShouldReturnCorrectBalance() {
-        // Service now uses repository queries for totals
-        when(expenseSplitRepository.getTotalOwedByUser("user1")).thenReturn(new BigDecimal("33.33"));
-        when(expenseSplitRepository.getTotalOwedToUser("user1")).thenReturn(new BigDecimal("66.67"));
-        when(expenseRepository.findByUserIdOrderByDateDesc("user1")).thenReturn(Arrays.asList(expense));
+    void getReceipt_WithoutAnUploadedReceipt_ShouldThrowNotFound() {
+        expense.setReceiptUrl("https://example.com/receipt.jpg");
+        when(expenseRepository.findByIdAndIsActiveTrue(1L)).thenReturn(Optional.of(expense));
+
+        assertThrows(ResourceNotFoundException.class, () -> expenseService.getReceipt(1L, "user1"));
+    }
+
+    @Test
+    void updateExpense_ShouldKeepAnUploadedReceipt() {
+        expense.setReceiptKey("ab".repeat(32));
+        expense.setReceiptUrl("/api/expenses/1/receipt");
+        when(expenseRepository.findActiveForUpdate(1L)).thenReturn(Optional.of(expense));
+        when(splitCalculatorService.calculateSplits(any(CreateExpenseRequest.class))).thenReturn(expenseSplits);
+        when(expenseRepository.save(any(Expense.class))).thenReturn(expense);
+
+        ExpenseResponse response = expenseService.updateExpense(1L, createExpenseRequest, "user1");
+
+        assertEquals("/api/expenses/1/receipt", response.getReceiptUrl());
+        assertEquals("ab".repeat(32), expense.getReceiptKey());
+    }
+
+    @Test
+    void calculateUserBalance_ShouldTotalThePairLedger() {
+        Map<String, BigDecimal> pairs = new HashMap<>();
+        pairs.put("user2", new BigDecimal("33.33"));
+        pairs.put("user3", new BigDecimal("33.34"));
+        pairs.put("user4", new BigDecimal("-20.00"));
+        when(balanceLedgerService.getUserPairBalances("user1")).thenReturn(pairs);
 
         UserBalanceResponse response = expenseService.calculateUserBalance("user1");
 
         assertNotNull(response);
         assertEquals("user1", response.getUserId());
-        // net = 66.67 - 33.33 = 33.34 > 0
-        assertTrue(response.getNetBalance().compareTo(BigDecimal.ZERO) > 0);
+        assertEquals(0, new BigDecimal("66.67").compareTo(response.getTotalPaid()));
+        assertEquals(0, new BigDecimal("20.00").compareTo(response.getTotalOwed()));
+        assertEquals(0, new BigDecimal("46.67").compareTo(response.getNetBalance()));
+        assertEquals(0, new BigDecimal("33.34").compareTo(response.getBalances().get("user3")));
+        verifyNoInteractions(expenseRepository);
     }
 
     @Test
-    void calculateGroupBalances_ShouldReturnBalancesForAllUsers() {
-        when(expenseRepository.findByGroupIdAndIsActiveTrueOrderByDateDesc(1L))
-                .thenReturn(Arrays.asList(expense));
+    void calculateUserBalance_WithAsOfShouldReadTheJournal() {
+        LocalDateTime asOf = LocalDateTime.of(2024, 3, 1, 12, 0);
+        when(balanceHistoryService.getUserPairBalancesAsOf("user1", asOf))
+                .thenReturn(Map.of("user2", new BigDecimal("-15.00")));
+
+        UserBalanceResponse response = expenseService.calculateUserBalance("user1", asOf);
+
+        assertEquals(asOf, response.getAsOf());
+        assertEquals(0, new BigDecimal("15.00").compareTo(response.getTotalOwed()));
+        assertEquals(0, new BigDecimal("-15.00").compareTo(response.getNetBalance()));
+        verifyNoInteractions(balanceLedgerService);
+    }
+
+    @Test
+    void calculateGroupBalances_ShouldReadFromLedger() {
+        Map<String, BigDecimal> ledger = new HashMap<>();
+        ledger.put("user1", new BigDecimal("66.67"));
+        ledger.put("user2", new BigDecimal("-33.33"));
+        ledger.put("user3", new BigDecimal("-33.34"));
+        when(balanceLedgerService.getGroupBalances(1L)).thenReturn(ledger);
 
         Map<String, BigDecimal> balances = expenseService.calculateGroupBalances(1L);
 
@@ -251,5 +447,17 @@ class ExpenseServiceTest {
         assertTrue(balances.get("user2").compareTo(BigDecimal.ZERO) < 0);
         // user3 owes 33.34
         assertTrue(balances.get("user3").compareTo(BigDecimal.ZERO) < 0);
+        // no expense rows are touched on the read path
+        verifyNoInteractions(expenseRepository);
+    }
+
+    @Test
+    void calculateFriendNetBalance_ShouldReadFromPairLedger() {
+        when(balanceLedgerService.getPairBalance("user1", "user2")).thenReturn(new BigDecimal("33.33"));
+
+        BigDecimal balance = expenseService.calculateFriendNetBalance("user1", "user2");
+
+        assertEquals(0, new BigDecimal("33.33").compareTo(balance));
+        verifyNoInteractions(expenseRepository);
     }
 }
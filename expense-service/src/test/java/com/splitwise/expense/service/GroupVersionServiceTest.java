@@ -0,0 +1,106 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.events.SettlementEvent;
+import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.dto.ExpenseResponse;
+import com.splitwise.expense.model.SplitType;
+import com.splitwise.expense.support.ExpenseServiceSliceTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExpenseServiceSliceTest
+@Import(SettlementLedgerService.class)
+class GroupVersionServiceTest {
+
+    private static final Long GROUP_ID = 3L;
+
+    @Autowired
+    private GroupVersionService groupVersionService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private SettlementLedgerService settlementLedgerService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void everyGroupWrite_bumpsTheVersion() {
+        assertEquals(0, version());
+
+        ExpenseResponse expense = expenseService.createExpense(groupExpense("30.00"), "alice");
+        assertEquals(1, version());
+
+        expenseService.updateExpense(expense.getId(), groupExpense("45.00"), "alice");
+        assertEquals(2, version());
+
+        settlementLedgerService.applySettlement(SettlementEvent.builder()
+                .eventType("SETTLEMENT_CREATED")
+                .settlementId(1L)
+                .groupId(GROUP_ID)
+                .payerUserId("bob")
+                .payeeUserId("alice")
+                .amount(new BigDecimal("15.00"))
+                .build());
+        assertEquals(3, version());
+
+        expenseService.deleteExpense(expense.getId(), "alice");
+        assertEquals(4, version());
+    }
+
+    @Test
+    void friendExpenses_leaveGroupVersionsAlone() {
+        expenseService.createExpense(CreateExpenseRequest.builder()
+                .description("Coffee")
+                .amount(new BigDecimal("8.00"))
+                .friendUserId("bob")
+                .paidBy("alice")
+                .splitType(SplitType.EQUAL)
+                .participantIds(List.of("alice", "bob"))
+                .build(), "alice");
+
+        assertEquals(0, version());
+    }
+
+    @Test
+    void etag_changesWithTheVersionOnly() {
+        String unchanged = groupVersionService.getEtag(GROUP_ID);
+        assertEquals(unchanged, groupVersionService.getEtag(GROUP_ID));
+
+        groupVersionService.bumpAll(List.of(GROUP_ID, GROUP_ID));
+
+        assertEquals(1, version());
+        assertNotEquals(unchanged, groupVersionService.getEtag(GROUP_ID));
+        assertEquals("\"" + GROUP_ID + "-1\"", groupVersionService.getEtag(GROUP_ID));
+    }
+
+    /**
+     * Read through a cleared persistence context; the bumps are bulk updates that bypass
+     * version rows the test's persistence context already holds
+     */
+    private long version() {
+        entityManager.flush();
+        entityManager.clear();
+        return groupVersionService.getVersion(GROUP_ID);
+    }
+
+    private static CreateExpenseRequest groupExpense(String amount) {
+        return CreateExpenseRequest.builder()
+                .description("Groceries")
+                .amount(new BigDecimal(amount))
+                .groupId(GROUP_ID)
+                .paidBy("alice")
+                .splitType(SplitType.EQUAL)
+                .participantIds(List.of("alice", "bob", "carol"))
+                .build();
+    }
+}
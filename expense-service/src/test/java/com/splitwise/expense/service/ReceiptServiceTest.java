@@ -0,0 +1,73 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.exception.BadRequestException;
+import com.splitwise.expense.exception.UnauthorizedException;
+import com.splitwise.expense.storage.BlobStore;
+import com.splitwise.expense.storage.StoredBlob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReceiptServiceTest {
+
+    @Mock
+    private ExpenseService expenseService;
+
+    @Mock
+    private BlobStore blobStore;
+
+    @InjectMocks
+    private ReceiptService receiptService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(receiptService, "maxSize", DataSize.ofMegabytes(10));
+    }
+
+    @Test
+    void uploadReceipt_StoresTheFileThenAttachesIt() throws IOException {
+        InputStream content = new ByteArrayInputStream(new byte[]{1, 2, 3});
+        StoredBlob blob = new StoredBlob("ab".repeat(32), 3);
+        when(blobStore.put(content, DataSize.ofMegabytes(10).toBytes())).thenReturn(blob);
+
+        receiptService.uploadReceipt(1L, content, "image/jpeg;name=receipt.jpg", "user1");
+
+        verify(expenseService).checkReceiptEditable(1L, "user1");
+        verify(expenseService).attachReceipt(1L, blob, "image/jpeg", "user1");
+    }
+
+    @Test
+    void uploadReceipt_WhenUnauthorized_StoresNothing() throws IOException {
+        doThrow(new UnauthorizedException("no")).when(expenseService).checkReceiptEditable(1L, "user2");
+
+        assertThrows(UnauthorizedException.class,
+                () -> receiptService.uploadReceipt(1L, InputStream.nullInputStream(), "image/png", "user2"));
+        verify(blobStore, never()).put(any(), anyLong());
+    }
+
+    @Test
+    void uploadReceipt_RejectsOtherContentTypes() throws IOException {
+        assertThrows(BadRequestException.class,
+                () -> receiptService.uploadReceipt(1L, InputStream.nullInputStream(), "text/html", "user1"));
+        assertThrows(BadRequestException.class,
+                () -> receiptService.uploadReceipt(1L, InputStream.nullInputStream(), "not a type", "user1"));
+        assertThrows(BadRequestException.class,
+                () -> receiptService.uploadReceipt(1L, InputStream.nullInputStream(), null, "user1"));
+        verifyNoInteractions(expenseService, blobStore);
+    }
+}
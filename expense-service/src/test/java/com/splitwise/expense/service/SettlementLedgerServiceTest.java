@@ -0,0 +1,122 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.events.SettlementEvent;
+import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.dto.UserBalanceResponse;
+import com.splitwise.expense.model.SplitType;
+import com.splitwise.expense.support.ExpenseServiceSliceTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExpenseServiceSliceTest
+@Import(SettlementLedgerService.class)
+class SettlementLedgerServiceTest {
+
+    private static final Long GROUP_ID = 5L;
+
+    @Autowired
+    private SettlementLedgerService settlementLedgerService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void groupSettlement_netsOutTheDebtInEveryBalanceRead() {
+        // alice pays 30.00 for three: bob and carol owe her 10.00 each
+        createGroupExpense();
+
+        assertTrue(settlementLedgerService.applySettlement(settlement(1L, "SETTLEMENT_CREATED", GROUP_ID, "bob", "alice", "10.00")));
+
+        Map<String, BigDecimal> group = read(() -> expenseService.calculateGroupBalances(GROUP_ID));
+        assertEquals(0, new BigDecimal("10.00").compareTo(group.get("alice")));
+        assertFalse(group.containsKey("bob"));
+        assertEquals(0, new BigDecimal("-10.00").compareTo(group.get("carol")));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(read(() -> expenseService.calculateFriendNetBalance("alice", "bob"))));
+
+        UserBalanceResponse alice = read(() -> expenseService.calculateUserBalance("alice"));
+        assertEquals(1, alice.getBalances().size());
+        assertEquals(0, new BigDecimal("10.00").compareTo(alice.getBalances().get("carol")));
+        assertEquals(0, new BigDecimal("10.00").compareTo(alice.getNetBalance()));
+    }
+
+    @Test
+    void repeatedEvents_applyASettlementOnce() {
+        createGroupExpense();
+        SettlementEvent created = settlement(2L, "SETTLEMENT_CREATED", GROUP_ID, "carol", "alice", "4.00");
+        SettlementEvent completed = settlement(2L, "SETTLEMENT_COMPLETED", GROUP_ID, "carol", "alice", "4.00");
+
+        assertTrue(settlementLedgerService.applySettlement(created));
+        assertFalse(settlementLedgerService.applySettlement(created));
+        assertFalse(settlementLedgerService.applySettlement(completed));
+
+        assertEquals(0, new BigDecimal("-6.00").compareTo(read(() -> expenseService.calculateGroupBalances(GROUP_ID)).get("carol")));
+        assertEquals(0, new BigDecimal("6.00").compareTo(read(() -> expenseService.calculateFriendNetBalance("alice", "carol"))));
+    }
+
+    @Test
+    void friendSettlement_onlyMovesThePairBalance() {
+        createGroupExpense();
+
+        settlementLedgerService.applySettlement(settlement(3L, "SETTLEMENT_CREATED", null, "bob", "alice", "15.00"));
+
+        // bob overpaid by 5.00, so alice now owes him
+        assertEquals(0, new BigDecimal("-5.00").compareTo(read(() -> expenseService.calculateFriendNetBalance("alice", "bob"))));
+        assertEquals(0, new BigDecimal("-10.00").compareTo(read(() -> expenseService.calculateGroupBalances(GROUP_ID)).get("bob")));
+    }
+
+    @Test
+    void eventsWithoutAValidPayment_areIgnored() {
+        assertFalse(settlementLedgerService.applySettlement(settlement(null, "SETTLEMENT_CREATED", GROUP_ID, "bob", "alice", "1.00")));
+        assertFalse(settlementLedgerService.applySettlement(settlement(4L, "SETTLEMENT_CREATED", GROUP_ID, "bob", "bob", "1.00")));
+        assertFalse(settlementLedgerService.applySettlement(settlement(5L, "SETTLEMENT_CREATED", GROUP_ID, "bob", "alice", "0.00")));
+
+        assertTrue(read(() -> expenseService.calculateGroupBalances(GROUP_ID)).isEmpty());
+    }
+
+    /**
+     * Read through a cleared persistence context; the ledger upserts are bulk updates that
+     * bypass ledger rows the test's persistence context already holds
+     */
+    private <T> T read(Supplier<T> reader) {
+        entityManager.flush();
+        entityManager.clear();
+        return reader.get();
+    }
+
+    private void createGroupExpense() {
+        expenseService.createExpense(CreateExpenseRequest.builder()
+                .description("Dinner")
+                .amount(new BigDecimal("30.00"))
+                .groupId(GROUP_ID)
+                .paidBy("alice")
+                .splitType(SplitType.EQUAL)
+                .participantIds(List.of("alice", "bob", "carol"))
+                .build(), "alice");
+    }
+
+    private static SettlementEvent settlement(Long id, String type, Long groupId, String payer, String payee,
+                                              String amount) {
+        return SettlementEvent.builder()
+                .eventType(type)
+                .settlementId(id)
+                .groupId(groupId)
+                .payerUserId(payer)
+                .payeeUserId(payee)
+                .amount(new BigDecimal(amount))
+                .currency("USD")
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.dto.ExpenseResponse;
+import com.splitwise.expense.dto.SpendingSummaryResponse;
+import com.splitwise.expense.exception.BadRequestException;
+import com.splitwise.expense.model.SplitType;
+import com.splitwise.expense.support.ExpenseServiceSliceTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExpenseServiceSliceTest
+class SpendingRollupServiceTest {
+
+    private static final Long GROUP_ID = 3L;
+
+    @Autowired
+    private SpendingRollupService rollupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void writes_keepRollupsInStepWithExpenses() {
+        create("FOOD", "USD", "20.00", "2024-03-03T12:00");
+        create("FOOD", "USD", "10.50", "2024-03-20T19:00");
+        create("FOOD", "EUR", "8.00", "2024-03-21T09:00");
+        ExpenseResponse taxi = create("TRANSPORT", "USD", "15.00", "2024-03-22T23:00");
+        ExpenseResponse deleted = create("FOOD", "USD", "99.00", "2024-03-23T13:00");
+        create(null, "USD", "5.00", "2024-02-10T10:00");
+        createFriendExpense();
+
+        expenseService.updateExpense(taxi.getId(), request("FOOD", "USD", "16.00", null), "alice");
+        expenseService.deleteExpense(deleted.getId(), "alice");
+
+        SpendingSummaryResponse summary = summary("2024-02", "2024-03");
+
+        assertEquals(List.of(
+                row("2024-03", "FOOD", "USD", 3, "46.50"),
+                row("2024-03", "FOOD", "EUR", 1, "8.00"),
+                row("2024-02", SpendingRollupService.UNCATEGORIZED, "USD", 1, "5.00")), summary.getRows());
+    }
+
+    @Test
+    void rebuild_reproducesTheIncrementalRollups() {
+        create("FOOD", "USD", "20.00", "2024-03-03T12:00");
+        ExpenseResponse hotel = create("ACCOMMODATION", "USD", "300.00", "2024-01-15T15:00");
+        create(null, "USD", "5.00", "2024-02-10T10:00");
+        expenseService.deleteExpense(hotel.getId(), "alice");
+        SpendingSummaryResponse incremental = summary("2024-01", "2024-12");
+
+        int rows = rollupService.rebuildGroup(GROUP_ID);
+
+        assertEquals(2, rows);
+        assertEquals(incremental.getRows(), summary("2024-01", "2024-12").getRows());
+    }
+
+    @Test
+    void summary_defaultsToASingleMonthAndRejectsBadRanges() {
+        create("FOOD", "USD", "20.00", "2024-03-03T12:00");
+
+        assertEquals(1, summary("2024-03", null).getRows().size());
+        assertTrue(summary("2024-04", null).getRows().isEmpty());
+        assertThrows(BadRequestException.class, () -> summary("03/2024", null));
+        assertThrows(BadRequestException.class, () -> summary("2024-05", "2024-03"));
+    }
+
+    /**
+     * Read the summary from the database; the rollup upserts are bulk updates that bypass
+     * entities already loaded in the test's persistence context
+     */
+    private SpendingSummaryResponse summary(String from, String to) {
+        entityManager.flush();
+        entityManager.clear();
+        return rollupService.getGroupSummary(GROUP_ID, from, to);
+    }
+
+    private ExpenseResponse create(String category, String currency, String amount, String date) {
+        return expenseService.createExpense(request(category, currency, amount, date), "alice");
+    }
+
+    private void createFriendExpense() {
+        CreateExpenseRequest request = request("FOOD", "USD", "12.00", "2024-03-05T12:00");
+        request.setGroupId(null);
+        request.setFriendUserId("bob");
+        expenseService.createExpense(request, "alice");
+    }
+
+    private static CreateExpenseRequest request(String category, String currency, String amount, String date) {
+        return CreateExpenseRequest.builder()
+                .description("Expense")
+                .amount(new BigDecimal(amount))
+                .currency(currency)
+                .category(category)
+                .groupId(GROUP_ID)
+                .paidBy("alice")
+                .splitType(SplitType.EQUAL)
+                .participantIds(List.of("alice", "bob"))
+                .date(date != null ? LocalDateTime.parse(date) : null)
+                .build();
+    }
+
+    private static SpendingSummaryResponse.Row row(String month, String category, String currency,
+                                                   long count, String total) {
+        return SpendingSummaryResponse.Row.builder()
+                .month(month)
+                .category(category)
+                .currency(currency)
+                .expenseCount(count)
+                .totalAmount(new BigDecimal(total))
+                .build();
+    }
+}
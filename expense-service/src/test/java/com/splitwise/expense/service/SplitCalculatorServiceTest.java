@@ -0,0 +1,311 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.dto.CreateExpenseRequest;
+import com.splitwise.expense.model.ExpenseSplit;
+import com.splitwise.expense.model.SplitType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Property-style checks that the fixed-point split path produces exactly what the
+ * BigDecimal implementation produces: same values, same scales, same errors.
+ */
+class SplitCalculatorServiceTest {
+
+    private static final int RUNS = 3_000;
+
+    private final SplitCalculatorService calculator = new SplitCalculatorService();
+
+    @Test
+    void equalSplits_MatchDecimalImplementation() {
+        Random random = new Random(42);
+        for (int run = 0; run < RUNS; run++) {
+            CreateExpenseRequest request = baseRequest(random, SplitType.EQUAL);
+            request.setParticipantIds(userIds(1 + random.nextInt(60)));
+            assertEquivalent(request);
+        }
+    }
+
+    @Test
+    void exactSplits_MatchDecimalImplementation() {
+        Random random = new Random(43);
+        for (int run = 0; run < RUNS; run++) {
+            CreateExpenseRequest request = baseRequest(random, SplitType.EXACT);
+            Map<String, BigDecimal> shares = shares(random, request.getAmount(), 1 + random.nextInt(30));
+            if (random.nextInt(5) == 0) {
+                // Off by one minor unit: both paths must reject with the same message
+                shares.replaceAll((user, share) -> share.add(new BigDecimal("0.01")));
+            }
+            request.setExactAmounts(shares);
+            assertEquivalent(request);
+        }
+    }
+
+    @Test
+    void percentageSplits_MatchDecimalImplementation() {
+        Random random = new Random(44);
+        for (int run = 0; run < RUNS; run++) {
+            CreateExpenseRequest request = baseRequest(random, SplitType.PERCENTAGE);
+            Map<String, BigDecimal> percentages = shares(random, BigDecimal.valueOf(100).setScale(random.nextInt(4)),
+                    1 + random.nextInt(30));
+            if (random.nextInt(5) == 0) {
+                percentages.replaceAll((user, pct) -> pct.add(new BigDecimal("0.5")));
+            }
+            request.setPercentages(percentages);
+            assertEquivalent(request);
+        }
+    }
+
+    @Test
+    void percentageSplits_OutOfLongRangeFallsBackToDecimal() {
+        CreateExpenseRequest request = CreateExpenseRequest.builder()
+                .amount(new BigDecimal("100.00"))
+                .paidBy("user-0")
+                .splitType(SplitType.PERCENTAGE)
+                .percentages(new LinkedHashMap<>(Map.of(
+                        "user-0", new BigDecimal("33.3333333333333333333"),
+                        "user-1", new BigDecimal("66.6666666666666666667"))))
+                .build();
+
+        assertEquivalent(request);
+    }
+
+    @Test
+    void shareSplits_MatchDecimalImplementation() {
+        Random random = new Random(45);
+        for (int run = 0; run < RUNS; run++) {
+            CreateExpenseRequest request = baseRequest(random, SplitType.SHARES);
+            Map<String, BigDecimal> shares = new LinkedHashMap<>();
+            int scale = random.nextInt(3);
+            for (String userId : userIds(1 + random.nextInt(30))) {
+                // Now and then a zero share: both paths must reject with the same message
+                shares.put(userId, BigDecimal.valueOf(random.nextInt(run % 7 == 0 ? 20 : 2_000), scale));
+            }
+            request.setShares(shares);
+            assertEquivalent(request);
+        }
+    }
+
+    @Test
+    void adjustmentSplits_MatchDecimalImplementation() {
+        Random random = new Random(46);
+        for (int run = 0; run < RUNS; run++) {
+            CreateExpenseRequest request = baseRequest(random, SplitType.ADJUSTMENT);
+            List<String> participantIds = userIds(1 + random.nextInt(60));
+            long bound = request.getAmount().unscaledValue().longValueExact() / participantIds.size() + 1;
+            Map<String, BigDecimal> adjustments = new LinkedHashMap<>();
+            for (String userId : participantIds) {
+                if (random.nextInt(3) == 0) {
+                    // Mostly within the equal share; large ones drive shares negative or past the total
+                    long adjustment = random.nextLong(-bound, 3 * bound);
+                    adjustments.put(userId, BigDecimal.valueOf(adjustment, request.getAmount().scale()));
+                }
+            }
+            if (random.nextInt(20) == 0) {
+                adjustments.put("outsider", BigDecimal.ONE);
+            }
+            request.setParticipantIds(participantIds);
+            request.setAdjustments(adjustments);
+            assertEquivalent(request);
+        }
+    }
+
+    @Test
+    void equalSplit_LeftoverCentsGoToTheFirstParticipants() {
+        List<ExpenseSplit> splits = calculator.calculateSplits(CreateExpenseRequest.builder()
+                .amount(new BigDecimal("100.00"))
+                .paidBy("user-0")
+                .splitType(SplitType.EQUAL)
+                .participantIds(userIds(3))
+                .build());
+
+        assertAmounts(splits, "33.34", "33.33", "33.33");
+        assertTrue(splits.get(0).isPaid());
+    }
+
+    @Test
+    void percentageSplit_LeftoverCentGoesToTheLargestRemainder() {
+        Map<String, BigDecimal> percentages = new LinkedHashMap<>();
+        percentages.put("user-0", new BigDecimal("16.5"));
+        percentages.put("user-1", new BigDecimal("16.7"));
+        percentages.put("user-2", new BigDecimal("66.8"));
+
+        // Exact shares 1.65, 1.67, 6.68 of 10.00 would need no rounding; of 10.01 they are
+        // 1.65165, 1.67167, 6.68668, and the cent lost to flooring goes to user-2 (0.668 of a cent)
+        List<ExpenseSplit> splits = calculator.calculateSplits(CreateExpenseRequest.builder()
+                .amount(new BigDecimal("10.01"))
+                .paidBy("user-0")
+                .splitType(SplitType.PERCENTAGE)
+                .percentages(percentages)
+                .build());
+
+        assertAmounts(splits, "1.65", "1.67", "6.69");
+        assertEquals(new BigDecimal("66.8"), splits.get(2).getPercentage());
+    }
+
+    @Test
+    void shareSplit_DividesByWeight() {
+        Map<String, BigDecimal> shares = new LinkedHashMap<>();
+        shares.put("user-0", BigDecimal.ONE);
+        shares.put("user-1", BigDecimal.valueOf(2));
+        shares.put("user-2", new BigDecimal("0.5"));
+
+        List<ExpenseSplit> splits = calculator.calculateSplits(CreateExpenseRequest.builder()
+                .amount(new BigDecimal("100.00"))
+                .paidBy("user-1")
+                .splitType(SplitType.SHARES)
+                .shares(shares)
+                .build());
+
+        // 28.5714..., 57.1428..., 14.2857...: the leftover cent goes to the largest remainder
+        assertAmounts(splits, "28.57", "57.14", "14.29");
+        assertTrue(splits.get(1).isPaid());
+    }
+
+    @Test
+    void adjustmentSplit_AddsAdjustmentsToEqualShares() {
+        List<ExpenseSplit> splits = calculator.calculateSplits(CreateExpenseRequest.builder()
+                .amount(new BigDecimal("120.00"))
+                .paidBy("user-0")
+                .splitType(SplitType.ADJUSTMENT)
+                .participantIds(userIds(3))
+                .adjustments(Map.of("user-1", new BigDecimal("30.00"), "user-2", new BigDecimal("-5")))
+                .build());
+
+        // 95.00 left to split equally: 31.67, 31.67, 31.66
+        assertAmounts(splits, "31.67", "61.67", "26.66");
+    }
+
+    @Test
+    void adjustmentSplit_RejectsImpossibleAdjustments() {
+        CreateExpenseRequest request = CreateExpenseRequest.builder()
+                .amount(new BigDecimal("20.00"))
+                .paidBy("user-0")
+                .splitType(SplitType.ADJUSTMENT)
+                .participantIds(userIds(2))
+                .build();
+
+        request.setAdjustments(Map.of("user-0", new BigDecimal("25.00")));
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculateSplits(request));
+
+        request.setAdjustments(Map.of("user-0", new BigDecimal("-25.00")));
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculateSplits(request));
+
+        request.setAdjustments(Map.of("someone-else", new BigDecimal("1.00")));
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculateSplits(request));
+    }
+
+    @Test
+    void largeSplits_AreWithinACentOfTheExactShare() {
+        List<String> participantIds = userIds(1_000);
+        Map<String, BigDecimal> shares = new LinkedHashMap<>();
+        for (int i = 0; i < participantIds.size(); i++) {
+            shares.put(participantIds.get(i), BigDecimal.valueOf(1 + i % 3));
+        }
+        BigDecimal shareSum = shares.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal total = new BigDecimal("12345.67");
+
+        List<ExpenseSplit> splits = calculator.calculateSplits(CreateExpenseRequest.builder()
+                .amount(total)
+                .paidBy("user-0")
+                .splitType(SplitType.SHARES)
+                .shares(shares)
+                .build());
+
+        BigDecimal sum = BigDecimal.ZERO;
+        for (ExpenseSplit split : splits) {
+            BigDecimal exact = total.multiply(shares.get(split.getUserId()))
+                    .divide(shareSum, 10, RoundingMode.HALF_UP);
+            assertTrue(split.getAmount().subtract(exact).abs().compareTo(new BigDecimal("0.01")) < 0, split.getUserId());
+            sum = sum.add(split.getAmount());
+        }
+        assertEquals(total, sum);
+    }
+
+    private static void assertAmounts(List<ExpenseSplit> splits, String... amounts) {
+        assertEquals(amounts.length, splits.size());
+        for (int i = 0; i < amounts.length; i++) {
+            assertEquals(new BigDecimal(amounts[i]), splits.get(i).getAmount(), "split " + i);
+        }
+    }
+
+    private void assertEquivalent(CreateExpenseRequest request) {
+        List<ExpenseSplit> expected = outcome(() -> calculator.calculateSplitsDecimal(request));
+        List<ExpenseSplit> actual = outcome(() -> calculator.calculateSplits(request));
+        assertEquals(expected.size(), actual.size(), () -> describe(request));
+        for (int i = 0; i < expected.size(); i++) {
+            ExpenseSplit e = expected.get(i);
+            ExpenseSplit a = actual.get(i);
+            String context = describe(request) + " split " + i;
+            assertEquals(e.getUserId(), a.getUserId(), context);
+            // equals, not compareTo: the scale must match too
+            assertEquals(e.getAmount(), a.getAmount(), context);
+            assertEquals(e.getPercentage(), a.getPercentage(), context);
+            assertEquals(e.isPaid(), a.isPaid(), context);
+        }
+    }
+
+    /**
+     * The splits, or a single marker split carrying the exception message when the request is rejected
+     */
+    private static List<ExpenseSplit> outcome(Supplier<List<ExpenseSplit>> calculation) {
+        try {
+            return calculation.get();
+        } catch (IllegalArgumentException e) {
+            return List.of(ExpenseSplit.builder().userId("rejected: " + e.getMessage()).build());
+        }
+    }
+
+    private static CreateExpenseRequest baseRequest(Random random, SplitType splitType) {
+        // Mostly cents, sometimes whole units or a third fraction digit
+        int scale = random.nextInt(10) == 0 ? random.nextInt(4) : 2;
+        long unscaled = 1 + (random.nextInt(4) == 0 ? random.nextLong() >>> 30 : random.nextInt(1_000_000));
+        return CreateExpenseRequest.builder()
+                .description("generated")
+                .amount(BigDecimal.valueOf(unscaled, scale))
+                .paidBy("user-" + random.nextInt(5))
+                .splitType(splitType)
+                .build();
+    }
+
+    private static List<String> userIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add("user-" + i);
+        }
+        return ids;
+    }
+
+    /**
+     * Random positive shares of total (same scale as total) that add up to it exactly
+     */
+    private static Map<String, BigDecimal> shares(Random random, BigDecimal total, int count) {
+        long remaining = total.unscaledValue().longValueExact();
+        Map<String, BigDecimal> shares = new LinkedHashMap<>();
+        for (int i = 0; i < count - 1 && remaining > 1; i++) {
+            long share = 1 + (long) (random.nextDouble() * (remaining - 1) / (count - i));
+            shares.put("user-" + i, BigDecimal.valueOf(share, total.scale()));
+            remaining -= share;
+        }
+        shares.put("user-" + (count - 1), BigDecimal.valueOf(remaining, total.scale()));
+        return shares;
+    }
+
+    private static String describe(CreateExpenseRequest request) {
+        return request.getSplitType() + " of " + request.getAmount() + " "
+                + (request.getAdjustments() != null ? request.getParticipantIds().size() + " participants " + request.getAdjustments()
+                : request.getParticipantIds() != null ? request.getParticipantIds().size() + " participants"
+                : request.getExactAmounts() != null ? request.getExactAmounts()
+                : request.getShares() != null ? request.getShares() : request.getPercentages());
+    }
+}
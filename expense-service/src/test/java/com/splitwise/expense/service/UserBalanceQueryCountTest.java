@@ -0,0 +1,78 @@
+package com.splitwise.expense.service;
+
+import com.splitwise.expense.model.Expense;
+import com.splitwise.expense.model.ExpenseSplit;
+import com.splitwise.expense.model.SplitType;
+import com.splitwise.expense.repository.ExpenseRepository;
+import com.splitwise.expense.support.ExpenseServiceSliceTest;
+import com.splitwise.expense.support.StatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the balance summary behind /api/expenses/balance against N+1 regressions:
+ * the number of SQL statements must not depend on how many expenses the user has.
+ */
+@ExpenseServiceSliceTest(properties = StatementCounter.STATISTICS)
+class UserBalanceQueryCountTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void calculateUserBalance_statementCountIsIndependentOfExpenseCount() {
+        seedExpenses(5);
+        long fewExpenses = countStatements();
+
+        seedExpenses(200);
+        long manyExpenses = countStatements();
+
+        assertEquals(fewExpenses, manyExpenses);
+    }
+
+    private long countStatements() {
+        return new StatementCounter(entityManager).count(() -> expenseService.calculateUserBalance("alice"));
+    }
+
+    private void seedExpenses(int count) {
+        for (int i = 0; i < count; i++) {
+            String payer = i % 2 == 0 ? "alice" : "bob";
+            Expense expense = Expense.builder()
+                    .description("Expense " + i)
+                    .amount(new BigDecimal("30.00"))
+                    .groupId(1L)
+                    .paidBy(payer)
+                    .createdBy(payer)
+                    .splitType(SplitType.EQUAL)
+                    .date(LocalDateTime.now())
+                    .isActive(true)
+                    .splits(new ArrayList<>())
+                    .build();
+
+            for (String userId : List.of("alice", "bob", "carol")) {
+                expense.getSplits().add(ExpenseSplit.builder()
+                        .userId(userId)
+                        .amount(new BigDecimal("10.00"))
+                        .isPaid(userId.equals(payer))
+                        .expense(expense)
+                        .build());
+            }
+
+            expenseRepository.save(expense);
+        }
+    }
+}
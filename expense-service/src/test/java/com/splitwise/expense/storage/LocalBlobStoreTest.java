@@ -0,0 +1,108 @@
+package com.splitwise.expense.storage;
+
+import com.splitwise.expense.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalBlobStoreTest {
+
+    // SHA-256 of "hello"
+    private static final String HELLO_KEY = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    private Path root;
+
+    private LocalBlobStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new LocalBlobStore(root);
+    }
+
+    @Test
+    void put_KeysTheBlobByItsSha256() throws IOException {
+        StoredBlob blob = store.put(stream("hello".getBytes(StandardCharsets.UTF_8)), 100);
+
+        assertEquals(HELLO_KEY, blob.key());
+        assertEquals(5, blob.size());
+        assertTrue(store.exists(HELLO_KEY));
+        assertTrue(Files.exists(root.resolve("2c").resolve("f2").resolve(HELLO_KEY)));
+        assertEquals(root.resolve("2c").resolve("f2").resolve(HELLO_KEY), store.localFile(HELLO_KEY));
+    }
+
+    @Test
+    void put_StoresIdenticalContentOnce() throws IOException {
+        byte[] content = randomBytes(300_000);
+
+        StoredBlob first = store.put(stream(content), 1_000_000);
+        StoredBlob second = store.put(stream(content), 1_000_000);
+
+        assertEquals(first, second);
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    void put_RejectsContentOverTheLimitAndKeepsNothing() throws IOException {
+        assertThrows(BadRequestException.class, () -> store.put(stream(randomBytes(100_001)), 100_000));
+
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    void transferTo_WritesTheRequestedRange() throws IOException {
+        byte[] content = randomBytes(200_000);
+        StoredBlob blob = store.put(stream(content), 1_000_000);
+
+        ByteArrayOutputStream whole = new ByteArrayOutputStream();
+        store.transferTo(blob.key(), 0, content.length, Channels.newChannel(whole));
+        assertArrayEquals(content, whole.toByteArray());
+
+        ByteArrayOutputStream range = new ByteArrayOutputStream();
+        store.transferTo(blob.key(), 70_000, 100_000, Channels.newChannel(range));
+        assertArrayEquals(Arrays.copyOfRange(content, 70_000, 170_000), range.toByteArray());
+    }
+
+    @Test
+    void transferTo_FailsPastTheEndOfTheBlob() throws IOException {
+        store.put(stream("hello".getBytes(StandardCharsets.UTF_8)), 100);
+
+        assertThrows(IOException.class,
+                () -> store.transferTo(HELLO_KEY, 3, 10, Channels.newChannel(new ByteArrayOutputStream())));
+    }
+
+    @Test
+    void keysThatAreNotADigest_AreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> store.exists("../../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> store.exists(HELLO_KEY.toUpperCase()));
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static ByteArrayInputStream stream(byte[] content) {
+        return new ByteArrayInputStream(content);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
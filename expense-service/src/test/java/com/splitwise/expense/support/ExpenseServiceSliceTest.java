@@ -0,0 +1,46 @@
+package com.splitwise.expense.support;
+
+import com.splitwise.expense.event.ExpenseEventProducer;
+import com.splitwise.expense.service.BalanceHistoryService;
+import com.splitwise.expense.service.BalanceLedgerService;
+import com.splitwise.expense.service.ExpenseHistoryService;
+import com.splitwise.expense.service.ExpenseSearchService;
+import com.splitwise.expense.service.ExpenseService;
+import com.splitwise.expense.service.GroupVersionService;
+import com.splitwise.expense.service.SpendingRollupService;
+import com.splitwise.expense.service.SplitCalculatorService;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A JPA slice on H2 with {@link ExpenseService} and the services it writes through, the event
+ * producer mocked. Further services under test are added with {@code @Import} on the test class.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ExpenseService.class, SplitCalculatorService.class, BalanceLedgerService.class, SpendingRollupService.class,
+        BalanceHistoryService.class, GroupVersionService.class, ExpenseSearchService.class,
+        ExpenseHistoryService.class})
+@MockBean(ExpenseEventProducer.class)
+public @interface ExpenseServiceSliceTest {
+
+    /**
+     * Properties to add to the environment, as for {@link DataJpaTest#properties}
+     */
+    @AliasFor(annotation = DataJpaTest.class)
+    String[] properties() default {};
+}
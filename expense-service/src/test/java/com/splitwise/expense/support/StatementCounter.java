@@ -0,0 +1,50 @@
+package com.splitwise.expense.support;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements Hibernate prepares for one service call, starting from an empty
+ * persistence context and including the flush of whatever the call changed.
+ * Needs {@code @DataJpaTest(properties = StatementCounter.STATISTICS)}.
+ */
+public final class StatementCounter {
+
+    public static final String STATISTICS = "spring.jpa.properties.hibernate.generate_statistics=true";
+
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled(), "Hibernate statistics are off, set " + STATISTICS);
+    }
+
+    /**
+     * Number of statements prepared by the action
+     */
+    public long count(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        action.run();
+        entityManager.flush();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Number of statements prepared by the action, failing if it exceeds the budget
+     */
+    public long assertAtMost(long budget, String description, Runnable action) {
+        long statements = count(action);
+        assertTrue(statements <= budget,
+                () -> description + " prepared " + statements + " statements, budget is " + budget);
+        return statements;
+    }
+}
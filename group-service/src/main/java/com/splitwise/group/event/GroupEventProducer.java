@@ -1,5 +1,6 @@
 package com.splitwise.group.event;
 
+import com.splitwise.events.GroupEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -6,11 +6,18 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "group_members")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "group-members")
+@NaturalIdCache(region = "group-members.natural-id")
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,6 +28,8 @@ public class GroupMember {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // (group, userId) is the natural ID: one membership per user and group
+    @NaturalId
     @Column(nullable = false)
     private String userId;
 
@@ -32,6 +41,7 @@ public class GroupMember {
     @Column(nullable = false)
     private LocalDateTime joinedAt = LocalDateTime.now();
 
+    @NaturalId
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "group_id", nullable = false)
     @JsonIgnore
@@ -0,0 +1,17 @@
+package com.splitwise.group.repository;
+
+import com.splitwise.group.model.GroupMember;
+
+import java.util.Optional;
+
+/**
+ * Membership lookups by the (group, user) natural ID of {@link GroupMember}
+ */
+public interface GroupMemberLookup {
+
+    /**
+     * The membership of a user in a group. Resolved through the natural-ID and entity caches
+     * when the second-level cache is enabled, so a repeated lookup runs no statement.
+     */
+    Optional<GroupMember> findByGroupIdAndUserId(Long groupId, String userId);
+}
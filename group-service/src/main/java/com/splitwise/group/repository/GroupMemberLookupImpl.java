@@ -0,0 +1,27 @@
+package com.splitwise.group.repository;
+
+import com.splitwise.group.model.Group;
+import com.splitwise.group.model.GroupMember;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+class GroupMemberLookupImpl implements GroupMemberLookup {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<GroupMember> findByGroupIdAndUserId(Long groupId, String userId) {
+        // A reference only carries the group ID; the group itself is not loaded
+        return entityManager.unwrap(Session.class)
+                .byNaturalId(GroupMember.class)
+                .using("group", entityManager.getReference(Group.class, groupId))
+                .using("userId", userId)
+                .loadOptional();
+    }
+}
@@ -8,17 +8,14 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface GroupMemberRepository extends JpaRepository<GroupMember, Long> {
+public interface GroupMemberRepository extends JpaRepository<GroupMember, Long>, GroupMemberLookup {
 
     List<GroupMember> findByGroupId(Long groupId);
 
     List<GroupMember> findByUserId(String userId);
 
-    Optional<GroupMember> findByGroupIdAndUserId(Long groupId, String userId);
-
     boolean existsByGroupIdAndUserId(Long groupId, String userId);
 
     @Modifying
@@ -12,7 +12,13 @@ import java.util.Optional;
 @Repository
 public interface GroupRepository extends JpaRepository<Group, Long> {
 
-    Optional<Group> findByIdAndIsActiveTrue(Long id);
+    /**
+     * An active group. A by-ID load plus the soft-delete check rather than a query, so a group
+     * held in the second-level cache is returned without any statement.
+     */
+    default Optional<Group> findByIdAndIsActiveTrue(Long id) {
+        return findById(id).filter(Group::isActive);
+    }
 
     List<Group> findByCreatedByAndIsActiveTrue(String createdBy);
 
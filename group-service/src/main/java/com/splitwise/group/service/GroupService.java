@@ -1,11 +1,9 @@
 package com.splitwise.group.service;
 
-import com.splitwise.group.client.ActivityClient;
-import com.splitwise.group.client.ActivityRequest;
+import com.splitwise.events.GroupEvent;
 import com.splitwise.group.client.EmailNotificationClient;
 import com.splitwise.group.client.GroupInvitationEmailRequest;
 import com.splitwise.group.client.UserClient;
-import com.splitwise.group.event.GroupEvent;
 import com.splitwise.group.event.GroupEventProducer;
 import com.splitwise.group.dto.*;
 import com.splitwise.group.exception.BadRequestException;
@@ -22,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -33,7 +32,6 @@ public class GroupService {
     private final GroupRepository groupRepository;
     private final GroupMemberRepository groupMemberRepository;
     private final UserClient userClient;
-    private final ActivityClient activityClient;
     private final EmailNotificationClient emailNotificationClient;
     private final GroupEventProducer groupEventProducer;
 
@@ -65,7 +63,8 @@ public class GroupService {
 
         // Add additional members if provided
         if (request.getMemberIds() != null && !request.getMemberIds().isEmpty()) {
-            for (String memberId : request.getMemberIds()) {
+            // Distinct: (group, user) is unique, a repeated ID would fail the insert
+            for (String memberId : new LinkedHashSet<>(request.getMemberIds())) {
                 if (!memberId.equals(userId)) { // Avoid duplicate creator
                     GroupMember member = GroupMember.builder()
                             .userId(memberId)
@@ -81,10 +80,7 @@ public class GroupService {
         Group savedGroup = groupRepository.save(group);
         log.info("Group created successfully with ID: {}", savedGroup.getId());
 
-        // Log activity
-        logGroupCreatedActivity(savedGroup.getId(), userId, savedGroup.getName());
-
-        // Publish Kafka event
+        // Publish Kafka event (also feeds the activity log)
         groupEventProducer.publishGroupEvent(GroupEvent.builder()
                 .eventType("GROUP_CREATED")
                 .groupId(savedGroup.getId())
@@ -219,9 +215,6 @@ public class GroupService {
         Group updatedGroup = groupRepository.save(group);
         log.info("Member added successfully to group: {}", groupId);
 
-        // Log activity
-        logMemberAddedActivity(groupId, requesterId, request.getUserId(), group.getName());
-
         // Publish Kafka event
         groupEventProducer.publishGroupEvent(GroupEvent.builder()
                 .eventType("MEMBER_ADDED")
@@ -273,8 +266,15 @@ public class GroupService {
         Group updatedGroup = groupRepository.save(group);
         log.info("Member removed successfully from group: {}", groupId);
 
-        // Log activity
-        logMemberRemovedActivity(groupId, requesterId, userIdToRemove, group.getName());
+        // Publish Kafka event
+        groupEventProducer.publishGroupEvent(GroupEvent.builder()
+                .eventType("MEMBER_REMOVED")
+                .groupId(groupId)
+                .groupName(group.getName())
+                .userId(requesterId)
+                .targetUserId(userIdToRemove)
+                .timestamp(LocalDateTime.now())
+                .build());
 
         return mapToGroupResponse(updatedGroup);
     }
@@ -363,59 +363,6 @@ public class GroupService {
                 .build();
     }
 
-    // Activity Logging Helper Methods
-
-    private void logGroupCreatedActivity(Long groupId, String userId, String groupName) {
-        try {
-            ActivityRequest activityRequest = ActivityRequest.builder()
-                    .activityType("GROUP_CREATED")
-                    .userId(userId)
-                    .groupId(groupId)
-                    .description("Created group '" + groupName + "'")
-                    .metadata("{\"groupName\": \"" + groupName + "\"}")
-                    .build();
-
-            activityClient.logActivity(activityRequest);
-        } catch (Exception e) {
-            log.error("Failed to log GROUP_CREATED activity: {}", e.getMessage());
-        }
-    }
-
-    private void logMemberAddedActivity(Long groupId, String addedBy, String newMemberId, String groupName) {
-        try {
-            ActivityRequest activityRequest = ActivityRequest.builder()
-                    .activityType("MEMBER_ADDED")
-                    .userId(addedBy)
-                    .groupId(groupId)
-                    .targetUserId(newMemberId)
-                    .description("Added a member to group '" + groupName + "'")
-                    .metadata("{\"groupName\": \"" + groupName + "\", \"newMemberId\": \"" + newMemberId + "\"}")
-                    .build();
-
-            activityClient.logActivity(activityRequest);
-        } catch (Exception e) {
-            log.error("Failed to log MEMBER_ADDED activity: {}", e.getMessage());
-        }
-    }
-
-    private void logMemberRemovedActivity(Long groupId, String removedBy, String removedMemberId, String groupName) {
-        try {
-            ActivityRequest activityRequest = ActivityRequest.builder()
-                    .activityType("MEMBER_REMOVED")
-                    .userId(removedBy)
-                    .groupId(groupId)
-                    .targetUserId(removedMemberId)
-                    .description("Removed a member from group '" + groupName + "'")
-                    .metadata(
-                            "{\"groupName\": \"" + groupName + "\", \"removedMemberId\": \"" + removedMemberId + "\"}")
-                    .build();
-
-            activityClient.logActivity(activityRequest);
-        } catch (Exception e) {
-            log.error("Failed to log MEMBER_REMOVED activity: {}", e.getMessage());
-        }
-    }
-
     /**
      * Send group invitation email to new member
      */
@@ -0,0 +1,11 @@
+-- A membership is identified by its group and user (the natural ID of GroupMember, which the
+-- second-level cache resolves memberships by). Duplicate rows from before the constraint are
+-- dropped, keeping the oldest membership.
+DELETE FROM group_members duplicate
+USING group_members original
+WHERE duplicate.group_id = original.group_id
+  AND duplicate.user_id = original.user_id
+  AND duplicate.id > original.id;
+
+ALTER TABLE group_members
+    ADD CONSTRAINT uk_group_members_group_user UNIQUE (group_id, user_id);
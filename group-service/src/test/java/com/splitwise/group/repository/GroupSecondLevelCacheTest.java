@@ -0,0 +1,128 @@
+package com.splitwise.group.repository;
+
+import com.splitwise.group.model.Group;
+import com.splitwise.group.model.GroupMember;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction, so every read and write commits in its own persistence context
+ * and the second-level cache sees the same sequence of events as in the service
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GroupSecondLevelCacheTest {
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long groupId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Group group = Group.builder()
+                .name("Trip")
+                .category("TRIP")
+                .createdBy("alice")
+                .build();
+        group.getMembers().add(member(group, "alice", GroupMember.MemberRole.ADMIN));
+        group.getMembers().add(member(group, "bob", GroupMember.MemberRole.MEMBER));
+        groupId = groupRepository.save(group).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        groupRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void repeatedLookups_areServedFromTheCache() {
+        read(() -> groupRepository.findByIdAndIsActiveTrue(groupId).orElseThrow().getMembers().size());
+        read(() -> groupMemberRepository.findByGroupIdAndUserId(groupId, "bob").orElseThrow());
+
+        statistics.clear();
+        assertEquals(2, read(() -> groupRepository.findByIdAndIsActiveTrue(groupId).orElseThrow().getMembers().size()));
+        assertEquals(GroupMember.MemberRole.MEMBER,
+                read(() -> groupMemberRepository.findByGroupIdAndUserId(groupId, "bob").orElseThrow().getRole()));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics("groups").getHitCount() > 0);
+        assertTrue(statistics.getNaturalIdStatistics(GroupMember.class.getName()).getCacheHitCount() > 0);
+    }
+
+    @Test
+    void roleChange_replacesTheCachedMember() {
+        read(() -> groupMemberRepository.findByGroupIdAndUserId(groupId, "bob").orElseThrow());
+
+        transactionTemplate.executeWithoutResult(status -> groupMemberRepository
+                .findByGroupIdAndUserId(groupId, "bob").orElseThrow().setRole(GroupMember.MemberRole.ADMIN));
+
+        assertEquals(GroupMember.MemberRole.ADMIN,
+                read(() -> groupMemberRepository.findByGroupIdAndUserId(groupId, "bob").orElseThrow().getRole()));
+    }
+
+    @Test
+    void removedMember_isNoLongerFound() {
+        read(() -> groupMemberRepository.findByGroupIdAndUserId(groupId, "bob").orElseThrow());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Group group = groupRepository.findByIdAndIsActiveTrue(groupId).orElseThrow();
+            group.getMembers().removeIf(member -> member.getUserId().equals("bob"));
+        });
+
+        assertTrue(read(() -> groupMemberRepository.findByGroupIdAndUserId(groupId, "bob")).isEmpty());
+        assertEquals(1, read(() -> groupRepository.findByIdAndIsActiveTrue(groupId).orElseThrow().getMembers().size()));
+    }
+
+    @Test
+    void softDelete_hidesTheCachedGroup() {
+        read(() -> groupRepository.findByIdAndIsActiveTrue(groupId).orElseThrow());
+
+        transactionTemplate.executeWithoutResult(status ->
+                groupRepository.findByIdAndIsActiveTrue(groupId).orElseThrow().setActive(false));
+
+        assertTrue(read(() -> groupRepository.findByIdAndIsActiveTrue(groupId)).isEmpty());
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        return transactionTemplate.execute(status -> reader.get());
+    }
+
+    private static GroupMember member(Group group, String userId, GroupMember.MemberRole role) {
+        return GroupMember.builder()
+                .group(group)
+                .userId(userId)
+                .role(role)
+                .build();
+    }
+}
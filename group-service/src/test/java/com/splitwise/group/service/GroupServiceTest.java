@@ -4,7 +4,6 @@ import com.splitwise.group.dto.AddMemberRequest;
 import com.splitwise.group.dto.CreateGroupRequest;
 import com.splitwise.group.dto.GroupResponse;
 import com.splitwise.group.dto.UpdateGroupRequest;
-import com.splitwise.group.client.ActivityClient;
 import com.splitwise.group.client.EmailNotificationClient;
 import com.splitwise.group.client.UserClient;
 import com.splitwise.group.event.GroupEventProducer;
@@ -45,9 +44,6 @@ class GroupServiceTest {
     @Mock
     private UserClient userClient;
 
-    @Mock
-    private ActivityClient activityClient;
-
     @Mock
     private EmailNotificationClient emailNotificationClient;
 
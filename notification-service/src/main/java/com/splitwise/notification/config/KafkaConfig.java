@@ -0,0 +1,22 @@
+package com.splitwise.notification.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+@Configuration
+public class KafkaConfig {
+
+    /**
+     * A batch of events fails as a whole when user-service or group-service cannot be reached
+     * for names. It is redelivered with a back-off of up to a minute until it succeeds, so the
+     * feed falls behind during an outage instead of logging placeholder names or dropping events.
+     */
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler() {
+        ExponentialBackOff backOff = new ExponentialBackOff(1000L, 2.0);
+        backOff.setMaxInterval(60_000L);
+        return new DefaultErrorHandler(backOff);
+    }
+}
@@ -0,0 +1,200 @@
+package com.splitwise.notification.event;
+
+import com.splitwise.events.ExpenseEvent;
+import com.splitwise.events.GroupEvent;
+import com.splitwise.events.SettlementEvent;
+import com.splitwise.notification.dto.CreateActivityRequest;
+import com.splitwise.notification.model.ActivityType;
+import com.splitwise.notification.service.ActivityNameResolver;
+import com.splitwise.notification.service.ActivityService;
+import com.splitwise.notification.service.ActivityService.EventActivity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Builds the activity feed from the expense, group and settlement event streams.
+ * Each poll is handled as one batch: one dedupe query and one batched insert per batch,
+ * instead of a REST call per write in the producing services.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityEventConsumer {
+
+    private final ActivityService activityService;
+    private final ActivityNameResolver nameResolver;
+
+    @KafkaListener(topics = "expense-events", groupId = "notification-service", batch = "true")
+    public void consumeExpenseEvents(List<ConsumerRecord<String, ExpenseEvent>> records) {
+        log.debug("Received {} expense events", records.size());
+        activityService.logEventActivities(toActivities(records, this::toActivity, ExpenseEvent::getTimestamp));
+    }
+
+    @KafkaListener(topics = "group-events", groupId = "notification-service", batch = "true")
+    public void consumeGroupEvents(List<ConsumerRecord<String, GroupEvent>> records) {
+        log.debug("Received {} group events", records.size());
+        for (ConsumerRecord<String, GroupEvent> record : records) {
+            if (record.value() != null) {
+                nameResolver.rememberGroup(record.value().getGroupId(), record.value().getGroupName());
+            }
+        }
+        activityService.logEventActivities(toActivities(records, this::toActivity, GroupEvent::getTimestamp));
+    }
+
+    @KafkaListener(topics = "settlement-events", groupId = "notification-service", batch = "true")
+    public void consumeSettlementEvents(List<ConsumerRecord<String, SettlementEvent>> records) {
+        log.debug("Received {} settlement events", records.size());
+        activityService.logEventActivities(toActivities(records, this::toActivity, SettlementEvent::getTimestamp));
+    }
+
+    /**
+     * Activities for the records of a batch; records that could not be deserialized or
+     * that do not describe group activity are skipped
+     */
+    private static <T> List<EventActivity> toActivities(List<ConsumerRecord<String, T>> records,
+                                                        Function<T, CreateActivityRequest> mapper,
+                                                        Function<T, LocalDateTime> timestamp) {
+        List<EventActivity> activities = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, T> record : records) {
+            if (record.value() == null) {
+                log.warn("Skipping unreadable event at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            CreateActivityRequest request = mapper.apply(record.value());
+            if (request != null) {
+                String eventKey = record.topic() + "-" + record.partition() + "@" + record.offset();
+                activities.add(new EventActivity(eventKey, request, timestamp.apply(record.value())));
+            }
+        }
+        return activities;
+    }
+
+    private CreateActivityRequest toActivity(ExpenseEvent event) {
+        String actor = event.getActorUserId() != null ? event.getActorUserId() : event.getPaidByUserId();
+        if (event.getGroupId() == null || actor == null) {
+            return null; // Friend expenses have no group feed
+        }
+
+        ActivityType type;
+        String description;
+        switch (event.getEventType()) {
+            case "EXPENSE_CREATED" -> {
+                type = ActivityType.EXPENSE_ADDED;
+                description = String.format("%s added expense '%s' for %s (paid by %s)",
+                        actor, event.getDescription(), money(event.getCurrency(), event.getAmount()), event.getPaidByUserId());
+            }
+            case "EXPENSE_UPDATED" -> {
+                type = ActivityType.EXPENSE_UPDATED;
+                description = String.format("%s updated expense '%s' to %s",
+                        actor, event.getDescription(), money(event.getCurrency(), event.getAmount()));
+            }
+            case "EXPENSE_DELETED" -> {
+                type = ActivityType.EXPENSE_DELETED;
+                description = String.format("%s deleted expense '%s'", actor, event.getDescription());
+            }
+            case "EXPENSES_IMPORTED" -> {
+                type = ActivityType.EXPENSE_ADDED;
+                description = String.format("%s imported %d expenses totalling %s",
+                        actor, event.getExpenseCount(), money(event.getCurrency(), event.getAmount()));
+            }
+            default -> {
+                return null;
+            }
+        }
+
+        return CreateActivityRequest.builder()
+                .activityType(type)
+                .userId(actor)
+                .groupId(event.getGroupId())
+                .targetUserId(actor.equals(event.getPaidByUserId()) ? null : event.getPaidByUserId())
+                .description(description)
+                .metadata(event.getExpenseId() != null
+                        ? String.format("{\"expenseId\":%d,\"amount\":%s,\"category\":\"%s\"}",
+                        event.getExpenseId(), event.getAmount(), event.getCategory() != null ? event.getCategory() : "OTHER")
+                        : String.format("{\"expenseCount\":%d,\"amount\":%s}", event.getExpenseCount(), event.getAmount()))
+                .build();
+    }
+
+    private CreateActivityRequest toActivity(GroupEvent event) {
+        if (event.getGroupId() == null || event.getUserId() == null) {
+            return null;
+        }
+
+        ActivityType type;
+        String description;
+        switch (event.getEventType()) {
+            case "GROUP_CREATED" -> {
+                type = ActivityType.GROUP_CREATED;
+                description = "Created group '" + event.getGroupName() + "'";
+            }
+            case "GROUP_UPDATED" -> {
+                type = ActivityType.GROUP_UPDATED;
+                description = "Updated group '" + event.getGroupName() + "'";
+            }
+            case "MEMBER_ADDED" -> {
+                type = ActivityType.MEMBER_ADDED;
+                description = null; // Built from the names by ActivityService
+            }
+            case "MEMBER_REMOVED" -> {
+                type = ActivityType.MEMBER_REMOVED;
+                description = null;
+            }
+            default -> {
+                return null;
+            }
+        }
+
+        return CreateActivityRequest.builder()
+                .activityType(type)
+                .userId(event.getUserId())
+                .groupId(event.getGroupId())
+                .targetUserId(event.getTargetUserId())
+                .description(description)
+                .metadata("{\"groupName\": \"" + event.getGroupName() + "\"}")
+                .build();
+    }
+
+    private CreateActivityRequest toActivity(SettlementEvent event) {
+        if (event.getGroupId() == null || event.getPayerUserId() == null || event.getPayeeUserId() == null) {
+            return null;
+        }
+
+        String money = money(event.getCurrency(), event.getAmount());
+        return switch (event.getEventType()) {
+            case "SETTLEMENT_CREATED" -> CreateActivityRequest.builder()
+                    .activityType(ActivityType.SETTLEMENT_RECORDED)
+                    .userId(event.getPayerUserId())
+                    .targetUserId(event.getPayeeUserId())
+                    .groupId(event.getGroupId())
+                    .description(String.format("%s paid %s %s", event.getPayerUserId(), event.getPayeeUserId(), money))
+                    .metadata(String.format("{\"settlementId\": %d, \"amount\": %s, \"currency\": \"%s\", \"paymentMethod\": \"%s\"}",
+                            event.getSettlementId(), event.getAmount(), event.getCurrency(),
+                            event.getPaymentMethod() != null ? event.getPaymentMethod() : "N/A"))
+                    .build();
+            case "SETTLEMENT_COMPLETED" -> CreateActivityRequest.builder()
+                    .activityType(ActivityType.PAYMENT_COMPLETED)
+                    .userId(event.getPayeeUserId())
+                    .targetUserId(event.getPayerUserId())
+                    .groupId(event.getGroupId())
+                    .description(String.format("%s confirmed the payment of %s from %s",
+                            event.getPayeeUserId(), money, event.getPayerUserId()))
+                    .metadata(String.format("{\"settlementId\": %d, \"amount\": %s, \"currency\": \"%s\"}",
+                            event.getSettlementId(), event.getAmount(), event.getCurrency()))
+                    .build();
+            default -> null;
+        };
+    }
+
+    private static String money(String currency, BigDecimal amount) {
+        return (currency != null ? currency : "USD") + " " + amount;
+    }
+}
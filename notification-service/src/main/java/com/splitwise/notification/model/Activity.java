@@ -20,8 +20,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Activity {
 
+    // Pooled sequence IDs so batches of activities from events are inserted with JDBC batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_id_seq")
+    @SequenceGenerator(name = "activity_id_seq", sequenceName = "activities_id_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -56,4 +58,7 @@ public class Activity {
 
     @Column
     private String targetUserName; // Name of user affected by the action
+
+    @Column(unique = true, length = 100)
+    private String eventKey; // topic-partition@offset of the Kafka event this was logged from
 }
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -32,4 +33,8 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
 
     // Count activities for a group
     long countByGroupId(Long groupId);
+
+    // Event keys among the given ones that were already logged
+    @Query("SELECT a.eventKey FROM Activity a WHERE a.eventKey IN :eventKeys")
+    List<String> findExistingEventKeys(@Param("eventKeys") Collection<String> eventKeys);
 }
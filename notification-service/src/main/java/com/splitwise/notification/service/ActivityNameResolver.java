@@ -0,0 +1,175 @@
+package com.splitwise.notification.service;
+
+import com.splitwise.notification.dto.CreateActivityRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Display names for activities. Names are cached, so a batch of events costs at most one
+ * lookup per user or group not seen before; group names carried by group events are
+ * remembered without any lookup. A user or group the other service does not know is named
+ * "Unknown" (and asked about again next time); a service that cannot be reached fails the lookup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityNameResolver {
+
+    static final String UNKNOWN_USER = "Unknown User";
+    static final String UNKNOWN_GROUP = "Unknown Group";
+
+    private static final int MAX_CACHED_NAMES = 10_000;
+
+    private final RestTemplate restTemplate;
+
+    private final Map<String, String> userNames = new ConcurrentHashMap<>();
+    private final Map<Long, String> groupNames = new ConcurrentHashMap<>();
+
+    /**
+     * Names of the users and groups some activities refer to, one lookup per ID not cached yet.
+     * Called before the activities' transaction is opened, so no REST call holds it open.
+     *
+     * @throws RestClientException if user-service or group-service could not be reached
+     */
+    public Names resolve(List<CreateActivityRequest> requests) {
+        Map<String, String> users = new HashMap<>();
+        Map<Long, String> groups = new HashMap<>();
+        for (CreateActivityRequest request : requests) {
+            users.computeIfAbsent(request.getUserId(), this::userName);
+            if (request.getTargetUserId() != null) {
+                users.computeIfAbsent(request.getTargetUserId(), this::userName);
+            }
+            groups.computeIfAbsent(request.getGroupId(), groupId -> groupName(groupId, request.getUserId()));
+        }
+        return new Names(users, groups);
+    }
+
+    public void rememberGroup(Long groupId, String groupName) {
+        if (groupId != null && groupName != null) {
+            remember(groupNames, groupId, groupName);
+        }
+    }
+
+    private String userName(String userId) {
+        String cached = userNames.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        String name = fetchUserName(userId);
+        if (!UNKNOWN_USER.equals(name)) {
+            remember(userNames, userId, name);
+        }
+        return name;
+    }
+
+    /**
+     * Name of a group, looked up on behalf of a member (group-service only answers members)
+     */
+    private String groupName(Long groupId, String memberUserId) {
+        String cached = groupNames.get(groupId);
+        if (cached != null) {
+            return cached;
+        }
+        String name = fetchGroupName(groupId, memberUserId);
+        if (!UNKNOWN_GROUP.equals(name)) {
+            remember(groupNames, groupId, name);
+        }
+        return name;
+    }
+
+    /**
+     * Names rarely change and a stale one only affects display, so the cache is simply
+     * reset when it grows past its bound
+     */
+    private static <K> void remember(Map<K, String> cache, K key, String name) {
+        if (cache.size() >= MAX_CACHED_NAMES) {
+            cache.clear();
+        }
+        cache.put(key, name);
+    }
+
+    /**
+     * Fetch user name from user-service
+     */
+    private String fetchUserName(String userId) {
+        try {
+            String url = "http://user-service:8081/api/users/" + userId;
+            log.debug("Fetching user name from: {}", url);
+
+            @SuppressWarnings("unchecked")
+            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+
+            if (response != null && response.containsKey("name")) {
+                return (String) response.get("name");
+            }
+
+            log.warn("User name not found for userId: {}", userId);
+            return UNKNOWN_USER;
+        } catch (HttpClientErrorException e) {
+            log.warn("User-service refused the name of userId {}: {}", userId, e.getStatusCode());
+            return UNKNOWN_USER;
+        }
+    }
+
+    /**
+     * Fetch group name from group-service
+     */
+    private String fetchGroupName(Long groupId, String userId) {
+        try {
+            String url = "http://group-service:8082/api/groups/" + groupId;
+            log.debug("Fetching group name from: {}", url);
+
+            // Group service requires X-User-Id header
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("X-User-Id", userId);
+
+            @SuppressWarnings("unchecked")
+            ResponseEntity<Map<String, Object>> responseEntity = restTemplate.exchange(url,
+                    HttpMethod.GET, new HttpEntity<>(headers),
+                    (Class<Map<String, Object>>) (Class<?>) Map.class);
+
+            Map<String, Object> response = responseEntity.getBody();
+
+            if (response != null && response.containsKey("data")) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> data = (Map<String, Object>) response.get("data");
+                if (data != null && data.containsKey("name")) {
+                    return (String) data.get("name");
+                }
+            }
+
+            log.warn("Group name not found for groupId: {}", groupId);
+            return UNKNOWN_GROUP;
+        } catch (HttpClientErrorException e) {
+            log.warn("Group-service refused the name of groupId {}: {}", groupId, e.getStatusCode());
+            return UNKNOWN_GROUP;
+        }
+    }
+
+    /**
+     * Names resolved for a set of activities, by user ID and by group ID
+     */
+    public record Names(Map<String, String> users, Map<Long, String> groups) {
+
+        public String user(String userId) {
+            return users.get(userId);
+        }
+
+        public String group(Long groupId) {
+            return groups.get(groupId);
+        }
+    }
+}
@@ -11,11 +11,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,41 +26,64 @@ import java.util.stream.Collectors;
 public class ActivityService {
 
     private final ActivityRepository activityRepository;
-    private final RestTemplate restTemplate;
+    private final ActivityNameResolver nameResolver;
+    private final TransactionTemplate transactionTemplate;
 
     /**
-     * Log a new activity
+     * An activity derived from a Kafka event; the key identifies the record so redelivered events are skipped
+     */
+    public record EventActivity(String eventKey, CreateActivityRequest request, LocalDateTime timestamp) {
+    }
+
+    /**
+     * Log a new activity. Names are looked up before the insert's transaction is opened.
      */
-    @Transactional
     public ActivityResponse logActivity(CreateActivityRequest request) {
         log.info("Logging activity: {} for group: {} by user: {}",
                 request.getActivityType(), request.getGroupId(), request.getUserId());
 
-        // Fetch user name and group name
-        String userName = getUserName(request.getUserId());
-        String groupName = getGroupName(request.getGroupId(), request.getUserId());
-        String targetUserName = request.getTargetUserId() != null ? getUserName(request.getTargetUserId()) : null;
+        ActivityNameResolver.Names names = nameResolver.resolve(List.of(request));
+        Activity activity = activityRepository.save(toActivity(request, LocalDateTime.now(), names));
+        log.info("Activity logged with ID: {}", activity.getId());
 
-        // Build description with user names instead of IDs
-        String description = buildDescription(request, userName, targetUserName);
+        return toResponse(activity);
+    }
 
-        Activity activity = Activity.builder()
-                .activityType(request.getActivityType())
-                .userId(request.getUserId())
-                .userName(userName)
-                .groupId(request.getGroupId())
-                .groupName(groupName)
-                .description(description)
-                .metadata(request.getMetadata())
-                .targetUserId(request.getTargetUserId())
-                .targetUserName(targetUserName)
-                .timestamp(LocalDateTime.now())
-                .build();
+    /**
+     * Log the activities of a batch of events in one transaction with batched inserts.
+     * The names of the batch's users and groups are looked up first, outside the transaction;
+     * if a service cannot be reached the batch fails as a whole and is redelivered.
+     * Events already logged (same key) are skipped, so a redelivered batch is harmless.
+     */
+    public int logEventActivities(List<EventActivity> eventActivities) {
+        if (eventActivities.isEmpty()) {
+            return 0;
+        }
 
-        activity = activityRepository.save(activity);
-        log.info("Activity logged with ID: {}", activity.getId());
+        ActivityNameResolver.Names names = nameResolver.resolve(
+                eventActivities.stream().map(EventActivity::request).toList());
+        Integer logged = transactionTemplate.execute(status -> insertEventActivities(eventActivities, names));
+        return logged != null ? logged : 0;
+    }
 
-        return toResponse(activity);
+    private int insertEventActivities(List<EventActivity> eventActivities, ActivityNameResolver.Names names) {
+        Set<String> seen = new HashSet<>(activityRepository.findExistingEventKeys(
+                eventActivities.stream().map(EventActivity::eventKey).toList()));
+
+        List<Activity> activities = new ArrayList<>(eventActivities.size());
+        for (EventActivity eventActivity : eventActivities) {
+            if (!seen.add(eventActivity.eventKey())) {
+                continue;
+            }
+            LocalDateTime timestamp = eventActivity.timestamp() != null ? eventActivity.timestamp() : LocalDateTime.now();
+            Activity activity = toActivity(eventActivity.request(), timestamp, names);
+            activity.setEventKey(eventActivity.eventKey());
+            activities.add(activity);
+        }
+
+        activityRepository.saveAll(activities);
+        log.debug("Logged {} activities from {} events", activities.size(), eventActivities.size());
+        return activities.size();
     }
 
     /**
@@ -126,6 +151,29 @@ public class ActivityService {
         return activityRepository.countByGroupId(groupId);
     }
 
+    /**
+     * Build the entity with user and group names in place of IDs
+     */
+    private static Activity toActivity(CreateActivityRequest request, LocalDateTime timestamp,
+                                       ActivityNameResolver.Names names) {
+        String userName = names.user(request.getUserId());
+        String groupName = names.group(request.getGroupId());
+        String targetUserName = request.getTargetUserId() != null ? names.user(request.getTargetUserId()) : null;
+
+        return Activity.builder()
+                .activityType(request.getActivityType())
+                .userId(request.getUserId())
+                .userName(userName)
+                .groupId(request.getGroupId())
+                .groupName(groupName)
+                .description(buildDescription(request, userName, targetUserName))
+                .metadata(request.getMetadata())
+                .targetUserId(request.getTargetUserId())
+                .targetUserName(targetUserName)
+                .timestamp(timestamp)
+                .build();
+    }
+
     /**
      * Convert Activity entity to Response DTO
      */
@@ -145,70 +193,10 @@ public class ActivityService {
                 .build();
     }
 
-    /**
-     * Fetch user name from user-service
-     */
-    private String getUserName(String userId) {
-        try {
-            String url = "http://user-service:8081/api/users/" + userId;
-            log.debug("Fetching user name from: {}", url);
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
-            if (response != null && response.containsKey("name")) {
-                return (String) response.get("name");
-            }
-
-            log.warn("User name not found for userId: {}", userId);
-            return "Unknown User";
-        } catch (Exception e) {
-            log.error("Failed to fetch user name for userId: {}", userId, e);
-            return "Unknown User";
-        }
-    }
-
-    /**
-     * Fetch group name from group-service
-     */
-    private String getGroupName(Long groupId, String userId) {
-        try {
-            String url = "http://group-service:8082/api/groups/" + groupId;
-            log.debug("Fetching group name from: {}", url);
-
-            // Group service requires X-User-Id header
-            org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-            headers.set("X-User-Id", userId);
-
-            org.springframework.http.HttpEntity<?> entity = new org.springframework.http.HttpEntity<>(headers);
-
-            @SuppressWarnings("unchecked")
-            org.springframework.http.ResponseEntity<Map<String, Object>> responseEntity = restTemplate.exchange(url,
-                    org.springframework.http.HttpMethod.GET, entity,
-                    (Class<Map<String, Object>>) (Class<?>) Map.class);
-
-            Map<String, Object> response = responseEntity.getBody();
-
-            if (response != null && response.containsKey("data")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> data = (Map<String, Object>) response.get("data");
-                if (data != null && data.containsKey("name")) {
-                    return (String) data.get("name");
-                }
-            }
-
-            log.warn("Group name not found for groupId: {}", groupId);
-            return "Unknown Group";
-        } catch (Exception e) {
-            log.error("Failed to fetch group name for groupId: {}", groupId, e);
-            return "Unknown Group";
-        }
-    }
-
     /**
      * Build human-readable description using user names
      */
-    private String buildDescription(CreateActivityRequest request, String userName, String targetUserName) {
+    private static String buildDescription(CreateActivityRequest request, String userName, String targetUserName) {
         // If description is provided in request, use it
         if (request.getDescription() != null && !request.getDescription().isEmpty()) {
             // Replace user IDs with names if present
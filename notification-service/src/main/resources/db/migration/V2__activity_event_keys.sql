@@ -0,0 +1,7 @@
+-- Activities are now logged from Kafka events; the event's topic-partition@offset
+-- makes redelivered events idempotent
+ALTER TABLE activities ADD COLUMN IF NOT EXISTS event_key VARCHAR(100);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_activities_event_key ON activities(event_key);
+
+-- Match the pooled allocation of the Activity ID generator (allocationSize = 50)
+ALTER SEQUENCE activities_id_seq INCREMENT BY 50;
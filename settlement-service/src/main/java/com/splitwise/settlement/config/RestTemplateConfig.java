@@ -1,22 +1,45 @@
 package com.splitwise.settlement.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
-
 @Configuration
 @Profile("!test")
 public class RestTemplateConfig {
 
+    /**
+     * Pooled HttpClient with the connect and read timeouts set on its connections. HttpClient's
+     * default pool of 5 connections per downstream instance would cap outbound calls far below
+     * the request concurrency, on virtual threads in particular.
+     */
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     @Value("${rest-client.max-connections:500}") int maxConnections) {
         return builder
-                .setConnectTimeout(Duration.ofSeconds(3))
-                .setReadTimeout(Duration.ofSeconds(5))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                        .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                                .setMaxConnTotal(maxConnections)
+                                .setMaxConnPerRoute(maxConnections)
+                                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                        .setConnectTimeout(Timeout.ofSeconds(3))
+                                        .setSocketTimeout(Timeout.ofSeconds(5))
+                                        .build())
+                                .build())
+                        // Fail fast rather than queue for HttpClient's default of 3 minutes
+                        .setDefaultRequestConfig(RequestConfig.custom()
+                                .setConnectionRequestTimeout(Timeout.ofSeconds(3))
+                                .build())
+                        .build()))
                 .build();
     }
 }
@@ -0,0 +1,187 @@
+package com.splitwise.settlement.service;
+
+import com.splitwise.settlement.dto.SettlementSuggestion;
+import com.splitwise.settlement.dto.UserBalance;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Debt Simplification Algorithm (Greedy Approach)
+ *
+ * Algorithm:
+ * 1. Separate users into creditors (positive balance) and debtors (negative
+ * balance)
+ * 2. Sort creditors in descending order, debtors in descending order of what they owe
+ * 3. Match the largest debtor with the largest creditor
+ * 4. Create a transaction for the minimum of the two amounts
+ * 5. Adjust balances and repeat until all debts are settled
+ *
+ * Time Complexity: O(n log n) due to sorting
+ * This approach minimizes the number of transactions to O(n-1) at most
+ *
+ * Balances are converted once to long minor units at a common scale and the matching loop
+ * runs on primitives; BigDecimal is only created for the suggested amounts.
+ */
+final class DebtSimplifier {
+
+    private static final int AMOUNT_SCALE = 2;
+    private static final int MAX_LONG_SCALE = 18;
+
+    private DebtSimplifier() {
+    }
+
+    static List<SettlementSuggestion> simplify(Map<String, BigDecimal> balances) {
+        int scale = AMOUNT_SCALE;
+        for (BigDecimal balance : balances.values()) {
+            scale = Math.max(scale, balance.scale());
+        }
+
+        int size = balances.size();
+        String[] creditorIds = new String[size];
+        long[] credits = new long[size];
+        String[] debtorIds = new String[size];
+        long[] debts = new long[size];
+        int creditorCount = 0;
+        int debtorCount = 0;
+
+        try {
+            if (scale > MAX_LONG_SCALE) {
+                throw new ArithmeticException("Scale " + scale + " does not fit in a long");
+            }
+            for (Map.Entry<String, BigDecimal> entry : balances.entrySet()) {
+                long minor = entry.getValue().setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+                if (minor > 0) {
+                    creditorIds[creditorCount] = entry.getKey();
+                    credits[creditorCount++] = minor;
+                } else if (minor < 0) {
+                    debtorIds[debtorCount] = entry.getKey();
+                    debts[debtorCount++] = Math.negateExact(minor);
+                }
+            }
+        } catch (ArithmeticException outOfRange) {
+            return simplifyDecimal(balances);
+        }
+
+        // Sort creditors (descending) and debtors (descending); stable, like List.sort
+        int[] creditorOrder = sortDescending(credits, creditorCount);
+        int[] debtorOrder = sortDescending(debts, debtorCount);
+
+        List<SettlementSuggestion> suggestions = new ArrayList<>();
+        int i = 0, j = 0;
+        while (i < creditorCount && j < debtorCount) {
+            int creditor = creditorOrder[i];
+            int debtor = debtorOrder[j];
+
+            // Amount to settle is minimum of what creditor is owed and what debtor owes
+            long settlementAmount = Math.min(credits[creditor], debts[debtor]);
+
+            suggestions.add(SettlementSuggestion.builder()
+                    .payerId(debtorIds[debtor])
+                    .payeeId(creditorIds[creditor])
+                    .amount(BigDecimal.valueOf(settlementAmount, scale).setScale(AMOUNT_SCALE, RoundingMode.HALF_UP))
+                    .currency("USD")
+                    .build());
+
+            // Update balances and move on when one side is settled
+            credits[creditor] -= settlementAmount;
+            debts[debtor] -= settlementAmount;
+            if (credits[creditor] == 0) {
+                i++;
+            }
+            if (debts[debtor] == 0) {
+                j++;
+            }
+        }
+
+        return suggestions;
+    }
+
+    /**
+     * Indices 0..count-1 ordered by descending value; equal values keep their original order
+     */
+    static int[] sortDescending(long[] values, int count) {
+        int[] order = new int[count];
+        for (int k = 0; k < count; k++) {
+            order[k] = k;
+        }
+        mergeSort(order, new int[count], 0, count, values);
+        return order;
+    }
+
+    private static void mergeSort(int[] order, int[] buffer, int from, int to, long[] values) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(order, buffer, from, mid, values);
+        mergeSort(order, buffer, mid, to, values);
+
+        int left = from, right = mid, out = from;
+        while (left < mid && right < to) {
+            // Take from the left half on ties to keep the sort stable
+            buffer[out++] = values[order[right]] > values[order[left]] ? order[right++] : order[left++];
+        }
+        while (left < mid) {
+            buffer[out++] = order[left++];
+        }
+        while (right < to) {
+            buffer[out++] = order[right++];
+        }
+        System.arraycopy(buffer, from, order, from, to - from);
+    }
+
+    /**
+     * BigDecimal implementation of the same algorithm. Used for balances that do not fit in
+     * long minor units, and as the reference the fixed-point path is tested against.
+     */
+    static List<SettlementSuggestion> simplifyDecimal(Map<String, BigDecimal> balances) {
+        List<SettlementSuggestion> suggestions = new ArrayList<>();
+
+        // Separate creditors (owed money) and debtors (owe money)
+        List<UserBalance> creditors = new ArrayList<>();
+        List<UserBalance> debtors = new ArrayList<>();
+
+        for (Map.Entry<String, BigDecimal> entry : balances.entrySet()) {
+            BigDecimal balance = entry.getValue();
+            if (balance.compareTo(BigDecimal.ZERO) > 0) {
+                creditors.add(new UserBalance(entry.getKey(), balance, null));
+            } else if (balance.compareTo(BigDecimal.ZERO) < 0) {
+                debtors.add(new UserBalance(entry.getKey(), balance.abs(), null));
+            }
+        }
+
+        creditors.sort((a, b) -> b.getNetBalance().compareTo(a.getNetBalance()));
+        debtors.sort((a, b) -> b.getNetBalance().compareTo(a.getNetBalance()));
+
+        int i = 0, j = 0;
+        while (i < creditors.size() && j < debtors.size()) {
+            UserBalance creditor = creditors.get(i);
+            UserBalance debtor = debtors.get(j);
+
+            BigDecimal settlementAmount = creditor.getNetBalance().min(debtor.getNetBalance());
+
+            suggestions.add(SettlementSuggestion.builder()
+                    .payerId(debtor.getUserId())
+                    .payeeId(creditor.getUserId())
+                    .amount(settlementAmount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP))
+                    .currency("USD")
+                    .build());
+
+            creditor.setNetBalance(creditor.getNetBalance().subtract(settlementAmount));
+            debtor.setNetBalance(debtor.getNetBalance().subtract(settlementAmount));
+
+            if (creditor.getNetBalance().compareTo(BigDecimal.ZERO) == 0) {
+                i++;
+            }
+            if (debtor.getNetBalance().compareTo(BigDecimal.ZERO) == 0) {
+                j++;
+            }
+        }
+
+        return suggestions;
+    }
+}
@@ -1,11 +1,9 @@
 package com.splitwise.settlement.service;
 
-import com.splitwise.settlement.client.ActivityClient;
-import com.splitwise.settlement.client.ActivityRequest;
+import com.splitwise.events.SettlementEvent;
 import com.splitwise.settlement.client.EmailNotificationClient;
 import com.splitwise.settlement.client.PaymentReceivedEmailRequest;
 import com.splitwise.settlement.client.PaymentReminderEmailRequest;
-import com.splitwise.settlement.event.SettlementEvent;
 import com.splitwise.settlement.event.SettlementEventProducer;
 import com.splitwise.settlement.dto.*;
 import com.splitwise.settlement.entity.Settlement;
@@ -29,7 +27,6 @@ public class SettlementService {
 
     private final SettlementRepository settlementRepository;
     private final WebClient.Builder webClientBuilder;
-    private final ActivityClient activityClient;
     private final EmailNotificationClient emailNotificationClient;
     private final SettlementEventProducer settlementEventProducer;
 
@@ -102,6 +99,7 @@ public class SettlementService {
     /**
      * Get all settlements between current user and a friend
      */
+    @Transactional(readOnly = true)
     public List<SettlementResponse> getFriendSettlements(String currentUserId, String friendId) {
         List<Settlement> settlements = settlementRepository.findBetweenUsers(currentUserId, friendId);
         return settlements.stream()
@@ -137,71 +135,10 @@ public class SettlementService {
     }
 
     /**
-     * Debt Simplification Algorithm (Greedy Approach)
-     * 
-     * Algorithm:
-     * 1. Separate users into creditors (positive balance) and debtors (negative
-     * balance)
-     * 2. Sort creditors in descending order, debtors in ascending order
-     * 3. Match the largest debtor with the largest creditor
-     * 4. Create a transaction for the minimum of the two amounts
-     * 5. Adjust balances and repeat until all debts are settled
-     * 
-     * Time Complexity: O(n log n) due to sorting
-     * This approach minimizes the number of transactions to O(n-1) at most
+     * Minimize the transactions needed to settle a group (see {@link DebtSimplifier})
      */
     private List<SettlementSuggestion> simplifyDebts(Map<String, BigDecimal> balances) {
-        List<SettlementSuggestion> suggestions = new ArrayList<>();
-
-        // Separate creditors (owed money) and debtors (owe money)
-        List<UserBalance> creditors = new ArrayList<>();
-        List<UserBalance> debtors = new ArrayList<>();
-
-        for (Map.Entry<String, BigDecimal> entry : balances.entrySet()) {
-            BigDecimal balance = entry.getValue();
-            if (balance.compareTo(BigDecimal.ZERO) > 0) {
-                creditors.add(new UserBalance(entry.getKey(), balance, null));
-            } else if (balance.compareTo(BigDecimal.ZERO) < 0) {
-                debtors.add(new UserBalance(entry.getKey(), balance.abs(), null));
-            }
-        }
-
-        // Sort creditors (descending) and debtors (descending)
-        creditors.sort((a, b) -> b.getNetBalance().compareTo(a.getNetBalance()));
-        debtors.sort((a, b) -> b.getNetBalance().compareTo(a.getNetBalance()));
-
-        // Match creditors with debtors
-        int i = 0, j = 0;
-        while (i < creditors.size() && j < debtors.size()) {
-            UserBalance creditor = creditors.get(i);
-            UserBalance debtor = debtors.get(j);
-
-            // Amount to settle is minimum of what creditor is owed and what debtor owes
-            BigDecimal settlementAmount = creditor.getNetBalance().min(debtor.getNetBalance());
-
-            // Create settlement suggestion
-            SettlementSuggestion suggestion = SettlementSuggestion.builder()
-                    .payerId(debtor.getUserId())
-                    .payeeId(creditor.getUserId())
-                    .amount(settlementAmount.setScale(2, RoundingMode.HALF_UP))
-                    .currency("USD")
-                    .build();
-
-            suggestions.add(suggestion);
-
-            // Update balances
-            creditor.setNetBalance(creditor.getNetBalance().subtract(settlementAmount));
-            debtor.setNetBalance(debtor.getNetBalance().subtract(settlementAmount));
-
-            // Move to next if balance is settled
-            if (creditor.getNetBalance().compareTo(BigDecimal.ZERO) == 0) {
-                i++;
-            }
-            if (debtor.getNetBalance().compareTo(BigDecimal.ZERO) == 0) {
-                j++;
-            }
-        }
-
+        List<SettlementSuggestion> suggestions = DebtSimplifier.simplify(balances);
         log.info("Generated {} settlement suggestions for group {}", suggestions.size(), balances.size());
         return suggestions;
     }
@@ -330,16 +267,15 @@ public class SettlementService {
 
         log.info("Settlement recorded with ID: {}", settlement.getId());
 
-        // Log activity
-        logPaymentRecordedActivity(settlement);
-
-        // Publish Kafka event
+        // Publish Kafka event (also feeds the activity log)
         settlementEventProducer.publishSettlementEvent(SettlementEvent.builder()
                 .eventType("SETTLEMENT_CREATED")
                 .settlementId(settlement.getId())
                 .payerUserId(settlement.getPayerId())
                 .payeeUserId(settlement.getPayeeId())
                 .amount(settlement.getAmount())
+                .currency(settlement.getCurrency())
+                .paymentMethod(settlement.getPaymentMethod())
                 .groupId(settlement.getGroupId())
                 .timestamp(LocalDateTime.now())
                 .build());
@@ -353,6 +289,7 @@ public class SettlementService {
     /**
      * Get all settlements for a group
      */
+    @Transactional(readOnly = true)
     public List<SettlementResponse> getGroupSettlements(Long groupId) {
         List<Settlement> settlements = settlementRepository.findByGroupId(groupId);
         return settlements.stream()
@@ -363,6 +300,7 @@ public class SettlementService {
     /**
      * Get settlements for current user
      */
+    @Transactional(readOnly = true)
     public List<SettlementResponse> getUserSettlements(String userId) {
         List<Settlement> paidSettlements = settlementRepository.findByPayerId(userId);
         List<Settlement> receivedSettlements = settlementRepository.findByPayeeId(userId);
@@ -395,16 +333,15 @@ public class SettlementService {
 
         settlement = settlementRepository.save(settlement);
 
-        // Log activity
-        logSettlementCompletedActivity(settlement);
-
-        // Publish Kafka event
+        // Publish Kafka event (also feeds the activity log)
         settlementEventProducer.publishSettlementEvent(SettlementEvent.builder()
                 .eventType("SETTLEMENT_COMPLETED")
                 .settlementId(settlement.getId())
                 .payerUserId(settlement.getPayerId())
                 .payeeUserId(settlement.getPayeeId())
                 .amount(settlement.getAmount())
+                .currency(settlement.getCurrency())
+                .paymentMethod(settlement.getPaymentMethod())
                 .groupId(settlement.getGroupId())
                 .timestamp(LocalDateTime.now())
                 .build());
@@ -432,53 +369,6 @@ public class SettlementService {
                 .build();
     }
 
-    // Activity Logging Helper Methods
-
-    private void logPaymentRecordedActivity(Settlement settlement) {
-        try {
-            String description = String.format("Recorded payment of $%.2f from user to user in group",
-                    settlement.getAmount());
-            String metadata = String.format("{\"amount\": %.2f, \"currency\": \"%s\", \"paymentMethod\": \"%s\"}",
-                    settlement.getAmount(), settlement.getCurrency(),
-                    settlement.getPaymentMethod() != null ? settlement.getPaymentMethod() : "N/A");
-
-            ActivityRequest activityRequest = ActivityRequest.builder()
-                    .activityType("PAYMENT_RECORDED")
-                    .userId(settlement.getPayerId())
-                    .groupId(settlement.getGroupId())
-                    .targetUserId(settlement.getPayeeId())
-                    .description(description)
-                    .metadata(metadata)
-                    .build();
-
-            activityClient.logActivity(activityRequest);
-        } catch (Exception e) {
-            log.error("Failed to log PAYMENT_RECORDED activity: {}", e.getMessage());
-        }
-    }
-
-    private void logSettlementCompletedActivity(Settlement settlement) {
-        try {
-            String description = String.format("Settlement of $%.2f completed and confirmed",
-                    settlement.getAmount());
-            String metadata = String.format("{\"amount\": %.2f, \"currency\": \"%s\", \"settlementId\": %d}",
-                    settlement.getAmount(), settlement.getCurrency(), settlement.getId());
-
-            ActivityRequest activityRequest = ActivityRequest.builder()
-                    .activityType("SETTLEMENT_COMPLETED")
-                    .userId(settlement.getPayeeId())
-                    .groupId(settlement.getGroupId())
-                    .targetUserId(settlement.getPayerId())
-                    .description(description)
-                    .metadata(metadata)
-                    .build();
-
-            activityClient.logActivity(activityRequest);
-        } catch (Exception e) {
-            log.error("Failed to log SETTLEMENT_COMPLETED activity: {}", e.getMessage());
-        }
-    }
-
     /**
      * Send payment received email notification
      */
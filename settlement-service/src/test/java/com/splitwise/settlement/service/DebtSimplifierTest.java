@@ -0,0 +1,84 @@
+package com.splitwise.settlement.service;
+
+import com.splitwise.settlement.dto.SettlementSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Property-style checks that the fixed-point simplifier suggests exactly the same payments,
+ * in the same order, as the BigDecimal implementation.
+ */
+class DebtSimplifierTest {
+
+    @Test
+    void simplify_MatchesDecimalImplementationForRandomGroups() {
+        Random random = new Random(2024);
+        for (int run = 0; run < 3_000; run++) {
+            Map<String, BigDecimal> balances = randomBalances(random, 1 + random.nextInt(40));
+
+            List<SettlementSuggestion> expected = DebtSimplifier.simplifyDecimal(balances);
+            List<SettlementSuggestion> actual = DebtSimplifier.simplify(balances);
+
+            assertEquals(expected, actual, balances::toString);
+        }
+    }
+
+    @Test
+    void simplify_HandlesBalancesBeyondLongRange() {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        balances.put("alice", new BigDecimal("10.0000000000000000001"));
+        balances.put("bob", new BigDecimal("-10.0000000000000000001"));
+
+        assertEquals(DebtSimplifier.simplifyDecimal(balances), DebtSimplifier.simplify(balances));
+    }
+
+    @Test
+    void simplify_MatchesLargestDebtorWithLargestCreditor() {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        balances.put("alice", new BigDecimal("60.00"));
+        balances.put("bob", new BigDecimal("-40.00"));
+        balances.put("carol", new BigDecimal("-20.00"));
+
+        List<SettlementSuggestion> suggestions = DebtSimplifier.simplify(balances);
+
+        assertEquals(2, suggestions.size());
+        assertEquals("bob", suggestions.get(0).getPayerId());
+        assertEquals("alice", suggestions.get(0).getPayeeId());
+        assertEquals(new BigDecimal("40.00"), suggestions.get(0).getAmount());
+        assertEquals("carol", suggestions.get(1).getPayerId());
+        assertEquals(new BigDecimal("20.00"), suggestions.get(1).getAmount());
+    }
+
+    @Test
+    void sortDescending_IsStable() {
+        long[] values = {5, 9, 5, 1, 9};
+
+        assertArrayEquals(new int[]{1, 4, 0, 2, 3}, DebtSimplifier.sortDescending(values, values.length));
+    }
+
+    /**
+     * Balances of a group, mostly summing to zero, with ties and the odd extra fraction digit
+     */
+    private static Map<String, BigDecimal> randomBalances(Random random, int users) {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        long total = 0;
+        for (int i = 0; i < users - 1; i++) {
+            long cents = random.nextInt(3) == 0 ? 500 * (random.nextInt(5) - 2) : random.nextInt(200_000) - 100_000;
+            balances.put("user-" + i, BigDecimal.valueOf(cents, 2));
+            total += cents;
+        }
+        balances.put("user-" + (users - 1), BigDecimal.valueOf(-total, 2));
+
+        if (random.nextInt(10) == 0) {
+            balances.put("odd", new BigDecimal("0.005").multiply(BigDecimal.valueOf(random.nextInt(2000) - 1000)));
+        }
+        return balances;
+    }
+}